@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -39,6 +39,12 @@ import org.eclipse.core.runtime.IStatus;
 public abstract class AbstractOperation implements IUndoableOperation {
 	List<IUndoContext> contexts = new ArrayList<>();
 
+	/*
+	 * the node holding the operation in the undo or redo history of a
+	 * DefaultOperationHistory, which indexes the operation by its contexts
+	 */
+	volatile IndexedOperationList.Node listNode;
+
 	private String label = ""; //$NON-NLS-1$
 
 	/**
@@ -57,6 +63,7 @@ public abstract class AbstractOperation implements IUndoableOperation {
 	public void addContext(IUndoContext context) {
 		if (!contexts.contains(context)) {
 			contexts.add(context);
+			contextsChanged();
 		}
 	}
 
@@ -124,7 +131,20 @@ public abstract class AbstractOperation implements IUndoableOperation {
 
 	@Override
 	public void removeContext(IUndoContext context) {
-		contexts.remove(context);
+		if (contexts.remove(context)) {
+			contextsChanged();
+		}
+	}
+
+	/*
+	 * Notify the history holding the operation, if any, that the contexts of
+	 * the operation have changed.
+	 */
+	void contextsChanged() {
+		IndexedOperationList.Node node = listNode;
+		if (node != null) {
+			node.contextsChanged();
+		}
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,8 +19,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.commands.ExecutionException;
@@ -135,20 +133,20 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	ListenerList<IOperationHistoryListener> listeners = new ListenerList<>(ListenerList.IDENTITY);
 
 	/**
-	 * the list of operations available for redo, LIFO
+	 * a lock that is used to synchronize access between the undo and redo
+	 * history
 	 */
-	private List<IUndoableOperation> redoList = Collections.synchronizedList(new ArrayList<>());
+	final Object undoRedoHistoryLock = new Object();
 
 	/**
-	 * the list of operations available for undo, LIFO
+	 * the list of operations available for redo, LIFO, indexed by context
 	 */
-	private List<IUndoableOperation> undoList = Collections.synchronizedList(new ArrayList<>());
+	private IndexedOperationList redoList = new IndexedOperationList(undoRedoHistoryLock);
 
 	/**
-	 * a lock that is used to synchronize access between the undo and redo
-	 * history
+	 * the list of operations available for undo, LIFO, indexed by context
 	 */
-	final Object undoRedoHistoryLock = new Object();
+	private IndexedOperationList undoList = new IndexedOperationList(undoRedoHistoryLock);
 
 	/**
 	 * An operation that is "absorbing" all other operations while it is open.
@@ -525,27 +523,16 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	/*
 	 * Filter the specified list to include only the specified undo context.
 	 */
-	private IUndoableOperation[] filter(List<IUndoableOperation> list, IUndoContext context) {
+	private IUndoableOperation[] filter(IndexedOperationList list, IUndoContext context) {
 		/*
 		 * This method is used whenever there is a need to filter the undo or
-		 * redo history on a particular context. Currently there are no caches
-		 * kept to optimize repeated requests for the same filter. If benchmarks
-		 * show this to be a common pattern that causes performances problems,
-		 * we could implement a filtered cache here that is nullified whenever
-		 * the global history changes.
+		 * redo history on a particular context. The list is indexed by context,
+		 * so only the operations of the contexts matching the specified one are
+		 * visited.
 		 */
-
-		List<IUndoableOperation> filtered = new ArrayList<>();
 		synchronized (undoRedoHistoryLock) {
-			Iterator<IUndoableOperation> iterator = list.iterator();
-			while (iterator.hasNext()) {
-				IUndoableOperation operation = iterator.next();
-				if (operation.hasContext(context)) {
-					filtered.add(operation);
-				}
-			}
+			return list.filter(context);
 		}
-		return filtered.toArray(new IUndoableOperation[filtered.size()]);
 	}
 
 	/*
@@ -755,14 +742,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getRedoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = redoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = redoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return redoList.getLast(context);
 		}
-		return null;
 	}
 
 	/*
@@ -796,14 +777,8 @@ public final class DefaultOperationHistory implements IOperationHistory {
 	public IUndoableOperation getUndoOperation(IUndoContext context) {
 		Assert.isNotNull(context);
 		synchronized (undoRedoHistoryLock) {
-			for (int i = undoList.size() - 1; i >= 0; i--) {
-				IUndoableOperation operation = undoList.get(i);
-				if (operation.hasContext(context)) {
-					return operation;
-				}
-			}
+			return undoList.getLast(context);
 		}
-		return null;
 	}
 
 	/*
@@ -1051,19 +1026,14 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// check the undo history first.
 		boolean inUndo = false;
 		synchronized (undoRedoHistoryLock) {
-			int index = undoList.indexOf(operation);
-			if (index > -1) {
+			ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
+			for (IUndoableOperation replacement : replacements) {
+				IUndoContext[] opContexts = replacement.getContexts();
+				allContexts.addAll(Arrays.asList(opContexts));
+			}
+			// notify listeners after the lock on the history is released
+			if (undoList.replace(operation, replacements)) {
 				inUndo = true;
-				undoList.remove(operation);
-				// notify listeners after the lock on undoList is released
-				ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
-				for (IUndoableOperation replacement : replacements) {
-					IUndoContext[] opContexts = replacement.getContexts();
-					allContexts.addAll(Arrays.asList(opContexts));
-					undoList.add(index, replacement);
-					// notify listeners after the lock on the history is
-					// released
-				}
 				// recheck all the limits. We do this at the end so the index
 				// doesn't change during replacement
 				for (IUndoContext context : allContexts) {
@@ -1083,18 +1053,14 @@ public final class DefaultOperationHistory implements IOperationHistory {
 		// operation was not in the undo history. Check the redo history.
 
 		synchronized (undoRedoHistoryLock) {
-			int index = redoList.indexOf(operation);
-			if (index == -1) {
-				return;
-			}
 			ArrayList<IUndoContext> allContexts = new ArrayList<>(replacements.length);
-			redoList.remove(operation);
-			// notify listeners after we release the lock on redoList
 			for (IUndoableOperation replacement : replacements) {
 				IUndoContext[] opContexts = replacement.getContexts();
 				allContexts.addAll(Arrays.asList(opContexts));
-				redoList.add(index, replacement);
-				// notify listeners after we release the lock on redoList
+			}
+			// notify listeners after we release the lock on redoList
+			if (!redoList.replace(operation, replacements)) {
+				return;
 			}
 			// recheck all the limits. We do this at the end so the index
 			// doesn't change during replacement
@@ -1231,7 +1197,11 @@ public final class DefaultOperationHistory implements IOperationHistory {
 
 	@Override
 	public void operationChanged(IUndoableOperation operation) {
-		if (undoList.contains(operation) || redoList.contains(operation)) {
+		boolean inHistory;
+		synchronized (undoRedoHistoryLock) {
+			inHistory = undoList.contains(operation) || redoList.contains(operation);
+		}
+		if (inHistory) {
 			notifyChanged(operation);
 		}
 	}
@@ -0,0 +1,580 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.commands.operations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * The undo or redo history of a {@link DefaultOperationHistory}, ordered from
+ * the oldest to the most recently added operation, and indexed by undo
+ * context.
+ * </p>
+ * <p>
+ * Each operation is held by a node of a doubly linked list keeping the order
+ * of the history. Each undo context of the operations also has a doubly linked
+ * list of entries pointing to the nodes of the operations having that context,
+ * in the same order. Finding the operations that have a context only visits
+ * the lists of the contexts matching it, rather than the whole history.
+ * </p>
+ * <p>
+ * The index is kept up to date by {@link AbstractOperation}, which reports the
+ * changes of its contexts to the node holding it. Other operations, and
+ * operations already held by another node, cannot be tracked. They are kept in
+ * a separate list and checked with
+ * {@link IUndoableOperation#hasContext(IUndoContext)} on every query.
+ * </p>
+ * <p>
+ * All access must be synchronized on the lock given at construction.
+ * </p>
+ */
+final class IndexedOperationList {
+
+	/*
+	 * The contexts only matching themselves.
+	 */
+	private static final int IDENTITY_CONTEXT = 0;
+
+	/*
+	 * The object contexts, which may also match their matches and the contexts
+	 * of equal objects.
+	 */
+	private static final int OBJECT_CONTEXT = 1;
+
+	/*
+	 * The contexts with unknown matching rules, checked on every query.
+	 */
+	private static final int OPAQUE_CONTEXT = 2;
+
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+
+	/**
+	 * The node holding an operation in the history.
+	 */
+	static final class Node {
+		final IndexedOperationList list;
+
+		final IUndoableOperation operation;
+
+		Node previous;
+
+		Node next;
+
+		/*
+		 * the position of the node in the history, increasing from the oldest
+		 */
+		long order;
+
+		/*
+		 * the entries of the node in the context lists
+		 */
+		Entry[] entries = NO_ENTRIES;
+
+		/*
+		 * whether the operation reports the changes of its contexts to this node
+		 */
+		boolean tracked;
+
+		/*
+		 * the next node holding an equal operation
+		 */
+		Node duplicate;
+
+		boolean removed;
+
+		Node(IndexedOperationList list, IUndoableOperation operation) {
+			this.list = list;
+			this.operation = operation;
+		}
+
+		/**
+		 * Re-index the operation after a change of its contexts.
+		 */
+		void contextsChanged() {
+			synchronized (list.lock) {
+				if (!removed) {
+					list.unindex(this);
+					list.index(this);
+				}
+			}
+		}
+	}
+
+	/*
+	 * The entry of a node in a context list.
+	 */
+	private static final class Entry {
+		final ContextList list;
+
+		final Node node;
+
+		Entry previous;
+
+		Entry next;
+
+		Entry(ContextList list, Node node) {
+			this.list = list;
+			this.node = node;
+		}
+	}
+
+	/*
+	 * The operations having a context, ordered as in the history.
+	 */
+	private static final class ContextList {
+		final IUndoContext context;
+
+		final int kind;
+
+		Entry first;
+
+		Entry last;
+
+		ContextList(IUndoContext context, int kind) {
+			this.context = context;
+			this.kind = kind;
+		}
+	}
+
+	private final Object lock;
+
+	private final Map<IUndoableOperation, Node> nodes = new HashMap<>();
+
+	private final Map<IUndoContext, ContextList> contextLists = new IdentityHashMap<>();
+
+	private final Map<Object, List<ContextList>> objectContextLists = new HashMap<>();
+
+	private final List<ContextList> opaqueContextLists = new ArrayList<>();
+
+	private final List<ContextList> contextListsWithMatches = new ArrayList<>();
+
+	private int matchesModCount = ObjectUndoContext.getMatchesModCount();
+
+	private final ContextList untracked = new ContextList(null, OPAQUE_CONTEXT);
+
+	private Node first;
+
+	private Node last;
+
+	/**
+	 * Create an empty list.
+	 *
+	 * @param lock
+	 *            the lock synchronizing the access to the list
+	 */
+	IndexedOperationList(Object lock) {
+		this.lock = lock;
+	}
+
+	/**
+	 * Add an operation at the end of the list.
+	 *
+	 * @param operation
+	 *            the operation to add
+	 */
+	void add(IUndoableOperation operation) {
+		Node node = new Node(this, operation);
+		link(node, last);
+		index(node);
+	}
+
+	/**
+	 * Remove the first occurrence of an operation from the list.
+	 *
+	 * @param operation
+	 *            the operation to remove
+	 * @return whether the operation was in the list
+	 */
+	boolean remove(IUndoableOperation operation) {
+		Node node = nodes.get(operation);
+		if (node == null) {
+			return false;
+		}
+		unlink(node);
+		unindex(node);
+		return true;
+	}
+
+	/**
+	 * Replace the first occurrence of an operation with other operations. The
+	 * replacements take the place of the operation in reverse order, the
+	 * first replacement being the most recent.
+	 *
+	 * @param operation
+	 *            the operation to replace
+	 * @param replacements
+	 *            the replacing operations
+	 * @return whether the operation was in the list
+	 */
+	boolean replace(IUndoableOperation operation, IUndoableOperation[] replacements) {
+		Node node = nodes.get(operation);
+		if (node == null) {
+			return false;
+		}
+		Node previous = node.previous;
+		unlink(node);
+		unindex(node);
+		List<Node> added = new ArrayList<>(replacements.length);
+		for (IUndoableOperation replacement : replacements) {
+			Node replacementNode = new Node(this, replacement);
+			link(replacementNode, previous);
+			added.add(replacementNode);
+		}
+		// the context lists are ordered by position, so renumber first
+		long order = 0;
+		for (Node current = first; current != null; current = current.next) {
+			current.order = order++;
+		}
+		for (Node replacementNode : added) {
+			index(replacementNode);
+		}
+		return true;
+	}
+
+	/**
+	 * Return whether the list contains an operation.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return whether the operation is in the list
+	 */
+	boolean contains(IUndoableOperation operation) {
+		return nodes.containsKey(operation);
+	}
+
+	/**
+	 * Return the most recent operation having the specified context, or
+	 * <code>null</code>.
+	 *
+	 * @param context
+	 *            the context
+	 * @return the operation, or <code>null</code>
+	 */
+	IUndoableOperation getLast(IUndoContext context) {
+		Collection<ContextList> lists = getMatchingContextLists(context);
+		if (lists == null) {
+			for (Node node = last; node != null; node = node.previous) {
+				if (node.operation.hasContext(context)) {
+					return node.operation;
+				}
+			}
+			return null;
+		}
+		Node found = null;
+		for (ContextList list : lists) {
+			if (found == null || list.last.node.order > found.order) {
+				found = list.last.node;
+			}
+		}
+		for (Entry entry = untracked.last; entry != null; entry = entry.previous) {
+			if (found != null && entry.node.order < found.order) {
+				break;
+			}
+			if (entry.node.operation.hasContext(context)) {
+				found = entry.node;
+				break;
+			}
+		}
+		return found == null ? null : found.operation;
+	}
+
+	/**
+	 * Return the operations having the specified context, from the oldest.
+	 *
+	 * @param context
+	 *            the context
+	 * @return the operations
+	 */
+	IUndoableOperation[] filter(IUndoContext context) {
+		List<IUndoableOperation> filtered = new ArrayList<>();
+		Collection<ContextList> lists = getMatchingContextLists(context);
+		if (lists == null) {
+			for (Node node = first; node != null; node = node.next) {
+				if (node.operation.hasContext(context)) {
+					filtered.add(node.operation);
+				}
+			}
+			return filtered.toArray(new IUndoableOperation[filtered.size()]);
+		}
+		List<Node> found = new ArrayList<>();
+		for (ContextList list : lists) {
+			for (Entry entry = list.first; entry != null; entry = entry.next) {
+				found.add(entry.node);
+			}
+		}
+		for (Entry entry = untracked.first; entry != null; entry = entry.next) {
+			if (entry.node.operation.hasContext(context)) {
+				found.add(entry.node);
+			}
+		}
+		found.sort((node1, node2) -> Long.compare(node1.order, node2.order));
+		Node previous = null;
+		for (Node node : found) {
+			// an operation may be found through several contexts
+			if (node != previous) {
+				filtered.add(node.operation);
+			}
+			previous = node;
+		}
+		return filtered.toArray(new IUndoableOperation[filtered.size()]);
+	}
+
+	/*
+	 * Return the lists of the contexts matching the specified context, or
+	 * null if the whole history has to be checked.
+	 */
+	private Collection<ContextList> getMatchingContextLists(IUndoContext context) {
+		if (context == IOperationHistory.GLOBAL_UNDO_CONTEXT) {
+			return null;
+		}
+		Set<ContextList> lists = new LinkedHashSet<>();
+		int kind = getKind(context);
+		if (kind == OPAQUE_CONTEXT) {
+			for (ContextList list : contextLists.values()) {
+				if (matches(context, list.context)) {
+					lists.add(list);
+				}
+			}
+			return lists;
+		}
+		ContextList own = contextLists.get(context);
+		if (own != null) {
+			lists.add(own);
+		}
+		if (kind == OBJECT_CONTEXT) {
+			ObjectUndoContext objectContext = (ObjectUndoContext) context;
+			for (IUndoContext match : objectContext.getMatches()) {
+				ContextList list = contextLists.get(match);
+				if (list != null) {
+					lists.add(list);
+				}
+			}
+			Object object = objectContext.getObject();
+			if (object != null) {
+				List<ContextList> sameObject = objectContextLists.get(object);
+				if (sameObject != null) {
+					lists.addAll(sameObject);
+				}
+			}
+		}
+		for (ContextList list : getContextListsWithMatches()) {
+			if (((ObjectUndoContext) list.context).getMatches().contains(context)) {
+				lists.add(list);
+			}
+		}
+		for (ContextList list : opaqueContextLists) {
+			if (matches(context, list.context)) {
+				lists.add(list);
+			}
+		}
+		return lists;
+	}
+
+	/*
+	 * Return the lists of the object contexts having matches, updated if
+	 * matches were added or removed since the last query.
+	 */
+	private List<ContextList> getContextListsWithMatches() {
+		int modCount = ObjectUndoContext.getMatchesModCount();
+		if (modCount != matchesModCount) {
+			contextListsWithMatches.clear();
+			for (ContextList list : contextLists.values()) {
+				if (list.kind == OBJECT_CONTEXT && !((ObjectUndoContext) list.context).getMatches().isEmpty()) {
+					contextListsWithMatches.add(list);
+				}
+			}
+			matchesModCount = modCount;
+		}
+		return contextListsWithMatches;
+	}
+
+	private static boolean matches(IUndoContext context, IUndoContext otherContext) {
+		// check both ways, as in AbstractOperation.hasContext(IUndoContext)
+		return context.matches(otherContext) || otherContext.matches(context);
+	}
+
+	private static int getKind(IUndoContext context) {
+		if (context.getClass() == UndoContext.class) {
+			return IDENTITY_CONTEXT;
+		}
+		if (context instanceof ObjectUndoContext) {
+			return OBJECT_CONTEXT;
+		}
+		return OPAQUE_CONTEXT;
+	}
+
+	/*
+	 * Link a node after the specified node, or first if null.
+	 */
+	private void link(Node node, Node previous) {
+		node.previous = previous;
+		node.next = previous == null ? first : previous.next;
+		if (node.next == null) {
+			last = node;
+		} else {
+			node.next.previous = node;
+		}
+		if (previous == null) {
+			first = node;
+		} else {
+			previous.next = node;
+		}
+		node.order = previous == null ? 0 : previous.order + 1;
+
+		Node existing = nodes.putIfAbsent(node.operation, node);
+		if (existing != null) {
+			while (existing.duplicate != null) {
+				existing = existing.duplicate;
+			}
+			existing.duplicate = node;
+		} else if (node.operation instanceof AbstractOperation) {
+			AbstractOperation operation = (AbstractOperation) node.operation;
+			if (operation.listNode == null) {
+				operation.listNode = node;
+				node.tracked = true;
+			}
+		}
+	}
+
+	private void unlink(Node node) {
+		if (node.previous == null) {
+			first = node.next;
+		} else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			last = node.previous;
+		} else {
+			node.next.previous = node.previous;
+		}
+		node.removed = true;
+
+		if (node.duplicate == null) {
+			nodes.remove(node.operation);
+		} else {
+			nodes.put(node.operation, node.duplicate);
+		}
+		if (node.tracked) {
+			((AbstractOperation) node.operation).listNode = null;
+		}
+	}
+
+	/*
+	 * Add the entries of a node to the lists of its contexts, or to the list
+	 * of the untracked operations.
+	 */
+	void index(Node node) {
+		if (!node.tracked) {
+			node.entries = new Entry[] { insert(untracked, node) };
+			return;
+		}
+		IUndoContext[] contexts = node.operation.getContexts();
+		node.entries = new Entry[contexts.length];
+		for (int i = 0; i < contexts.length; i++) {
+			ContextList list = contextLists.get(contexts[i]);
+			if (list == null) {
+				list = addContextList(contexts[i]);
+			}
+			node.entries[i] = insert(list, node);
+		}
+	}
+
+	/*
+	 * Remove the entries of a node from their lists.
+	 */
+	void unindex(Node node) {
+		for (Entry entry : node.entries) {
+			ContextList list = entry.list;
+			if (entry.previous == null) {
+				list.first = entry.next;
+			} else {
+				entry.previous.next = entry.next;
+			}
+			if (entry.next == null) {
+				list.last = entry.previous;
+			} else {
+				entry.next.previous = entry.previous;
+			}
+			if (list.first == null && list != untracked) {
+				removeContextList(list);
+			}
+		}
+		node.entries = NO_ENTRIES;
+	}
+
+	/*
+	 * Insert an entry for a node in a list, keeping the order of the history.
+	 */
+	private static Entry insert(ContextList list, Node node) {
+		Entry entry = new Entry(list, node);
+		Entry previous = list.last;
+		while (previous != null && previous.node.order > node.order) {
+			previous = previous.previous;
+		}
+		entry.previous = previous;
+		entry.next = previous == null ? list.first : previous.next;
+		if (entry.next == null) {
+			list.last = entry;
+		} else {
+			entry.next.previous = entry;
+		}
+		if (previous == null) {
+			list.first = entry;
+		} else {
+			previous.next = entry;
+		}
+		return entry;
+	}
+
+	private ContextList addContextList(IUndoContext context) {
+		ContextList list = new ContextList(context, getKind(context));
+		contextLists.put(context, list);
+		if (list.kind == OBJECT_CONTEXT) {
+			ObjectUndoContext objectContext = (ObjectUndoContext) context;
+			if (objectContext.getObject() != null) {
+				objectContextLists.computeIfAbsent(objectContext.getObject(), object -> new ArrayList<>(1))
+						.add(list);
+			}
+			if (!objectContext.getMatches().isEmpty()) {
+				contextListsWithMatches.add(list);
+			}
+		} else if (list.kind == OPAQUE_CONTEXT) {
+			opaqueContextLists.add(list);
+		}
+		return list;
+	}
+
+	private void removeContextList(ContextList list) {
+		contextLists.remove(list.context);
+		if (list.kind == OBJECT_CONTEXT) {
+			Object object = ((ObjectUndoContext) list.context).getObject();
+			if (object != null) {
+				List<ContextList> sameObject = objectContextLists.get(object);
+				if (sameObject != null && sameObject.remove(list) && sameObject.isEmpty()) {
+					objectContextLists.remove(object);
+				}
+			}
+			contextListsWithMatches.remove(list);
+		} else if (list.kind == OPAQUE_CONTEXT) {
+			opaqueContextLists.remove(list);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.core.commands.operations;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -27,6 +28,12 @@ import java.util.List;
  */
 public final class ObjectUndoContext extends UndoContext {
 
+	/*
+	 * the number of times matches were added to or removed from any context,
+	 * used by the history to know when its index of the matches is stale
+	 */
+	private static final AtomicInteger matchesModCount = new AtomicInteger();
+
 	private Object object;
 
 	private String label;
@@ -91,6 +98,7 @@ public final class ObjectUndoContext extends UndoContext {
 	 */
 	public void addMatch(IUndoContext context) {
 		children.add(context);
+		matchesModCount.incrementAndGet();
 	}
 
 	/**
@@ -104,7 +112,24 @@ public final class ObjectUndoContext extends UndoContext {
 	 *            context
 	 */
 	public void removeMatch(IUndoContext context) {
-		children.remove(context);
+		if (children.remove(context)) {
+			matchesModCount.incrementAndGet();
+		}
+	}
+
+	/*
+	 * Return the contexts added as matches of this context.
+	 */
+	List<IUndoContext> getMatches() {
+		return children;
+	}
+
+	/*
+	 * Return the number of times matches were added to or removed from any
+	 * object context.
+	 */
+	static int getMatchesModCount() {
+		return matchesModCount.get();
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,6 +32,7 @@ import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.map.MapDiff;
 import org.eclipse.core.databinding.observable.set.SetDiff;
 import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.internal.databinding.observable.ListDiffComputer;
 
 /**
  * @since 1.0
@@ -216,6 +217,14 @@ public class Diffs {
 	/**
 	 * Returns a {@link ListDiff} describing the change between the specified
 	 * old and new list states.
+	 * <p>
+	 * Elements which are reordered are reported as moves as long as the
+	 * elements outside of the common prefix and suffix of both lists are few
+	 * enough: the product of their number and of the list sizes must not exceed
+	 * 10,000,000. Beyond that, the differences are computed in
+	 * O((n + m) log n) and reordered elements are reported as a removal and an
+	 * addition instead of a move.
+	 * </p>
 	 *
 	 * @param <E>
 	 *            the list element type
@@ -228,9 +237,7 @@ public class Diffs {
 	 * @since 1.6
 	 */
 	public static <E> ListDiff<E> computeListDiff(List<? extends E> oldList, List<? extends E> newList) {
-		List<ListDiffEntry<E>> diffEntries = new ArrayList<>();
-		createListDiffs(new ArrayList<>(oldList), newList, diffEntries);
-		return createListDiff(diffEntries);
+		return createListDiff(ListDiffComputer.computeDifferences(oldList, newList, false));
 	}
 
 	/**
@@ -263,98 +270,6 @@ public class Diffs {
 		};
 	}
 
-	/**
-	 * adapted from EMF's ListDifferenceAnalyzer
-	 */
-	private static <E> void createListDiffs(List<E> oldList, List<? extends E> newList,
-			List<ListDiffEntry<E>> listDiffs) {
-		int index = 0;
-		for (E newValue : newList) {
-			if (oldList.size() <= index) {
-				// append newValue to newList
-				listDiffs.add(createListDiffEntry(index, true, newValue));
-			} else {
-				boolean done;
-				do {
-					done = true;
-					E oldValue = oldList.get(index);
-					if (oldValue == null ? newValue != null : !oldValue
-							.equals(newValue)) {
-						int oldIndexOfNewValue = listIndexOf(oldList, newValue,
-								index);
-						if (oldIndexOfNewValue != -1) {
-							int newIndexOfOldValue = listIndexOf(newList,
-									oldValue, index);
-							if (newIndexOfOldValue == -1) {
-								// removing oldValue from list[index]
-								listDiffs.add(createListDiffEntry(index, false,
-										oldValue));
-								oldList.remove(index);
-								done = false;
-							} else if (newIndexOfOldValue > oldIndexOfNewValue) {
-								// moving oldValue from list[index] to
-								// [newIndexOfOldValue]
-								if (oldList.size() <= newIndexOfOldValue) {
-									// The element cannot be moved to the
-									// correct index
-									// now, however later iterations will insert
-									// elements
-									// in front of it, eventually moving it into
-									// the
-									// correct spot.
-									newIndexOfOldValue = oldList.size() - 1;
-								}
-								listDiffs.add(createListDiffEntry(index, false,
-										oldValue));
-								oldList.remove(index);
-								listDiffs.add(createListDiffEntry(
-										newIndexOfOldValue, true, oldValue));
-								oldList.add(newIndexOfOldValue, oldValue);
-								done = false;
-							} else {
-								// move newValue from list[oldIndexOfNewValue]
-								// to [index]
-								listDiffs.add(createListDiffEntry(
-										oldIndexOfNewValue, false, newValue));
-								oldList.remove(oldIndexOfNewValue);
-								listDiffs.add(createListDiffEntry(index, true,
-										newValue));
-								oldList.add(index, newValue);
-							}
-						} else {
-							// add newValue at list[index]
-							oldList.add(index, newValue);
-							listDiffs.add(createListDiffEntry(index, true,
-									newValue));
-						}
-					}
-				} while (!done);
-			}
-			++index;
-		}
-		for (int i = oldList.size(); i > index;) {
-			// remove excess trailing elements not present in newList
-			listDiffs.add(createListDiffEntry(--i, false, oldList.get(i)));
-		}
-	}
-
-	/**
-	 * @param list
-	 * @param object
-	 * @param index
-	 * @return the index, or -1 if not found
-	 */
-	private static <E> int listIndexOf(List<E> list, Object object, int index) {
-		int size = list.size();
-		for (int i = index; i < size; i++) {
-			Object candidate = list.get(i);
-			if (candidate == null ? object == null : candidate.equals(object)) {
-				return i;
-			}
-		}
-		return -1;
-	}
-
 	/**
 	 * Checks whether the two objects are <code>null</code> -- allowing for
 	 * <code>null</code>.
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+
+/**
+ * Algorithms computing the {@link ListDiffEntry ListDiffEntries} which
+ * transform one list state into another.
+ * <p>
+ * {@link #computeMoveDifferences(List, List, boolean)} is the algorithm
+ * adapted from EMF's ListDifferenceAnalyzer. It describes reorderings as
+ * adjacent remove/add pairs, which
+ * {@link org.eclipse.core.databinding.observable.list.ListDiff} reports as
+ * moves, but it is quadratic to cubic in the list sizes.
+ * </p>
+ * <p>
+ * {@link #computeIndexedDifferences(List, List, boolean)} strips the common
+ * prefix and suffix, pairs equal elements of both lists through a hash index
+ * and keeps the longest increasing run of these pairs (Hunt-Szymanski style)
+ * as the unchanged elements. It runs in O((n + m) log n) and reports
+ * reorderings as removals and additions.
+ * </p>
+ * <p>
+ * All algorithms compare elements either with {@link Object#equals(Object)}
+ * or by identity, as if they were wrapped in an
+ * {@link org.eclipse.core.internal.databinding.identity.IdentityWrapper}.
+ * </p>
+ */
+public final class ListDiffComputer {
+
+	/**
+	 * Up to this product of the number of elements outside of the common
+	 * prefix and suffix and of the list sizes, which bounds the work of the
+	 * move-aware algorithm, list diffs are computed with it rather than with
+	 * the indexed one.
+	 */
+	private static final long MOVE_DIFF_THRESHOLD = 10_000_000;
+
+	private ListDiffComputer() {
+	}
+
+	/**
+	 * Returns the differences between the two lists. They are computed with
+	 * the move-aware algorithm as long as the elements outside of the common
+	 * prefix and suffix of the lists are few enough, and with the indexed
+	 * algorithm otherwise, which reports reorderings as removals and
+	 * additions.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @param identity
+	 *            <code>true</code> to compare elements by identity,
+	 *            <code>false</code> to compare them with
+	 *            {@link Object#equals(Object)}
+	 * @return the differences between oldList and newList
+	 */
+	public static <E> List<ListDiffEntry<E>> computeDifferences(List<? extends E> oldList,
+			List<? extends E> newList, boolean identity) {
+		int oldSize = oldList.size();
+		int newSize = newList.size();
+		int prefix = commonPrefix(oldList, newList, identity);
+		int suffix = commonSuffix(oldList, newList, prefix, identity);
+		long changed = (long) oldSize + newSize - 2 * (prefix + suffix);
+		if (changed * (oldSize + newSize) <= MOVE_DIFF_THRESHOLD) {
+			return computeMoveDifferences(oldList, newList, identity);
+		}
+		return computeIndexedDifferences(oldList, newList, prefix, suffix, identity);
+	}
+
+	/**
+	 * Returns the differences between the two lists, as computed by the
+	 * move-aware algorithm adapted from EMF's ListDifferenceAnalyzer.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @param identity
+	 *            <code>true</code> to compare elements by identity,
+	 *            <code>false</code> to compare them with
+	 *            {@link Object#equals(Object)}
+	 * @return the differences between oldList and newList
+	 */
+	public static <E> List<ListDiffEntry<E>> computeMoveDifferences(List<? extends E> oldList,
+			List<? extends E> newList, boolean identity) {
+		List<ListDiffEntry<E>> listDiffs = new ArrayList<>();
+		List<E> workingList = new ArrayList<>(oldList);
+		int index = 0;
+		for (E newValue : newList) {
+			if (workingList.size() <= index) {
+				// append newValue to newList
+				listDiffs.add(Diffs.createListDiffEntry(index, true, newValue));
+			} else {
+				boolean done;
+				do {
+					done = true;
+					E oldValue = workingList.get(index);
+					if (!same(oldValue, newValue, identity)) {
+						int oldIndexOfNewValue = listIndexOf(workingList, newValue, index, identity);
+						if (oldIndexOfNewValue != -1) {
+							int newIndexOfOldValue = listIndexOf(newList, oldValue, index, identity);
+							if (newIndexOfOldValue == -1) {
+								// removing oldValue from list[index]
+								listDiffs.add(Diffs.createListDiffEntry(index, false, oldValue));
+								workingList.remove(index);
+								done = false;
+							} else if (newIndexOfOldValue > oldIndexOfNewValue) {
+								// moving oldValue from list[index] to
+								// [newIndexOfOldValue]
+								if (workingList.size() <= newIndexOfOldValue) {
+									// The element cannot be moved to the correct
+									// index now, however later iterations will
+									// insert elements in front of it, eventually
+									// moving it into the correct spot.
+									newIndexOfOldValue = workingList.size() - 1;
+								}
+								listDiffs.add(Diffs.createListDiffEntry(index, false, oldValue));
+								workingList.remove(index);
+								listDiffs.add(Diffs.createListDiffEntry(newIndexOfOldValue, true, oldValue));
+								workingList.add(newIndexOfOldValue, oldValue);
+								done = false;
+							} else {
+								// move newValue from list[oldIndexOfNewValue]
+								// to [index]
+								listDiffs.add(Diffs.createListDiffEntry(oldIndexOfNewValue, false, newValue));
+								workingList.remove(oldIndexOfNewValue);
+								listDiffs.add(Diffs.createListDiffEntry(index, true, newValue));
+								workingList.add(index, newValue);
+							}
+						} else {
+							// add newValue at list[index]
+							workingList.add(index, newValue);
+							listDiffs.add(Diffs.createListDiffEntry(index, true, newValue));
+						}
+					}
+				} while (!done);
+			}
+			++index;
+		}
+		for (int i = workingList.size(); i > index;) {
+			// remove excess trailing elements not present in newList
+			listDiffs.add(Diffs.createListDiffEntry(--i, false, workingList.get(i)));
+		}
+		return listDiffs;
+	}
+
+	/**
+	 * @param list
+	 * @param object
+	 * @param index
+	 * @param identity
+	 * @return the index, or -1 if not found
+	 */
+	private static int listIndexOf(List<?> list, Object object, int index, boolean identity) {
+		int size = list.size();
+		for (int i = index; i < size; i++) {
+			if (same(list.get(i), object, identity)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the differences between the two lists, using a hash index of the
+	 * old list elements and a longest increasing subsequence of the matching
+	 * element positions.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @param identity
+	 *            <code>true</code> to compare elements by identity,
+	 *            <code>false</code> to compare them with
+	 *            {@link Object#equals(Object)}
+	 * @return the differences between oldList and newList
+	 */
+	public static <E> List<ListDiffEntry<E>> computeIndexedDifferences(List<? extends E> oldList,
+			List<? extends E> newList, boolean identity) {
+		int prefix = commonPrefix(oldList, newList, identity);
+		int suffix = commonSuffix(oldList, newList, prefix, identity);
+		return computeIndexedDifferences(oldList, newList, prefix, suffix, identity);
+	}
+
+	private static int commonPrefix(List<?> oldList, List<?> newList, boolean identity) {
+		int prefix = 0;
+		int maxPrefix = Math.min(oldList.size(), newList.size());
+		while (prefix < maxPrefix && same(oldList.get(prefix), newList.get(prefix), identity)) {
+			prefix++;
+		}
+		return prefix;
+	}
+
+	private static int commonSuffix(List<?> oldList, List<?> newList, int prefix, boolean identity) {
+		int oldSize = oldList.size();
+		int newSize = newList.size();
+		int suffix = 0;
+		int maxSuffix = Math.min(oldSize, newSize) - prefix;
+		while (suffix < maxSuffix
+				&& same(oldList.get(oldSize - 1 - suffix), newList.get(newSize - 1 - suffix), identity)) {
+			suffix++;
+		}
+		return suffix;
+	}
+
+	private static <E> List<ListDiffEntry<E>> computeIndexedDifferences(List<? extends E> oldList,
+			List<? extends E> newList, int prefix, int suffix, boolean identity) {
+		int oldSize = oldList.size();
+		int newSize = newList.size();
+		int oldEnd = oldSize - suffix;
+		int newEnd = newSize - suffix;
+
+		List<ListDiffEntry<E>> listDiffs = new ArrayList<>();
+		if (prefix == oldEnd || prefix == newEnd) {
+			// pure removal or pure addition
+			for (int i = prefix; i < oldEnd; i++) {
+				listDiffs.add(Diffs.createListDiffEntry(prefix, false, oldList.get(i)));
+			}
+			for (int i = prefix; i < newEnd; i++) {
+				listDiffs.add(Diffs.createListDiffEntry(i, true, newList.get(i)));
+			}
+			return listDiffs;
+		}
+
+		// Pair the n-th occurrence of an element in the new list with its
+		// n-th occurrence in the old list
+		Map<Object, ArrayDeque<Integer>> oldPositions = identity ? new IdentityHashMap<>() : new HashMap<>();
+		for (int i = prefix; i < oldEnd; i++) {
+			oldPositions.computeIfAbsent(oldList.get(i), k -> new ArrayDeque<>()).add(i);
+		}
+		int middleSize = newEnd - prefix;
+		int[] matchedOldIndex = new int[middleSize];
+		for (int j = 0; j < middleSize; j++) {
+			ArrayDeque<Integer> positions = oldPositions.get(newList.get(prefix + j));
+			matchedOldIndex[j] = positions == null || positions.isEmpty() ? -1 : positions.poll().intValue();
+		}
+
+		boolean[] keptNew = longestIncreasingSubsequence(matchedOldIndex);
+
+		// Walk both lists, removing the old elements and adding the new
+		// elements between two kept elements
+		int position = prefix;
+		int oldIndex = prefix;
+		for (int j = 0; j <= middleSize; j++) {
+			if (j < middleSize && !keptNew[j]) {
+				continue;
+			}
+			int oldAnchor = j < middleSize ? matchedOldIndex[j] : oldEnd;
+			for (; oldIndex < oldAnchor; oldIndex++) {
+				listDiffs.add(Diffs.createListDiffEntry(position, false, oldList.get(oldIndex)));
+			}
+			for (int k = position - prefix; k < j; k++) {
+				listDiffs.add(Diffs.createListDiffEntry(position++, true, newList.get(prefix + k)));
+			}
+			// skip the kept element itself
+			position++;
+			oldIndex++;
+		}
+		return listDiffs;
+	}
+
+	/**
+	 * Returns which entries of the given sequence form its longest strictly
+	 * increasing subsequence, ignoring negative entries.
+	 */
+	private static boolean[] longestIncreasingSubsequence(int[] sequence) {
+		int length = sequence.length;
+		// tails[k] is the index of the smallest tail of an increasing
+		// subsequence of length k + 1
+		int[] tails = new int[length];
+		int[] tailValues = new int[length];
+		int[] predecessors = new int[length];
+		int tailCount = 0;
+		for (int i = 0; i < length; i++) {
+			int value = sequence[i];
+			if (value < 0) {
+				continue;
+			}
+			int insertion = Arrays.binarySearch(tailValues, 0, tailCount, value);
+			if (insertion < 0) {
+				insertion = -insertion - 1;
+			}
+			predecessors[i] = insertion > 0 ? tails[insertion - 1] : -1;
+			tails[insertion] = i;
+			tailValues[insertion] = value;
+			if (insertion == tailCount) {
+				tailCount++;
+			}
+		}
+		boolean[] result = new boolean[length];
+		for (int i = tailCount > 0 ? tails[tailCount - 1] : -1; i >= 0; i = predecessors[i]) {
+			result[i] = true;
+		}
+		return result;
+	}
+
+	private static boolean same(Object left, Object right, boolean identity) {
+		return identity ? left == right : Objects.equals(left, right);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,6 +32,7 @@ import org.eclipse.core.databinding.observable.list.ObservableList;
 import org.eclipse.core.databinding.observable.masterdetail.IObservableFactory;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.internal.databinding.observable.ListDiffComputer;
 import org.eclipse.core.runtime.Assert;
 
 /**
@@ -96,7 +97,11 @@ public class DetailObservableList<M, E> extends ObservableList<E>implements IObs
 		try {
 			List<E> oldList = new ArrayList<>(wrappedList);
 			updateInnerObservableList();
-			fireListChange(Diffs.computeListDiff(oldList, wrappedList));
+			// The elements of the new detail list belong to another master, so
+			// equal elements are reported as replaced unless they are the same
+			// instances: listeners tracking the elements by identity, like
+			// detail value lists, must not keep the old instances
+			fireListChange(Diffs.createListDiff(ListDiffComputer.computeDifferences(oldList, wrappedList, true)));
 		} finally {
 			ObservableTracker.setIgnore(false);
 		}
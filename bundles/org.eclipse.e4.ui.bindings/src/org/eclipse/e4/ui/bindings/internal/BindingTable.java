@@ -123,13 +123,24 @@ public class BindingTable {
 
 	public static final BindingComparator BEST_SEQUENCE = new BindingComparator();
 
+	/**
+	 * A node of the prefix tree of the trigger sequences of the bindings. The
+	 * node reached by following the triggers of a sequence holds the bindings
+	 * whose trigger sequence starts with, but is longer than, that sequence.
+	 */
+	private static final class PrefixNode {
+		private final Map<Trigger, PrefixNode> children = new HashMap<>(4);
+		private final ArrayList<Binding> partialMatches = new ArrayList<>(2);
+	}
+
 	private Context tableId;
 	private ArrayList<Binding> bindings = new ArrayList<>();
 	private Map<TriggerSequence, Binding> bindingsByTrigger = new HashMap<>();
 	private Map<ParameterizedCommand, ArrayList<Binding>> bindingsByCommand = new HashMap<>();
-	private Map<TriggerSequence, ArrayList<Binding>> bindingsByPrefix = new HashMap<>();
+	private PrefixNode prefixes = new PrefixNode();
 	private Map<TriggerSequence, ArrayList<Binding>> conflicts = new HashMap<>();
 	private Map<TriggerSequence, ArrayList<Binding>> orderedBindingsByTrigger = new HashMap<>();
+	private int modificationCount;
 
 	/**
 	 * @param context
@@ -190,6 +201,7 @@ public class BindingTable {
 		}
 
 		evaluateOrderedBindings(binding.getTriggerSequence(), binding);
+		modificationCount++;
 	}
 
 	private void addBindingSimple(Binding binding) {
@@ -204,14 +216,11 @@ public class BindingTable {
 		sequences.add(binding);
 		Collections.sort(sequences, BEST_SEQUENCE);
 
-		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
-		for (int i = 1; i < prefs.length; i++) {
-			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
-			if (bindings == null) {
-				bindings = new ArrayList<>();
-				bindingsByPrefix.put(prefs[i], bindings);
-			}
-			bindings.add(binding);
+		Trigger[] triggers = binding.getTriggerSequence().getTriggers();
+		PrefixNode node = prefixes;
+		for (int i = 0; i < triggers.length - 1; i++) {
+			node = node.children.computeIfAbsent(triggers[i], t -> new PrefixNode());
+			node.partialMatches.add(binding);
 		}
 	}
 
@@ -223,13 +232,41 @@ public class BindingTable {
 		if (sequences != null) {
 			sequences.remove(binding);
 		}
-		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
-		for (int i = 1; i < prefs.length; i++) {
-			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
-			if (bindings != null) {
-				bindings.remove(binding);
+		removePrefixes(prefixes, binding.getTriggerSequence().getTriggers(), 0, binding);
+	}
+
+	/**
+	 * Removes the binding from the partial matches of the prefixes of its
+	 * triggers, starting at the given index, and prunes the nodes left empty.
+	 *
+	 * @return <code>true</code> if the given node has no partial matches left
+	 */
+	private static boolean removePrefixes(PrefixNode node, Trigger[] triggers, int index, Binding binding) {
+		if (index < triggers.length - 1) {
+			PrefixNode child = node.children.get(triggers[index]);
+			if (child != null) {
+				child.partialMatches.remove(binding);
+				if (removePrefixes(child, triggers, index + 1, binding)) {
+					node.children.remove(triggers[index]);
+				}
+			}
+		}
+		return node.partialMatches.isEmpty();
+	}
+
+	/**
+	 * @return the node of the prefix tree for the given sequence, or
+	 *         <code>null</code> if no binding starts with it
+	 */
+	private PrefixNode getPrefixNode(TriggerSequence sequence) {
+		PrefixNode node = prefixes;
+		for (Trigger trigger : sequence.getTriggers()) {
+			node = node.children.get(trigger);
+			if (node == null) {
+				return null;
 			}
 		}
+		return node == prefixes ? null : node;
 	}
 
 	public void removeBinding(Binding binding) {
@@ -237,6 +274,7 @@ public class BindingTable {
 			throw new IllegalArgumentException("Binding context " + binding.getContextId() //$NON-NLS-1$
 					+ " does not match " + getId()); //$NON-NLS-1$
 		}
+		modificationCount++;
 		ArrayList<Binding> bindingList = orderedBindingsByTrigger.get(binding.getTriggerSequence());
 		Binding possibleConflict = bindingsByTrigger.get(binding.getTriggerSequence());
 		if (possibleConflict == binding) {
@@ -333,15 +371,24 @@ public class BindingTable {
 	}
 
 	public Collection<Binding> getPartialMatches(TriggerSequence sequence) {
-		return bindingsByPrefix.get(sequence);
+		PrefixNode node = getPrefixNode(sequence);
+		return node == null ? null : node.partialMatches;
 	}
 
 	public boolean isPartialMatch(TriggerSequence seq) {
-		return bindingsByPrefix.get(seq) != null;
+		return getPrefixNode(seq) != null;
 	}
 
 	public Collection<Binding> getBindings() {
 		return Collections.unmodifiableCollection(bindings);
 	}
 
+	/**
+	 * @return a counter incremented whenever bindings are added to or removed
+	 *         from this table
+	 */
+	int getModificationCount() {
+		return modificationCount;
+	}
+
 }
@@ -17,8 +17,11 @@ package org.eclipse.e4.ui.bindings.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import javax.inject.Inject;
 import org.eclipse.core.commands.ParameterizedCommand;
 import org.eclipse.core.commands.contexts.Context;
@@ -32,6 +35,46 @@ import org.eclipse.jface.bindings.TriggerSequence;
 public class BindingTableManager {
 	private static final String BINDING_TABLE_PREFIX = "bindingTable:"; //$NON-NLS-1$
 
+	/** Number of context sets whose key lookups are remembered */
+	private static final int CACHED_CONTEXT_SETS = 16;
+
+	/** Number of trigger sequences remembered for one context set */
+	private static final int CACHED_SEQUENCES = 512;
+
+	/**
+	 * The binding tables of a context set, most specific context first, and the
+	 * results of the key lookups in them. They remain valid as long as neither
+	 * the tables nor the active schemes change.
+	 */
+	private static final class ContextSetTables {
+		private final int generation;
+		private final BindingTable[] tables;
+		private final int[] modificationCounts;
+		private final Map<TriggerSequence, Binding> perfectMatches = new HashMap<>();
+		private final Map<TriggerSequence, Collection<Binding>> partialMatches = new HashMap<>();
+
+		ContextSetTables(int generation, List<BindingTable> tables) {
+			this.generation = generation;
+			this.tables = tables.toArray(new BindingTable[tables.size()]);
+			this.modificationCounts = new int[this.tables.length];
+			for (int i = 0; i < this.tables.length; i++) {
+				modificationCounts[i] = this.tables[i].getModificationCount();
+			}
+		}
+
+		boolean isValid(int currentGeneration) {
+			if (generation != currentGeneration) {
+				return false;
+			}
+			for (int i = 0; i < tables.length; i++) {
+				if (modificationCounts[i] != tables[i].getModificationCount()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	@Inject
 	private IEclipseContext eclipseContext;
 
@@ -39,6 +82,19 @@ public class BindingTableManager {
 
 	private String[] activeSchemeIds;
 
+	/** Incremented when tables are added or removed or the schemes change */
+	private int generation;
+
+	private final Map<ContextSet, ContextSetTables> contextSetTables = new LinkedHashMap<ContextSet, ContextSetTables>(
+			CACHED_CONTEXT_SETS, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ContextSet, ContextSetTables> eldest) {
+			return size() > CACHED_CONTEXT_SETS;
+		}
+	};
+
 	public void addTable(BindingTable table) {
 		String contextId = getTableId(table.getId());
 		if (eclipseContext.containsKey(contextId)) {
@@ -46,9 +102,9 @@ public class BindingTableManager {
 			//			throw new IllegalArgumentException("Already contains table " + contextId); //$NON-NLS-1$
 		}
 		eclipseContext.set(contextId, table);
-		final List<Context> contexts = definedTables.getContexts();
+		generation++;
+		final List<Context> contexts = new ArrayList<>(definedTables.getContexts());
 		if (!contexts.contains(table.getTableId())) {
-			// this is only valid because I'm throwing away the old definedTables contextSet
 			contexts.add(table.getTableId());
 			definedTables = createContextSet(contexts);
 		}
@@ -64,9 +120,9 @@ public class BindingTableManager {
 			throw new IllegalArgumentException("Does not contains table " + contextId); //$NON-NLS-1$
 		}
 		eclipseContext.remove(contextId);
-		final List<Context> contexts = definedTables.getContexts();
+		generation++;
+		final List<Context> contexts = new ArrayList<>(definedTables.getContexts());
 		if (contexts.contains(table.getTableId())) {
-			// this is only valid because I'm throwing away the old definedTables contextSet
 			contexts.remove(table.getTableId());
 			definedTables = createContextSet(contexts);
 		}
@@ -122,17 +178,46 @@ public class BindingTableManager {
 		return conflictsList;
 	}
 
+	/**
+	 * Returns the tables of the given context set and the lookups done in them so
+	 * far, resolving the tables again if they have changed.
+	 */
+	private ContextSetTables getContextSetTables(ContextSet contextSet) {
+		ContextSetTables result = contextSetTables.get(contextSet);
+		if (result == null || !result.isValid(generation)) {
+			List<BindingTable> tables = new ArrayList<>();
+			List<Context> contexts = contextSet.getContexts();
+			ListIterator<Context> it = contexts.listIterator(contexts.size());
+			while (it.hasPrevious()) {
+				BindingTable table = getTable(it.previous().getId());
+				if (table != null) {
+					tables.add(table);
+				}
+			}
+			result = new ContextSetTables(generation, tables);
+			contextSetTables.put(contextSet, result);
+		} else if (result.perfectMatches.size() > CACHED_SEQUENCES
+				|| result.partialMatches.size() > CACHED_SEQUENCES) {
+			result.perfectMatches.clear();
+			result.partialMatches.clear();
+		}
+		return result;
+	}
+
 	public Binding getPerfectMatch(ContextSet contextSet, TriggerSequence triggerSequence) {
+		ContextSetTables contextTables = getContextSetTables(contextSet);
+		Binding result = contextTables.perfectMatches.get(triggerSequence);
+		if (result == null && !contextTables.perfectMatches.containsKey(triggerSequence)) {
+			result = getPerfectMatch(contextTables.tables, triggerSequence);
+			contextTables.perfectMatches.put(triggerSequence, result);
+		}
+		return result;
+	}
+
+	private Binding getPerfectMatch(BindingTable[] tables, TriggerSequence triggerSequence) {
 		Binding result = null;
-		Binding currentResult = null;
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				currentResult = table.getPerfectMatch(triggerSequence);
-			}
+		for (BindingTable table : tables) {
+			Binding currentResult = table.getPerfectMatch(triggerSequence);
 			if (currentResult != null) {
 				if (isMostActiveScheme(currentResult)) {
 					return currentResult;
@@ -206,35 +291,28 @@ public class BindingTableManager {
 	}
 
 	public boolean isPartialMatch(ContextSet contextSet, TriggerSequence sequence) {
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
-				if (table.isPartialMatch(sequence)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return !getCachedPartialMatches(contextSet, sequence).isEmpty();
 	}
 
 	public Collection<Binding> getPartialMatches(ContextSet contextSet, TriggerSequence sequence) {
-		ArrayList<Binding> bindings = new ArrayList<>();
-		List<Context> contexts = contextSet.getContexts();
-		ListIterator<Context> it = contexts.listIterator(contexts.size());
-		while (it.hasPrevious()) {
-			Context c = it.previous();
-			BindingTable table = getTable(c.getId());
-			if (table != null) {
+		return new ArrayList<>(getCachedPartialMatches(contextSet, sequence));
+	}
+
+	private Collection<Binding> getCachedPartialMatches(ContextSet contextSet, TriggerSequence sequence) {
+		ContextSetTables contextTables = getContextSetTables(contextSet);
+		Collection<Binding> result = contextTables.partialMatches.get(sequence);
+		if (result == null) {
+			ArrayList<Binding> bindings = new ArrayList<>();
+			for (BindingTable table : contextTables.tables) {
 				Collection<Binding> partialMatches = table.getPartialMatches(sequence);
 				if (partialMatches != null) {
 					bindings.addAll(partialMatches);
 				}
 			}
+			result = bindings.isEmpty() ? Collections.emptyList() : bindings;
+			contextTables.partialMatches.put(sequence, result);
 		}
-		return bindings;
+		return result;
 	}
 
 	/**
@@ -243,6 +321,7 @@ public class BindingTableManager {
 	public void setActiveSchemes(String[] activeSchemeIds) {
 		this.activeSchemeIds = activeSchemeIds;
 		BindingTable.BEST_SEQUENCE.setActiveSchemes(activeSchemeIds);
+		generation++;
 	}
 
 	/*
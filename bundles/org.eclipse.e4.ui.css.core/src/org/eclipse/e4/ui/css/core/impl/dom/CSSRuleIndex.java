@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleRule;
+
+/**
+ * An index of the style rule selectors of a list of {@link CSSRule}s, keyed by
+ * the rightmost simple selector of each selector (id, CSS class, element local
+ * name or the universal bucket, which also holds the pseudo-element
+ * selectors). It is used to only match an element against the selectors which
+ * can possibly apply to it.
+ * <p>
+ * Every indexed selector remembers its position in the original rule list, so
+ * that candidates are returned in stylesheet order and the cascade is not
+ * affected by the index.
+ * </p>
+ */
+final class CSSRuleIndex {
+
+	/**
+	 * A selector of a style rule, together with its position in the rule list.
+	 */
+	static final class Entry {
+
+		final ExtendedSelector selector;
+		final CSSStyleDeclaration style;
+		final int order;
+
+		Entry(ExtendedSelector selector, CSSStyleDeclaration style, int order) {
+			this.selector = selector;
+			this.style = style;
+			this.order = order;
+		}
+	}
+
+	private final Map<String, List<Entry>> idRules = new HashMap<>();
+	private final Map<String, List<Entry>> classRules = new HashMap<>();
+	private final Map<String, List<Entry>> elementRules = new HashMap<>();
+	private final List<Entry> universalRules = new ArrayList<>();
+
+	/**
+	 * Creates the index for the given rules.
+	 */
+	CSSRuleIndex(List<CSSRule> rules) {
+		int order = 0;
+		for (CSSRule rule : rules) {
+			if (rule.getType() != CSSRule.STYLE_RULE || (!(rule instanceof ExtendedCSSRule))) {
+				continue; // we only handle the CSSRule.STYLE_RULE and ExtendedCSSRule case
+			}
+			CSSStyleDeclaration style = ((CSSStyleRule) rule).getStyle();
+			SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+			int l = selectorList.getLength();
+			for (int j = 0; j < l; j++) {
+				Selector selector = selectorList.item(j);
+				if (selector instanceof ExtendedSelector) {
+					add(new Entry((ExtendedSelector) selector, style, order++));
+				}
+			}
+		}
+	}
+
+	private void add(Entry entry) {
+		Selector selector = getRightmostSelector(entry.selector);
+		if (selector instanceof ConditionalSelector) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			if (addToConditionBucket(conditionalSelector.getCondition(), entry)) {
+				return;
+			}
+			selector = conditionalSelector.getSimpleSelector();
+		}
+		// Pseudo-element selectors are element selectors as well, but their
+		// name is the one of the pseudo-element
+		if (selector.getSelectorType() == Selector.SAC_ELEMENT_NODE_SELECTOR) {
+			String name = ((ElementSelector) selector).getLocalName();
+			if (name != null) {
+				elementRules.computeIfAbsent(name, k -> new ArrayList<>()).add(entry);
+				return;
+			}
+		}
+		universalRules.add(entry);
+	}
+
+	/**
+	 * Adds the entry to the id bucket or, when no id condition is present, to
+	 * the class bucket of the given condition.
+	 *
+	 * @return <code>true</code> if the entry has been added
+	 */
+	private boolean addToConditionBucket(Condition condition, Entry entry) {
+		String id = findConditionValue(condition, CSSIdConditionImpl.class);
+		if (id != null) {
+			idRules.computeIfAbsent(id, k -> new ArrayList<>()).add(entry);
+			return true;
+		}
+		String cssClass = findConditionValue(condition, CSSClassConditionImpl.class);
+		if (cssClass != null) {
+			classRules.computeIfAbsent(cssClass, k -> new ArrayList<>()).add(entry);
+			return true;
+		}
+		return false;
+	}
+
+	private static String findConditionValue(Condition condition, Class<? extends Condition> type) {
+		if (type.isInstance(condition)) {
+			return ((AttributeCondition) condition).getValue();
+		}
+		if (condition instanceof CombinatorCondition && condition.getConditionType() == Condition.SAC_AND_CONDITION) {
+			CombinatorCondition combinator = (CombinatorCondition) condition;
+			String value = findConditionValue(combinator.getFirstCondition(), type);
+			return value != null ? value : findConditionValue(combinator.getSecondCondition(), type);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the simple selector which has to match the element itself, i.e.
+	 * the rightmost part of a descendant, child or sibling selector.
+	 */
+	private static Selector getRightmostSelector(Selector selector) {
+		Selector current = selector;
+		while (true) {
+			if (current instanceof DescendantSelector) {
+				current = ((DescendantSelector) current).getSimpleSelector();
+			} else if (current instanceof SiblingSelector) {
+				current = ((SiblingSelector) current).getSiblingSelector();
+			} else {
+				return current;
+			}
+		}
+	}
+
+	/**
+	 * Returns the entries whose selectors may match the given element, sorted
+	 * by their position in the rule list.
+	 */
+	List<Entry> getCandidates(Element elt) {
+		List<Entry> candidates = new ArrayList<>(universalRules);
+		String id;
+		String cssClass;
+		if (elt instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) elt;
+			id = stylableElement.getCSSId();
+			cssClass = stylableElement.getCSSClass();
+		} else {
+			id = elt.getAttribute("id");
+			cssClass = elt.getAttribute("class");
+		}
+		if (id != null && !id.isEmpty()) {
+			addAll(candidates, idRules.get(id));
+		}
+		if (cssClass != null && !cssClass.isEmpty() && !classRules.isEmpty()) {
+			addClassCandidates(candidates, cssClass);
+		}
+		String name = elt.getPrefix() == null ? elt.getNodeName() : elt.getLocalName();
+		if (name != null) {
+			addAll(candidates, elementRules.get(name));
+		}
+		if (candidates.size() != universalRules.size()) {
+			Collections.sort(candidates, (e1, e2) -> Integer.compare(e1.order, e2.order));
+		}
+		return candidates;
+	}
+
+	private void addClassCandidates(List<Entry> candidates, String cssClass) {
+		List<String> added = null;
+		int length = cssClass.length();
+		int start = 0;
+		while (start < length) {
+			while (start < length && Character.isSpaceChar(cssClass.charAt(start))) {
+				start++;
+			}
+			int end = start;
+			while (end < length && !Character.isSpaceChar(cssClass.charAt(end))) {
+				end++;
+			}
+			if (end > start) {
+				String name = cssClass.substring(start, end);
+				List<Entry> entries = classRules.get(name);
+				if (entries != null) {
+					if (added == null) {
+						added = new ArrayList<>(2);
+					}
+					if (!added.contains(name)) {
+						added.add(name);
+						candidates.addAll(entries);
+					}
+				}
+			}
+			start = end;
+		}
+	}
+
+	private static void addAll(List<Entry> candidates, List<Entry> entries) {
+		if (entries != null) {
+			candidates.addAll(entries);
+		}
+	}
+}
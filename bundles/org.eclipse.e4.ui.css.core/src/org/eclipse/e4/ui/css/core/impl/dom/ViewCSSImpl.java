@@ -46,6 +46,8 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	private boolean ruleCachingEnabled;
 	/** Cached state of combined CSS rules for the current stylesheets */
 	private List<CSSRule> currentCombinedRules;
+	/** Selector index over {@link #currentCombinedRules} */
+	private CSSRuleIndex currentRuleIndex;
 
 	/**
 	 * Creates a new ViewCSS.
@@ -72,14 +74,19 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
-		return getComputedStyle(getCombinedRules(), elt, pseudoElt);
+		List<CSSRule> combinedRules = getCombinedRules();
+		if (this.ruleCachingEnabled && this.currentRuleIndex != null) {
+			return getComputedStyle(this.currentRuleIndex, elt, pseudoElt);
+		}
+		return getComputedStyle(combinedRules, elt, pseudoElt);
 	}
 
 	/**
 	 * Retrieves the combined list of CSS rules for all current stylesheets. This
 	 * method returns a cached state when the stylesheets are the same as on its
 	 * last call. When the stylesheets differ, the rules are collected from
-	 * documentCSS's stylesheets.
+	 * documentCSS's stylesheets and, when caching is enabled, indexed by the
+	 * rightmost simple selector of their selectors.
 	 *
 	 * @return CSS rules for all style sheets
 	 */
@@ -105,11 +112,45 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 		}
 
 		if (this.ruleCachingEnabled) {
+			this.currentRuleIndex = new CSSRuleIndex(cssRules);
 			this.currentCombinedRules = cssRules;
 		}
 		return cssRules;
 	}
 
+	private CSSStyleDeclaration getComputedStyle(CSSRuleIndex ruleIndex, Element elt, String pseudoElt) {
+		List<StyleWrapper> styleDeclarations = null;
+		StyleWrapper firstStyleDeclaration = null;
+		int position = 0;
+		for (CSSRuleIndex.Entry entry : ruleIndex.getCandidates(elt)) {
+			ExtendedSelector extendedSelector = entry.selector;
+			if (extendedSelector.match(elt, pseudoElt)) {
+				int specificity = extendedSelector.getSpecificity();
+				StyleWrapper wrapper = new StyleWrapper(entry.style, specificity, position++);
+				if (firstStyleDeclaration == null) {
+					firstStyleDeclaration = wrapper;
+				} else {
+					// There is several Style Declarations which
+					// match the current element
+					if (styleDeclarations == null) {
+						styleDeclarations = new ArrayList<>();
+						styleDeclarations.add(firstStyleDeclaration);
+					}
+					styleDeclarations.add(wrapper);
+				}
+			}
+		}
+		if (styleDeclarations != null) {
+			// There is several Style Declarations which match the element, merge the CSS
+			// Property value.
+			return new CSSComputedStyleImpl(styleDeclarations);
+		}
+		if (firstStyleDeclaration != null) {
+			return firstStyleDeclaration.style;
+		}
+		return null;
+	}
+
 	private CSSStyleDeclaration getComputedStyle(List<CSSRule> ruleList, Element elt, String pseudoElt) {
 		List<StyleWrapper> styleDeclarations = null;
 		StyleWrapper firstStyleDeclaration = null;
@@ -160,10 +201,12 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	@Override
 	public void styleSheetAdded(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentRuleIndex = null;
 	}
 
 	@Override
 	public void styleSheetRemoved(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentRuleIndex = null;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Angelo Zerr and others.
+ * Copyright (c) 2008, 2020 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -122,6 +122,11 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	 */
 	private ViewCSS viewCSS;
 
+	/**
+	 * Cache of the styles computed by {@link #viewCSS} while applying styles.
+	 */
+	private CSSComputedStyleCache computedStyleCache;
+
 	/**
 	 * {@link IElementProvider} used to retrieve w3c Element linked to the
 	 * widget.
@@ -165,6 +170,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	public AbstractCSSEngine(ExtendedDocumentCSS documentCSS) {
 		this.documentCSS = documentCSS;
 		this.viewCSS = new ViewCSSImpl(documentCSS);
+		this.computedStyleCache = new CSSComputedStyleCache(documentCSS, viewCSS);
 		keyFactory = new ResourceRegistryKeyFactory();
 	}
 
@@ -380,11 +386,22 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		if (elt == null || !isVisible(elt)) {
 			return;
 		}
+		// the signatures of the element and its ancestors are computed once
+		// for the element and all its children
+		computedStyleCache.beginPass();
+		try {
+			applyStyles(element, elt, applyStylesToChildNodes, computeDefaultStyle);
+		} finally {
+			computedStyleCache.endPass();
+		}
+	}
 
+	private void applyStyles(Object element, Element elt, boolean applyStylesToChildNodes,
+			boolean computeDefaultStyle) {
 		/*
 		 * Compute new Style to apply.
 		 */
-		CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
+		CSSStyleDeclaration style = computedStyleCache.getComputedStyle(elt, null);
 		if (computeDefaultStyle) {
 			if (applyStylesToChildNodes) {
 				this.computeDefaultStyle = computeDefaultStyle;
@@ -403,7 +420,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			// there are static pseudo instances defined, loop for it and
 			// apply styles for each pseudo instance.
 			for (String pseudoInstance : pseudoInstances) {
-				CSSStyleDeclaration styleWithPseudoInstance = viewCSS.getComputedStyle(elt, pseudoInstance);
+				CSSStyleDeclaration styleWithPseudoInstance = computedStyleCache.getComputedStyle(elt, pseudoInstance);
 				if (computeDefaultStyle) {
 					/*
 					 * Apply default style for the current pseudo instance.
@@ -1009,9 +1026,20 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return viewCSS;
 	}
 
+	/**
+	 * Returns the cache of the styles computed while applying styles, e.g. to
+	 * query its hit and miss counters.
+	 *
+	 * @return the computed style cache of this engine
+	 */
+	public CSSComputedStyleCache getComputedStyleCache() {
+		return computedStyleCache;
+	}
+
 	@Override
 	public void dispose() {
 		reset();
+		computedStyleCache.dispose();
 		// Call dispose for each CSSStylableElement which was registered
 		Collection<CSSElementContext> contexts = elementsContext.values();
 		for (CSSElementContext context : contexts) {
@@ -1032,6 +1060,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	public void reset() {
 		// Remove All Style Sheets
 		documentCSS.removeAllStyleSheets();
+		computedStyleCache.clear();
 	}
 
 	/*--------------- Resources Registry -----------------*/
@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedCondition;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.css.ViewCSS;
+import org.w3c.dom.stylesheets.StyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Bounded LRU cache of the style declarations computed by a {@link ViewCSS}.
+ * <p>
+ * Entries are keyed by a structural signature of the element: local name,
+ * namespace, CSS class, id, the values of the attributes and the state of the
+ * pseudo classes used by the current stylesheets, for the element and all of
+ * its ancestors. Elements with the same signature are matched by the same
+ * selectors, so they share the computed style. Changing the CSS class or id of
+ * a {@link CSSStylableElement} changes its signature, so no stale entry can be
+ * returned for it.
+ * </p>
+ * <p>
+ * Each distinct signature of an element and its ancestors is numbered, so
+ * that the signature of an element is made of its own values and of the number
+ * of the signature of its parent. Between {@link #beginPass()} and
+ * {@link #endPass()}, the number of each element is remembered, so that
+ * styling a tree computes the values of every element only once instead of
+ * once per descendant.
+ * </p>
+ * <p>
+ * The cache is cleared whenever a stylesheet is added or removed. It is
+ * disabled as long as the stylesheets contain sibling selectors, because those
+ * depend on the element's position among its siblings.
+ * </p>
+ */
+public class CSSComputedStyleCache implements ExtendedDocumentCSS.StyleSheetChangeListener {
+
+	/**
+	 * The default maximum number of cached computed styles.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	private static final char SEPARATOR = '\u0000';
+
+	private static final char NO_VALUE = '\u0001';
+
+	private final ExtendedDocumentCSS documentCSS;
+
+	private final ViewCSS viewCSS;
+
+	private final Map<String, CSSStyleDeclaration> cache;
+
+	/**
+	 * Numbers of the signatures of the elements and their ancestors, 0 is
+	 * used for no element
+	 */
+	private final Map<String, Integer> chainIds = new HashMap<>();
+
+	private final int maxChainIds;
+
+	/**
+	 * Numbers of the signatures of the elements seen during the current pass,
+	 * <code>null</code> outside of a pass
+	 */
+	private Map<Node, Integer> passChainIds;
+
+	private int passDepth;
+
+	/** Attribute names used by the current selectors, <code>null</code> if not yet computed */
+	private String[] attributeNames;
+
+	/** Pseudo class names used by the current selectors */
+	private String[] pseudoClasses;
+
+	private boolean cacheable;
+
+	private long hitCount;
+
+	private long missCount;
+
+	public CSSComputedStyleCache(ExtendedDocumentCSS documentCSS, ViewCSS viewCSS) {
+		this(documentCSS, viewCSS, DEFAULT_MAX_SIZE);
+	}
+
+	public CSSComputedStyleCache(ExtendedDocumentCSS documentCSS, ViewCSS viewCSS, final int maxSize) {
+		this.documentCSS = documentCSS;
+		this.viewCSS = viewCSS;
+		this.cache = new LinkedHashMap<String, CSSStyleDeclaration>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CSSStyleDeclaration> eldest) {
+				return size() > maxSize;
+			}
+		};
+		this.maxChainIds = 16 * maxSize;
+		documentCSS.addStyleSheetChangeListener(this);
+	}
+
+	/**
+	 * Starts a pass over elements whose CSS class, id, attributes and pseudo
+	 * class states do not change until the matching {@link #endPass()}, e.g.
+	 * styling an element and its children. Passes may be nested.
+	 */
+	public void beginPass() {
+		if (passDepth++ == 0) {
+			passChainIds = new IdentityHashMap<>();
+		}
+	}
+
+	/**
+	 * Ends a pass started with {@link #beginPass()}.
+	 */
+	public void endPass() {
+		if (--passDepth == 0) {
+			passChainIds = null;
+		}
+	}
+
+	/**
+	 * Returns the computed style of the given element, from the cache when an
+	 * element with the same signature has been computed before.
+	 *
+	 * @see ViewCSS#getComputedStyle(Element, String)
+	 */
+	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
+		if (attributeNames == null) {
+			collectSelectorInformation();
+		}
+		if (!cacheable) {
+			return viewCSS.getComputedStyle(elt, pseudoElt);
+		}
+		if (chainIds.size() > maxChainIds) {
+			clearSignatures();
+		}
+		String signature = computeSignature(elt, pseudoElt);
+		CSSStyleDeclaration style = cache.get(signature);
+		if (style != null || cache.containsKey(signature)) {
+			hitCount++;
+			return style;
+		}
+		missCount++;
+		style = viewCSS.getComputedStyle(elt, pseudoElt);
+		cache.put(signature, style);
+		return style;
+	}
+
+	/**
+	 * Removes all cached computed styles.
+	 */
+	public void clear() {
+		clearSignatures();
+		attributeNames = null;
+		pseudoClasses = null;
+	}
+
+	private void clearSignatures() {
+		cache.clear();
+		chainIds.clear();
+		if (passChainIds != null) {
+			passChainIds.clear();
+		}
+	}
+
+	/**
+	 * Removes this cache from the listeners of the document.
+	 */
+	public void dispose() {
+		documentCSS.removeStyleSheetChangeListener(this);
+		clear();
+	}
+
+	/**
+	 * @return the number of computed styles currently held in the cache
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return the number of lookups answered from the cache
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups which had to compute the style
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Resets the hit and miss counters.
+	 */
+	public void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+	}
+
+	@Override
+	public void styleSheetAdded(StyleSheet styleSheet) {
+		clear();
+	}
+
+	@Override
+	public void styleSheetRemoved(StyleSheet styleSheet) {
+		clear();
+	}
+
+	private String computeSignature(Element elt, String pseudoElt) {
+		int chainId = getChainId(elt);
+		if (pseudoElt == null) {
+			return NO_VALUE + Integer.toString(chainId);
+		}
+		return pseudoElt + SEPARATOR + chainId;
+	}
+
+	/**
+	 * Returns the number of the signature of the given node and its ancestors.
+	 */
+	private int getChainId(Node node) {
+		if (node == null) {
+			return 0;
+		}
+		Integer chainId = passChainIds != null ? passChainIds.get(node) : null;
+		if (chainId == null) {
+			int parentChainId = getChainId(node.getParentNode());
+			StringBuilder builder = new StringBuilder(64);
+			builder.append(parentChainId);
+			appendNodeSignature(builder, node);
+			String signature = builder.toString();
+			chainId = chainIds.get(signature);
+			if (chainId == null) {
+				chainId = Integer.valueOf(chainIds.size() + 1);
+				chainIds.put(signature, chainId);
+			}
+			if (passChainIds != null) {
+				passChainIds.put(node, chainId);
+			}
+		}
+		return chainId.intValue();
+	}
+
+	private void appendNodeSignature(StringBuilder signature, Node node) {
+		signature.append(SEPARATOR);
+		if (node.getNodeType() != Node.ELEMENT_NODE) {
+			signature.append(node.getNodeType());
+			return;
+		}
+		Element element = (Element) node;
+		appendValue(signature, element.getNodeName());
+		appendValue(signature, element.getPrefix());
+		appendValue(signature, element.getLocalName());
+		appendValue(signature, element.getNamespaceURI());
+		if (element instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) element;
+			appendValue(signature, stylableElement.getCSSClass());
+			appendValue(signature, stylableElement.getCSSId());
+			for (String pseudoClass : pseudoClasses) {
+				signature.append(stylableElement.isPseudoInstanceOf(pseudoClass) ? '1' : '0');
+				signature.append(stylableElement.isStaticPseudoInstance(pseudoClass) ? '1' : '0');
+			}
+		} else {
+			appendValue(signature, element.getAttribute("class"));
+			appendValue(signature, element.getAttribute("id"));
+		}
+		for (String attributeName : attributeNames) {
+			appendValue(signature, element.hasAttribute(attributeName) ? element.getAttribute(attributeName) : null);
+		}
+	}
+
+	private static void appendValue(StringBuilder signature, String value) {
+		signature.append(SEPARATOR);
+		if (value == null) {
+			signature.append(NO_VALUE);
+		} else {
+			signature.append(value);
+		}
+	}
+
+	/**
+	 * Collects the attribute and pseudo class names used by the selectors of
+	 * the current stylesheets, and checks whether the computed styles can be
+	 * cached for them.
+	 */
+	private void collectSelectorInformation() {
+		Set<String> attributes = new HashSet<>();
+		Set<String> pseudos = new HashSet<>();
+		boolean canCache = true;
+		StyleSheetList styleSheetList = documentCSS.getStyleSheets();
+		int length = styleSheetList.getLength();
+		for (int i = 0; i < length && canCache; i++) {
+			CSSRuleList rules = ((CSSStyleSheet) styleSheetList.item(i)).getCssRules();
+			int rulesLength = rules.getLength();
+			for (int j = 0; j < rulesLength && canCache; j++) {
+				CSSRule rule = rules.item(j);
+				if (rule.getType() != CSSRule.STYLE_RULE || !(rule instanceof ExtendedCSSRule)) {
+					continue;
+				}
+				SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+				int selectorsLength = selectorList.getLength();
+				for (int k = 0; k < selectorsLength && canCache; k++) {
+					canCache = collectSelectorInformation(selectorList.item(k), attributes, pseudos);
+				}
+			}
+		}
+		attributeNames = attributes.toArray(new String[attributes.size()]);
+		pseudoClasses = pseudos.toArray(new String[pseudos.size()]);
+		cacheable = canCache;
+	}
+
+	private static boolean collectSelectorInformation(Selector selector, Set<String> attributes,
+			Set<String> pseudos) {
+		if (selector instanceof DescendantSelector) {
+			DescendantSelector descendantSelector = (DescendantSelector) selector;
+			return collectSelectorInformation(descendantSelector.getAncestorSelector(), attributes, pseudos)
+					&& collectSelectorInformation(descendantSelector.getSimpleSelector(), attributes, pseudos);
+		}
+		if (selector instanceof ConditionalSelector) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			return collectSelectorInformation(conditionalSelector.getSimpleSelector(), attributes, pseudos)
+					&& collectConditionInformation(conditionalSelector.getCondition(), attributes, pseudos);
+		}
+		// element and pseudo element selectors only depend on the name of the
+		// element, all other selectors (e.g. siblings) can't be cached
+		return selector instanceof ElementSelector;
+	}
+
+	private static boolean collectConditionInformation(Condition condition, Set<String> attributes,
+			Set<String> pseudos) {
+		if (condition instanceof CombinatorCondition && condition.getConditionType() == Condition.SAC_AND_CONDITION) {
+			CombinatorCondition combinatorCondition = (CombinatorCondition) condition;
+			return collectConditionInformation(combinatorCondition.getFirstCondition(), attributes, pseudos)
+					&& collectConditionInformation(combinatorCondition.getSecondCondition(), attributes, pseudos);
+		}
+		if (condition instanceof CSSClassConditionImpl || condition instanceof CSSIdConditionImpl) {
+			// class and id are always part of the signature
+			return true;
+		}
+		if (condition instanceof CSSPseudoClassConditionImpl) {
+			pseudos.add(((AttributeCondition) condition).getValue());
+			return true;
+		}
+		if (condition instanceof ExtendedCondition) {
+			((ExtendedCondition) condition).fillAttributeSet(attributes);
+			return true;
+		}
+		return false;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,7 +19,11 @@ import org.eclipse.e4.core.contexts.IContextFunction;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.services.internal.events.EventBroker;
+import org.eclipse.e4.ui.services.internal.events.EventDispatcher;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.event.EventAdmin;
 
@@ -31,13 +35,31 @@ import org.osgi.service.event.EventAdmin;
 @Component(service = IContextFunction.class, property = "service.context.key=org.eclipse.e4.core.services.events.IEventBroker")
 public class EventBrokerFactory extends ContextFunction {
 
+	private EventAdmin eventAdmin;
+
+	private EventDispatcher dispatcher;
+
 	// mandatory static reference to EventAdmin to ensure it is available before
 	// the factory is activated
 
 	@Reference
 	void setEventAdmin(EventAdmin admin) {
-		// don't need to do anything with the EventAdmin here
-		// we only need to ensure it is available before starting this factory
+		// the brokers get the EventAdmin injected, the dispatcher needs it to
+		// forward events to the handlers it does not know
+		this.eventAdmin = admin;
+	}
+
+	@Activate
+	void activate(BundleContext bundleContext) {
+		// shared by all the brokers, so that the events sent by any broker
+		// reach the handlers subscribed through any other
+		dispatcher = new EventDispatcher(eventAdmin);
+		dispatcher.start(bundleContext);
+	}
+
+	@Deactivate
+	void deactivate() {
+		dispatcher.stop();
 	}
 
 	@Override
@@ -45,6 +67,7 @@ public class EventBrokerFactory extends ContextFunction {
 		EventBroker broker = context.getLocal(EventBroker.class);
 		if (broker == null) {
 			broker = ContextInjectionFactory.make(EventBroker.class, context);
+			broker.setDispatcher(dispatcher);
 			context.set(EventBroker.class, broker);
 		}
 		return broker;
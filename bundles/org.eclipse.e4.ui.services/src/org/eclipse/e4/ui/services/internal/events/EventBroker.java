@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,7 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.di.UISynchronize;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
@@ -33,6 +34,7 @@ import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
 import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventProperties;
 import org.osgi.service.event.EventHandler;
 
 public class EventBroker implements IEventBroker {
@@ -40,19 +42,42 @@ public class EventBroker implements IEventBroker {
 	// TBD synchronization
 	private Map<EventHandler, Collection<ServiceRegistration<?>>> registrations = new HashMap<>();
 
+	private Map<EventHandler, Collection<EventDispatcher.Subscription>> subscriptions = new HashMap<>();
+
+	private EventDispatcher dispatcher;
+
 	@Inject
 	@Optional
 	UISynchronize uiSync;
 
+	@Inject
+	@Optional
+	Logger logger;
+
 	@Inject
 	EventAdmin eventAdmin;
 
 	BundleContext bundleContext = FrameworkUtil.getBundle(getClass()).getBundleContext();
 
+	/**
+	 * Sets the dispatcher delivering the events of the UI model topics.
+	 *
+	 * @param dispatcher
+	 *            the dispatcher, or <code>null</code> to deliver all events
+	 *            through the EventAdmin
+	 */
+	public void setDispatcher(EventDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+
 	@Override
 	public boolean send(String topic, Object data) {
 		Event event = constructEvent(topic, data);
-		eventAdmin.sendEvent(event);
+		if (dispatcher != null && dispatcher.isDispatched(topic)) {
+			dispatcher.send(event, logger);
+		} else {
+			eventAdmin.sendEvent(event);
+		}
 		return true;
 	}
 
@@ -66,6 +91,10 @@ public class EventBroker implements IEventBroker {
 	@SuppressWarnings("unchecked")
 	private Event constructEvent(String topic, Object data) {
 		Event event;
+		if (data instanceof EventProperties && ((EventProperties) data).containsKey(IEventBroker.DATA)) {
+			// Already immutable, the Event uses them without copying
+			return new Event(topic, (EventProperties) data);
+		}
 		if (data instanceof Map<?, ?>) {
 			Map<String, Object> map = (Map<String, Object>)data;
 			if(map.containsKey(EventConstants.EVENT_TOPIC) && map.containsKey(IEventBroker.DATA)) {
@@ -119,6 +148,12 @@ public class EventBroker implements IEventBroker {
 
 	@Override
 	public boolean subscribe(String topic, String filter, EventHandler eventHandler, boolean headless) {
+		if (filter == null && dispatcher != null && dispatcher.isDispatched(topic)) {
+			EventDispatcher.Subscription subscription = dispatcher.subscribe(topic,
+					new UIEventHandler(eventHandler, headless ? null : uiSync));
+			subscriptions.computeIfAbsent(eventHandler, handler -> new ArrayList<>()).add(subscription);
+			return true;
+		}
 		String[] topics = new String[] {topic};
 		Dictionary<String, Object> d = new Hashtable<>();
 		d.put(EventConstants.EVENT_TOPIC, topics);
@@ -138,9 +173,15 @@ public class EventBroker implements IEventBroker {
 
 	@Override
 	public boolean unsubscribe(EventHandler eventHandler) {
+		Collection<EventDispatcher.Subscription> subscribed = subscriptions.remove(eventHandler);
+		if (subscribed != null) {
+			for (EventDispatcher.Subscription subscription : subscribed) {
+				dispatcher.unsubscribe(subscription);
+			}
+		}
 		Collection<ServiceRegistration<?>> handled = registrations.remove(eventHandler);
 		if (handled == null || handled.isEmpty())
-			return false;
+			return subscribed != null && !subscribed.isEmpty();
 		for (ServiceRegistration<?> r : handled) {
 			r.unregister();
 		}
@@ -149,6 +190,12 @@ public class EventBroker implements IEventBroker {
 
 	@PreDestroy
 	void dispose() {
+		for (Collection<EventDispatcher.Subscription> subscribed : subscriptions.values()) {
+			for (EventDispatcher.Subscription subscription : subscribed) {
+				dispatcher.unsubscribe(subscription);
+			}
+		}
+		subscriptions.clear();
 		Collection<Collection<ServiceRegistration<?>>> values = new ArrayList<>(registrations.values());
 		registrations.clear();
 		for (Collection<ServiceRegistration<?>> handled : values) {
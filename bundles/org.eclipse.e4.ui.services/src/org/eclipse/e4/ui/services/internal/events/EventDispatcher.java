@@ -0,0 +1,529 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.services.internal.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.e4.core.services.log.Logger;
+import org.eclipse.osgi.framework.log.FrameworkLog;
+import org.eclipse.osgi.framework.log.FrameworkLogEntry;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventAdmin;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+import org.osgi.util.tracker.ServiceTracker;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
+
+/**
+ * Delivers the events of the UI model topics to the handlers subscribed
+ * through the {@link EventBroker}, without going through the
+ * {@link EventAdmin}.
+ * <p>
+ * The subscriptions are kept in a trie of the topic segments, which is copied
+ * on write: each subscription or unsubscription copies the nodes on the path
+ * of its topic, so that events are dispatched without locking. The handlers
+ * matching a topic are computed once for each version of the trie.
+ * </p>
+ * <p>
+ * Events are only given to the {@link EventAdmin} when other handlers, not
+ * subscribed through the dispatcher, are registered for their topic. The
+ * dispatcher also registers a handler for the UI model topics, so that the
+ * events posted or sent directly to the {@link EventAdmin} still reach the
+ * subscribed handlers.
+ * </p>
+ */
+public final class EventDispatcher {
+
+	/**
+	 * Prefix of the topics delivered by the dispatcher, the topics of the
+	 * events of the UI model
+	 */
+	public static final String TOPIC_PREFIX = "org/eclipse/e4/ui/model/"; //$NON-NLS-1$
+
+	/**
+	 * Service property of the handler registered by the dispatcher, to tell it
+	 * apart from the other handlers
+	 */
+	private static final String DISPATCHER_PROPERTY = "org.eclipse.e4.ui.services.events.dispatcher"; //$NON-NLS-1$
+
+	private static final Object[] NO_ENTRIES = new Object[0];
+
+	/**
+	 * Number of buckets of the latency histograms. Bucket i counts the
+	 * dispatches that took less than 2^i nanoseconds, and at least 2^(i-1)
+	 * nanoseconds.
+	 */
+	private static final int LATENCY_BUCKETS = 40;
+
+	/**
+	 * A handler subscribed to a topic.
+	 */
+	public static final class Subscription {
+		final String topic;
+		final EventHandler handler;
+
+		Subscription(String topic, EventHandler handler) {
+			this.topic = topic;
+			this.handler = handler;
+		}
+	}
+
+	/**
+	 * Counters of the events dispatched for a topic.
+	 */
+	public static final class TopicStatistics {
+		private final LongAdder dispatches = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+
+		void record(long nanos) {
+			dispatches.increment();
+			totalNanos.add(nanos);
+			int bucket = 64 - Long.numberOfLeadingZeros(Math.max(0, nanos));
+			latencies.incrementAndGet(Math.min(bucket, LATENCY_BUCKETS - 1));
+		}
+
+		/**
+		 * @return the number of events dispatched
+		 */
+		public long getDispatchCount() {
+			return dispatches.sum();
+		}
+
+		/**
+		 * @return the time spent dispatching the events, in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+		/**
+		 * Returns the histogram of the time spent dispatching each event to all
+		 * its handlers. The element i is the number of events dispatched in less
+		 * than 2^i nanoseconds, and at least 2^(i-1) nanoseconds.
+		 *
+		 * @return the number of events of each latency bucket
+		 */
+		public long[] getLatencyHistogram() {
+			long[] histogram = new long[LATENCY_BUCKETS];
+			for (int i = 0; i < histogram.length; i++) {
+				histogram[i] = latencies.get(i);
+			}
+			return histogram;
+		}
+
+		@Override
+		public String toString() {
+			return "TopicStatistics[dispatches=" + getDispatchCount() + ", totalNanos=" + getTotalNanos() //$NON-NLS-1$ //$NON-NLS-2$
+					+ ", latencies=" + Arrays.toString(getLatencyHistogram()) + ']'; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Immutable node of a trie of topics. The entries of a node are subscribed
+	 * to the topic made of the segments leading to the node, the wildcard
+	 * entries to all the topics below it.
+	 */
+	private static final class Node {
+		static final Node EMPTY = new Node(Collections.emptyMap(), NO_ENTRIES, NO_ENTRIES);
+
+		final Map<String, Node> children;
+		final Object[] entries;
+		final Object[] wildcardEntries;
+
+		Node(Map<String, Node> children, Object[] entries, Object[] wildcardEntries) {
+			this.children = children;
+			this.entries = entries;
+			this.wildcardEntries = wildcardEntries;
+		}
+
+		boolean isEmpty() {
+			return children.isEmpty() && entries.length == 0 && wildcardEntries.length == 0;
+		}
+
+		/**
+		 * @return a copy of this node with the given entry added to or removed
+		 *         from the node of the given segments
+		 */
+		Node with(List<String> segments, int index, boolean wildcard, Object entry, boolean add) {
+			if (index == segments.size()) {
+				if (wildcard) {
+					return new Node(children, entries, update(wildcardEntries, entry, add));
+				}
+				return new Node(children, update(entries, entry, add), wildcardEntries);
+			}
+			String segment = segments.get(index);
+			Node child = children.get(segment);
+			if (child == null) {
+				if (!add) {
+					return this;
+				}
+				child = EMPTY;
+			}
+			Node newChild = child.with(segments, index + 1, wildcard, entry, add);
+			Map<String, Node> newChildren = new HashMap<>(children);
+			if (newChild.isEmpty()) {
+				newChildren.remove(segment);
+			} else {
+				newChildren.put(segment, newChild);
+			}
+			return new Node(newChildren.isEmpty() ? Collections.emptyMap() : newChildren, entries,
+					wildcardEntries);
+		}
+
+		private static Object[] update(Object[] entries, Object entry, boolean add) {
+			if (add) {
+				Object[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+				newEntries[entries.length] = entry;
+				return newEntries;
+			}
+			for (int i = 0; i < entries.length; i++) {
+				if (entries[i] == entry) {
+					Object[] newEntries = new Object[entries.length - 1];
+					System.arraycopy(entries, 0, newEntries, 0, i);
+					System.arraycopy(entries, i + 1, newEntries, i, newEntries.length - i);
+					return newEntries;
+				}
+			}
+			return entries;
+		}
+
+		/**
+		 * @return the entries of the nodes matching the given topic
+		 */
+		Object[] match(String topic) {
+			List<Object> result = new ArrayList<>();
+			result.addAll(Arrays.asList(wildcardEntries));
+			Node node = this;
+			int start = 0;
+			while (node != null) {
+				int end = topic.indexOf('/', start);
+				node = node.children.get(end == -1 ? topic.substring(start) : topic.substring(start, end));
+				if (node == null) {
+					break;
+				}
+				if (end == -1) {
+					result.addAll(Arrays.asList(node.entries));
+					break;
+				}
+				result.addAll(Arrays.asList(node.wildcardEntries));
+				start = end + 1;
+			}
+			return result.isEmpty() ? NO_ENTRIES : result.toArray();
+		}
+	}
+
+	/**
+	 * A version of a trie, with the entries matching each topic computed on
+	 * demand.
+	 */
+	private static final class Table {
+		static final Table EMPTY = new Table(Node.EMPTY);
+
+		final Node root;
+		final Map<String, Object[]> matches = new ConcurrentHashMap<>();
+
+		Table(Node root) {
+			this.root = root;
+		}
+
+		Object[] match(String topic) {
+			Object[] result = matches.get(topic);
+			if (result == null) {
+				result = root.match(topic);
+				matches.put(topic, result);
+			}
+			return result;
+		}
+
+		/**
+		 * @return a new version of this table, with the given entry added or
+		 *         removed for the given topic
+		 */
+		Table with(String topic, Object entry, boolean add) {
+			boolean wildcard = topic.equals("*") || topic.endsWith("/*"); //$NON-NLS-1$ //$NON-NLS-2$
+			String path = wildcard ? topic.substring(0, Math.max(0, topic.length() - 2)) : topic;
+			List<String> segments = path.isEmpty() ? Collections.emptyList() : Arrays.asList(path.split("/")); //$NON-NLS-1$
+			return new Table(root.with(segments, 0, wildcard, entry, add));
+		}
+	}
+
+	private final EventAdmin eventAdmin;
+
+	// Written while holding the lock of this dispatcher
+	private volatile Table subscriptions = Table.EMPTY;
+	private volatile Table externalHandlers = Table.EMPTY;
+
+	private final Map<String, TopicStatistics> statistics = new ConcurrentHashMap<>();
+
+	/**
+	 * The events being given to the EventAdmin, which the handler of the
+	 * dispatcher ignores, with the number of times each is being given. The
+	 * EventAdmin delivers them synchronously, but not necessarily in the
+	 * sending thread, so they are recognized by identity rather than by
+	 * thread.
+	 */
+	private final Map<Event, Integer> forwardedEvents = new IdentityHashMap<>();
+
+	private ServiceTracker<EventHandler, List<String>> handlerTracker;
+
+	private ServiceTracker<FrameworkLog, FrameworkLog> logTracker;
+
+	private String bundleName;
+
+	private ServiceRegistration<EventHandler> registration;
+
+	private volatile boolean active;
+
+	/**
+	 * @param eventAdmin
+	 *            the EventAdmin to give the events to when other handlers are
+	 *            registered for their topic
+	 */
+	public EventDispatcher(EventAdmin eventAdmin) {
+		this.eventAdmin = eventAdmin;
+	}
+
+	/**
+	 * Starts tracking the other handlers, and registers the handler of the
+	 * dispatcher.
+	 *
+	 * @param bundleContext
+	 *            the context to track and register the handlers with
+	 */
+	public void start(BundleContext bundleContext) {
+		bundleName = bundleContext.getBundle().getSymbolicName();
+		logTracker = new ServiceTracker<>(bundleContext, FrameworkLog.class, null);
+		logTracker.open();
+		handlerTracker = new ServiceTracker<>(bundleContext, EventHandler.class,
+				new ServiceTrackerCustomizer<EventHandler, List<String>>() {
+					@Override
+					public List<String> addingService(ServiceReference<EventHandler> reference) {
+						if (reference.getProperty(DISPATCHER_PROPERTY) != null) {
+							return null;
+						}
+						List<String> topics = getTopics(reference);
+						updateExternalHandlers(topics, reference, true);
+						return topics;
+					}
+
+					@Override
+					public void modifiedService(ServiceReference<EventHandler> reference, List<String> topics) {
+						updateExternalHandlers(topics, reference, false);
+						topics.clear();
+						topics.addAll(getTopics(reference));
+						updateExternalHandlers(topics, reference, true);
+					}
+
+					@Override
+					public void removedService(ServiceReference<EventHandler> reference, List<String> topics) {
+						updateExternalHandlers(topics, reference, false);
+					}
+				});
+		handlerTracker.open();
+
+		Hashtable<String, Object> properties = new Hashtable<>();
+		properties.put(EventConstants.EVENT_TOPIC, new String[] { TOPIC_PREFIX + '*' });
+		properties.put(DISPATCHER_PROPERTY, Boolean.TRUE);
+		registration = bundleContext.registerService(EventHandler.class, event -> {
+			if (!isForwarded(event)) {
+				dispatch(event, null);
+			}
+		}, properties);
+		active = true;
+	}
+
+	/**
+	 * Stops the dispatcher. Events are then sent through the EventAdmin.
+	 */
+	public void stop() {
+		active = false;
+		if (registration != null) {
+			registration.unregister();
+			registration = null;
+		}
+		if (handlerTracker != null) {
+			handlerTracker.close();
+			handlerTracker = null;
+		}
+		if (logTracker != null) {
+			logTracker.close();
+			logTracker = null;
+		}
+		synchronized (this) {
+			subscriptions = Table.EMPTY;
+			externalHandlers = Table.EMPTY;
+		}
+	}
+
+	private static List<String> getTopics(ServiceReference<?> reference) {
+		Object topics = reference.getProperty(EventConstants.EVENT_TOPIC);
+		List<String> result = new ArrayList<>();
+		if (topics instanceof String) {
+			result.add((String) topics);
+		} else if (topics instanceof String[]) {
+			result.addAll(Arrays.asList((String[]) topics));
+		} else if (topics instanceof Collection<?>) {
+			for (Object topic : (Collection<?>) topics) {
+				if (topic instanceof String) {
+					result.add((String) topic);
+				}
+			}
+		}
+		return result;
+	}
+
+	private synchronized void updateExternalHandlers(List<String> topics, ServiceReference<?> reference,
+			boolean add) {
+		Table table = externalHandlers;
+		for (String topic : topics) {
+			table = table.with(topic, reference, add);
+		}
+		externalHandlers = table;
+	}
+
+	/**
+	 * @param topic
+	 *            the topic of an event or a subscription
+	 * @return whether the events of the topic are delivered by this dispatcher
+	 */
+	public boolean isDispatched(String topic) {
+		return active && topic.startsWith(TOPIC_PREFIX);
+	}
+
+	/**
+	 * Subscribes a handler to a topic, whose events must be
+	 * {@link #isDispatched(String) dispatched} by this dispatcher.
+	 *
+	 * @param topic
+	 *            the topic, which can end with a wildcard
+	 * @param handler
+	 *            the handler
+	 * @return the subscription, to unsubscribe the handler
+	 */
+	public synchronized Subscription subscribe(String topic, EventHandler handler) {
+		Subscription subscription = new Subscription(topic, handler);
+		subscriptions = subscriptions.with(topic, subscription, true);
+		return subscription;
+	}
+
+	/**
+	 * Unsubscribes a handler.
+	 *
+	 * @param subscription
+	 *            the subscription of the handler
+	 */
+	public synchronized void unsubscribe(Subscription subscription) {
+		subscriptions = subscriptions.with(subscription.topic, subscription, false);
+	}
+
+	/**
+	 * Synchronously delivers an event to the subscribed handlers, and to the
+	 * other handlers registered for its topic if any.
+	 *
+	 * @param event
+	 *            the event, whose topic must be {@link #isDispatched(String)
+	 *            dispatched} by this dispatcher
+	 * @param logger
+	 *            the logger of the errors of the handlers, or <code>null</code>
+	 */
+	public void send(Event event, Logger logger) {
+		dispatch(event, logger);
+		if (externalHandlers.match(event.getTopic()).length > 0) {
+			synchronized (forwardedEvents) {
+				forwardedEvents.merge(event, Integer.valueOf(1), Integer::sum);
+			}
+			try {
+				eventAdmin.sendEvent(event);
+			} finally {
+				synchronized (forwardedEvents) {
+					forwardedEvents.computeIfPresent(event,
+							(key, count) -> count.intValue() == 1 ? null : Integer.valueOf(count.intValue() - 1));
+				}
+			}
+		}
+	}
+
+	private boolean isForwarded(Event event) {
+		synchronized (forwardedEvents) {
+			return forwardedEvents.containsKey(event);
+		}
+	}
+
+	private void dispatch(Event event, Logger logger) {
+		String topic = event.getTopic();
+		Object[] matches = subscriptions.match(topic);
+		long start = System.nanoTime();
+		for (Object match : matches) {
+			try {
+				((Subscription) match).handler.handleEvent(event);
+			} catch (Exception | LinkageError | AssertionError e) {
+				// Like the EventAdmin, don't let a handler keep the others from
+				// getting the event
+				String message = "Exception while dispatching event " + topic; //$NON-NLS-1$
+				if (logger != null) {
+					logger.error(e, message);
+				} else {
+					log(message, e);
+				}
+			}
+		}
+		if (matches.length > 0) {
+			TopicStatistics topicStatistics = statistics.get(topic);
+			if (topicStatistics == null) {
+				topicStatistics = statistics.computeIfAbsent(topic, key -> new TopicStatistics());
+			}
+			topicStatistics.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Logs an error of a handler to the framework log, for the events which are
+	 * not sent with a logger.
+	 */
+	private void log(String message, Throwable exception) {
+		ServiceTracker<FrameworkLog, FrameworkLog> tracker = logTracker;
+		FrameworkLog log = tracker == null ? null : tracker.getService();
+		if (log != null) {
+			log.log(new FrameworkLogEntry(bundleName, FrameworkLogEntry.ERROR, 0, message, 0, exception, null));
+		} else {
+			// no log to write to, e.g. after the dispatcher was stopped
+			System.err.println(message);
+			exception.printStackTrace();
+		}
+	}
+
+	/**
+	 * Returns the counters of the events dispatched so far, for each topic
+	 * that had handlers.
+	 *
+	 * @return the statistics of each topic
+	 */
+	public Map<String, TopicStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+}
@@ -34,6 +34,8 @@ public class SWTRenderersMessages extends NLS {
 
 	public static String viewMenu;
 
+	public static String partLoading;
+
 	static {
 		// load message values from bundle file
 		reloadMessages();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,27 +16,39 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.workbench.renderers.swt;
 
+import java.util.HashMap;
+import java.util.Map;
 import javax.inject.Inject;
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.contributions.IContributionFactory;
+import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.core.services.log.Logger;
+import org.eclipse.e4.ui.internal.workbench.renderers.swt.SWTRenderersMessages;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
 import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
 import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.e4.ui.workbench.modeling.EPartService;
+import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Layout;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Widget;
+import org.osgi.framework.Bundle;
 
 /**
  * Default SWT renderer responsible for an MPart. See
@@ -44,6 +56,45 @@ import org.eclipse.swt.widgets.Widget;
  */
 public class ContributedPartRenderer extends SWTPartRenderer {
 
+	/**
+	 * Tag of the parts whose contribution class is loaded in a background job.
+	 * Until the class is loaded, with its bundle started, the part shows a
+	 * placeholder. The object of the part is then created on the UI thread.
+	 *
+	 * @since 0.15
+	 */
+	public static final String CREATE_CONTENTS_ASYNC = "CreateContentsAsync"; //$NON-NLS-1$
+
+	/**
+	 * Topic of the event posted when the object of a part has been created.
+	 * The {@link UIEvents.EventTags#ELEMENT} property is the part, the
+	 * {@link #PART_START_TIME} and {@link #PART_CREATED_ASYNC} properties tell
+	 * how long it took and how it was created.
+	 *
+	 * @since 0.15
+	 */
+	public static final String TOPIC_PART_CREATED = UIEvents.UILifeCycle.TOPIC + UIEvents.TOPIC_SEP
+			+ "partCreated"; //$NON-NLS-1$
+
+	/**
+	 * Property of the {@link #TOPIC_PART_CREATED} events: the milliseconds
+	 * from rendering the part to its object being created, as a {@link Long}
+	 *
+	 * @since 0.15
+	 */
+	public static final String PART_START_TIME = "partStartTime"; //$NON-NLS-1$
+
+	/**
+	 * Property of the {@link #TOPIC_PART_CREATED} events: whether the
+	 * contribution class of the part was loaded in the background, as a
+	 * {@link Boolean}
+	 *
+	 * @since 0.15
+	 */
+	public static final String PART_CREATED_ASYNC = "partCreatedAsync"; //$NON-NLS-1$
+
+	private static final String BUNDLECLASS_SCHEME = "bundleclass://"; //$NON-NLS-1$
+
 	@Inject
 	private IPresentationEngine engine;
 
@@ -51,6 +102,10 @@ public class ContributedPartRenderer extends SWTPartRenderer {
 	@Optional
 	private Logger logger;
 
+	@Inject
+	@Optional
+	private IEventBroker eventBroker;
+
 	private MPart partToActivate;
 
 	private Listener activationListener = event -> {
@@ -73,6 +128,8 @@ public class ContributedPartRenderer extends SWTPartRenderer {
 			return null;
 		}
 
+		long start = System.nanoTime();
+
 		// retrieve context for this part
 		final MPart part = (MPart) element;
 		IEclipseContext localContext = part.getContext();
@@ -129,12 +186,109 @@ public class ContributedPartRenderer extends SWTPartRenderer {
 		localContext.set(Composite.class, partComposite);
 
 		IContributionFactory contributionFactory = localContext.get(IContributionFactory.class);
-		Object newPart = contributionFactory.create(part.getContributionURI(), localContext);
-		part.setObject(newPart);
+		if (part.getTags().contains(CREATE_CONTENTS_ASYNC) && part.getObject() == null) {
+			createContentsAsync(part, partComposite, contributionFactory, start);
+		} else {
+			Object newPart = contributionFactory.create(part.getContributionURI(), localContext);
+			part.setObject(newPart);
+			partCreated(part, start, false);
+		}
 
 		return partComposite;
 	}
 
+	/**
+	 * Shows a placeholder in the part while its contribution class is loaded
+	 * in a background job, then creates the object of the part on the UI
+	 * thread.
+	 */
+	private void createContentsAsync(final MPart part, final Composite partComposite,
+			final IContributionFactory contributionFactory, final long start) {
+		final Label placeholder = new Label(partComposite, SWT.NONE);
+		placeholder.setText(NLS.bind(SWTRenderersMessages.partLoading, part.getLocalizedLabel()));
+
+		final Display display = partComposite.getDisplay();
+		final String contributionURI = part.getContributionURI();
+		Job job = Job.create(NLS.bind(SWTRenderersMessages.partLoading, part.getLocalizedLabel()), monitor -> {
+			loadContributionClass(contributionFactory, contributionURI);
+			if (!display.isDisposed()) {
+				display.asyncExec(() -> createContents(part, partComposite, placeholder, contributionFactory, start));
+			}
+		});
+		job.setSystem(true);
+		job.schedule();
+	}
+
+	private void createContents(final MPart part, final Composite partComposite, Label placeholder,
+			final IContributionFactory contributionFactory, final long start) {
+		// the part may have been closed or re-rendered in the meantime
+		IEclipseContext localContext = part.getContext();
+		if (partComposite.isDisposed() || part.getWidget() != partComposite || localContext == null
+				|| part.getObject() != null) {
+			return;
+		}
+		placeholder.dispose();
+
+		SafeRunner.run(new ISafeRunnable() {
+			@Override
+			public void handleException(Throwable e) {
+				if (logger != null) {
+					String message = "Exception occurred while creating: {0}"; //$NON-NLS-1$
+					logger.error(e, NLS.bind(message, part));
+				}
+			}
+
+			@Override
+			public void run() throws Exception {
+				Object newPart = contributionFactory.create(part.getContributionURI(), localContext);
+				part.setObject(newPart);
+			}
+		});
+		partComposite.layout(true, true);
+		partCreated(part, start, true);
+
+		// the part may have been activated while loading
+		EPartService partService = localContext.get(EPartService.class);
+		if (partService != null && partService.getActivePart() == part) {
+			engine.focusGui(part);
+		}
+	}
+
+	/**
+	 * Loads the class referenced by a <code>bundleclass://</code> URI, which
+	 * also starts its bundle.
+	 */
+	private static void loadContributionClass(IContributionFactory contributionFactory, String contributionURI) {
+		if (contributionURI == null || !contributionURI.startsWith(BUNDLECLASS_SCHEME)) {
+			return;
+		}
+		String path = contributionURI.substring(BUNDLECLASS_SCHEME.length());
+		int index = path.indexOf('/');
+		if (index == -1 || path.indexOf('/', index + 1) != -1) {
+			// not a class, e.g. a contribution of another language
+			return;
+		}
+		Bundle bundle = contributionFactory.getBundle(contributionURI);
+		if (bundle != null) {
+			try {
+				bundle.loadClass(path.substring(index + 1));
+			} catch (ClassNotFoundException e) {
+				// reported when creating the part
+			}
+		}
+	}
+
+	private void partCreated(MPart part, long start, boolean async) {
+		if (eventBroker == null) {
+			return;
+		}
+		Map<String, Object> data = new HashMap<>();
+		data.put(UIEvents.EventTags.ELEMENT, part);
+		data.put(PART_START_TIME, Long.valueOf((System.nanoTime() - start) / 1000000));
+		data.put(PART_CREATED_ASYNC, Boolean.valueOf(async));
+		eventBroker.post(TOPIC_PART_CREATED, data);
+	}
+
 	/**
 	 * @param part
 	 * @param description
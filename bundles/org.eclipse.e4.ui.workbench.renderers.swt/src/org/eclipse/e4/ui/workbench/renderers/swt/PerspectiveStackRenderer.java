@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.swt.PartRenderingEngine;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
@@ -75,7 +76,25 @@ public class PerspectiveStackRenderer extends LazyStackRenderer {
 
 	@Override
 	protected void showTab(MUIElement tabElement) {
-		MPerspective persp = (MPerspective) tabElement;
+		// Render a new perspective in a batch, so that its widgets are styled
+		// and laid out once. Showing a rendered perspective only reparents its
+		// widgets, which needs no batch.
+		PartRenderingEngine engine = renderer instanceof PartRenderingEngine && tabElement.getWidget() == null
+				? (PartRenderingEngine) renderer
+				: null;
+		if (engine != null) {
+			engine.beginBatch((Control) tabElement.getParent().getWidget());
+		}
+		try {
+			showPerspective((MPerspective) tabElement);
+		} finally {
+			if (engine != null) {
+				engine.commitBatch();
+			}
+		}
+	}
+
+	private void showPerspective(MPerspective persp) {
 
 		Control ctrl = (Control) persp.getWidget();
 		if (ctrl == null) {
@@ -373,6 +373,16 @@ public class E4Application implements IApplication {
 				.map(Boolean::parseBoolean).orElse(Boolean.FALSE);
 		eclipseContext.set(IWorkbench.CLEAR_PERSISTED_STATE, clearPersistedState);
 
+		// Binary snapshot of the persisted state
+		Boolean binaryPersistedState = getArgValue(E4Workbench.BINARY_PERSISTED_STATE, appContext, true)
+				.map(Boolean::parseBoolean).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.BINARY_PERSISTED_STATE, binaryPersistedState);
+
+		// Reuse of the model fragments merged into the persisted state
+		Boolean cacheAssembledModel = getArgValue(E4Workbench.CACHE_ASSEMBLED_MODEL, appContext, true)
+				.map(Boolean::parseBoolean).orElse(Boolean.FALSE);
+		eclipseContext.set(E4Workbench.CACHE_ASSEMBLED_MODEL, cacheAssembledModel);
+
 		String resourceHandler = getArgValue(IWorkbench.MODEL_RESOURCE_HANDLER, appContext, false)
 				.orElse("bundleclass://org.eclipse.e4.ui.workbench/" + ResourceHandler.class.getName());
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 IBM Corporation and others.
+ * Copyright (c) 2008, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -123,6 +123,12 @@ public class PartRenderingEngine implements IPresentationEngine {
 
 	public static final String ENABLED_THEME_KEY = "themeEnabled";
 
+	/**
+	 * The system property disabling the batches of
+	 * {@link #beginBatch(Control)}
+	 */
+	public static final String DISABLE_BATCH_RENDERING = "org.eclipse.e4.ui.workbench.swt.disableBatchRendering";
+
 	private String factoryUrl;
 
 	IRendererFactory curFactory = null;
@@ -314,7 +320,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 						final Control ctrl = (Control) w;
 						fixZOrder(added);
 						if (!ctrl.isDisposed()) {
-							ctrl.requestLayout();
+							requestLayout(ctrl);
 						}
 					}
 				} else {
@@ -676,6 +682,15 @@ public class PartRenderingEngine implements IPresentationEngine {
 				renderer.processContents(container);
 			}
 
+			// A window lays itself out when set up, so it must be styled
+			// by then
+			if (newWidget instanceof Shell) {
+				RenderingBatch batch = RenderingBatch.getCurrent();
+				if (batch != null) {
+					batch.applyStyles(getStylingEngine());
+				}
+			}
+
 			// Allow a final chance to set up
 			renderer.postProcess(element);
 
@@ -702,6 +717,55 @@ public class PartRenderingEngine implements IPresentationEngine {
 		return newWidget;
 	}
 
+	/**
+	 * Starts rendering in a batch. Until the matching {@link #commitBatch()},
+	 * the widgets created or moved for the changes of the model are not styled
+	 * nor laid out, and the given control is not redrawn. The widgets are then
+	 * styled and laid out once, when the batch is committed.
+	 * <p>
+	 * Batches can be nested, the deferred work is done when the outermost
+	 * batch is committed. Setting the system property
+	 * {@value #DISABLE_BATCH_RENDERING} to <code>true</code> renders every
+	 * change immediately.
+	 * </p>
+	 *
+	 * @param root
+	 *            the control not to redraw during the batch, or
+	 *            <code>null</code>
+	 * @see #commitBatch()
+	 */
+	public void beginBatch(Control root) {
+		Display display = Display.getCurrent();
+		if (display != null && !Boolean.getBoolean(DISABLE_BATCH_RENDERING)) {
+			RenderingBatch.open(display, root);
+		}
+	}
+
+	/**
+	 * Ends a batch started by {@link #beginBatch(Control)}. If it is the
+	 * outermost batch, styles and lays out the widgets rendered during the
+	 * batch, then redraws the controls given when starting it.
+	 */
+	public void commitBatch() {
+		RenderingBatch batch = RenderingBatch.getCurrent();
+		if (batch != null) {
+			batch.commit(getStylingEngine());
+		}
+	}
+
+	private void requestLayout(Control control) {
+		RenderingBatch batch = RenderingBatch.getCurrent();
+		if (batch != null) {
+			batch.requestLayout(control);
+		} else {
+			control.requestLayout();
+		}
+	}
+
+	private IStylingEngine getStylingEngine() {
+		return appContext == null ? null : appContext.get(IStylingEngine.class);
+	}
+
 	private IEclipseContext getContext(MUIElement parent) {
 		if (parent instanceof MContext) {
 			return ((MContext) parent).getContext();
@@ -1082,8 +1146,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 					spinOnce = false; // loop until the app closes
 					theApp = (MApplication) uiRoot;
 					// long startTime = System.currentTimeMillis();
-					for (MWindow window : theApp.getChildren()) {
-						createGui(window);
+					beginBatch(null);
+					try {
+						for (MWindow window : theApp.getChildren()) {
+							createGui(window);
+						}
+					} finally {
+						commitBatch();
 					}
 
 					// long endTime = System.currentTimeMillis();
@@ -1304,18 +1373,20 @@ public class PartRenderingEngine implements IPresentationEngine {
 				@Override
 				public void setClassname(Object widget, String classname) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					themeEngine.applyStyles(widget, true);
+					style(widget);
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					style(widget);
 				}
 
 				@Override
 				public void style(Object widget) {
-					themeEngine.applyStyles(widget, true);
+					if (!RenderingBatch.deferStyling(widget)) {
+						themeEngine.applyStyles(widget, true);
+					}
 				}
 
 				@Override
@@ -1327,7 +1398,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				public void setClassnameAndId(Object widget, String classname, String id) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					style(widget);
 				}
 			});
 
@@ -1347,18 +1418,20 @@ public class PartRenderingEngine implements IPresentationEngine {
 				@Override
 				public void setClassname(Object widget, String classname) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					cssEngine.applyStyles(widget, true);
+					style(widget);
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					style(widget);
 				}
 
 				@Override
 				public void style(Object widget) {
-					cssEngine.applyStyles(widget, true);
+					if (!RenderingBatch.deferStyling(widget)) {
+						cssEngine.applyStyles(widget, true);
+					}
 				}
 
 				@Override
@@ -1374,7 +1447,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				public void setClassnameAndId(Object widget, String classname, String id) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					style(widget);
 				}
 			});
 
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench.swt;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.services.IStylingEngine;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * The work deferred while the {@link PartRenderingEngine} renders in a batch.
+ * <p>
+ * While a batch is open on a display, the widgets are not styled nor laid out
+ * as they are created. They are remembered instead, and styled and laid out
+ * once when the batch is committed. The controls given when opening the batch
+ * are not redrawn until then, and are laid out entirely at commit if widgets
+ * were styled in the batch.
+ * </p>
+ */
+final class RenderingBatch {
+
+	private static final String BATCH_KEY = RenderingBatch.class.getName();
+
+	private final Display display;
+
+	private int depth;
+
+	/**
+	 * Whether the deferred styles are being applied, in which case the styling
+	 * is not deferred
+	 */
+	private boolean styling;
+
+	/**
+	 * Whether widgets have been styled after being created in the batch, in
+	 * which case the layout computed before may be wrong
+	 */
+	private boolean styled;
+
+	private final Set<Widget> unstyled = new LinkedHashSet<>();
+
+	private final Set<Control> unlaidOut = new LinkedHashSet<>();
+
+	private final List<Control> suspended = new ArrayList<>();
+
+	private RenderingBatch(Display display) {
+		this.display = display;
+	}
+
+	/**
+	 * @return the batch open on the current display, or <code>null</code> if
+	 *         none is open or the caller is not on a UI thread
+	 */
+	static RenderingBatch getCurrent() {
+		Display display = Display.getCurrent();
+		if (display == null || display.isDisposed()) {
+			return null;
+		}
+		return (RenderingBatch) display.getData(BATCH_KEY);
+	}
+
+	/**
+	 * Opens a batch on the given display, or joins the batch already open.
+	 *
+	 * @param display
+	 *            the display
+	 * @param root
+	 *            the control not to redraw until the batch is committed, or
+	 *            <code>null</code>
+	 * @return the batch
+	 */
+	static RenderingBatch open(Display display, Control root) {
+		RenderingBatch batch = (RenderingBatch) display.getData(BATCH_KEY);
+		if (batch == null) {
+			batch = new RenderingBatch(display);
+			display.setData(BATCH_KEY, batch);
+		}
+		batch.depth++;
+		if (root != null && !root.isDisposed() && !batch.suspended.contains(root)) {
+			root.setRedraw(false);
+			batch.suspended.add(root);
+		}
+		return batch;
+	}
+
+	/**
+	 * Defers the styling of the given widget if a batch is open.
+	 *
+	 * @param widget
+	 *            the widget to style
+	 * @return <code>true</code> if the styling was deferred,
+	 *         <code>false</code> if the caller must style the widget
+	 */
+	static boolean deferStyling(Object widget) {
+		if (!(widget instanceof Widget)) {
+			return false;
+		}
+		RenderingBatch batch = getCurrent();
+		if (batch == null || batch.styling || ((Widget) widget).isDisposed()) {
+			return false;
+		}
+		batch.unstyled.add((Widget) widget);
+		return true;
+	}
+
+	/**
+	 * Lays out the given control when the batch is committed.
+	 *
+	 * @param control
+	 *            the control whose layout changed
+	 */
+	void requestLayout(Control control) {
+		unlaidOut.add(control);
+	}
+
+	/**
+	 * Applies the styles deferred so far.
+	 *
+	 * @param stylingEngine
+	 *            the engine styling the widgets, can be <code>null</code>
+	 */
+	void applyStyles(IStylingEngine stylingEngine) {
+		if (unstyled.isEmpty()) {
+			return;
+		}
+		Set<Widget> widgets = new LinkedHashSet<>(unstyled);
+		unstyled.clear();
+		if (stylingEngine == null) {
+			return;
+		}
+		styling = true;
+		styled = true;
+		try {
+			for (Widget widget : widgets) {
+				// The children of a styled control are styled with it
+				if (!widget.isDisposed() && !hasStyledAncestor(widget, widgets)) {
+					stylingEngine.style(widget);
+				}
+			}
+		} finally {
+			styling = false;
+		}
+	}
+
+	private static boolean hasStyledAncestor(Widget widget, Set<Widget> styled) {
+		if (!(widget instanceof Control)) {
+			return false;
+		}
+		for (Control parent = ((Control) widget).getParent(); parent != null; parent = parent.getParent()) {
+			if (styled.contains(parent)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Closes the batch, and does the deferred work if it is the outermost one.
+	 *
+	 * @param stylingEngine
+	 *            the engine styling the widgets, can be <code>null</code>
+	 */
+	void commit(IStylingEngine stylingEngine) {
+		if (--depth > 0) {
+			return;
+		}
+		try {
+			applyStyles(stylingEngine);
+			layout();
+		} finally {
+			if (!display.isDisposed()) {
+				display.setData(BATCH_KEY, null);
+			}
+			for (int i = suspended.size() - 1; i >= 0; i--) {
+				Control control = suspended.get(i);
+				if (!control.isDisposed()) {
+					control.setRedraw(true);
+				}
+			}
+			suspended.clear();
+		}
+	}
+
+	private void layout() {
+		// The controls not redrawn are laid out entirely if their children
+		// were styled after being laid out
+		if (styled) {
+			for (Control root : suspended) {
+				if (!root.isDisposed() && root instanceof Composite) {
+					((Composite) root).layout(true, true);
+				}
+			}
+		}
+		Map<Shell, List<Control>> changedByShell = new LinkedHashMap<>();
+		for (Control control : unlaidOut) {
+			if (!control.isDisposed() && !isLaidOut(control)) {
+				changedByShell.computeIfAbsent(control.getShell(), shell -> new ArrayList<>()).add(control);
+			}
+		}
+		unlaidOut.clear();
+		for (Map.Entry<Shell, List<Control>> entry : changedByShell.entrySet()) {
+			List<Control> changed = entry.getValue();
+			entry.getKey().layout(changed.toArray(new Control[changed.size()]), SWT.DEFER);
+		}
+	}
+
+	private boolean isLaidOut(Control control) {
+		if (!styled) {
+			return false;
+		}
+		for (Control parent = control.getParent(); parent != null; parent = parent.getParent()) {
+			if (suspended.contains(parent)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -86,6 +86,21 @@ public class E4Workbench implements IWorkbench {
 	 * Value is: <code>forcedShowLocation</code>
 	 */
 	public static final String FORCED_SHOW_LOCATION = "forcedShowLocation"; //$NON-NLS-1$
+	/**
+	 * The argument for whether to save a binary snapshot of the workbench model
+	 * next to the XMI, and restore it when it is up to date <br>
+	 * <br>
+	 * Value is: <code>binaryPersistedState</code>
+	 */
+	public static final String BINARY_PERSISTED_STATE = "binaryPersistedState"; //$NON-NLS-1$
+	/**
+	 * The argument for whether the model fragments merged into a restored model
+	 * are reused as long as the contributing bundles do not change, instead of
+	 * being processed again <br>
+	 * <br>
+	 * Value is: <code>cacheAssembledModel</code>
+	 */
+	public static final String CACHE_ASSEMBLED_MODEL = "cacheAssembledModel"; //$NON-NLS-1$
 
 	private final String id;
 	private ServiceRegistration<?> osgiRegistration;
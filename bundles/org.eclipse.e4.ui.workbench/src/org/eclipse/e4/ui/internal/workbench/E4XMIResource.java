@@ -15,6 +15,8 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -29,7 +31,12 @@ import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EFactory;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.BinaryIO.Version;
+import org.eclipse.emf.ecore.util.BasicInternalEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
 import org.eclipse.emf.ecore.xmi.XMLSave;
 import org.eclipse.emf.ecore.xmi.impl.XMIHelperImpl;
@@ -77,6 +84,10 @@ public class E4XMIResource extends XMIResourceImpl {
 
 	@Override
 	public void setID(EObject eObject, String id) {
+		if (eObject == null) {
+			// id of an element filtered from a binary snapshot
+			return;
+		}
 		if (id != null) {
 			String internalId = objectMap.get(eObject);
 			if (internalId != null) {
@@ -176,4 +187,60 @@ public class E4XMIResource extends XMIResourceImpl {
 		}
 		return super.createXMLSave(options);
 	}
+
+	/*
+	 * Filter volatile UI elements when saving with XMLResource.OPTION_BINARY too.
+	 */
+	@Override
+	protected BinaryResourceImpl.EObjectOutputStream createEObjectOutputStream(OutputStream outputStream,
+			Map<?, ?> options, Version version, URIHandler uriHandler) throws IOException {
+		if (options != null && Boolean.TRUE.equals(options.get(OPTION_FILTER_PERSIST_STATE))) {
+			return new FilteringEObjectOutputStream(outputStream, options, version, uriHandler);
+		}
+		return super.createEObjectOutputStream(outputStream, options, version, uriHandler);
+	}
+
+	/**
+	 * Binary output stream which drops the elements {@link E4XMISave} does not
+	 * persist, together with their contents and the references to them.
+	 */
+	private static class FilteringEObjectOutputStream extends BinaryResourceImpl.EObjectOutputStream {
+
+		private final URIHandler uriHandler;
+
+		FilteringEObjectOutputStream(OutputStream outputStream, Map<?, ?> options, Version version,
+				URIHandler uriHandler) throws IOException {
+			super(outputStream, options, version);
+			this.uriHandler = uriHandler;
+		}
+
+		@Override
+		protected URI deresolve(URI uri) {
+			return uriHandler == null ? super.deresolve(uri) : uriHandler.deresolve(uri);
+		}
+
+		@Override
+		public void saveEObjects(InternalEList<? extends InternalEObject> internalEObjects, Check check)
+				throws IOException {
+			InternalEList<InternalEObject> persisted = null;
+			for (int i = 0, size = internalEObjects.size(); i < size; i++) {
+				InternalEObject internalEObject = internalEObjects.basicGet(i);
+				boolean filtered = !E4XMISave.isSaved(internalEObject);
+				if (filtered && persisted == null) {
+					persisted = new BasicInternalEList<>(InternalEObject.class, size);
+					for (int j = 0; j < i; j++) {
+						persisted.add(internalEObjects.basicGet(j));
+					}
+				} else if (!filtered && persisted != null) {
+					persisted.add(internalEObject);
+				}
+			}
+			super.saveEObjects(persisted == null ? internalEObjects : persisted, check);
+		}
+
+		@Override
+		public void saveEObject(InternalEObject internalEObject, Check check) throws IOException {
+			super.saveEObject(E4XMISave.isSaved(internalEObject) ? internalEObject : null, check);
+		}
+	}
 }
@@ -17,6 +17,7 @@ package org.eclipse.e4.ui.internal.workbench;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.workbench.IWorkbench;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.xmi.XMLHelper;
@@ -37,20 +38,52 @@ public class E4XMISave extends XMISaveImpl {
 	 */
 	@Override
 	protected void saveElement(InternalEObject o, EStructuralFeature f) {
+		if (!isPersisted(o)) {
+			return;
+		}
+
+		super.saveElement(o, f);
+	}
+
+	/**
+	 * Returns whether the given element is saved when
+	 * {@link E4XMIResource#OPTION_FILTER_PERSIST_STATE} is set, i.e. if it is not
+	 * marked as not persisted and is neither an opaque nor a rendered element.
+	 *
+	 * @param o the element
+	 * @return <code>true</code> if the element is saved
+	 */
+	static boolean isPersisted(EObject o) {
 		if (o instanceof MApplicationElement) {
 			MApplicationElement appElement = (MApplicationElement) o;
 			String persists = appElement.getPersistedState().get(IWorkbench.PERSIST_STATE);
 			if (persists != null && !Boolean.parseBoolean(persists)) {
-				return;
+				return false;
 			}
 		}
 		if (o instanceof MUIElement) {
 			MUIElement uiElement = (MUIElement) o;
 			if (OpaqueElementUtil.isOpaqueElement(uiElement) || RenderedElementUtil.isRenderedElement(uiElement)) {
-				return;
+				return false;
 			}
 		}
+		return true;
+	}
 
-		super.saveElement(o, f);
+	/**
+	 * Returns whether the given element and all of its containers are saved when
+	 * {@link E4XMIResource#OPTION_FILTER_PERSIST_STATE} is set.
+	 *
+	 * @param o the element
+	 * @return <code>true</code> if the element is saved
+	 * @see #isPersisted(EObject)
+	 */
+	static boolean isSaved(EObject o) {
+		for (EObject current = o; current != null; current = current.eContainer()) {
+			if (!isPersisted(current)) {
+				return false;
+			}
+		}
+		return true;
 	}
 }
@@ -18,6 +18,9 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -30,6 +33,7 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.inject.Inject;
+import javax.inject.Named;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.IExtension;
@@ -39,6 +43,7 @@ import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.EclipseContextFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.di.annotations.Execute;
+import org.eclipse.e4.core.di.annotations.Optional;
 import org.eclipse.e4.core.services.contributions.IContributionFactory;
 import org.eclipse.e4.core.services.log.Logger;
 import org.eclipse.e4.ui.model.application.MApplication;
@@ -59,6 +64,7 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.osgi.framework.Bundle;
 
 /**
  * The ModelAssembler is responsible for adding {@link MModelFragment fragments}
@@ -86,11 +92,35 @@ public class ModelAssembler {
 	@Inject
 	private IExtensionRegistry registry;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.CACHE_ASSEMBLED_MODEL)
+	private boolean cacheAssembledModel;
+
 	private static final String EXTENSION_POINT_ID = "org.eclipse.e4.workbench.model"; //$NON-NLS-1$
 
 	private static final String INITIAL = "initial"; //$NON-NLS-1$
 	private static final String NOTEXISTS = "notexists"; //$NON-NLS-1$
 
+	/**
+	 * Persisted state key of the application holding the fingerprint of the
+	 * fragments merged into the model, see
+	 * {@link E4Workbench#CACHE_ASSEMBLED_MODEL}
+	 */
+	static final String FRAGMENTS_FINGERPRINT = "org.eclipse.e4.ui.workbench.modelAssembler.fingerprint"; //$NON-NLS-1$
+
+	/**
+	 * Persisted state key of the application holding the time in milliseconds
+	 * it took to process the fragments
+	 */
+	static final String FRAGMENTS_PROCESSING_TIME = "org.eclipse.e4.ui.workbench.modelAssembler.time"; //$NON-NLS-1$
+
+	/**
+	 * Whether all fragments processed so far were merged into elements saved
+	 * with the model
+	 */
+	private boolean fragmentsPersisted;
+
 	/**
 	 * Processes the application model. This will run pre-processors, process the
 	 * fragments, resolve imports and run post-processors, in this order. <br>
@@ -107,12 +137,80 @@ public class ModelAssembler {
 
 		// run processors which are marked to run before fragments
 		runProcessors(extensions, initial, false);
-		// process fragments (and resolve imports)
-		processFragments(extensions, initial);
+		// process fragments (and resolve imports), unless they are already
+		// merged into the restored model
+		Map<String, String> persistedState = application.getPersistedState();
+		String fingerprint = cacheAssembledModel ? computeFragmentsFingerprint(extensions) : null;
+		if (!initial && fingerprint != null && fingerprint.equals(persistedState.get(FRAGMENTS_FINGERPRINT))) {
+			if (Policy.DEBUG_MODEL_ASSEMBLER) {
+				Activator.trace(Policy.DEBUG_MODEL_ASSEMBLER_FLAG,
+						"Model fragments are unchanged, skipped processing them (saved about " //$NON-NLS-1$
+								+ persistedState.get(FRAGMENTS_PROCESSING_TIME) + " ms)", //$NON-NLS-1$
+						null);
+			}
+		} else {
+			long start = System.nanoTime();
+			fragmentsPersisted = true;
+			processFragments(extensions, initial);
+			long elapsed = (System.nanoTime() - start) / 1000000;
+			if (fingerprint != null && fragmentsPersisted) {
+				persistedState.put(FRAGMENTS_FINGERPRINT, fingerprint);
+				persistedState.put(FRAGMENTS_PROCESSING_TIME, Long.toString(elapsed));
+			} else {
+				persistedState.remove(FRAGMENTS_FINGERPRINT);
+				persistedState.remove(FRAGMENTS_PROCESSING_TIME);
+			}
+			if (Policy.DEBUG_MODEL_ASSEMBLER) {
+				Activator.trace(Policy.DEBUG_MODEL_ASSEMBLER_FLAG, "Processed model fragments in " + elapsed + " ms" //$NON-NLS-1$ //$NON-NLS-2$
+						+ (fingerprint != null && !fragmentsPersisted ? ", not cached as they are not all persisted" //$NON-NLS-1$
+								: ""), //$NON-NLS-1$
+						null);
+			}
+		}
 		// run processors which are marked to run after fragments
 		runProcessors(extensions, initial, true);
 	}
 
+	/**
+	 * Computes a fingerprint of the fragments contributed by the given extensions:
+	 * their contributors, the version and modification time of the contributing
+	 * bundles, and the fragment locations and apply modes. Installing, updating or
+	 * removing a contributing bundle changes the fingerprint.
+	 *
+	 * @param extensions the sorted extensions
+	 * @return the fingerprint, or <code>null</code> if it cannot be computed
+	 */
+	private String computeFragmentsFingerprint(IExtension[] extensions) {
+		StringBuilder description = new StringBuilder();
+		for (IExtension extension : extensions) {
+			for (IConfigurationElement ce : extension.getConfigurationElements()) {
+				if (!"fragment".equals(ce.getName())) { //$NON-NLS-1$
+					continue;
+				}
+				String contributorName = ce.getContributor().getName();
+				description.append(contributorName).append('|');
+				Bundle bundle = Activator.getDefault().getBundleForName(contributorName);
+				if (bundle != null) {
+					description.append(bundle.getVersion()).append('|').append(bundle.getLastModified());
+				}
+				description.append('|').append(ce.getAttribute("uri")); //$NON-NLS-1$
+				description.append('|').append(ce.getAttribute("apply")).append('\n'); //$NON-NLS-1$
+			}
+		}
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256") //$NON-NLS-1$
+					.digest(description.toString().getBytes(StandardCharsets.UTF_8));
+			StringBuilder fingerprint = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+			}
+			return fingerprint.toString();
+		} catch (NoSuchAlgorithmException e) {
+			logger.warn(e, "Unable to compute the fingerprint of the model fragments"); //$NON-NLS-1$
+			return null;
+		}
+	}
+
 	/**
 	 * Adds the {@link MApplicationElement model elements} contributed by the
 	 * {@link IExtension extensions} to the {@link MApplication application model}.
@@ -129,6 +227,8 @@ public class ModelAssembler {
 				if ("fragment".equals(ce.getName()) && (initial || !INITIAL.equals(ce.getAttribute("apply")))) { //$NON-NLS-1$ //$NON-NLS-2$
 					MModelFragments fragmentsContainer = getFragmentsContainer(ce);
 					if (fragmentsContainer == null) {
+						// retry on the next start
+						fragmentsPersisted = false;
 						continue;
 					}
 					for (MModelFragment fragment : fragmentsContainer.getFragments()) {
@@ -255,6 +355,9 @@ public class ModelAssembler {
 		if (!merged.isEmpty()) {
 			evalImports = true;
 			addedElements.addAll(merged);
+			if (fragmentsPersisted && !isSaved(merged)) {
+				fragmentsPersisted = false;
+			}
 		} else {
 			logger.debug("Nothing to merge for fragment \"{0}\" of \"{1}\"", contributorURI, //$NON-NLS-1$
 					contributorName);
@@ -264,6 +367,25 @@ public class ModelAssembler {
 		}
 	}
 
+	/**
+	 * Returns whether the given merged elements and their contents are saved with
+	 * the application model, so that they are still present when it is restored.
+	 */
+	private static boolean isSaved(List<MApplicationElement> elements) {
+		for (MApplicationElement element : elements) {
+			EObject eObject = (EObject) element;
+			if (!E4XMISave.isSaved(eObject)) {
+				return false;
+			}
+			for (TreeIterator<EObject> it = eObject.eAllContents(); it.hasNext();) {
+				if (!E4XMISave.isPersisted(it.next())) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	private MModelFragments getFragmentsContainer(IConfigurationElement ce) {
 		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
 		ResourceSet resourceSet = applicationResource.getResourceSet();
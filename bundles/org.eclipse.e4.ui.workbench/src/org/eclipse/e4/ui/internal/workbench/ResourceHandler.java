@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2016 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,10 +20,16 @@
 package org.eclipse.e4.ui.internal.workbench;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -54,6 +60,7 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.eclipse.osgi.service.datalocation.Location;
 import org.osgi.framework.Bundle;
 
@@ -90,6 +97,11 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Named(IWorkbench.CLEAR_PERSISTED_STATE)
 	private boolean clearPersistedState;
 
+	@Inject
+	@Optional
+	@Named(E4Workbench.BINARY_PERSISTED_STATE)
+	private boolean binaryPersistedState;
+
 	/**
 	 * Constructor.
 	 *
@@ -143,20 +155,26 @@ public class ResourceHandler implements IModelResourceHandler {
 	@Override
 	public Resource loadMostRecentModel() {
 		File workbenchData = null;
+		File workbenchSnapshot = null;
 		URI restoreLocation = null;
 
 		if (saveAndRestore) {
 			workbenchData = getWorkbenchSaveLocation();
+			workbenchSnapshot = getWorkbenchSnapshotLocation();
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
 		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
 			workbenchData.delete();
 		}
+		if (clearPersistedState && workbenchSnapshot != null && workbenchSnapshot.exists()) {
+			workbenchSnapshot.delete();
+		}
 
 		// last stored time-stamp
 		long restoreLastModified = restoreLocation == null ? 0L : new File(
 				restoreLocation.toFileString()).lastModified();
+		long snapshotLastModified = workbenchSnapshot == null ? 0L : workbenchSnapshot.lastModified();
 
 		// See bug 380663, bug 381219
 		// long lastApplicationModification = getLastApplicationModification();
@@ -166,7 +184,14 @@ public class ResourceHandler implements IModelResourceHandler {
 
 		resource = null;
 		if (restore && saveAndRestore) {
-			resource = loadResource(restoreLocation);
+			// The binary snapshot carries the time-stamp of the XMI it was
+			// saved with, any other time-stamp means the XMI was saved without it
+			if (binaryPersistedState && snapshotLastModified == restoreLastModified) {
+				resource = loadSnapshot(workbenchSnapshot, restoreLocation);
+			}
+			if (resource == null) {
+				resource = loadResource(restoreLocation);
+			}
 			// If the saved model does not have any top-level windows, Eclipse will exit
 			// immediately, so throw out the persisted state and reinitialize with the defaults.
 			if (!hasTopLevelWindows(resource)) {
@@ -215,6 +240,59 @@ public class ResourceHandler implements IModelResourceHandler {
 			Map<String, Object> options = new HashMap<>();
 			options.put(E4XMIResource.OPTION_FILTER_PERSIST_STATE, Boolean.TRUE);
 			resource.save(options);
+			if (binaryPersistedState) {
+				saveSnapshot(options);
+			}
+		}
+	}
+
+	/**
+	 * Saves the model as a binary snapshot next to the XMI file, which remains
+	 * the format of record. The snapshot is written to a temporary file first so
+	 * that an interrupted save leaves no partial snapshot, and is given the
+	 * time-stamp of the XMI file, so that it is only loaded with the XMI it was
+	 * saved with. A snapshot that cannot be written is deleted.
+	 */
+	private void saveSnapshot(Map<String, Object> options) {
+		File snapshot = getWorkbenchSnapshotLocation();
+		File tempFile = new File(snapshot.getParentFile(), snapshot.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			Map<String, Object> binaryOptions = new HashMap<>(options);
+			binaryOptions.put(XMLResource.OPTION_BINARY, Boolean.TRUE);
+			try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+				resource.save(outputStream, binaryOptions);
+			}
+			long xmiLastModified = getWorkbenchSaveLocation().lastModified();
+			if (xmiLastModified == 0L || !tempFile.setLastModified(xmiLastModified)) {
+				throw new IOException("Unable to stamp the workbench snapshot " + tempFile); //$NON-NLS-1$
+			}
+			Files.move(tempFile.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException | RuntimeException e) {
+			if (logger != null) {
+				logger.warn(e, "Unable to save the workbench snapshot " + snapshot); //$NON-NLS-1$
+			}
+			tempFile.delete();
+			snapshot.delete();
+		}
+	}
+
+	/**
+	 * Loads the binary snapshot of the model into a resource for the XMI file.
+	 *
+	 * @return the resource, or <code>null</code> if the snapshot cannot be read
+	 */
+	private Resource loadSnapshot(File snapshot, URI uri) {
+		Resource snapshotResource = resourceSet.createResource(uri);
+		try (InputStream inputStream = new FileInputStream(snapshot)) {
+			snapshotResource.load(inputStream, Collections.singletonMap(XMLResource.OPTION_BINARY, Boolean.TRUE));
+			return snapshotResource;
+		} catch (IOException | RuntimeException e) {
+			if (logger != null) {
+				logger.warn(e, "Unable to load the workbench snapshot " + snapshot + ", falling back to XMI"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			snapshotResource.unload();
+			resourceSet.getResources().remove(snapshotResource);
+			return null;
 		}
 	}
 
@@ -244,6 +322,10 @@ public class ResourceHandler implements IModelResourceHandler {
 		return new File(getBaseLocation(), "workbench.xmi"); //$NON-NLS-1$
 	}
 
+	private File getWorkbenchSnapshotLocation() {
+		return new File(getBaseLocation(), "workbench.bin"); //$NON-NLS-1$
+	}
+
 	private File getBaseLocation() {
 		File baseLocation;
 		try {
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.workbench.UIEvents.EventTags;
+import org.osgi.service.event.EventProperties;
+
+/**
+ * The properties of the event sent for a model change.
+ * <p>
+ * The values of the {@link EventTags} are stored in an array sized for them,
+ * instead of a hash map per event. Since the properties are
+ * {@link EventProperties}, the event broker and the event admin use them
+ * without copying them. Like for the maps given to the event broker, the
+ * {@link IEventBroker#DATA} property maps to the other properties.
+ * </p>
+ * <p>
+ * The properties are set by the {@link UIEventPublisher} before the event is
+ * sent, and never modified afterwards.
+ * </p>
+ */
+final class UIEventProperties extends EventProperties {
+
+	static final int TYPE = 0;
+	static final int ELEMENT = 1;
+	static final int ATTNAME = 2;
+	static final int NEW_VALUE = 3;
+	static final int OLD_VALUE = 4;
+	static final int POSITION = 5;
+	static final int WIDGET = 6;
+
+	private static final String[] TAGS = { EventTags.TYPE, EventTags.ELEMENT, EventTags.ATTNAME, EventTags.NEW_VALUE,
+			EventTags.OLD_VALUE, EventTags.POSITION, EventTags.WIDGET };
+
+	private final Object[] values = new Object[TAGS.length];
+
+	/**
+	 * Bit mask of the tags that have a value, which can be <code>null</code>
+	 */
+	private int tags;
+
+	/**
+	 * The value of the {@link IEventBroker#DATA} property, created on demand
+	 */
+	private Map<String, Object> data;
+
+	/**
+	 * All properties, created on demand for the collection views
+	 */
+	private Map<String, Object> map;
+
+	UIEventProperties() {
+		// Nothing to copy
+		super((Map<String, ?>) null);
+	}
+
+	/**
+	 * Sets the value of a tag, before the event is sent.
+	 *
+	 * @param tag
+	 *            the index of the tag, e.g. {@link #ELEMENT}
+	 * @param value
+	 *            the value, can be <code>null</code>
+	 */
+	void set(int tag, Object value) {
+		values[tag] = value;
+		tags |= 1 << tag;
+	}
+
+	private int indexOf(Object key) {
+		for (int i = 0; i < TAGS.length; i++) {
+			if (TAGS[i] == key || TAGS[i].equals(key)) {
+				return (tags & (1 << i)) != 0 ? i : -1;
+			}
+		}
+		return -1;
+	}
+
+	private Map<String, Object> getData() {
+		if (data == null) {
+			Map<String, Object> tagValues = new LinkedHashMap<>();
+			for (int i = 0; i < TAGS.length; i++) {
+				if ((tags & (1 << i)) != 0) {
+					tagValues.put(TAGS[i], values[i]);
+				}
+			}
+			data = Collections.unmodifiableMap(tagValues);
+		}
+		return data;
+	}
+
+	private Map<String, Object> asMap() {
+		if (map == null) {
+			Map<String, Object> properties = new LinkedHashMap<>(getData());
+			properties.put(IEventBroker.DATA, getData());
+			map = Collections.unmodifiableMap(properties);
+		}
+		return map;
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (IEventBroker.DATA.equals(key)) {
+			return getData();
+		}
+		int index = indexOf(key);
+		return index == -1 ? null : values[index];
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return IEventBroker.DATA.equals(key) || indexOf(key) != -1;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return asMap().containsValue(value);
+	}
+
+	@Override
+	public int size() {
+		return Integer.bitCount(tags) + 1;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return asMap().keySet();
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return asMap().values();
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return asMap().entrySet();
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		return object == this || asMap().equals(object);
+	}
+
+	@Override
+	public int hashCode() {
+		return asMap().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+}
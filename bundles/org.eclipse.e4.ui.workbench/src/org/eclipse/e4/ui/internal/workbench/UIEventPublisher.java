@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,8 @@
  *******************************************************************************/
 package org.eclipse.e4.ui.internal.workbench;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
 import org.eclipse.e4.ui.model.application.MApplicationElement;
@@ -23,7 +23,6 @@ import org.eclipse.e4.ui.model.application.impl.StringToObjectMapImpl;
 import org.eclipse.e4.ui.model.application.impl.StringToStringMapImpl;
 import org.eclipse.e4.ui.model.application.ui.MUIElement;
 import org.eclipse.e4.ui.workbench.UIEvents;
-import org.eclipse.e4.ui.workbench.UIEvents.EventTags;
 import org.eclipse.e4.ui.workbench.UIEvents.EventTypes;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.ecore.EClass;
@@ -38,6 +37,12 @@ public class UIEventPublisher extends EContentAdapter {
 
 	private IEclipseContext context;
 
+	/**
+	 * The topics of the events, by event type, for each feature or map
+	 * attribute name
+	 */
+	private final Map<Object, String[]> topics = new ConcurrentHashMap<>();
+
 	/**
 	 * @param e4Context
 	 */
@@ -54,7 +59,7 @@ public class UIEventPublisher extends EContentAdapter {
 			return;
 
 		// Format the EMF event as an E4 UIEvent
-		Map<String, Object> argMap = new HashMap<>();
+		UIEventProperties argMap = new UIEventProperties();
 
 		String topic = formatData(notification, argMap);
 
@@ -102,7 +107,7 @@ public class UIEventPublisher extends EContentAdapter {
 	 * Likely there is some "simple" EMF wisdom we are missing to make this work with a couple of
 	 * annotations, a white swan and a full moon.
 	 */
-	private String formatData(final Notification notification, Map<String, Object> argMap) {
+	private String formatData(final Notification notification, UIEventProperties argMap) {
 		MApplicationElement appElement = null;
 		EStructuralFeature feature = null;
 		String attributeName = null;
@@ -118,7 +123,7 @@ public class UIEventPublisher extends EContentAdapter {
 			appElement = (MApplicationElement) notifier;
 			feature = (EStructuralFeature) notification.getFeature();
 			attributeName = feature.getName();
-			topic = getTopic(feature, getEventType(notification));
+			topic = getTopic(feature, notification);
 			switch (notification.getEventType()) {
 			case Notification.MOVE:
 				// for MOVE, oldValue is actually the source position
@@ -168,7 +173,7 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.TRANSIENTDATA;
-			topic = getTopic(attributeName, getEventType(notification));
+			topic = getTopic(attributeName, notification);
 
 			// We need to send MapEntries for the old and new values.
 			oldValue = createMapEntry(key, notification.getOldValue());
@@ -191,7 +196,7 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.PERSISTEDSTATE;
-			topic = getTopic(attributeName, getEventType(notification));
+			topic = getTopic(attributeName, notification);
 			oldValue = createMapEntry(key, notification.getOldValue());
 			newValue = createMapEntry(key, notification.getNewValue());
 		} else {
@@ -199,9 +204,9 @@ public class UIEventPublisher extends EContentAdapter {
 			return null;
 		}
 
-		argMap.put(EventTags.TYPE, getEventType(notification));
-		argMap.put(EventTags.ELEMENT, appElement);
-		argMap.put(EventTags.ATTNAME, attributeName);
+		argMap.set(UIEventProperties.TYPE, getEventType(notification));
+		argMap.set(UIEventProperties.ELEMENT, appElement);
+		argMap.set(UIEventProperties.ATTNAME, attributeName);
 
 		// no need to include UNSET
 		if (notification.getEventType() == Notification.SET
@@ -211,18 +216,18 @@ public class UIEventPublisher extends EContentAdapter {
 				|| notification.getEventType() == Notification.REMOVE
 				|| notification.getEventType() == Notification.REMOVE_MANY) {
 			if (newValue != null) {
-				argMap.put(EventTags.NEW_VALUE, newValue);
+				argMap.set(UIEventProperties.NEW_VALUE, newValue);
 			}
 			if (oldValue != null) {
-				argMap.put(EventTags.OLD_VALUE, oldValue);
+				argMap.set(UIEventProperties.OLD_VALUE, oldValue);
 			}
 			if (position != null) {
-				argMap.put(EventTags.POSITION, position);
+				argMap.set(UIEventProperties.POSITION, position);
 			}
 		}
 
 		if (appElement instanceof MUIElement) {
-			argMap.put(EventTags.WIDGET, ((MUIElement) appElement).getWidget());
+			argMap.set(UIEventProperties.WIDGET, ((MUIElement) appElement).getWidget());
 		}
 
 		return topic;
@@ -272,6 +277,32 @@ public class UIEventPublisher extends EContentAdapter {
 		};
 	}
 
+	/**
+	 * Returns the topic of the events of the given feature or map attribute
+	 * name, formatted once for each event type.
+	 */
+	private String getTopic(Object featureOrAttributeName, Notification notification) {
+		int eventType = notification.getEventType();
+		if (eventType < 0 || eventType >= Notification.EVENT_TYPE_COUNT) {
+			return formatTopic(featureOrAttributeName, getEventType(notification));
+		}
+		String[] eventTypeTopics = topics.computeIfAbsent(featureOrAttributeName,
+				key -> new String[Notification.EVENT_TYPE_COUNT]);
+		String topic = eventTypeTopics[eventType];
+		if (topic == null) {
+			topic = formatTopic(featureOrAttributeName, getEventType(notification));
+			eventTypeTopics[eventType] = topic;
+		}
+		return topic;
+	}
+
+	private String formatTopic(Object featureOrAttributeName, String type) {
+		if (featureOrAttributeName instanceof EStructuralFeature) {
+			return getTopic((EStructuralFeature) featureOrAttributeName, type);
+		}
+		return getTopic((String) featureOrAttributeName, type);
+	}
+
 	private String getTopic(EStructuralFeature eFeature, String type) {
 		EClass eContainingClass = eFeature.getEContainingClass();
 		return UIEvents.UIModelTopicBase + UIEvents.TOPIC_SEP
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2018 IBM Corporation and others.
+ * Copyright (c) 2004, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -87,6 +88,13 @@ public final class BindingManager extends HandleObjectManager implements
 	 */
 	private static String LOCALE_SEPARATOR = "_"; //$NON-NLS-1$
 
+	/**
+	 * The maximum number of binding sets kept in the cache. Switching between
+	 * parts usually goes back and forth between a few sets of active
+	 * contexts, so a small cache is enough.
+	 */
+	private static final int MAX_CACHED_BINDING_SETS = 32;
+
 	private Map currentConflicts = null;
 
 	/**
@@ -226,9 +234,29 @@ public final class BindingManager extends HandleObjectManager implements
 	/**
 	 * A cache of the bindings previously computed by this manager. This value
 	 * may be empty, but it is never <code>null</code>. This is a map of
-	 * <code>CachedBindingSet</code> to <code>CachedBindingSet</code>.
+	 * <code>CachedBindingSet</code> to <code>CachedBindingSet</code>, in
+	 * access order. The least recently used binding set is discarded when
+	 * there are more than <code>MAX_CACHED_BINDING_SETS</code>.
+	 */
+	private Map cachedBindings = new LinkedHashMap(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > MAX_CACHED_BINDING_SETS;
+		}
+	};
+
+	/**
+	 * The number of times the bindings were found in the cache.
 	 */
-	private Map cachedBindings = new HashMap();
+	private int cacheHitCount = 0;
+
+	/**
+	 * The number of times the bindings were not found in the cache, and had to
+	 * be computed.
+	 */
+	private int cacheMissCount = 0;
 
 	/**
 	 * The command manager for this binding manager. This manager is only needed
@@ -991,6 +1019,7 @@ public final class BindingManager extends HandleObjectManager implements
 			if (DEBUG) {
 				Tracing.printTrace("BINDINGS", "Cache hit"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			cacheHitCount++;
 
 			return Collections.unmodifiableMap(commandIdsByTrigger);
 		}
@@ -999,6 +1028,7 @@ public final class BindingManager extends HandleObjectManager implements
 		if (DEBUG) {
 			Tracing.printTrace("BINDINGS", "Cache miss"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		cacheMissCount++;
 
 		// Compute the active bindings.
 		commandIdsByTrigger = new HashMap();
@@ -1054,6 +1084,7 @@ public final class BindingManager extends HandleObjectManager implements
 			if (DEBUG) {
 				Tracing.printTrace("BINDINGS", "Cache hit"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			cacheHitCount++;
 
 			return Collections.unmodifiableMap(triggersByParameterizedCommand);
 		}
@@ -1062,6 +1093,7 @@ public final class BindingManager extends HandleObjectManager implements
 		if (DEBUG) {
 			Tracing.printTrace("BINDINGS", "Cache miss"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		cacheMissCount++;
 
 		// Compute the active bindings.
 		final Map commandIdsByTrigger = new HashMap();
@@ -1229,6 +1261,41 @@ public final class BindingManager extends HandleObjectManager implements
 		return null;
 	}
 
+	/**
+	 * <p>
+	 * Returns the number of times the bindings for the state of the
+	 * application were found among the bindings previously computed by this
+	 * manager. Together with {@link #getCacheMissCount()}, this tells how
+	 * often the bindings are recomputed when the contexts change.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(1)</code>.
+	 * </p>
+	 *
+	 * @return The number of cache hits since this manager was created.
+	 * @since 3.20
+	 */
+	public int getCacheHitCount() {
+		return cacheHitCount;
+	}
+
+	/**
+	 * <p>
+	 * Returns the number of times the bindings for the state of the
+	 * application had to be computed, because they were not found among the
+	 * bindings previously computed by this manager.
+	 * </p>
+	 * <p>
+	 * This method completes in <code>O(1)</code>.
+	 * </p>
+	 *
+	 * @return The number of cache misses since this manager was created.
+	 * @since 3.20
+	 */
+	public int getCacheMissCount() {
+		return cacheMissCount;
+	}
+
 	/**
 	 * <p>
 	 * Gets the currently active scheme.
@@ -1741,6 +1808,7 @@ public final class BindingManager extends HandleObjectManager implements
 			if (DEBUG) {
 				Tracing.printTrace("BINDINGS", "Cache hit"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
+			cacheHitCount++;
 			setActiveBindings(existingCache.getBindingsByTrigger(), existingCache.getTriggersByCommandId(),
 					existingCache.getPrefixTable(),
 					existingCache.getConflictsByTrigger());
@@ -1751,6 +1819,7 @@ public final class BindingManager extends HandleObjectManager implements
 		if (DEBUG) {
 			Tracing.printTrace("BINDINGS", "Cache miss"); //$NON-NLS-1$ //$NON-NLS-2$
 		}
+		cacheMissCount++;
 
 		// Compute the active bindings.
 		final Map commandIdsByTrigger = new HashMap();
@@ -0,0 +1,586 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * A cache of decoded image data, shared by the URL image descriptors. The
+ * entries are keyed by the URL of the image file and the zoom it was loaded
+ * for, and the least recently used entries are evicted when the total size of
+ * their pixels exceeds a maximum.
+ * <p>
+ * The cache can also persist the decoded image data across sessions, in a
+ * directory set with {@link #setPersistenceDirectory(File, long)}. Each image is
+ * stored in its own file as raw pixels, preceded by a small header, which is
+ * read back in one call, so that no image decoder runs for an image found on
+ * disk. The files are not memory mapped: the pixels are copied to the heap
+ * anyway, and a mapping would keep the file open until it is garbage
+ * collected, which prevents replacing or deleting it on Windows. Only the
+ * images loaded from a local file or a local jar are persisted, along with the
+ * time stamp and length of that file, so that an updated bundle does not get
+ * stale images.
+ * </p>
+ * <p>
+ * The image data returned by the cache are copies, which the callers may
+ * modify.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public final class ImageDataCache {
+
+	/**
+	 * The default maximum size of the image data kept in memory, in bytes.
+	 */
+	public static final long DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * The default maximum size of the image data files kept on disk, in bytes.
+	 */
+	public static final long DEFAULT_MAX_DISK_SIZE = 64 * 1024 * 1024;
+
+	/** The estimated size of an entry, without its pixels and key. */
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private static final int FILE_MAGIC = 0x4A464944; // "JFID"
+
+	private static final int FILE_VERSION = 1;
+
+	private static final String FILE_EXTENSION = ".imagedata"; //$NON-NLS-1$
+
+	private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+
+	private static final String FILE_PROTOCOL = "file"; //$NON-NLS-1$
+
+	private static final String JAR_PROTOCOL = "jar"; //$NON-NLS-1$
+
+	private static final String JAR_SEPARATOR = "!/"; //$NON-NLS-1$
+
+	private static final ImageDataCache DEFAULT = new ImageDataCache(DEFAULT_MAX_SIZE);
+
+	private static final class Entry {
+		final ImageData imageData;
+		final long size;
+
+		Entry(ImageData imageData, String key) {
+			this.imageData = imageData;
+			this.size = ENTRY_OVERHEAD + 2L * key.length() + getPixelSize(imageData);
+		}
+	}
+
+	private final long maxSize;
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long size;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long diskHitCount;
+
+	private File persistenceDirectory;
+
+	private long maxDiskSize = DEFAULT_MAX_DISK_SIZE;
+
+	private long diskSize;
+
+	/**
+	 * Creates a cache holding at most the given size of image data in memory.
+	 *
+	 * @param maxSize
+	 *            the maximum size of the image data kept in memory, in bytes
+	 */
+	public ImageDataCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cache shared by the URL image descriptors.
+	 *
+	 * @return the shared cache
+	 */
+	public static ImageDataCache getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the image data of the given image file for the given zoom. The
+	 * image data is looked up in memory, then on disk if persistence is
+	 * enabled, and is loaded with the given loader otherwise. A <code>null</code>
+	 * result of the loader, for an image missing at a zoom, is cached in memory
+	 * too.
+	 *
+	 * @param url
+	 *            the URL of the image file
+	 * @param zoom
+	 *            the zoom the image file is loaded for
+	 * @param loader
+	 *            the function decoding the image file, which may return
+	 *            <code>null</code>
+	 * @return a copy of the image data, or <code>null</code>
+	 */
+	public ImageData getImageData(URL url, int zoom, Function<URL, ImageData> loader) {
+		String key = getKey(url, zoom);
+		File directory;
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				hitCount++;
+				return copy(entry.imageData);
+			}
+			missCount++;
+			directory = persistenceDirectory;
+		}
+
+		String stamp = directory != null ? getStamp(url) : null;
+		File file = stamp != null ? new File(directory, getFileName(key)) : null;
+		ImageData imageData = file != null ? read(file, key, stamp) : null;
+		if (imageData != null) {
+			synchronized (this) {
+				diskHitCount++;
+			}
+		} else {
+			imageData = loader.apply(url);
+			if (imageData != null && file != null) {
+				write(directory, file, key, stamp, imageData);
+			}
+		}
+
+		synchronized (this) {
+			Entry entry = new Entry(imageData, key);
+			if (entry.size <= maxSize) {
+				Entry previous = entries.put(key, entry);
+				if (previous != null) {
+					size -= previous.size;
+				}
+				size += entry.size;
+				trim();
+			}
+		}
+		return copy(imageData);
+	}
+
+	/**
+	 * Returns whether the image data of the given image file for the given
+	 * zoom is available without decoding the image file, or may be made
+	 * available by loading it through this cache. This is the case when the
+	 * image data is held in memory, or when persistence is enabled.
+	 *
+	 * @param url
+	 *            the URL of the image file
+	 * @param zoom
+	 *            the zoom the image file is loaded for
+	 * @return whether the image should be loaded through this cache
+	 */
+	public synchronized boolean canProvide(URL url, int zoom) {
+		return persistenceDirectory != null || entries.containsKey(getKey(url, zoom));
+	}
+
+	/**
+	 * Enables or disables the persistence of the image data. When enabled, the
+	 * oldest files of the given directory are deleted until the files take at
+	 * most the given size.
+	 *
+	 * @param directory
+	 *            the directory to store the image data in, or <code>null</code>
+	 *            to disable the persistence
+	 * @param maxDiskSize
+	 *            the maximum size of the files in the directory, in bytes
+	 */
+	public void setPersistenceDirectory(File directory, long maxDiskSize) {
+		long currentDiskSize = 0;
+		if (directory != null) {
+			directory.mkdirs();
+			currentDiskSize = prune(directory, maxDiskSize);
+		}
+		synchronized (this) {
+			this.persistenceDirectory = directory;
+			this.maxDiskSize = maxDiskSize;
+			this.diskSize = currentDiskSize;
+		}
+	}
+
+	/**
+	 * Returns the directory the image data is persisted in.
+	 *
+	 * @return the directory, or <code>null</code> if persistence is disabled
+	 */
+	public synchronized File getPersistenceDirectory() {
+		return persistenceDirectory;
+	}
+
+	/**
+	 * Removes all the image data held in memory, and resets the statistics.
+	 * The persisted image data are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+		hitCount = 0;
+		missCount = 0;
+		diskHitCount = 0;
+	}
+
+	/**
+	 * Returns the estimated size of the image data held in memory.
+	 *
+	 * @return the size, in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum size of the image data held in memory.
+	 *
+	 * @return the maximum size, in bytes
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns the number of images held in memory.
+	 *
+	 * @return the number of images
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of requests answered from memory.
+	 *
+	 * @return the number of memory hits
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of requests not answered from memory, whether they
+	 * were answered from disk or by decoding the image file.
+	 *
+	 * @return the number of memory misses
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of memory misses answered from the persisted image
+	 * data.
+	 *
+	 * @return the number of disk hits
+	 */
+	public synchronized long getDiskHitCount() {
+		return diskHitCount;
+	}
+
+	/**
+	 * Returns the ratio of the requests answered without decoding an image
+	 * file, from memory or from disk.
+	 *
+	 * @return the hit rate, between 0 and 1
+	 */
+	public synchronized double getHitRate() {
+		long requests = hitCount + missCount;
+		return requests == 0 ? 0 : (double) (hitCount + diskHitCount) / requests;
+	}
+
+	private void trim() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (size > maxSize && iterator.hasNext()) {
+			size -= iterator.next().size;
+			iterator.remove();
+		}
+	}
+
+	private static String getKey(URL url, int zoom) {
+		return zoom + ":" + url.toExternalForm(); //$NON-NLS-1$
+	}
+
+	private static long getPixelSize(ImageData imageData) {
+		if (imageData == null) {
+			return 0;
+		}
+		long pixelSize = imageData.data.length;
+		if (imageData.maskData != null) {
+			pixelSize += imageData.maskData.length;
+		}
+		if (imageData.alphaData != null) {
+			pixelSize += imageData.alphaData.length;
+		}
+		return pixelSize;
+	}
+
+	private static ImageData copy(ImageData imageData) {
+		return imageData != null ? (ImageData) imageData.clone() : null;
+	}
+
+	/**
+	 * Returns a string identifying the version of the local file the given
+	 * image is loaded from, or <code>null</code> if the image is not loaded from
+	 * a local file.
+	 */
+	private static String getStamp(URL url) {
+		try {
+			if (InternalPolicy.OSGI_AVAILABLE) {
+				URL platformURL = FileLocator.find(url);
+				if (platformURL != null) {
+					url = platformURL;
+				}
+				url = FileLocator.resolve(url);
+			}
+			String entry = ""; //$NON-NLS-1$
+			if (JAR_PROTOCOL.equalsIgnoreCase(url.getProtocol())) {
+				String path = url.getPath();
+				int separator = path.indexOf(JAR_SEPARATOR);
+				if (separator == -1) {
+					return null;
+				}
+				entry = path.substring(separator);
+				url = new URL(path.substring(0, separator));
+			}
+			if (!FILE_PROTOCOL.equalsIgnoreCase(url.getProtocol())) {
+				return null;
+			}
+			File file = new File(url.getPath());
+			long lastModified = file.lastModified();
+			if (lastModified == 0) {
+				return null;
+			}
+			return file.getPath() + entry + ':' + lastModified + ':' + file.length();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static String getFileName(String key) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+			StringBuilder name = new StringBuilder();
+			for (byte b : digest.digest(key.getBytes(StandardCharsets.UTF_8))) {
+				name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return name.append(FILE_EXTENSION).toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-1
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Reads the image data persisted in the given file, or returns
+	 * <code>null</code> if the file is missing, unreadable, or was written for
+	 * another key or another version of the image file.
+	 */
+	private static ImageData read(File file, String key, String stamp) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			if (buffer.getInt() != FILE_MAGIC || buffer.getInt() != FILE_VERSION
+					|| !key.equals(readString(buffer)) || !stamp.equals(readString(buffer))) {
+				return null;
+			}
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			int depth = buffer.getInt();
+			int scanlinePad = buffer.getInt();
+			PaletteData palette;
+			int colorCount = buffer.getInt();
+			if (colorCount < 0) {
+				palette = new PaletteData(buffer.getInt(), buffer.getInt(), buffer.getInt());
+			} else {
+				RGB[] colors = new RGB[colorCount];
+				for (int i = 0; i < colorCount; i++) {
+					colors[i] = new RGB(buffer.get() & 0xFF, buffer.get() & 0xFF, buffer.get() & 0xFF);
+				}
+				palette = new PaletteData(colors);
+			}
+			ImageData imageData = new ImageData(width, height, depth, palette, scanlinePad, readBytes(buffer));
+			imageData.transparentPixel = buffer.getInt();
+			imageData.maskPad = buffer.getInt();
+			imageData.maskData = readBytes(buffer);
+			imageData.alpha = buffer.getInt();
+			imageData.alphaData = readBytes(buffer);
+			imageData.type = buffer.getInt();
+			imageData.x = buffer.getInt();
+			imageData.y = buffer.getInt();
+			imageData.disposalMethod = buffer.getInt();
+			imageData.delayTime = buffer.getInt();
+			file.setLastModified(System.currentTimeMillis());
+			return imageData;
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		return new String(readBytes(buffer), StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readBytes(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Writes the given image data to a temporary file, which is then moved to
+	 * the given file, so that a concurrent reader never sees a partial file.
+	 */
+	private void write(File directory, File file, String key, String stamp, ImageData imageData) {
+		File tempFile = new File(directory, file.getName() + TEMP_FILE_EXTENSION);
+		try {
+			try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(tempFile.toPath()));
+					DataOutputStream out = new DataOutputStream(stream)) {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(FILE_VERSION);
+				writeBytes(out, key.getBytes(StandardCharsets.UTF_8));
+				writeBytes(out, stamp.getBytes(StandardCharsets.UTF_8));
+				out.writeInt(imageData.width);
+				out.writeInt(imageData.height);
+				out.writeInt(imageData.depth);
+				out.writeInt(imageData.scanlinePad);
+				PaletteData palette = imageData.palette;
+				if (palette.isDirect) {
+					out.writeInt(-1);
+					out.writeInt(palette.redMask);
+					out.writeInt(palette.greenMask);
+					out.writeInt(palette.blueMask);
+				} else {
+					out.writeInt(palette.colors.length);
+					for (RGB color : palette.colors) {
+						out.writeByte(color.red);
+						out.writeByte(color.green);
+						out.writeByte(color.blue);
+					}
+				}
+				writeBytes(out, imageData.data);
+				out.writeInt(imageData.transparentPixel);
+				out.writeInt(imageData.maskPad);
+				writeBytes(out, imageData.maskData);
+				out.writeInt(imageData.alpha);
+				writeBytes(out, imageData.alphaData);
+				out.writeInt(imageData.type);
+				out.writeInt(imageData.x);
+				out.writeInt(imageData.y);
+				out.writeInt(imageData.disposalMethod);
+				out.writeInt(imageData.delayTime);
+			}
+			long fileSize = tempFile.length();
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			boolean prune;
+			synchronized (this) {
+				diskSize += fileSize;
+				prune = diskSize > maxDiskSize && directory.equals(persistenceDirectory);
+			}
+			if (prune) {
+				long currentDiskSize = prune(directory, maxDiskSize * 3 / 4);
+				synchronized (this) {
+					diskSize = currentDiskSize;
+				}
+			}
+		} catch (IOException e) {
+			tempFile.delete();
+			Policy.getLog().log(new Status(IStatus.WARNING, Policy.JFACE,
+					"Cannot persist image data, persistence disabled: " + file, e)); //$NON-NLS-1$
+			synchronized (this) {
+				if (directory.equals(persistenceDirectory)) {
+					persistenceDirectory = null;
+				}
+			}
+		}
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		if (bytes == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used files of the given directory until they
+	 * take at most the given size, and returns the size they take.
+	 */
+	private static long prune(File directory, long maxDiskSize) {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files == null) {
+			return 0;
+		}
+		long[] lastModified = new long[files.length];
+		Integer[] order = new Integer[files.length];
+		long total = 0;
+		for (int i = 0; i < files.length; i++) {
+			lastModified[i] = files[i].lastModified();
+			order[i] = Integer.valueOf(i);
+			total += files[i].length();
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> lastModified[i.intValue()]));
+		for (int i = 0; i < order.length && total > maxDiskSize; i++) {
+			File file = files[order[i].intValue()];
+			long length = file.length();
+			if (file.delete()) {
+				total -= length;
+			}
+		}
+		return total;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,6 +24,7 @@ import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.internal.InternalPolicy;
 import org.eclipse.jface.util.Policy;
 import org.eclipse.swt.SWT;
@@ -74,7 +75,7 @@ class URLImageDescriptor extends ImageDescriptor {
 			if (tempURL != null) {
 				URL xUrl = getxURL(tempURL, zoom);
 				if (xUrl != null) {
-					return URLImageDescriptor.getImageData(xUrl);
+					return ImageDataCache.getDefault().getImageData(xUrl, zoom, URLImageDescriptor::getImageData);
 				}
 			}
 			return null;
@@ -110,7 +111,11 @@ class URLImageDescriptor extends ImageDescriptor {
 	@Deprecated
 	@Override
 	public ImageData getImageData() {
-		return getImageData(getURL(url));
+		URL tempURL = getURL(url);
+		if (tempURL == null) {
+			return null;
+		}
+		return ImageDataCache.getDefault().getImageData(tempURL, 100, URLImageDescriptor::getImageData);
 	}
 
 	@Override
@@ -258,7 +263,9 @@ class URLImageDescriptor extends ImageDescriptor {
 		try {
 
 			if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_2x) {
-				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY) {
+				// Decoded image data cached in memory or on disk is cheaper to
+				// load than the image file.
+				if (!InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_DIRECTLY && !isCached()) {
 					try {
 						return new Image(device, new URLImageFileNameProvider(url));
 					} catch (SWTException | IllegalArgumentException exception) {
@@ -292,7 +299,7 @@ class URLImageDescriptor extends ImageDescriptor {
 
 			// Try to see if we can optimize using SWTs file based image support.
 			URL pathURL = getURL(url);
-			if (pathURL != null) {
+			if (pathURL != null && !isCached()) {
 				String path = getFilePath(pathURL, true);
 				if (path != null) {
 					try {
@@ -313,6 +320,11 @@ class URLImageDescriptor extends ImageDescriptor {
 		}
 	}
 
+	private boolean isCached() {
+		URL tempURL = getURL(url);
+		return tempURL != null && ImageDataCache.getDefault().canProvide(tempURL, 100);
+	}
+
 	private static URL getURL(String urlString) {
 		URL result = null;
 		try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -47,11 +47,10 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
  * </ol>
  *
  * <p>
- * Internally, sorting is done using a <code>LazySortedCollection</code>. This data structure
- * allows the content provider to locate and sort the visible range without fully sorting
- * all elements in the table. It also supports fast cancellation, allowing the visible range
- * to change in the middle of a sort without discarding partially-sorted information from
- * the previous range.
+ * Internally, sorting is done using a <code>ConcurrentSortedCollection</code>. This data
+ * structure keeps the elements sorted as they are added and locates the visible range by
+ * position, so that changing the visible range never requires sorting. It can be read
+ * while other threads wait to modify it.
  * </p>
  *
  * @since 3.1
@@ -182,10 +181,10 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 
 		mon.beginTask(SORTING, 100);
 
-		// Create a LazySortedCollection
+		// Create a ConcurrentSortedCollection
 		Comparator order = sortOrder;
 		IFilter f = filter;
-		LazySortedCollection collection = new LazySortedCollection(order);
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(order);
 
 		// Fill it in with all existing known objects
 		Object[] knownObjects = updator.getKnownObjects();
@@ -201,15 +200,15 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 
 		// Start processing changes
 		while(true) {
-			// If the sort order has changed, build a new LazySortedCollection with
-			// the new comparator
+			// If the sort order has changed, build a new ConcurrentSortedCollection
+			// with the new comparator
 			if (order != sortOrder) {
 				dirty = true;
 				order = sortOrder;
 				// Copy all elements from the old collection to the new one
-				LazySortedCollection newCollection = new LazySortedCollection(order);
+				ConcurrentSortedCollection newCollection = new ConcurrentSortedCollection(order);
 
-				Object[] items = collection.getItems(false);
+				Object[] items = collection.getItems();
 				for (int j = 0; j < items.length && order == sortOrder; j++) {
 					Object item = items[j];
 
@@ -229,7 +228,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 				dirty = true;
 				f = filter;
 
-				Object[] items = collection.getItems(false);
+				Object[] items = collection.getItems();
 
 				// Remove any items that don't pass the new filter
 				for (int j = 0; j < items.length && f == filter; j++) {
@@ -307,41 +306,40 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 				break;
 			}
 
-			try {
-				ConcurrentTableUpdator.Range updateRange = updator.getVisibleRange();
-				sortMon = new FastProgressReporter();
-				range = updateRange;
-				int sortStart = updateRange.start;
-				int sortLength = updateRange.length;
+			ConcurrentTableUpdator.Range updateRange = updator.getVisibleRange();
+			sortMon = new FastProgressReporter();
+			range = updateRange;
+			int sortStart = updateRange.start;
+			int sortLength = updateRange.length;
 
-				if (limit != -1) {
-					collection.retainFirst(limit, sortMon);
-				}
-
-				sortLength = Math.min(sortLength, totalElements - sortStart);
-				sortLength = Math.max(sortLength, 0);
+			if (limit != -1) {
+				collection.retainFirst(limit);
+			}
 
-				Object[] objectsOfInterest = new Object[sortLength];
+			sortLength = Math.min(sortLength, totalElements - sortStart);
+			sortLength = Math.max(sortLength, 0);
 
-				collection.getRange(objectsOfInterest, sortStart, true, sortMon);
+			Object[] objectsOfInterest = new Object[sortLength];
 
-				// Send the new elements to the table
-				for (int i = 0; i < sortLength; i++) {
-					Object object = objectsOfInterest[i];
-					updator.replace(object, sortStart + i);
-				}
+			collection.getRange(objectsOfInterest, sortStart);
 
-				objectsOfInterest = new Object[collection.size()];
+			// Send the visible elements to the table first
+			for (int i = 0; i < sortLength; i++) {
+				Object object = objectsOfInterest[i];
+				updator.replace(object, sortStart + i);
+			}
 
-				collection.getFirst(objectsOfInterest, true, sortMon);
+			objectsOfInterest = new Object[collection.size()];
 
-				// Send the new elements to the table
-				for (int i = 0; i < totalElements; i++) {
-					Object object = objectsOfInterest[i];
-					updator.replace(object, i);
-				}
+			collection.getFirst(objectsOfInterest);
 
-			} catch (InterruptedException e) {
+			// Send the new elements to the table, unless the visible range
+			// changed meanwhile
+			for (int i = 0; i < totalElements && !sortMon.isCanceled(); i++) {
+				Object object = objectsOfInterest[i];
+				updator.replace(object, i);
+			}
+			if (sortMon.isCanceled()) {
 				continue;
 			}
 
@@ -355,7 +353,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 	 * @param collection
 	 * @param toAdd
 	 */
-	private static void filteredAdd(LazySortedCollection collection, Object[] toAdd, IFilter filter) {
+	private static void filteredAdd(ConcurrentSortedCollection collection, Object[] toAdd, IFilter filter) {
 		if (filter != AcceptAllFilter.getInstance()) {
 			for (Object object : toAdd) {
 				if (filter.select(object)) {
@@ -541,7 +539,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 	 * @param toFlush changed elements
 	 * @param collection collection of currently-known elements
 	 */
-	private void flush(Object[] toFlush, LazySortedCollection collection) {
+	private void flush(Object[] toFlush, ConcurrentSortedCollection collection) {
 		for (Object item : toFlush) {
 			if (collection.contains(item)) {
 				updator.clear(item);
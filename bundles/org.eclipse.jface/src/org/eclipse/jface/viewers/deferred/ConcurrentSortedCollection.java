@@ -0,0 +1,458 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers.deferred;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A thread-safe collection of elements, kept sorted by a comparator given in
+ * the constructor, whose elements can be queried by their position in the
+ * sorted order.
+ * <p>
+ * The elements are stored in a list of sorted chunks of bounded size, like
+ * the leaves of a B-tree: an element is added by binary searching the chunk,
+ * then the position in the chunk, and the element at a given position is
+ * found by summing the sizes of the preceding chunks. Unlike
+ * {@link LazySortedCollection}, elements are sorted as they are added, so that
+ * reading any range never requires sorting.
+ * </p>
+ * <p>
+ * Each element is mapped to the chunk holding it, so that it is removed
+ * without searching it by its sort key: it can still be removed after the
+ * comparator changed its mind about it. Elements equal to an element of the
+ * collection are not added, and elements the comparator considers equal are
+ * kept in the order they were added.
+ * </p>
+ * <p>
+ * Reads share a lock and modifications take it exclusively: the elements of a
+ * visible range can be read while other threads wait to add elements, but
+ * never see a partially applied modification.
+ * </p>
+ *
+ * @since 3.20
+ */
+public class ConcurrentSortedCollection {
+
+	/**
+	 * Maximum number of elements of a chunk. Full chunks are split in two.
+	 */
+	private static final int MAX_CHUNK_SIZE = 512;
+
+	private static final class Chunk {
+		final Object[] values = new Object[MAX_CHUNK_SIZE];
+
+		int size;
+	}
+
+	private final Comparator comparator;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Lock readLock = lock.readLock();
+	private final Lock writeLock = lock.writeLock();
+
+	// Guarded by the lock
+	private final Map<Object, Chunk> chunkOf = new HashMap<>();
+	private final List<Chunk> chunks = new ArrayList<>();
+
+	/**
+	 * Creates an empty collection sorted by the given comparator.
+	 *
+	 * @param comparator
+	 *            comparator that defines the sort order
+	 */
+	public ConcurrentSortedCollection(Comparator comparator) {
+		Assert.isNotNull(comparator);
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Returns the comparator that defines the sort order of this collection.
+	 *
+	 * @return the comparator
+	 */
+	public Comparator getComparator() {
+		return comparator;
+	}
+
+	/**
+	 * Returns the number of elements in this collection.
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		readLock.lock();
+		try {
+			return chunkOf.size();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns true if this collection is empty.
+	 *
+	 * @return true if the collection is empty
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns true if this collection contains the given element.
+	 *
+	 * @param item
+	 *            element to test
+	 * @return true if the element is in this collection
+	 */
+	public boolean contains(Object item) {
+		readLock.lock();
+		try {
+			return chunkOf.containsKey(item);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the given element to this collection, unless it already contains
+	 * it.
+	 *
+	 * @param toAdd
+	 *            element to add
+	 */
+	public void add(Object toAdd) {
+		writeLock.lock();
+		try {
+			internalAdd(toAdd);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the given elements to this collection.
+	 *
+	 * @param toAdd
+	 *            elements to add
+	 */
+	public void addAll(Object[] toAdd) {
+		writeLock.lock();
+		try {
+			for (Object object : toAdd) {
+				internalAdd(object);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the given elements to this collection.
+	 *
+	 * @param toAdd
+	 *            elements to add
+	 */
+	public void addAll(Collection toAdd) {
+		addAll(toAdd.toArray());
+	}
+
+	/**
+	 * Removes the given element from this collection. Does nothing if the
+	 * collection does not contain it.
+	 *
+	 * @param toRemove
+	 *            element to remove
+	 */
+	public void remove(Object toRemove) {
+		writeLock.lock();
+		try {
+			internalRemove(toRemove);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the given elements from this collection.
+	 *
+	 * @param toRemove
+	 *            elements to remove
+	 */
+	public void removeAll(Object[] toRemove) {
+		writeLock.lock();
+		try {
+			for (Object object : toRemove) {
+				internalRemove(object);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all elements but the first n elements of the sorted collection.
+	 *
+	 * @param n
+	 *            number of elements to keep
+	 */
+	public void retainFirst(int n) {
+		writeLock.lock();
+		try {
+			if (n >= chunkOf.size()) {
+				return;
+			}
+			int kept = 0;
+			int chunkIndex = 0;
+			while (kept + chunks.get(chunkIndex).size <= n) {
+				kept += chunks.get(chunkIndex).size;
+				chunkIndex++;
+			}
+			if (kept < n) {
+				// keep the beginning of this chunk
+				Chunk chunk = chunks.get(chunkIndex);
+				int keep = n - kept;
+				for (int i = keep; i < chunk.size; i++) {
+					chunkOf.remove(chunk.values[i]);
+					chunk.values[i] = null;
+				}
+				chunk.size = keep;
+				chunkIndex++;
+			}
+			for (int c = chunks.size() - 1; c >= chunkIndex; c--) {
+				Chunk chunk = chunks.remove(c);
+				for (int i = 0; i < chunk.size; i++) {
+					chunkOf.remove(chunk.values[i]);
+				}
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all elements from this collection.
+	 */
+	public void clear() {
+		writeLock.lock();
+		try {
+			chunkOf.clear();
+			chunks.clear();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the element at the given position of the sorted collection.
+	 *
+	 * @param index
+	 *            position of the element, between 0 and size() - 1
+	 * @return the element at the given position
+	 */
+	public Object getItem(int index) {
+		readLock.lock();
+		try {
+			Assert.isTrue(index >= 0 && index < chunkOf.size());
+			for (Chunk chunk : chunks) {
+				if (index < chunk.size) {
+					return chunk.values[index];
+				}
+				index -= chunk.size;
+			}
+			return null;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Fills the given array with the elements of the sorted collection
+	 * starting at the given position. Fills the whole array, unless the
+	 * collection has fewer elements.
+	 *
+	 * @param result
+	 *            array receiving the elements
+	 * @param rangeStart
+	 *            position of the first element to return
+	 * @return the number of elements returned
+	 */
+	public int getRange(Object[] result, int rangeStart) {
+		readLock.lock();
+		try {
+			if (rangeStart < 0) {
+				return 0;
+			}
+			int count = 0;
+			int skip = rangeStart;
+			for (int c = 0; c < chunks.size() && count < result.length; c++) {
+				Chunk chunk = chunks.get(c);
+				if (skip >= chunk.size) {
+					skip -= chunk.size;
+					continue;
+				}
+				int length = Math.min(chunk.size - skip, result.length - count);
+				System.arraycopy(chunk.values, skip, result, count, length);
+				count += length;
+				skip = 0;
+			}
+			return count;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Fills the given array with the first elements of the sorted collection.
+	 *
+	 * @param result
+	 *            array receiving the elements
+	 * @return the number of elements returned
+	 */
+	public int getFirst(Object[] result) {
+		return getRange(result, 0);
+	}
+
+	/**
+	 * Returns all elements of this collection, sorted.
+	 *
+	 * @return the elements of this collection
+	 */
+	public Object[] getItems() {
+		readLock.lock();
+		try {
+			Object[] result = new Object[chunkOf.size()];
+			int count = 0;
+			for (Chunk chunk : chunks) {
+				System.arraycopy(chunk.values, 0, result, count, chunk.size);
+				count += chunk.size;
+			}
+			return result;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * @return the index of the chunk where the given element is inserted: the
+	 *         first chunk whose last element is greater, or the last chunk
+	 */
+	private int findChunk(Object value) {
+		int low = 0;
+		int high = chunks.size() - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			Chunk chunk = chunks.get(middle);
+			if (comparator.compare(chunk.values[chunk.size - 1], value) <= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the index where the given element is inserted in the chunk,
+	 *         after the elements which are not greater, between 0 and the size
+	 *         of the chunk
+	 */
+	private int findInChunk(Chunk chunk, Object value) {
+		int low = 0;
+		int high = chunk.size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (comparator.compare(chunk.values[middle], value) <= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private void internalAdd(Object toAdd) {
+		if (chunkOf.containsKey(toAdd)) {
+			return;
+		}
+		if (chunks.isEmpty()) {
+			chunks.add(new Chunk());
+		}
+		int chunkIndex = findChunk(toAdd);
+		Chunk chunk = chunks.get(chunkIndex);
+		if (chunk.size == MAX_CHUNK_SIZE) {
+			// split the full chunk in two halves
+			Chunk second = new Chunk();
+			int half = MAX_CHUNK_SIZE / 2;
+			second.size = MAX_CHUNK_SIZE - half;
+			System.arraycopy(chunk.values, half, second.values, 0, second.size);
+			for (int i = half; i < MAX_CHUNK_SIZE; i++) {
+				chunkOf.put(chunk.values[i], second);
+				chunk.values[i] = null;
+			}
+			chunk.size = half;
+			chunks.add(chunkIndex + 1, second);
+			if (comparator.compare(chunk.values[half - 1], toAdd) <= 0) {
+				chunk = second;
+			}
+		}
+		int index = findInChunk(chunk, toAdd);
+		System.arraycopy(chunk.values, index, chunk.values, index + 1, chunk.size - index);
+		chunk.values[index] = toAdd;
+		chunk.size++;
+		chunkOf.put(toAdd, chunk);
+	}
+
+	private void internalRemove(Object toRemove) {
+		Chunk chunk = chunkOf.remove(toRemove);
+		if (chunk == null) {
+			return;
+		}
+		int index = indexInChunk(chunk, toRemove);
+		chunk.size--;
+		System.arraycopy(chunk.values, index + 1, chunk.values, index, chunk.size - index);
+		chunk.values[chunk.size] = null;
+		if (chunk.size == 0) {
+			chunks.remove(chunk);
+		}
+	}
+
+	/**
+	 * @return the index of the given element in the chunk which holds it
+	 */
+	private int indexInChunk(Chunk chunk, Object value) {
+		// Look among the elements comparing equal to it first, then in the
+		// whole chunk in case its sort key changed since it was added
+		int index = findInChunk(chunk, value);
+		for (int i = index - 1; i >= 0 && comparator.compare(chunk.values[i], value) == 0; i--) {
+			if (value.equals(chunk.values[i])) {
+				return i;
+			}
+		}
+		for (int i = 0; i < chunk.size; i++) {
+			if (value.equals(chunk.values[i])) {
+				return i;
+			}
+		}
+		throw new IllegalStateException();
+	}
+}
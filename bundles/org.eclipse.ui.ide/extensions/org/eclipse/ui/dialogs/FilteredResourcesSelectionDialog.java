@@ -519,6 +519,20 @@ public class FilteredResourcesSelectionDialog extends FilteredItemsSelectionDial
 	protected void fillContentProvider(AbstractContentProvider contentProvider, ItemsFilter itemsFilter,
 			IProgressMonitor progressMonitor) throws CoreException {
 		if (itemsFilter instanceof ResourceFilter) {
+			ResourceFilter resourceFilter = (ResourceFilter) itemsFilter;
+			// the index only finds the names matching the pattern, subclasses
+			// of the filter may match more resources
+			List<IResource> candidates = null;
+			if (resourceFilter.getClass() == ResourceFilter.class) {
+				candidates = IDEWorkbenchPlugin.getDefault().getResourceNameIndex().findCandidates(container,
+						resourceFilter.getPattern(), resourceFilter.getMatchRule());
+			}
+			if (candidates != null) {
+				fillContentProvider(contentProvider, resourceFilter, candidates, progressMonitor);
+				return;
+			}
+
+			// the index is being built, visit the resources
 			IResource[] members = container.members();
 			progressMonitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
 					members.length);
@@ -540,6 +554,26 @@ public class FilteredResourcesSelectionDialog extends FilteredItemsSelectionDial
 		progressMonitor.done();
 	}
 
+	/**
+	 * Adds the resources found by the resource name index, skipping the same
+	 * resources as {@link ResourceProxyVisitor}.
+	 */
+	private void fillContentProvider(AbstractContentProvider contentProvider, ResourceFilter resourceFilter,
+			List<IResource> candidates, IProgressMonitor progressMonitor) {
+		progressMonitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
+				candidates.size());
+		contentProvider.add(container, resourceFilter);
+		for (IResource resource : candidates) {
+			if (progressMonitor.isCanceled())
+				break;
+			if (resource.isAccessible()
+					&& (resourceFilter.isShowDerived() || !resource.isDerived(IResource.CHECK_ANCESTORS)))
+				contentProvider.add(resource, resourceFilter);
+			progressMonitor.worked(1);
+		}
+		progressMonitor.done();
+	}
+
 	/**
 	 * Sets the derived flag on the ResourceFilter instance
 	 */
@@ -1067,6 +1101,15 @@ public class FilteredResourcesSelectionDialog extends FilteredItemsSelectionDial
 					&& (this.showDerived || !resource.isDerived());
 		}
 
+		/**
+		 * Matching only reads the patterns of this filter and the resources, so it
+		 * can be done concurrently.
+		 */
+		@Override
+		public boolean supportsConcurrentMatching() {
+			return true;
+		}
+
 		private boolean matchName(IResource resource) {
 			String name = resource.getName();
 			if (nameMatches(name)) {
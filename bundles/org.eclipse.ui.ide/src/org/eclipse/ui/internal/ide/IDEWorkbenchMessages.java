@@ -1111,6 +1111,8 @@ public class IDEWorkbenchMessages extends NLS {
 	public static String WorkbenchPreference_maxSimultaneousBuilds;
 	public static String WorkbenchPreference_maxSimultaneousBuildIntervalError;
 
+	public static String ResourceNameIndex_jobName;
+
 	static {
 		// load message values from bundle file
 		NLS.initializeMessages(BUNDLE_NAME, IDEWorkbenchMessages.class);
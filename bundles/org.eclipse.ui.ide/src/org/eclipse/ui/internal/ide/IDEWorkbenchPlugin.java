@@ -109,6 +109,11 @@ public class IDEWorkbenchPlugin extends AbstractUIPlugin {
 
 	private ResourceManager resourceManager;
 
+	/**
+	 * Index of the resource names; lazily initialized.
+	 */
+	private ResourceNameIndex resourceNameIndex;
+
 	/**
 	 * Create an instance of the receiver.
 	 */
@@ -334,11 +339,29 @@ public class IDEWorkbenchPlugin extends AbstractUIPlugin {
 		return resourceManager;
 	}
 
+	/**
+	 * Return the index of the resource names of the workspace, starting to
+	 * load or build it in the background on first access.
+	 *
+	 * @return the resource name index
+	 */
+	public synchronized ResourceNameIndex getResourceNameIndex() {
+		if (resourceNameIndex == null) {
+			resourceNameIndex = new ResourceNameIndex(getPluginWorkspace(), getStateLocation().toFile());
+			resourceNameIndex.start();
+		}
+		return resourceNameIndex;
+	}
+
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		super.stop(context);
 		if (resourceManager != null)
 			resourceManager.dispose();
+		synchronized (this) {
+			if (resourceNameIndex != null)
+				resourceNameIndex.dispose();
+		}
 	}
 
 	@Override
@@ -0,0 +1,716 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.dialogs.SearchPattern;
+
+/**
+ * Index of the names of the resources of the workspace, used by the Open
+ * Resource dialog to find the resources whose name may match a pattern without
+ * walking the workspace.
+ * <p>
+ * Each resource is stored as the index of its parent and its name, with two
+ * signatures of its name: a 64 bit set with one bit per character trigram of
+ * the lower case name, the first character being preceded by two start
+ * markers, and a 64 bit set with one bit per upper case character or digit,
+ * i.e. per CamelCase segment. A query computes the bits that the signatures of
+ * any matching name must have, so that only the few names including them need
+ * to be checked.
+ * </p>
+ * <p>
+ * The index is built in the background the first time it is needed, then kept
+ * up to date from resource deltas. It is saved in the state location with the
+ * workspace and loaded again in the next session, applying the changes made
+ * since the save from the saved state delta.
+ * </p>
+ */
+public class ResourceNameIndex implements IResourceChangeListener, ISaveParticipant {
+
+	private static final int VERSION = 1;
+
+	private static final String SAVE_KEY = "resourceNameIndex"; //$NON-NLS-1$
+
+	private static final String FILE_PREFIX = "resourceNameIndex."; //$NON-NLS-1$
+
+	private static final char START = '\0';
+
+	/**
+	 * Number of removed entries above which the index is compacted
+	 */
+	private static final int MIN_COMPACTION = 1024;
+
+	private final IWorkspace workspace;
+
+	private final File stateLocation;
+
+	private final Job initializeJob;
+
+	private volatile boolean ready;
+
+	// Guarded by this. Parents always have a smaller index than their
+	// children, the removed entries have a type of 0.
+	private int size;
+	private int[] parents = new int[1024];
+	private String[] names = new String[1024];
+	private byte[] types = new byte[1024];
+	private long[] signatures = new long[1024];
+	private long[] camelSignatures = new long[1024];
+	private int removed;
+
+	/**
+	 * Open addressing hash table of the entries by parent and name, holding
+	 * index + 1, or 0 for empty slots
+	 */
+	private int[] table = new int[2048];
+
+	/**
+	 * Containers removed by the delta being processed, their members need to
+	 * be removed as well
+	 */
+	private boolean removedContainers;
+
+	/**
+	 * Creates an index of the given workspace, saved in the given directory.
+	 *
+	 * @param workspace     the workspace to index
+	 * @param stateLocation the directory to save the index in
+	 */
+	public ResourceNameIndex(IWorkspace workspace, File stateLocation) {
+		this.workspace = workspace;
+		this.stateLocation = stateLocation;
+		initializeJob = new Job(IDEWorkbenchMessages.ResourceNameIndex_jobName) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return initialize(monitor);
+			}
+		};
+		initializeJob.setSystem(true);
+		initializeJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Loads or builds the index in the background.
+	 */
+	public void start() {
+		initializeJob.schedule();
+	}
+
+	/**
+	 * Stops maintaining the index.
+	 */
+	public void dispose() {
+		initializeJob.cancel();
+		workspace.removeResourceChangeListener(this);
+		ready = false;
+	}
+
+	/**
+	 * @return whether the index has been loaded or built and can be queried
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	IStatus initialize(IProgressMonitor monitor) {
+		try {
+			ISavedState state = workspace.addSaveParticipant(IDEWorkbenchPlugin.IDE_WORKBENCH, this);
+			boolean loaded = false;
+			if (state != null) {
+				IPath fileName = state.lookup(new Path(SAVE_KEY));
+				if (fileName != null) {
+					loaded = load(new File(stateLocation, fileName.toString()));
+				}
+			}
+			workspace.addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+			if (loaded) {
+				// apply the changes made since the index was saved
+				state.processResourceChangeEvents(this);
+			} else {
+				build(monitor);
+			}
+			if (monitor.isCanceled()) {
+				workspace.removeResourceChangeListener(this);
+				return Status.CANCEL_STATUS;
+			}
+			ready = true;
+			return Status.OK_STATUS;
+		} catch (CoreException e) {
+			workspace.removeResourceChangeListener(this);
+			return e.getStatus();
+		}
+	}
+
+	private void build(IProgressMonitor monitor) throws CoreException {
+		synchronized (this) {
+			clear();
+		}
+		IProject[] projects = workspace.getRoot().getProjects();
+		SubMonitor subMonitor = SubMonitor.convert(monitor, projects.length);
+		for (IProject project : projects) {
+			if (subMonitor.isCanceled()) {
+				return;
+			}
+			synchronized (this) {
+				add(-1, project.getName(), IResource.PROJECT);
+			}
+			if (project.isAccessible()) {
+				addMembers(project);
+			}
+			subMonitor.worked(1);
+		}
+	}
+
+	/**
+	 * Adds the members of the given container, whose entry must exist.
+	 */
+	private void addMembers(IContainer container) throws CoreException {
+		container.accept(proxy -> {
+			if (proxy.getType() != IResource.ROOT) {
+				synchronized (this) {
+					int parent = find(proxy.requestFullPath().removeLastSegments(1));
+					if (parent == -2) {
+						return false;
+					}
+					add(parent, proxy.getName(), proxy.getType());
+				}
+			}
+			return true;
+		}, IResource.NONE);
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		List<IProject> openedProjects = new ArrayList<>();
+		synchronized (this) {
+			try {
+				delta.accept(d -> processDelta(d, openedProjects));
+			} catch (CoreException e) {
+				IDEWorkbenchPlugin.log(e.getMessage(), e);
+			}
+			if (removedContainers) {
+				removedContainers = false;
+				removeOrphans();
+			}
+			if (removed > MIN_COMPACTION && removed > size / 2) {
+				compact();
+			}
+		}
+		for (IProject project : openedProjects) {
+			try {
+				addMembers(project);
+			} catch (CoreException e) {
+				IDEWorkbenchPlugin.log(e.getMessage(), e);
+			}
+		}
+	}
+
+	private boolean processDelta(IResourceDelta delta, List<IProject> openedProjects) {
+		IResource resource = delta.getResource();
+		if (resource.getType() == IResource.ROOT) {
+			return true;
+		}
+		switch (delta.getKind()) {
+		case IResourceDelta.ADDED:
+			addResource(resource);
+			return true;
+		case IResourceDelta.REMOVED:
+			remove(resource);
+			return false;
+		case IResourceDelta.CHANGED:
+			if ((delta.getFlags() & IResourceDelta.OPEN) != 0 && resource.getType() == IResource.PROJECT) {
+				// drop the members of the project, or add them if it has been opened
+				remove(resource);
+				addResource(resource);
+				if (resource.isAccessible()) {
+					openedProjects.add((IProject) resource);
+				}
+				return false;
+			}
+			if ((delta.getFlags() & IResourceDelta.TYPE) != 0) {
+				addResource(resource);
+			}
+			return true;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Adds the given resource and its missing ancestors.
+	 *
+	 * @return the index of the resource
+	 */
+	private int addResource(IResource resource) {
+		if (resource.getType() == IResource.ROOT) {
+			return -1;
+		}
+		int parent = addResource(resource.getParent());
+		return add(parent, resource.getName(), resource.getType());
+	}
+
+	private void remove(IResource resource) {
+		int index = find(resource.getFullPath());
+		if (index >= 0 && types[index] != 0) {
+			if (types[index] != IResource.FILE) {
+				removedContainers = true;
+			}
+			types[index] = 0;
+			removed++;
+		}
+	}
+
+	/**
+	 * Removes the entries whose parent has been removed.
+	 */
+	private void removeOrphans() {
+		for (int i = 0; i < size; i++) {
+			int parent = parents[i];
+			if (types[i] != 0 && parent >= 0 && types[parent] == 0) {
+				types[i] = 0;
+				removed++;
+			}
+		}
+	}
+
+	private static int hash(int parent, String name) {
+		int hash = parent * 31 + name.hashCode();
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * @return the slot of the table holding the given entry, or the empty
+	 *         slot where it would be added
+	 */
+	private int slot(int parent, String name) {
+		int mask = table.length - 1;
+		for (int slot = hash(parent, name) & mask;; slot = (slot + 1) & mask) {
+			int index = table[slot] - 1;
+			if (index < 0 || (parents[index] == parent && name.equals(names[index]))) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * @return the index of the resource with the given path, -1 for the
+	 *         workspace root or -2 if there is none
+	 */
+	private int find(IPath path) {
+		int index = -1;
+		for (int i = 0; i < path.segmentCount(); i++) {
+			index = table[slot(index, path.segment(i))] - 1;
+			if (index < 0 || types[index] == 0) {
+				return -2;
+			}
+		}
+		return index;
+	}
+
+	private int add(int parent, String name, int type) {
+		int slot = slot(parent, name);
+		int existing = table[slot] - 1;
+		if (existing >= 0 && types[existing] != 0) {
+			if (types[existing] == type) {
+				return existing;
+			}
+			removedContainers |= types[existing] != IResource.FILE;
+			types[existing] = 0;
+			removed++;
+		}
+		if (size == parents.length) {
+			int capacity = size * 2;
+			parents = Arrays.copyOf(parents, capacity);
+			names = Arrays.copyOf(names, capacity);
+			types = Arrays.copyOf(types, capacity);
+			signatures = Arrays.copyOf(signatures, capacity);
+			camelSignatures = Arrays.copyOf(camelSignatures, capacity);
+		}
+		int index = size++;
+		parents[index] = parent;
+		names[index] = name;
+		types[index] = (byte) type;
+		signatures[index] = signature(name);
+		camelSignatures[index] = camelSignature(name);
+		table[slot] = index + 1;
+		if (size * 2 > table.length) {
+			rehash(table.length * 2);
+		}
+		return index;
+	}
+
+	private void rehash(int capacity) {
+		table = new int[capacity];
+		for (int i = 0; i < size; i++) {
+			// later entries replace the removed ones with the same name
+			table[slot(parents[i], names[i])] = i + 1;
+		}
+	}
+
+	/**
+	 * Drops the removed entries.
+	 */
+	private void compact() {
+		int[] newIndexes = new int[size];
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+			if (types[i] == 0) {
+				newIndexes[i] = -1;
+				continue;
+			}
+			int parent = parents[i];
+			parents[newSize] = parent < 0 ? parent : newIndexes[parent];
+			names[newSize] = names[i];
+			types[newSize] = types[i];
+			signatures[newSize] = signatures[i];
+			camelSignatures[newSize] = camelSignatures[i];
+			newIndexes[i] = newSize++;
+		}
+		Arrays.fill(names, newSize, size, null);
+		size = newSize;
+		removed = 0;
+		int capacity = 2048;
+		while (capacity < size * 2) {
+			capacity *= 2;
+		}
+		rehash(capacity);
+	}
+
+	private void clear() {
+		size = 0;
+		removed = 0;
+		Arrays.fill(names, null);
+		table = new int[2048];
+	}
+
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static int gramBit(char c1, char c2, char c3) {
+		int hash = (c1 * 31 + c2) * 31 + c3;
+		return (hash ^ (hash >>> 6) ^ (hash >>> 12)) & 63;
+	}
+
+	/**
+	 * @return the bits of the trigrams of the given folded text, preceded by
+	 *         two start markers if anchored
+	 */
+	private static long gramBits(CharSequence text, boolean anchored) {
+		long bits = 0;
+		char c1 = START;
+		char c2 = START;
+		for (int i = 0; i < text.length(); i++) {
+			char c3 = text.charAt(i);
+			if (anchored || i >= 2) {
+				bits |= 1L << gramBit(c1, c2, c3);
+			}
+			c1 = c2;
+			c2 = c3;
+		}
+		return bits;
+	}
+
+	private static String fold(String name) {
+		char[] chars = new char[name.length()];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = fold(name.charAt(i));
+		}
+		return new String(chars);
+	}
+
+	private static long signature(String name) {
+		return gramBits(fold(name), true);
+	}
+
+	private static boolean isCamelCaseChar(char c) {
+		return Character.isUpperCase(c) || Character.isDigit(c);
+	}
+
+	private static long camelSignature(String name) {
+		long bits = 0;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (isCamelCaseChar(c)) {
+				bits |= 1L << (c & 63);
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Necessary conditions on the names matching a pattern.
+	 */
+	static final class Query {
+		/**
+		 * Folded parts of the pattern that the names contain, the first one at
+		 * their start if {@link #anchored}
+		 */
+		final List<String> fragments = new ArrayList<>();
+
+		boolean anchored;
+
+		/** Bits of the trigrams of the fragments */
+		long required;
+
+		/**
+		 * Bits of the upper case characters of a CamelCase pattern, or 0. The
+		 * names matching a CamelCase pattern either have these bits or start
+		 * with the pattern.
+		 */
+		long camelRequired;
+
+		/** Bits of the trigrams of the pattern used as prefix */
+		long prefixRequired;
+
+		/**
+		 * @param pattern   the pattern of a {@link SearchPattern}
+		 * @param matchRule its match rule
+		 */
+		Query(String pattern, int matchRule) {
+			if (matchRule == SearchPattern.RULE_BLANK_MATCH) {
+				return;
+			}
+			// Split the pattern on wildcards, on dots since the name and the
+			// extension may be matched separately, and before the upper case
+			// characters starting CamelCase segments. Each part is then
+			// contained in the matching names, whatever the match rule.
+			StringBuilder fragment = new StringBuilder();
+			for (int i = 0; i < pattern.length(); i++) {
+				char c = pattern.charAt(i);
+				boolean separator = c == '*' || c == '?' || c == '.' || c == '\\' || c == '<' || c == ' ';
+				if (i == 0) {
+					anchored = !separator;
+				}
+				if (separator || isCamelCaseChar(c)) {
+					addFragment(fragment);
+				}
+				if (!separator) {
+					fragment.append(fold(c));
+				}
+			}
+			addFragment(fragment);
+			if (matchRule == SearchPattern.RULE_CAMELCASE_MATCH && pattern.indexOf('.') == -1) {
+				camelRequired = camelSignature(pattern);
+				prefixRequired = gramBits(fold(pattern), true);
+			}
+		}
+
+		private void addFragment(StringBuilder fragment) {
+			if (fragment.length() > 0) {
+				boolean first = fragments.isEmpty();
+				fragments.add(fragment.toString());
+				required |= gramBits(fragment, first && anchored);
+				fragment.setLength(0);
+			}
+		}
+
+		boolean matchesSignatures(long signature, long camelSignature) {
+			return (signature & required) == required && (camelRequired == 0
+					|| (camelSignature & camelRequired) == camelRequired
+					|| (signature & prefixRequired) == prefixRequired);
+		}
+
+		boolean matchesFragments(String name) {
+			String folded = fold(name);
+			for (int i = 0; i < fragments.size(); i++) {
+				String fragment = fragments.get(i);
+				if (i == 0 && anchored ? !folded.startsWith(fragment) : !folded.contains(fragment)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Finds the resources under the given container whose name may match the
+	 * given pattern. All matching resources are returned, the caller must check
+	 * which ones actually match. Returned resources may not exist any more.
+	 *
+	 * @param container the container to search
+	 * @param pattern   the pattern of a {@link SearchPattern}
+	 * @param matchRule its match rule
+	 * @return the candidate resources, or <code>null</code> if the index is not
+	 *         ready or does not contain the container
+	 */
+	public List<IResource> findCandidates(IContainer container, String pattern, int matchRule) {
+		if (!ready) {
+			return null;
+		}
+		Query query = new Query(pattern, matchRule);
+		IWorkspaceRoot root = workspace.getRoot();
+		List<IResource> candidates = new ArrayList<>();
+		synchronized (this) {
+			int scope = find(container.getFullPath());
+			if (scope == -2) {
+				return null;
+			}
+			StringBuilder path = new StringBuilder();
+			for (int i = 0; i < size; i++) {
+				if (types[i] == 0 || !query.matchesSignatures(signatures[i], camelSignatures[i])
+						|| !query.matchesFragments(names[i])) {
+					continue;
+				}
+				path.setLength(0);
+				int ancestor = i;
+				while (ancestor > scope) {
+					path.insert(0, names[ancestor]).insert(0, IPath.SEPARATOR);
+					ancestor = parents[ancestor];
+				}
+				if (ancestor != scope) {
+					continue;
+				}
+				if (scope >= 0) {
+					path.insert(0, container.getFullPath().toString());
+				}
+				switch (types[i]) {
+				case IResource.FILE:
+					candidates.add(root.getFile(new Path(path.toString())));
+					break;
+				case IResource.FOLDER:
+					candidates.add(root.getFolder(new Path(path.toString())));
+					break;
+				case IResource.PROJECT:
+					candidates.add(root.getProject(names[i]));
+					break;
+				default:
+					break;
+				}
+			}
+		}
+		return candidates;
+	}
+
+	private boolean load(File file) {
+		if (!file.isFile()) {
+			return false;
+		}
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (input.readInt() != VERSION) {
+				return false;
+			}
+			int count = input.readInt();
+			synchronized (this) {
+				clear();
+				int[] indexes = new int[count];
+				for (int i = 0; i < count; i++) {
+					int parent = input.readInt();
+					int type = input.readByte();
+					String name = input.readUTF();
+					if (parent >= i || parent < -1) {
+						clear();
+						return false;
+					}
+					indexes[i] = add(parent < 0 ? parent : indexes[parent], name, type);
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			IDEWorkbenchPlugin.log(e.getMessage(), e);
+			synchronized (this) {
+				clear();
+			}
+			return false;
+		}
+	}
+
+	private synchronized void save(File file) throws IOException {
+		compact();
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(VERSION);
+			output.writeInt(size);
+			for (int i = 0; i < size; i++) {
+				output.writeInt(parents[i]);
+				output.writeByte(types[i]);
+				output.writeUTF(names[i]);
+			}
+		}
+	}
+
+	@Override
+	public void prepareToSave(ISaveContext context) throws CoreException {
+		// nothing to prepare
+	}
+
+	@Override
+	public void saving(ISaveContext context) throws CoreException {
+		if (context.getKind() != ISaveContext.FULL_SAVE) {
+			return;
+		}
+		// Without a mapping the index is built again in the next session
+		context.needSaveNumber();
+		if (!ready) {
+			return;
+		}
+		String fileName = FILE_PREFIX + context.getSaveNumber();
+		try {
+			save(new File(stateLocation, fileName));
+		} catch (IOException e) {
+			throw new CoreException(
+					new Status(IStatus.ERROR, IDEWorkbenchPlugin.IDE_WORKBENCH, e.getMessage(), e));
+		}
+		context.map(new Path(SAVE_KEY), new Path(fileName));
+		context.needDelta();
+	}
+
+	@Override
+	public void doneSaving(ISaveContext context) {
+		if (context.getKind() == ISaveContext.FULL_SAVE) {
+			new File(stateLocation, FILE_PREFIX + context.getPreviousSaveNumber()).delete();
+		}
+	}
+
+	@Override
+	public void rollback(ISaveContext context) {
+		if (context.getKind() == ISaveContext.FULL_SAVE) {
+			new File(stateLocation, FILE_PREFIX + context.getSaveNumber()).delete();
+		}
+	}
+}
@@ -15,7 +15,9 @@
 package org.eclipse.ui.internal.views.markers;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.jobs.Job;
@@ -131,11 +133,7 @@ public class CachedMarkerBuilder {
 			PlatformUI.getWorkbench().getWorkingSetManager().removePropertyChangeListener(getWorkingSetListener());
 		}
 
-		if (isIncremental()) {
-			if (incrementJob != null) {
-				incrementJob.clearEntries();
-			}
-		}
+		clearPendingUpdates();
 	}
 
 	/**
@@ -452,10 +450,6 @@ public class CachedMarkerBuilder {
 				// ensure cancellation before calling the method
 				// updateJob.cancel();
 			} else {
-				/*
-				 * updateJob = isIncremental() ? new IncrementUpdateJob(this):
-				 * new MarkerUpdateJob(this);
-				 */
 				updateJob = new MarkerUpdateJob(this);
 				updateJob.setPriority(Job.LONG);
 				updateJob.setSystem(true);
@@ -598,20 +592,19 @@ public class CachedMarkerBuilder {
 	}
 
 ///////	<Incremental update code>///////
-		private IncrementUpdateJob incrementJob;
+	// marker deltas not yet applied to the markers
+	private final List<MarkerUpdate> pendingUpdates = new ArrayList<>();
+
 	/**
-	 * Checks whether the builder should perform incrementally Note : Incremental
-	 * updating method is NOT used and tested yet but left out for further
-	 * investigation(*).
+	 * Checks whether the builder applies marker deltas to the markers it has
+	 * gathered, instead of gathering them again on every change. The markers
+	 * are still gathered again when the filters, the scope, the grouping or
+	 * the generator change.
 	 *
 	 * @return Returns true if we should collect markers incrementally.
 	 */
 	boolean isIncremental() {
-		/*
-		 * We do not update incrementally. We have
-		 * code for further investigation(*) for this anyway.
-		 */
-		return false;
+		return true;
 	}
 
 	/**
@@ -642,17 +635,36 @@ public class CachedMarkerBuilder {
 	}
 
 	/**
-	 * Handles an incremental update
+	 * Handles an incremental update. The update is applied by the next
+	 * marker update job.
+	 *
 	 * @param update
 	 */
 	void incrementalUpdate(MarkerUpdate update) {
-		synchronized (getUpdateScheduler().getSchedulingLock()) {
-			if (incrementJob == null) {
-				scheduleUpdateJob(MarkerUpdateScheduler.SHORT_DELAY, true);
-			}
+		synchronized (pendingUpdates) {
+			pendingUpdates.add(update);
 		}
-		if (incrementJob != null) {
-			incrementJob.addUpdate(update);
+	}
+
+	/**
+	 * @return the updates received since the last call, in the order they
+	 *         were received
+	 */
+	List<MarkerUpdate> takePendingUpdates() {
+		synchronized (pendingUpdates) {
+			List<MarkerUpdate> updates = new ArrayList<>(pendingUpdates);
+			pendingUpdates.clear();
+			return updates;
+		}
+	}
+
+	/**
+	 * Forget the updates received so far, e.g. because the markers are going
+	 * to be gathered again.
+	 */
+	void clearPendingUpdates() {
+		synchronized (pendingUpdates) {
+			pendingUpdates.clear();
 		}
 	}
 ///////	</Incremental update code>///////
@@ -35,6 +35,12 @@ class MarkerCategory extends MarkerSupportItem {
 
 	private final Markers markers;
 
+	/**
+	 * Identifies the children of the receiver: a category with the same
+	 * revision has the same children.
+	 */
+	final long revision;
+
 	/**
 	 * Create a new instance of the receiver that has the markers between
 	 * startIndex and endIndex showing.
@@ -43,13 +49,36 @@ class MarkerCategory extends MarkerSupportItem {
 	 * @param startIndex
 	 * @param endIndex
 	 *            the builder used to generate the children lazily.
+	 * @param categoryName
+	 * @param revision
 	 */
 	MarkerCategory(Markers markers, int startIndex,
-			int endIndex, String categoryName) {
+			int endIndex, String categoryName, long revision) {
 		this.markers = markers;
 		start = startIndex;
 		end = endIndex;
 		name = categoryName;
+		this.revision = revision;
+	}
+
+	/**
+	 * Create a new instance of the receiver with the given children, which
+	 * are the markers between startIndex and endIndex.
+	 *
+	 * @param markers
+	 * @param startIndex
+	 * @param endIndex
+	 * @param categoryName
+	 * @param categoryChildren
+	 * @param revision
+	 */
+	MarkerCategory(Markers markers, int startIndex, int endIndex, String categoryName,
+			MarkerEntry[] categoryChildren, long revision) {
+		this(markers, startIndex, endIndex, categoryName, revision);
+		for (MarkerEntry markerEntry : categoryChildren) {
+			markerEntry.setCategory(this);
+		}
+		children = categoryChildren;
 	}
 
 	@Override
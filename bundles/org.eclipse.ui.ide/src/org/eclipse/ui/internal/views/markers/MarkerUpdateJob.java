@@ -69,18 +69,29 @@ class MarkerUpdateJob extends Job {
 		// builder.getUpdateScheduler().indicateStatus(
 		// MarkerMessages.MarkerView_searching_for_markers, false);
 
-		Collection<MarkerEntry> markerEntries = new LinkedList<>();
-		//this is not incremental clean every time
-		clean = !clean(markerEntries, monitor);
-		if (monitor.isCanceled()) {
-			return;
+		if (!clean && builder.isIncremental()) {
+			monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+			if (!processMarkerUpdates(builder.takePendingUpdates(), monitor)) {
+				// the markers cannot be updated, gather them again
+				clean = true;
+			}
 		}
-		// builder.getUpdateScheduler().indicateStatus(
-		// MarkerMessages.MarkerView_processUpdates, false);
-
-		monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
-		if (!processMarkerEntries(markerEntries, monitor)) {
-			return;
+		if (clean || !builder.isIncremental()) {
+			// the changes received so far are part of what we gather
+			builder.clearPendingUpdates();
+			Collection<MarkerEntry> markerEntries = new LinkedList<>();
+			boolean gathered = clean(markerEntries, monitor);
+			if (monitor.isCanceled()) {
+				return;
+			}
+			// builder.getUpdateScheduler().indicateStatus(
+			// MarkerMessages.MarkerView_processUpdates, false);
+
+			monitor.setTaskName(MarkerMessages.MarkerView_processUpdates);
+			if (!processMarkerEntries(markerEntries, monitor)) {
+				return;
+			}
+			clean = !gathered;
 		}
 		if (monitor.isCanceled()) {
 			return;
@@ -128,6 +139,21 @@ class MarkerUpdateJob extends Job {
 		return markers.updateWithNewMarkers(markerEntries, true, monitor);
 	}
 
+	/**
+	 * Apply the marker deltas to the Markers object, without gathering the
+	 * markers again.
+	 *
+	 * @param updates
+	 *            the marker deltas, in the order they were received
+	 * @return <code>false</code> if the markers have to be gathered again
+	 */
+	boolean processMarkerUpdates(Collection<MarkerUpdate> updates, IProgressMonitor monitor) {
+		if (builder.getGenerator() == null) {
+			return false;
+		}
+		return builder.getMarkers().applyUpdates(updates, monitor);
+	}
+
 	@Override
 	public boolean shouldRun() {
 		if (!PlatformUI.isWorkbenchRunning()) {
@@ -21,15 +21,20 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
 import org.eclipse.ui.views.markers.MarkerItem;
 import org.eclipse.ui.views.markers.internal.MarkerGroup;
@@ -39,6 +44,12 @@ import org.eclipse.ui.views.markers.internal.MarkerMessages;
 /**
  * The Markers object contains the MarkerEntry(s) collected and updated by the
  * system, also maintains the categories that markers are grouped into.
+ * <p>
+ * When the builder is incremental, the Markers also keep the group of every
+ * marker, so that marker deltas can be applied with
+ * {@link #applyUpdates(Collection, IProgressMonitor)} by regrouping and
+ * resorting only the categories they touch.
+ * </p>
  *
  * @since 3.6
  *
@@ -48,6 +59,9 @@ class Markers {
 	static final MarkerCategory[] EMPTY_CATEGORY_ARRAY = new MarkerCategory[0];
 	static final MarkerEntry[] EMPTY_ENTRY_ARRAY = new MarkerEntry[0];
 
+	// the group of the markers when they are not shown in categories
+	private static final MarkerGroupingEntry UNGROUPED = new MarkerGroupingEntry(""); //$NON-NLS-1$
+
 	// the marker entries
 	private volatile MarkerEntry[] markerEntryArray = EMPTY_ENTRY_ARRAY;
 	// the categories
@@ -62,6 +76,18 @@ class Markers {
 	private Map<IMarker, MarkerEntry> markerToEntryMap;
 	private Integer[] markerCounts;
 
+	// the group of each marker entry, null if the markers can only be
+	// rebuilt from scratch
+	private Map<IMarker, MarkerGroupingEntry> markerGroups;
+	// the groups of the categories, in the same order
+	private MarkerGroupingEntry[] categoryGroups = new MarkerGroupingEntry[0];
+	// the category group markerGroups was computed with
+	private MarkerGroup indexedGroup;
+
+	// changed whenever the markers are rebuilt or resorted, -1 if unknown
+	private long stamp;
+	private long lastCategoryRevision;
+
 	Markers(CachedMarkerBuilder builder) {
 		this.builder = builder;
 	}
@@ -85,9 +111,16 @@ class Markers {
 				markerToEntryMap = null;
 			}
 			markerCounts = null;
+			markerGroups = null;
+			stamp++;
 			if (markerEntries.isEmpty()) {
 				categories = EMPTY_CATEGORY_ARRAY;
+				categoryGroups = new MarkerGroupingEntry[0];
 				markerEntryArray = EMPTY_ENTRY_ARRAY;
+				if (builder.isIncremental()) {
+					markerGroups = new HashMap<>();
+					indexedGroup = builder.isShowingHierarchy() ? builder.getCategoryGroup() : null;
+				}
 				return true;
 			}
 			if (monitor.isCanceled()) {
@@ -114,6 +147,167 @@ class Markers {
 		}
 	}
 
+	/**
+	 * Apply marker deltas to the grouped and sorted markers. Only the categories
+	 * the deltas touch are regrouped and resorted, the other categories keep
+	 * their children and revision.
+	 *
+	 * @param updates
+	 *            the marker deltas, in the order they were received
+	 * @param monitor
+	 * @return <code>false</code> if the updates could not be applied and the
+	 *         markers have to be rebuilt
+	 */
+	synchronized boolean applyUpdates(Collection<MarkerUpdate> updates, IProgressMonitor monitor) {
+		MarkerGroup group = builder.isShowingHierarchy() ? builder.getCategoryGroup() : null;
+		if (markerGroups == null || group != indexedGroup) {
+			return false;
+		}
+		if (updates.isEmpty()) {
+			return true;
+		}
+		boolean initialVal = inChange;
+		try {
+			inChange = true;
+			// the last known state of each marker, null once removed
+			Map<IMarker, MarkerEntry> latest = new LinkedHashMap<>();
+			for (MarkerUpdate update : updates) {
+				for (MarkerEntry entry : update.removed) {
+					latest.put(entry.getMarker(), null);
+				}
+				for (MarkerEntry entry : update.added) {
+					latest.put(entry.getMarker(), entry);
+				}
+				for (MarkerEntry entry : update.changed) {
+					latest.put(entry.getMarker(), entry);
+				}
+			}
+
+			MarkerContentGenerator generator = builder.getGenerator();
+			Map<MarkerGroupingEntry, CategoryDelta> deltas = group == null ? new HashMap<>()
+					: new TreeMap<>(group.getEntriesComparator());
+			for (Entry<IMarker, MarkerEntry> change : latest.entrySet()) {
+				IMarker marker = change.getKey();
+				MarkerGroupingEntry oldGroup = markerGroups.remove(marker);
+				if (oldGroup != null) {
+					deltas.computeIfAbsent(oldGroup, g -> new CategoryDelta()).removed.add(marker);
+				}
+				MarkerEntry entry = change.getValue();
+				if (entry == null || !marker.exists() || !generator.select(entry)) {
+					continue;
+				}
+				MarkerGroupingEntry newGroup = UNGROUPED;
+				if (group != null) {
+					try {
+						newGroup = group.findGroupValue(marker.getType(), marker);
+					} catch (CoreException e) {
+						entry.checkIfMarkerStale();
+						continue;
+					}
+				}
+				markerGroups.put(marker, newGroup);
+				deltas.computeIfAbsent(newGroup, g -> new CategoryDelta()).added.add(entry);
+			}
+			if (deltas.isEmpty()) {
+				return true;
+			}
+			markerToEntryMap = null;
+			markerCounts = null;
+			if (group == null) {
+				CategoryDelta delta = deltas.get(UNGROUPED);
+				MarkerEntry[] entries = delta.apply(markerEntryArray, 0, markerEntryArray.length - 1);
+				if (entries.length > 0) {
+					// a partially sorted result cannot be fixed up by later deltas
+					MarkerSortUtil.sortStartingKElement(entries, builder.getComparator(),
+							getShowingLimit(entries.length - 1), new NullProgressMonitor());
+				}
+				markerEntryArray = entries;
+				return true;
+			}
+			applyCategoryDeltas(group, (TreeMap<MarkerGroupingEntry, CategoryDelta>) deltas);
+			return true;
+		} catch (IllegalArgumentException e) {
+			// Bug 371586: broken comparator, let a rebuild report it
+			markerGroups = null;
+			return false;
+		} finally {
+			inChange = initialVal;
+		}
+	}
+
+	/**
+	 * Merge the changed categories into the current categories, reusing the
+	 * children of the untouched ones.
+	 */
+	private void applyCategoryDeltas(MarkerGroup group, TreeMap<MarkerGroupingEntry, CategoryDelta> deltas) {
+		Comparator<MarkerGroupingEntry> groupComparator = group.getEntriesComparator();
+		Comparator<MarkerItem> comparator = builder.getComparator().getFieldsComparator();
+		MarkerEntry[] oldEntries = markerEntryArray;
+		MarkerCategory[] oldCategories = categories;
+		MarkerGroupingEntry[] oldGroups = categoryGroups;
+
+		List<MarkerGroupingEntry> newGroups = new ArrayList<>(oldCategories.length + deltas.size());
+		List<MarkerEntry[]> newChildren = new ArrayList<>(oldCategories.length + deltas.size());
+		List<String> newNames = new ArrayList<>(oldCategories.length + deltas.size());
+		List<Long> newRevisions = new ArrayList<>(oldCategories.length + deltas.size());
+		int size = 0;
+		int i = 0;
+		Iterator<Entry<MarkerGroupingEntry, CategoryDelta>> iterator = deltas.entrySet().iterator();
+		Entry<MarkerGroupingEntry, CategoryDelta> delta = iterator.hasNext() ? iterator.next() : null;
+		while (i < oldCategories.length || delta != null) {
+			int order = delta == null ? -1
+					: i == oldCategories.length ? 1 : groupComparator.compare(oldGroups[i], delta.getKey());
+			MarkerEntry[] children;
+			if (order < 0) {
+				// untouched category
+				MarkerCategory category = oldCategories[i];
+				children = Arrays.copyOfRange(oldEntries, category.start, category.end + 1);
+				newGroups.add(oldGroups[i]);
+				newNames.add(category.getName());
+				newRevisions.add(Long.valueOf(category.revision));
+				i++;
+			} else {
+				MarkerEntry[] entries;
+				MarkerGroupingEntry key;
+				if (order == 0) {
+					MarkerCategory category = oldCategories[i];
+					entries = delta.getValue().apply(oldEntries, category.start, category.end);
+					key = oldGroups[i];
+					i++;
+				} else {
+					entries = delta.getValue().apply(oldEntries, 0, -1);
+					key = delta.getKey();
+				}
+				delta = iterator.hasNext() ? iterator.next() : null;
+				if (entries.length == 0) {
+					continue;
+				}
+				MarkerSortUtil.sortStartingKElement(entries, comparator, 0, entries.length - 1,
+						getShowingLimit(entries.length), new NullProgressMonitor());
+				children = entries;
+				newGroups.add(key);
+				newNames.add(group.getMarkerField().getValue(entries[0]));
+				newRevisions.add(Long.valueOf(++lastCategoryRevision));
+			}
+			newChildren.add(children);
+			size += children.length;
+		}
+
+		MarkerEntry[] newEntries = new MarkerEntry[size];
+		MarkerCategory[] newCategories = new MarkerCategory[newChildren.size()];
+		int start = 0;
+		for (int j = 0; j < newCategories.length; j++) {
+			MarkerEntry[] children = newChildren.get(j);
+			System.arraycopy(children, 0, newEntries, start, children.length);
+			newCategories[j] = new MarkerCategory(this, start, start + children.length - 1, newNames.get(j),
+					children, newRevisions.get(j).longValue());
+			start += children.length;
+		}
+		markerEntryArray = newEntries;
+		categoryGroups = newGroups.toArray(new MarkerGroupingEntry[newGroups.size()]);
+		categories = newCategories;
+	}
+
 	/**
 	 * Sort the contained marker entries and build categories if required.
 	 *
@@ -123,12 +317,22 @@ class Markers {
 		boolean initialVal = inChange;
 		try {
 			inChange = true;
+			Map<IMarker, MarkerGroupingEntry> groups = builder.isIncremental() ? new HashMap<>() : null;
 			// Sort by Category first
 			if (builder.isShowingHierarchy()) {
-				MarkerCategory[] markerCategories = groupIntoCategories(monitor, markerEntryArray);
+				MarkerCategory[] markerCategories = groupIntoCategories(monitor, markerEntryArray, groups);
 				categories = markerCategories;
 			} else {
 				categories = EMPTY_CATEGORY_ARRAY;
+				categoryGroups = new MarkerGroupingEntry[0];
+				if (groups != null) {
+					for (MarkerEntry entry : markerEntryArray) {
+						IMarker marker = entry.getMarker();
+						if (marker != null) {
+							groups.put(marker, UNGROUPED);
+						}
+					}
+				}
 			}
 
 			if (monitor.isCanceled()) {
@@ -136,7 +340,12 @@ class Markers {
 			}
 			monitor.subTask(MarkerMessages.MarkerView_processUpdates);
 
-			return sortMarkerEntries(monitor);
+			if (!sortMarkerEntries(monitor)) {
+				return false;
+			}
+			markerGroups = groups;
+			indexedGroup = builder.isShowingHierarchy() ? builder.getCategoryGroup() : null;
+			return true;
 		} finally {
 			inChange = initialVal;
 		}
@@ -154,6 +363,7 @@ class Markers {
 		MarkerCategory lastCategory = null;
 		try {
 			inChange = true;
+			stamp++;
 			if (builder.isShowingHierarchy()) {
 				Comparator<MarkerItem> comparator = markerComparator.getFieldsComparator();
 				for (MarkerCategory category : categories) {
@@ -225,20 +435,24 @@ class Markers {
 	 * @param newMarkers
 	 * @return MarkerCategory
 	 */
-	private MarkerCategory[] groupIntoCategories(IProgressMonitor monitor, MarkerEntry[] newMarkers) {
+	private MarkerCategory[] groupIntoCategories(IProgressMonitor monitor, MarkerEntry[] newMarkers,
+			Map<IMarker, MarkerGroupingEntry> groups) {
 		Map<MarkerGroupingEntry, Integer> boundaryInfoMap = groupMarkerEntries(newMarkers,
-				builder.getCategoryGroup(), newMarkers.length - 1, monitor);
+				builder.getCategoryGroup(), newMarkers.length - 1, groups, monitor);
 		int start = 0;
 		MarkerCategory[] markerCategories = new MarkerCategory[boundaryInfoMap.size()];
+		MarkerGroupingEntry[] markerGroupingEntries = new MarkerGroupingEntry[boundaryInfoMap.size()];
 		int i = 0;
 		int end = 0;
 		for (Entry<MarkerGroupingEntry, Integer> entry : boundaryInfoMap.entrySet()) {
 			end = entry.getValue();
+			markerGroupingEntries[i] = entry.getKey();
 			markerCategories[i++] = new MarkerCategory(this, start, end,
 					builder.getCategoryGroup().getMarkerField()
-							.getValue(newMarkers[start]));
+							.getValue(newMarkers[start]), ++lastCategoryRevision);
 			start = end + 1;
 		}
+		categoryGroups = markerGroupingEntries;
 		return markerCategories;
 	}
 
@@ -251,11 +465,13 @@ class Markers {
 	 * @param entries
 	 * @param group
 	 * @param k
+	 * @param groups
+	 *            receives the group of each marker, may be <code>null</code>
 	 * @return {@link Map}
 	 *
 	 */
 	private Map<MarkerGroupingEntry, Integer> groupMarkerEntries(MarkerEntry[] entries, MarkerGroup group,
-			int k, IProgressMonitor monitor) {
+			int k, Map<IMarker, MarkerGroupingEntry> groups, IProgressMonitor monitor) {
 		TreeMap<MarkerGroupingEntry, List<MarkerEntry>> map = new TreeMap<>(
 				group.getEntriesComparator());
 		for (int i = 0; i <= k; i++) {
@@ -274,6 +490,9 @@ class Markers {
 					map.put(groupingEntry, list);
 				}
 				list.add(entries[i]);
+				if (groups != null) {
+					groups.put(marker, groupingEntry);
+				}
 			} catch (CoreException e) {
 				entries[i].checkIfMarkerStale();
 			}
@@ -394,13 +613,45 @@ class Markers {
 	 */
 	Markers getClone() {
 		Markers markers = new Markers(builder);
+		markers.stamp = -1;
 		if (!inChange) {
 			markers.markerEntryArray = markerEntryArray.clone();
 			markers.categories = categories.clone();
+			markers.stamp = stamp;
 		}
 		return markers;
 	}
 
+	/**
+	 * Return the categories of the receiver whose children differ from the
+	 * ones in previous. Both must be clones of the same Markers.
+	 *
+	 * @param previous
+	 *            an older clone
+	 * @return the changed categories, or <code>null</code> if the markers have
+	 *         been rebuilt or resorted, or if categories were added or removed
+	 */
+	MarkerCategory[] getChangedCategories(Markers previous) {
+		if (stamp == -1 || previous.stamp != stamp || !builder.isShowingHierarchy()) {
+			return null;
+		}
+		MarkerCategory[] current = categories;
+		MarkerCategory[] old = previous.categories;
+		if (current.length != old.length) {
+			return null;
+		}
+		List<MarkerCategory> changed = new ArrayList<>();
+		for (int i = 0; i < current.length; i++) {
+			if (!current[i].getName().equals(old[i].getName())) {
+				return null;
+			}
+			if (current[i].revision != old[i].revision) {
+				changed.add(current[i]);
+			}
+		}
+		return changed.toArray(new MarkerCategory[changed.size()]);
+	}
+
 	/**
 	 * @return Returns true if markers are changing.
 	 */
@@ -424,4 +675,27 @@ class Markers {
 		Markers other = (Markers) obj;
 		return Objects.equals(builder, other.builder);
 	}
+
+	/**
+	 * The markers removed from and added to one category.
+	 */
+	private static class CategoryDelta {
+		final Set<IMarker> removed = new HashSet<>();
+		final List<MarkerEntry> added = new ArrayList<>();
+
+		/**
+		 * @return the entries between start and end, inclusive, without the
+		 *         removed ones and followed by the added ones
+		 */
+		MarkerEntry[] apply(MarkerEntry[] entries, int start, int end) {
+			List<MarkerEntry> result = new ArrayList<>(end - start + 1 + added.size());
+			for (int i = start; i <= end; i++) {
+				if (!removed.contains(entries[i].getMarker())) {
+					result.add(entries[i]);
+				}
+			}
+			result.addAll(added);
+			return result.toArray(new MarkerEntry[result.size()]);
+		}
+	}
 }
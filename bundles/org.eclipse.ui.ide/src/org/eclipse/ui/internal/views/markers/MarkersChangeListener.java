@@ -181,10 +181,9 @@ class MarkersChangeListener implements IResourceChangeListener {
 	 * of the markers that were gathered initially, and keeps them synched at
 	 * any point with the markers of interest in Workspace. Unfortunately marker
 	 * operations cannot be locked so locking between gathering of markers and
-	 * marker deltas is not possible.
-	 *
-	 * Note : this method of updating is NOT used and tested yet and has holes
-	 * but left out SOLELY for further investigation(*).
+	 * marker deltas is not possible: the deltas are queued on the builder and
+	 * applied in order, so that applying a delta already reflected by a
+	 * gathering does no harm.
 	 *
 	 * @param event
 	 */
@@ -530,6 +529,17 @@ class MarkerUpdateScheduler {
 	 * Schedule marker update.
 	 */
 	void scheduleUpdate(long delay, boolean cancelPrevious) {
+		scheduleUpdate(delay, cancelPrevious, true);
+	}
+
+	/**
+	 * Schedule marker update.
+	 *
+	 * @param clean
+	 *            <code>true</code> to gather the markers again,
+	 *            <code>false</code> to only apply the pending marker deltas
+	 */
+	private void scheduleUpdate(long delay, boolean cancelPrevious, boolean clean) {
 		//we do not need to make this atomic (?)
 		builder.setBuilding(true);
 		if (cancelPrevious) {
@@ -537,7 +547,7 @@ class MarkerUpdateScheduler {
 			cancelUpdate();
 		}
 		// indicateStatus(MarkerMessages.MarkerView_queueing_updates, true);
-		updateJob = builder.scheduleUpdateJob(delay, true);
+		updateJob = builder.scheduleUpdateJob(delay, clean);
 		// updateTimer.reset();
 	}
 
@@ -804,7 +814,8 @@ class MarkerUpdateScheduler {
 
 		private void go(long delay, boolean cancelPrevious) {
 			timeB4Update = System.currentTimeMillis() + delay;
-			scheduleUpdate(delay + AFTER_MARGIN, cancelPrevious);
+			// marker changes are applied incrementally when possible
+			scheduleUpdate(delay + AFTER_MARGIN, cancelPrevious, !builder.isIncremental());
 		}
 	}
 }
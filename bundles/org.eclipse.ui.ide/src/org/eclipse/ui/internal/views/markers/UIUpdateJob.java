@@ -39,6 +39,9 @@ class UIUpdateJob extends WorkbenchJob {
 
 	private long lastUpdateTime=-1;
 
+	// the markers last shown by the viewer
+	private Markers shownMarkers;
+
 	/**
 	 * @param view
 	 *            the markers view base class
@@ -100,7 +103,7 @@ class UIUpdateJob extends WorkbenchJob {
 				contentProvider.inputChanged(viewer, view.getViewerInput(), clone);
 
 				viewer.getTree().setRedraw(false);
-				viewer.refresh(true);
+				refresh(viewer, clone);
 				if (!monitor.isCanceled()) {
 					//do not expand if canceled
 					view.reexpandCategories();
@@ -124,6 +127,31 @@ class UIUpdateJob extends WorkbenchJob {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Refresh the viewer with the new markers. If only some categories changed
+	 * since the markers last shown, only these are refreshed.
+	 *
+	 * @param viewer
+	 * @param markers
+	 *            the new markers
+	 */
+	private void refresh(TreeViewer viewer, Markers markers) {
+		MarkerCategory[] changed = shownMarkers == null ? null : markers.getChangedCategories(shownMarkers);
+		shownMarkers = markers;
+		if (changed == null) {
+			viewer.refresh(true);
+			return;
+		}
+		for (MarkerCategory category : markers.getCategories()) {
+			// the unchanged categories only need to be associated with their
+			// new instance
+			viewer.update(category, null);
+		}
+		for (MarkerCategory category : changed) {
+			viewer.refresh(category, true);
+		}
+	}
+
 	/**
 	 * @return Returns true if updating.
 	 */
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates stack samples into a tree of the methods calling each other, counting the samples
+ * in which each call path was found.
+ * <p>
+ * <strong>This class is not thread safe.</strong>
+ * </p>
+ */
+public class CallTree {
+	/**
+	 * A method called along a call path.
+	 */
+	public static class Node {
+		private final String method;
+		private final Map<String, Node> children = new LinkedHashMap<>();
+		private long samples;
+		private long selfSamples;
+
+		Node(String method) {
+			this.method = method;
+		}
+
+		/**
+		 * Returns the fully qualified name of the method, or an empty string for the root.
+		 */
+		public String getMethod() {
+			return method;
+		}
+
+		/**
+		 * Returns the number of samples in which the method was on the stack along this path.
+		 */
+		public long getSamples() {
+			return samples;
+		}
+
+		/**
+		 * Returns the number of samples in which the method was at the top of the stack along
+		 * this path.
+		 */
+		public long getSelfSamples() {
+			return selfSamples;
+		}
+
+		/**
+		 * Returns the methods called by this one, in the order they were first sampled.
+		 */
+		public List<Node> getChildren() {
+			return new ArrayList<>(children.values());
+		}
+
+		/**
+		 * Returns the method called by this one with the given name, or {@code null}.
+		 */
+		public Node getChild(String childMethod) {
+			return children.get(childMethod);
+		}
+	}
+
+	private final Node root = new Node(""); //$NON-NLS-1$
+
+	/**
+	 * Adds a stack sample to the tree.
+	 *
+	 * @param stack the sampled stack, with the innermost frame first
+	 */
+	public void addSample(StackTraceElement[] stack) {
+		Node node = root;
+		node.samples++;
+		for (int i = stack.length; --i >= 0;) {
+			String method = stack[i].getClassName() + '.' + stack[i].getMethodName();
+			node = node.children.computeIfAbsent(method, Node::new);
+			node.samples++;
+		}
+		node.selfSamples++;
+	}
+
+	/**
+	 * Returns the root of the tree, whose children are the outermost sampled methods.
+	 */
+	public Node getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the total number of samples.
+	 */
+	public long getSampleCount() {
+		return root.samples;
+	}
+
+	/**
+	 * Writes the tree in the folded stack format read by flame graph tools: one line per call
+	 * path on which samples ended, listing the methods from the outermost separated by
+	 * semicolons, followed by a space and the number of samples.
+	 *
+	 * @param out the destination
+	 * @throws IOException if the destination cannot be written
+	 */
+	public void writeFoldedStacks(Appendable out) throws IOException {
+		StringBuilder path = new StringBuilder();
+		for (Node child : root.children.values()) {
+			writeFoldedStacks(child, path, out);
+		}
+	}
+
+	private static void writeFoldedStacks(Node node, StringBuilder path, Appendable out)
+			throws IOException {
+		int length = path.length();
+		if (length != 0) {
+			path.append(';');
+		}
+		path.append(node.method);
+		if (node.selfSamples != 0) {
+			out.append(path).append(' ').append(Long.toString(node.selfSamples)).append('\n');
+		}
+		for (Node child : node.children.values()) {
+			writeFoldedStacks(child, path, out);
+		}
+		path.setLength(length);
+	}
+}
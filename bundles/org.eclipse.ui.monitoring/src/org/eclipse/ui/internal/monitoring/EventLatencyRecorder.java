@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.ui.monitoring.IEventLatencyHistogram;
+
+/**
+ * Records the latencies of the SWT events in one {@link LatencyHistogram} per event type and
+ * nesting level. The histograms are recorded by the UI thread and can be read by any thread.
+ * They outlive the {@link EventLoopMonitorThread}, which is restarted when the preferences change.
+ */
+public class EventLatencyRecorder {
+	/** The largest event type having its own histograms. */
+	static final int MAX_EVENT_TYPE = 63;
+	/** The deepest nesting level having its own histograms. */
+	public static final int MAX_NESTING_LEVEL = 4;
+
+	private static final EventLatencyRecorder defaultRecorder = new EventLatencyRecorder();
+
+	private final AtomicReferenceArray<LatencyHistogram> histograms =
+			new AtomicReferenceArray<>((MAX_EVENT_TYPE + 1) * MAX_NESTING_LEVEL);
+
+	/**
+	 * Returns the recorder fed by the event loop monitor.
+	 */
+	public static EventLatencyRecorder getDefault() {
+		return defaultRecorder;
+	}
+
+	/**
+	 * Records the latency of an event.
+	 *
+	 * @param eventType the type of the SWT event
+	 * @param nestingLevel the nesting level of the event, starting at 1
+	 * @param latency the time taken to dispatch the event in microseconds
+	 */
+	public void record(int eventType, int nestingLevel, long latency) {
+		if (eventType < 0 || eventType > MAX_EVENT_TYPE) {
+			eventType = SWT.None;
+		}
+		nestingLevel = Math.min(Math.max(nestingLevel, 1), MAX_NESTING_LEVEL);
+		int index = eventType * MAX_NESTING_LEVEL + nestingLevel - 1;
+		LatencyHistogram histogram = histograms.get(index);
+		while (histogram == null) {
+			histograms.compareAndSet(index, null, new LatencyHistogram(eventType, nestingLevel));
+			histogram = histograms.get(index);
+		}
+		histogram.record(latency);
+	}
+
+	/**
+	 * Returns snapshots of the histograms having recorded at least one event, ordered by event
+	 * type and nesting level.
+	 */
+	public List<IEventLatencyHistogram> getHistograms() {
+		List<IEventLatencyHistogram> result = new ArrayList<>();
+		for (int i = 0; i < histograms.length(); i++) {
+			LatencyHistogram histogram = histograms.get(i);
+			if (histogram != null) {
+				IEventLatencyHistogram snapshot = histogram.snapshot();
+				if (snapshot.getCount() != 0) {
+					result.add(snapshot);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Discards the recorded latencies.
+	 */
+	public void reset() {
+		for (int i = 0; i < histograms.length(); i++) {
+			histograms.set(i, null);
+		}
+	}
+}
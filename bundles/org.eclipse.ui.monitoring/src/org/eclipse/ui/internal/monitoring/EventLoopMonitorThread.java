@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2015 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -46,7 +46,7 @@ import org.eclipse.ui.monitoring.UiFreezeEvent;
 /**
  * Event loop monitoring thread. Detects events that take long time to process, collects stack
  * traces of the UI thread during processing of those events, and logs the long events to the error
- * log.
+ * log. The latencies of all events are recorded by the {@link EventLatencyRecorder}.
  */
 public class EventLoopMonitorThread extends Thread {
 	private static final int EVENT_HISTORY_SIZE = 100;
@@ -77,6 +77,8 @@ public class EventLoopMonitorThread extends Thread {
 		public int maxStackSamples;
 		/** If true, log freeze events to the Eclipse error log on the local machine. */
 		public boolean logToErrorLog;
+		/** If true, log freeze events to a rolling set of local files. */
+		public boolean logToFile;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#UI_THREAD_FILTER */
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
@@ -136,6 +138,24 @@ public class EventLoopMonitorThread extends Thread {
 		private int[] nestingLevelStack = new int[64];
 		private int nestingLevelStackSize;
 
+		/**
+		 * The types and start times in nanoseconds of the events being dispatched, across the
+		 * external event loops. Used to record the event latencies.
+		 */
+		private int[] dispatchedEventTypes = new int[64];
+		private long[] dispatchedEventStartTimes = new long[64];
+		private int dispatchedEventCount;
+
+		/**
+		 * The start times in nanoseconds of the external event loops being run, and the numbers
+		 * of events being dispatched when they started. The time spent in an external event
+		 * loop, e.g. in a nested event loop or in {@link Display#sleep()}, is not part of the
+		 * latencies of the events dispatched around it.
+		 */
+		private long[] externalDispatchStartTimes = new long[64];
+		private int[] externalDispatchEventCounts = new int[64];
+		private int externalDispatchCount;
+
 		@Override
 		public void handleEvent(Event event) {
 			/*
@@ -171,6 +191,7 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				startEventLatency(event.detail);
 				// Log a long interval, start the timer.
 				handleEventTransition(true, true);
 				break;
@@ -178,6 +199,7 @@ public class EventLoopMonitorThread extends Thread {
 				if (!doesEventIndicateResponsiveUI(event.detail)) {
 					break;  // Ignore events that may be produced during a UI freeze.
 				}
+				endEventLatency();
 				if (--nestingLevel < 0) {
 					// This may happen if some PreEvent events had occurred before we
 					// started listening to SWT events.
@@ -190,6 +212,7 @@ public class EventLoopMonitorThread extends Thread {
 				handleEventTransition(true, nestingLevel > 0);
 				break;
 			case SWT.PreExternalEventDispatch:
+				startExternalDispatch();
 				saveAndResetNestingLevel();
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
@@ -198,6 +221,7 @@ public class EventLoopMonitorThread extends Thread {
 				handleEventTransition(true, false);
 				break;
 			case SWT.PostExternalEventDispatch:
+				endExternalDispatch();
 				restoreNestingLevel();
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
@@ -226,6 +250,57 @@ public class EventLoopMonitorThread extends Thread {
 			}
 		}
 
+		private void startEventLatency(int eventType) {
+			if (dispatchedEventCount < dispatchedEventTypes.length) {
+				dispatchedEventTypes[dispatchedEventCount] = eventType;
+				dispatchedEventStartTimes[dispatchedEventCount] = getNanoTime();
+			}
+			dispatchedEventCount++;
+		}
+
+		private void endEventLatency() {
+			if (dispatchedEventCount == 0) {
+				// The event started before we started listening to SWT events.
+				return;
+			}
+			int level = --dispatchedEventCount;
+			if (level < dispatchedEventTypes.length) {
+				long latency = (getNanoTime() - dispatchedEventStartTimes[level]) / 1000;
+				latencyRecorder.record(dispatchedEventTypes[level], level + 1, latency);
+			}
+		}
+
+		private void startExternalDispatch() {
+			if (externalDispatchCount < externalDispatchStartTimes.length) {
+				externalDispatchStartTimes[externalDispatchCount] = getNanoTime();
+				externalDispatchEventCounts[externalDispatchCount] = dispatchedEventCount;
+			}
+			externalDispatchCount++;
+		}
+
+		/**
+		 * Moves the start times of the events which were being dispatched when the external
+		 * event loop started by the time spent in it. The events which were already being
+		 * dispatched when the enclosing external event loop started are moved when that loop
+		 * ends, by its whole duration.
+		 */
+		private void endExternalDispatch() {
+			if (externalDispatchCount == 0) {
+				// The external event loop started before we started listening to SWT events.
+				return;
+			}
+			int level = --externalDispatchCount;
+			if (level < externalDispatchStartTimes.length) {
+				long duration = getNanoTime() - externalDispatchStartTimes[level];
+				int first = level > 0 ? externalDispatchEventCounts[level - 1] : 0;
+				int end = Math.min(Math.min(externalDispatchEventCounts[level], dispatchedEventCount),
+						dispatchedEventStartTimes.length);
+				for (int i = first; i < end; i++) {
+					dispatchedEventStartTimes[i] += duration;
+				}
+			}
+		}
+
 		private void saveAndResetNestingLevel() {
 			if (nestingLevelStackSize < nestingLevelStack.length) {
 				nestingLevelStack[nestingLevelStackSize++] = nestingLevel;
@@ -324,6 +399,7 @@ public class EventLoopMonitorThread extends Thread {
 
 	// Accessed only by the UI thread. */
 	private final EventLoopState eventLoopState = new EventLoopState();
+	private final EventLatencyRecorder latencyRecorder = EventLatencyRecorder.getDefault();
 
 	/*
 	 * Tracks when the current event was started, or if the event has nested {@link Event#sendEvent}
@@ -347,6 +423,7 @@ public class EventLoopMonitorThread extends Thread {
 	private final List<IUiFreezeEventLogger> externalLoggers =
 			new ArrayList<>();
 	private DefaultUiFreezeEventLogger defaultLogger;
+	private JsonUiFreezeEventLogger fileLogger;
 	private final Display display;
 	private final FilterHandler uiThreadFilter;
 	private final FilterHandler noninterestingThreadFilter;
@@ -359,6 +436,7 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final boolean logToFile;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
@@ -394,6 +472,7 @@ public class EventLoopMonitorThread extends Thread {
 		allThreadsSampleInterval = longEventErrorThreshold * 2 / 3;
 		deadlockThreshold = args.deadlockThreshold;
 		logToErrorLog = args.logToErrorLog;
+		logToFile = args.logToFile;
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
 		sleepMonitor = new Object();
@@ -453,9 +532,15 @@ public class EventLoopMonitorThread extends Thread {
 			defaultLogger = new DefaultUiFreezeEventLogger(longEventErrorThreshold);
 		}
 
+		if (logToFile) {
+			fileLogger = new JsonUiFreezeEventLogger(
+					Platform.getStateLocation(Platform.getBundle(PreferenceConstants.PLUGIN_ID))
+							.toFile());
+		}
+
 		loadLoggerExtensions();
 
-		if (!logToErrorLog && externalLoggers.isEmpty()) {
+		if (!logToErrorLog && !logToFile && externalLoggers.isEmpty()) {
 			MonitoringPlugin.logWarning(Messages.EventLoopMonitorThread_logging_disabled_error);
 		}
 
@@ -644,6 +729,10 @@ public class EventLoopMonitorThread extends Thread {
 
 			lastEventStartOrResumeTime = currEventStartOrResumeTime;
 		}
+
+		if (fileLogger != null) {
+			fileLogger.close();
+		}
 	}
 
 	private ThreadInfo[] captureThreadStacks(boolean dumpAllThreads) {
@@ -706,6 +795,14 @@ public class EventLoopMonitorThread extends Thread {
 		return System.currentTimeMillis();
 	}
 
+	/**
+	 * Returns the time used to measure the event latencies, in nanoseconds.
+	 */
+	// VisibleForTesting
+	protected long getNanoTime() {
+		return System.nanoTime();
+	}
+
 	// VisibleForTesting
 	protected void sleepForMillis(long milliseconds) {
 		if (milliseconds > 0) {
@@ -783,6 +880,10 @@ public class EventLoopMonitorThread extends Thread {
 			defaultLogger.log(event);
 		}
 
+		if (logToFile) {
+			fileLogger.log(event);
+		}
+
 		for (int i = 0; i < externalLoggers.size(); i++) {
 			IUiFreezeEventLogger currentLogger = externalLoggers.get(i);
 			try {
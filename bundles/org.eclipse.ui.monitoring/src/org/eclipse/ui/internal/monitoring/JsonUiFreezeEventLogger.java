@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.LockInfo;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.ui.monitoring.IUiFreezeEventLogger;
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+
+/**
+ * Writes {@link UiFreezeEvent}s to a rolling set of local files, one JSON object per line, so
+ * that the freezes of many installations can be aggregated offline.
+ * <p>
+ * Each freeze is written as a {@code "freeze"} record holding its duration, the timestamps of its
+ * stack samples and the stacks of the sampled threads. The stack frames are written once per
+ * record, in its {@code "frames"} array, and the stacks refer to them by index. When closed, the
+ * logger writes a {@code "session"} record with the number and total duration of the freezes of
+ * the session, and the frames most often found at the top of the UI thread stack.
+ * <p>
+ * The current file is {@value #FILE_NAME}{@value #FILE_EXTENSION}. When it grows over
+ * {@value #MAX_FILE_SIZE} bytes, it is renamed {@code ui-freezes.1.jsonl}, the previous files
+ * being shifted in turn and the oldest one removed.
+ */
+public class JsonUiFreezeEventLogger implements IUiFreezeEventLogger {
+	static final String FILE_NAME = "ui-freezes"; //$NON-NLS-1$
+	static final String FILE_EXTENSION = ".jsonl"; //$NON-NLS-1$
+	static final long MAX_FILE_SIZE = 1024 * 1024;
+	static final int MAX_FILES = 5;
+	private static final int MAX_TOP_FRAMES = 10;
+
+	private final File directory;
+	private final String session = UUID.randomUUID().toString();
+	private final long sessionStart = System.currentTimeMillis();
+	private final Map<String, int[]> blockingFrames = new HashMap<>();
+	private int freezeCount;
+	private long freezeDuration;
+	private boolean failed;
+
+	/**
+	 * @param directory the directory of the files
+	 */
+	public JsonUiFreezeEventLogger(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Writes the given {@link UiFreezeEvent} as a line of the current file.
+	 *
+	 * @param event the event that caused the UI thread to freeze
+	 */
+	@Override
+	public void log(UiFreezeEvent event) {
+		Map<StackTraceElement, Integer> frames = new LinkedHashMap<>();
+		StringBuilder samples = new StringBuilder();
+		for (StackSample sample : event.getStackTraceSamples()) {
+			if (samples.length() > 0) {
+				samples.append(',');
+			}
+			samples.append("{\"time\":").append(sample.getTimestamp()).append(",\"threads\":["); //$NON-NLS-1$ //$NON-NLS-2$
+			ThreadInfo[] threads = sample.getStackTraces();
+			for (int i = 0; i < threads.length; i++) {
+				if (i > 0) {
+					samples.append(',');
+				}
+				appendThread(samples, threads[i], frames);
+			}
+			samples.append("]}"); //$NON-NLS-1$
+
+			// The first thread is guaranteed to be the display thread.
+			StackTraceElement[] uiStack = threads.length > 0 ? threads[0].getStackTrace() : null;
+			if (uiStack != null && uiStack.length > 0) {
+				blockingFrames.computeIfAbsent(uiStack[0].toString(), frame -> new int[1])[0]++;
+			}
+		}
+		freezeCount++;
+		freezeDuration += event.getTotalDuration();
+
+		StringBuilder line = new StringBuilder();
+		line.append("{\"type\":\"freeze\",\"session\":"); //$NON-NLS-1$
+		appendString(line, session);
+		line.append(",\"start\":").append(event.getStartTimestamp()); //$NON-NLS-1$
+		line.append(",\"duration\":").append(event.getTotalDuration()); //$NON-NLS-1$
+		line.append(",\"stillRunning\":").append(event.isStillRunning()); //$NON-NLS-1$
+		line.append(",\"starvedAwake\":").append(event.isStarvedAwake()); //$NON-NLS-1$
+		line.append(",\"starvedAsleep\":").append(event.isStarvedAsleep()); //$NON-NLS-1$
+		line.append(",\"frames\":["); //$NON-NLS-1$
+		boolean first = true;
+		for (StackTraceElement frame : frames.keySet()) {
+			if (!first) {
+				line.append(',');
+			}
+			appendString(line, frame.toString());
+			first = false;
+		}
+		line.append("],\"samples\":[").append(samples).append("]}"); //$NON-NLS-1$ //$NON-NLS-2$
+		write(line);
+	}
+
+	/**
+	 * Writes the summary of the session, if it had freezes.
+	 */
+	public void close() {
+		if (freezeCount == 0) {
+			return;
+		}
+		List<Map.Entry<String, int[]>> topFrames = new ArrayList<>(blockingFrames.entrySet());
+		topFrames.sort((e1, e2) -> Integer.compare(e2.getValue()[0], e1.getValue()[0]));
+
+		StringBuilder line = new StringBuilder();
+		line.append("{\"type\":\"session\",\"session\":"); //$NON-NLS-1$
+		appendString(line, session);
+		line.append(",\"start\":").append(sessionStart); //$NON-NLS-1$
+		line.append(",\"end\":").append(System.currentTimeMillis()); //$NON-NLS-1$
+		line.append(",\"freezes\":").append(freezeCount); //$NON-NLS-1$
+		line.append(",\"duration\":").append(freezeDuration); //$NON-NLS-1$
+		line.append(",\"topFrames\":["); //$NON-NLS-1$
+		for (int i = 0; i < topFrames.size() && i < MAX_TOP_FRAMES; i++) {
+			if (i > 0) {
+				line.append(',');
+			}
+			line.append("{\"frame\":"); //$NON-NLS-1$
+			appendString(line, topFrames.get(i).getKey());
+			line.append(",\"samples\":").append(topFrames.get(i).getValue()[0]).append('}'); //$NON-NLS-1$
+		}
+		line.append("]}"); //$NON-NLS-1$
+		write(line);
+	}
+
+	private static void appendThread(StringBuilder buf, ThreadInfo thread,
+			Map<StackTraceElement, Integer> frames) {
+		buf.append("{\"id\":").append(thread.getThreadId()); //$NON-NLS-1$
+		buf.append(",\"name\":"); //$NON-NLS-1$
+		appendString(buf, thread.getThreadName());
+		buf.append(",\"state\":\"").append(thread.getThreadState()).append('"'); //$NON-NLS-1$
+		LockInfo lock = thread.getLockInfo();
+		if (lock != null) {
+			buf.append(",\"lock\":"); //$NON-NLS-1$
+			appendString(buf, String.format("%s@%08x", lock.getClassName(), lock.getIdentityHashCode())); //$NON-NLS-1$
+			if (thread.getLockOwnerName() != null) {
+				buf.append(",\"lockOwner\":").append(thread.getLockOwnerId()); //$NON-NLS-1$
+			}
+		}
+		buf.append(",\"stack\":["); //$NON-NLS-1$
+		StackTraceElement[] stack = thread.getStackTrace();
+		for (int i = 0; i < stack.length; i++) {
+			if (i > 0) {
+				buf.append(',');
+			}
+			Integer index = frames.get(stack[i]);
+			if (index == null) {
+				index = frames.size();
+				frames.put(stack[i], index);
+			}
+			buf.append(index.intValue());
+		}
+		buf.append("]}"); //$NON-NLS-1$
+	}
+
+	static void appendString(StringBuilder buf, String value) {
+		buf.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				buf.append("\\\""); //$NON-NLS-1$
+				break;
+			case '\\':
+				buf.append("\\\\"); //$NON-NLS-1$
+				break;
+			case '\n':
+				buf.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				buf.append("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				buf.append("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if (c < 0x20) {
+					buf.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+				} else {
+					buf.append(c);
+				}
+			}
+		}
+		buf.append('"');
+	}
+
+	private void write(StringBuilder line) {
+		if (failed) {
+			return;
+		}
+		line.append('\n');
+		byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+		try {
+			directory.mkdirs();
+			File file = getFile(0);
+			if (file.length() > 0 && file.length() + bytes.length > MAX_FILE_SIZE) {
+				roll();
+			}
+			Files.write(file.toPath(), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			// Do not report the same problem for each freeze.
+			failed = true;
+			MonitoringPlugin.logError(Messages.JsonUiFreezeEventLogger_write_error, e);
+		}
+	}
+
+	private void roll() throws IOException {
+		Files.deleteIfExists(getFile(MAX_FILES - 1).toPath());
+		for (int i = MAX_FILES - 2; i >= 0; i--) {
+			File file = getFile(i);
+			if (file.exists()) {
+				Files.move(file.toPath(), getFile(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+	}
+
+	/**
+	 * Returns the file of the given generation, 0 being the current file.
+	 */
+	File getFile(int generation) {
+		String name = generation == 0 ? FILE_NAME + FILE_EXTENSION
+				: FILE_NAME + '.' + generation + FILE_EXTENSION;
+		return new File(directory, name);
+	}
+}
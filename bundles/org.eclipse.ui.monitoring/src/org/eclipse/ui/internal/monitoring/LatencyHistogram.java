@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.ui.monitoring.IEventLatencyHistogram;
+
+/**
+ * A histogram of latencies that can be recorded and read concurrently without locking.
+ * <p>
+ * The buckets have a width growing with the magnitude of the latencies: the latencies under
+ * {@value #SUB_BUCKET_COUNT} fall in buckets of width 1, then each power of two is divided in
+ * {@value #SUB_BUCKET_COUNT} buckets, which bounds the relative error to 1 / {@value
+ * #SUB_BUCKET_COUNT}. Latencies above {@link #MAX_LATENCY} are counted as {@link #MAX_LATENCY}.
+ */
+public class LatencyHistogram {
+	static final int SUB_BUCKET_BITS = 4;
+	static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	static final int MAX_MAGNITUDE = 40;
+	static final long MAX_LATENCY = (1L << MAX_MAGNITUDE) - 1;
+	static final int BUCKET_COUNT = getBucketIndex(MAX_LATENCY) + 1;
+
+	private final int eventType;
+	private final int nestingLevel;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong totalLatency = new AtomicLong();
+
+	/**
+	 * @param eventType the type of the SWT events
+	 * @param nestingLevel the nesting level of the events
+	 */
+	public LatencyHistogram(int eventType, int nestingLevel) {
+		this.eventType = eventType;
+		this.nestingLevel = nestingLevel;
+	}
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param latency the latency in microseconds
+	 */
+	public void record(long latency) {
+		if (latency < 0) {
+			latency = 0;
+		} else if (latency > MAX_LATENCY) {
+			latency = MAX_LATENCY;
+		}
+		counts.incrementAndGet(getBucketIndex(latency));
+		totalLatency.addAndGet(latency);
+	}
+
+	/**
+	 * Returns an immutable copy of the histogram. The latencies recorded while the copy is made
+	 * may be partially accounted for.
+	 */
+	public IEventLatencyHistogram snapshot() {
+		long[] bucketCounts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			bucketCounts[i] = counts.get(i);
+		}
+		return new Snapshot(eventType, nestingLevel, bucketCounts, totalLatency.get());
+	}
+
+	/**
+	 * Returns the index of the bucket counting the given latency.
+	 */
+	static int getBucketIndex(long latency) {
+		if (latency < SUB_BUCKET_COUNT) {
+			return (int) latency;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(latency);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) (latency >>> shift) - SUB_BUCKET_COUNT;
+	}
+
+	/**
+	 * Returns the largest latency counted by the bucket with the given index.
+	 */
+	static long getBucketMaxLatency(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	private static class Snapshot implements IEventLatencyHistogram {
+		private final int eventType;
+		private final int nestingLevel;
+		private final long[] counts;
+		private final long count;
+		private final long totalLatency;
+
+		Snapshot(int eventType, int nestingLevel, long[] counts, long totalLatency) {
+			this.eventType = eventType;
+			this.nestingLevel = nestingLevel;
+			this.counts = counts;
+			this.totalLatency = totalLatency;
+			long sum = 0;
+			for (long c : counts) {
+				sum += c;
+			}
+			this.count = sum;
+		}
+
+		@Override
+		public int getEventType() {
+			return eventType;
+		}
+
+		@Override
+		public int getNestingLevel() {
+			return nestingLevel;
+		}
+
+		@Override
+		public long getCount() {
+			return count;
+		}
+
+		@Override
+		public double getMeanLatency() {
+			return count == 0 ? 0 : (double) totalLatency / count;
+		}
+
+		@Override
+		public long getMaxLatency() {
+			for (int i = counts.length; --i >= 0;) {
+				if (counts[i] != 0) {
+					return getBucketMaxLatency(i);
+				}
+			}
+			return 0;
+		}
+
+		@Override
+		public long getLatencyAtPercentile(double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			double fraction = Math.min(Math.max(percentile, 0), 100) / 100;
+			long rank = Math.max(1, (long) Math.ceil(fraction * count));
+			long cumulated = 0;
+			for (int i = 0; i < counts.length; i++) {
+				cumulated += counts[i];
+				if (cumulated >= rank) {
+					return getBucketMaxLatency(i);
+				}
+			}
+			return getMaxLatency();
+		}
+
+		/** For debugging only. */
+		@Override
+		public String toString() {
+			return String.format("Event %d at nesting level %d: count=%d mean=%.1fus p50=%dus p99=%dus max=%dus", //$NON-NLS-1$
+					eventType, nestingLevel, count, getMeanLatency(), getLatencyAtPercentile(50),
+					getLatencyAtPercentile(99), getMaxLatency());
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2015 Google, Inc and others.
+ * Copyright (c) 2014, 2020 Google, Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -40,8 +40,13 @@ final class Messages extends NLS {
 	public static String EventLoopMonitorThread_warning_threshold_error_1;
 	public static String EventLoopMonitorThread_max_event_loop_depth_exceeded_1;
 	public static String EventLoopMonitorThread_workbench_was_null;
+	public static String JsonUiFreezeEventLogger_write_error;
 	public static String FilterHandler_missing_thread_error;
 	public static String MonitoringStartup_initialization_error;
+	public static String PartStartMonitor_slow_async_part_start_2;
+	public static String PartStartMonitor_slow_part_start_2;
+	public static String UiThreadProfiler_profile_written_4;
+	public static String UiThreadProfiler_write_error_1;
 
 	private Messages() {
 		// Do not instantiate.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2019 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@
 package org.eclipse.ui.internal.monitoring;
 
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.workbench.renderers.swt.ContributedPartRenderer;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IStartup;
@@ -25,7 +27,8 @@ import org.eclipse.ui.internal.monitoring.preferences.MonitoringPreferenceListen
 import org.eclipse.ui.monitoring.PreferenceConstants;
 
 /**
- * Starts the event loop monitoring thread. Initializes preferences from {@link IPreferenceStore}.
+ * Starts the event loop monitoring thread and the monitoring of the part starts. Initializes
+ * preferences from {@link IPreferenceStore}.
  */
 public class MonitoringStartup implements IStartup {
 	private EventLoopMonitorThread monitoringThread;
@@ -39,6 +42,11 @@ public class MonitoringStartup implements IStartup {
 		IPreferenceStore preferences = MonitoringPlugin.getPreferenceStore();
 		if (preferences.getBoolean(PreferenceConstants.MONITORING_ENABLED) && !Platform.inDevelopmentMode()) {
 			monitoringThread = createAndStartMonitorThread();
+			IEventBroker eventBroker = PlatformUI.getWorkbench().getService(IEventBroker.class);
+			if (eventBroker != null) {
+				eventBroker.subscribe(ContributedPartRenderer.TOPIC_PART_CREATED, new PartStartMonitor(
+						preferences.getInt(PreferenceConstants.LONG_EVENT_WARNING_THRESHOLD_MILLIS)));
+			}
 		}
 
 		preferences.addPropertyChangeListener(new MonitoringPreferenceListener(monitoringThread));
@@ -85,6 +93,7 @@ public class MonitoringStartup implements IStartup {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		args.logToFile = preferences.getBoolean(PreferenceConstants.LOG_TO_FILE);
 
 		return args;
 	}
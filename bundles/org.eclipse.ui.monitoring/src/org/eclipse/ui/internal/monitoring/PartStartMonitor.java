@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.e4.ui.workbench.renderers.swt.ContributedPartRenderer;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.monitoring.PreferenceConstants;
+import org.osgi.service.event.Event;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Reports the time taken to start the parts, as posted by the part renderer on
+ * {@link ContributedPartRenderer#TOPIC_PART_CREATED}. The parts taking longer
+ * than the warning threshold of the long events are logged, all part starts are
+ * traced.
+ */
+public class PartStartMonitor implements EventHandler {
+	private static final String TRACE_PART_START = "/debug/part_start"; //$NON-NLS-1$
+	private static final String TRACE_PREFIX = "Part Start Monitor"; //$NON-NLS-1$
+	private static final Tracer tracer =
+			Tracer.create(TRACE_PREFIX, PreferenceConstants.PLUGIN_ID + TRACE_PART_START);
+
+	private final long warningThreshold;
+
+	/**
+	 * @param warningThreshold the start time in milliseconds from which a part start is logged
+	 */
+	public PartStartMonitor(long warningThreshold) {
+		this.warningThreshold = warningThreshold;
+	}
+
+	@Override
+	public void handleEvent(Event event) {
+		Object element = event.getProperty(UIEvents.EventTags.ELEMENT);
+		Object startTime = event.getProperty(ContributedPartRenderer.PART_START_TIME);
+		if (!(element instanceof MPart) || !(startTime instanceof Long)) {
+			return;
+		}
+
+		MPart part = (MPart) element;
+		long time = ((Long) startTime).longValue();
+		boolean async = Boolean.TRUE.equals(event.getProperty(ContributedPartRenderer.PART_CREATED_ASYNC));
+		if (tracer != null) {
+			tracer.trace("%s started in %dms%s", part.getElementId(), time, async ? " (async)" : ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		if (time >= warningThreshold) {
+			MonitoringPlugin.logWarning(NLS.bind(async ? Messages.PartStartMonitor_slow_async_part_start_2
+					: Messages.PartStartMonitor_slow_part_start_2, part.getElementId(), Long.valueOf(time)));
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.ui.monitoring.PreferenceConstants;
+import org.eclipse.ui.monitoring.StackSample;
+
+/**
+ * Samples the stack of the UI thread at a fixed rate for a given time, whether the UI is frozen
+ * or not, and aggregates the samples into a {@link CallTree}. When done, writes the tree in the
+ * folded stack format read by flame graph tools.
+ * <p>
+ * The samples taken while the UI thread sleeps waiting for events are counted as idle. The
+ * samples matching the UI thread filter, as used for the UI freezes, are counted as filtered.
+ * Neither are added to the tree.
+ */
+public class UiThreadProfiler extends Thread {
+	/** The stack frame of the UI thread waiting for events. */
+	private static final String IDLE_FILTER = "org.eclipse.swt.widgets.Display.sleep"; //$NON-NLS-1$
+	private static final String FILE_NAME = "ui-thread-profile-"; //$NON-NLS-1$
+	private static final String FILE_EXTENSION = ".folded"; //$NON-NLS-1$
+	/** The default time between two samples, in milliseconds. */
+	public static final long DEFAULT_SAMPLE_INTERVAL = 10;
+
+	private final long uiThreadId;
+	private final long duration;
+	private final long sampleInterval;
+	private final FilterHandler uiThreadFilter;
+	private final FilterHandler idleFilter = new FilterHandler(IDLE_FILTER);
+	private final File outputFile;
+	private final CallTree callTree = new CallTree();
+	private long idleSamples;
+	private long filteredSamples;
+
+	/**
+	 * @param uiThreadId the ID of the UI thread
+	 * @param duration the time to profile for, in milliseconds
+	 * @param sampleInterval the time between two samples, in milliseconds
+	 * @param uiThreadFilter the comma separated fully qualified method names of the stack frames
+	 *     excluding a sample, see {@link PreferenceConstants#UI_THREAD_FILTER}
+	 * @param outputFile the file to write the folded stacks to, or {@code null}
+	 */
+	public UiThreadProfiler(long uiThreadId, long duration, long sampleInterval,
+			String uiThreadFilter, File outputFile) {
+		super("UI Thread Profiler"); //$NON-NLS-1$
+		setDaemon(true);
+		setPriority(NORM_PRIORITY + 1);
+		this.uiThreadId = uiThreadId;
+		this.duration = duration;
+		this.sampleInterval = Math.max(sampleInterval, 1);
+		this.uiThreadFilter = new FilterHandler(uiThreadFilter);
+		this.outputFile = outputFile;
+	}
+
+	@Override
+	public void run() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		long start = System.currentTimeMillis();
+		long end = start + duration;
+		// Sample at a fixed rate, the sampling time not delaying the next sample.
+		for (long sampleAt = start; sampleAt < end; sampleAt += sampleInterval) {
+			long delay = sampleAt - System.currentTimeMillis();
+			if (delay > 0) {
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+			ThreadInfo thread = threadMXBean.getThreadInfo(uiThreadId, Integer.MAX_VALUE);
+			if (thread == null) {
+				break; // The UI thread is gone.
+			}
+			addSample(new StackSample(System.currentTimeMillis(), new ThreadInfo[] { thread }));
+		}
+
+		if (outputFile != null) {
+			writeFoldedStacks();
+		}
+	}
+
+	private void addSample(StackSample sample) {
+		StackSample[] samples = { sample };
+		if (!idleFilter.shouldLogEvent(samples, 1, uiThreadId)) {
+			idleSamples++;
+		} else if (!uiThreadFilter.shouldLogEvent(samples, 1, uiThreadId)) {
+			filteredSamples++;
+		} else {
+			callTree.addSample(sample.getStackTraces()[0].getStackTrace());
+		}
+	}
+
+	private void writeFoldedStacks() {
+		try {
+			outputFile.getParentFile().mkdirs();
+			try (Writer writer = Files.newBufferedWriter(outputFile.toPath(), StandardCharsets.UTF_8)) {
+				callTree.writeFoldedStacks(writer);
+			}
+			MonitoringPlugin.log(new Status(IStatus.INFO, PreferenceConstants.PLUGIN_ID,
+					NLS.bind(Messages.UiThreadProfiler_profile_written_4, new Object[] {
+							Long.valueOf(callTree.getSampleCount()), Long.valueOf(idleSamples),
+							Long.valueOf(filteredSamples), outputFile })));
+		} catch (IOException e) {
+			MonitoringPlugin.logError(NLS.bind(Messages.UiThreadProfiler_write_error_1, outputFile), e);
+		}
+	}
+
+	/**
+	 * Returns a file named after the current time in the state location of the plug-in, to write
+	 * a profile to.
+	 */
+	public static File getDefaultOutputFile() {
+		String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()); //$NON-NLS-1$
+		File directory = Platform.getStateLocation(Platform.getBundle(PreferenceConstants.PLUGIN_ID))
+				.toFile();
+		return new File(directory, FILE_NAME + timestamp + FILE_EXTENSION);
+	}
+
+	/**
+	 * Returns the tree of the non-idle samples taken. Must be called after the thread is done.
+	 */
+	public CallTree getCallTree() {
+		return callTree;
+	}
+
+	/**
+	 * Returns the number of samples taken while the UI thread was waiting for events.
+	 */
+	public long getIdleSamples() {
+		return idleSamples;
+	}
+
+	/**
+	 * Returns the number of samples excluded by the UI thread filter.
+	 */
+	public long getFilteredSamples() {
+		return filteredSamples;
+	}
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring.preferences;
+
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.layout.GridDataFactory;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.ui.monitoring.EventLatencyHistograms;
+import org.eclipse.ui.monitoring.IEventLatencyHistogram;
+
+/**
+ * A dialog showing the latency percentiles of the SWT events dispatched by the UI thread.
+ */
+public class EventLatencyDialog extends Dialog {
+	private static final int REFRESH_ID = IDialogConstants.CLIENT_ID;
+	private static final int RESET_ID = IDialogConstants.CLIENT_ID + 1;
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+	private static final String[] EVENT_TYPE_NAMES = {
+			"None", "KeyDown", "KeyUp", "MouseDown", "MouseUp", "MouseMove", "MouseEnter", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+			"MouseExit", "MouseDoubleClick", "Paint", "Move", "Resize", "Dispose", "Selection", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+			"DefaultSelection", "FocusIn", "FocusOut", "Expand", "Collapse", "Iconify", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+			"Deiconify", "Close", "Show", "Hide", "Modify", "Verify", "Activate", "Deactivate", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+			"Help", "DragDetect", "Arm", "Traverse", "MouseHover", "HardKeyDown", "HardKeyUp", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+			"MenuDetect", "SetData", "MouseVerticalWheel", "MouseHorizontalWheel", "Settings", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			"EraseItem", "MeasureItem", "PaintItem", "ImeComposition", "OrientationChange", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			"Skin", "OpenDocument", "Touch", "Gesture", "Segments", "PreEvent", "PostEvent", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+			"Sleep", "Wakeup", "OpenUrl", "ZoomChanged" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	private Table table;
+
+	public EventLatencyDialog(Shell parentShell) {
+		super(parentShell);
+	}
+
+	@Override
+	protected void configureShell(Shell shell) {
+		super.configureShell(shell);
+		shell.setText(Messages.EventLatencyDialog_title);
+	}
+
+	@Override
+	protected Control createDialogArea(Composite parent) {
+		Composite area = (Composite) super.createDialogArea(parent);
+		table = new Table(area, SWT.BORDER | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		createColumn(Messages.EventLatencyDialog_event_type_column, SWT.LEFT);
+		createColumn(Messages.EventLatencyDialog_nesting_level_column, SWT.RIGHT);
+		createColumn(Messages.EventLatencyDialog_count_column, SWT.RIGHT);
+		createColumn(Messages.EventLatencyDialog_mean_column, SWT.RIGHT);
+		for (double percentile : PERCENTILES) {
+			createColumn(NLS.bind(Messages.EventLatencyDialog_percentile_column_1,
+					formatPercentile(percentile)), SWT.RIGHT);
+		}
+		createColumn(Messages.EventLatencyDialog_max_column, SWT.RIGHT);
+		GridDataFactory.fillDefaults().grab(true, true)
+				.hint(convertWidthInCharsToPixels(100), convertHeightInCharsToPixels(20))
+				.applyTo(table);
+		refresh();
+		return area;
+	}
+
+	private void createColumn(String text, int alignment) {
+		TableColumn column = new TableColumn(table, alignment);
+		column.setText(text);
+	}
+
+	@Override
+	protected void createButtonsForButtonBar(Composite parent) {
+		createButton(parent, REFRESH_ID, Messages.EventLatencyDialog_refresh_button_label, false);
+		createButton(parent, RESET_ID, Messages.EventLatencyDialog_reset_button_label, false);
+		createButton(parent, IDialogConstants.CLOSE_ID, IDialogConstants.CLOSE_LABEL, true);
+	}
+
+	@Override
+	protected void buttonPressed(int buttonId) {
+		switch (buttonId) {
+		case RESET_ID:
+			EventLatencyHistograms.reset();
+			refresh();
+			break;
+		case REFRESH_ID:
+			refresh();
+			break;
+		case IDialogConstants.CLOSE_ID:
+			close();
+			break;
+		default:
+			super.buttonPressed(buttonId);
+		}
+	}
+
+	private void refresh() {
+		table.removeAll();
+		for (IEventLatencyHistogram histogram : EventLatencyHistograms.getHistograms()) {
+			TableItem item = new TableItem(table, SWT.NONE);
+			int column = 0;
+			item.setText(column++, getEventTypeName(histogram.getEventType()));
+			item.setText(column++, Integer.toString(histogram.getNestingLevel()));
+			item.setText(column++, Long.toString(histogram.getCount()));
+			item.setText(column++, formatLatency(histogram.getMeanLatency()));
+			for (double percentile : PERCENTILES) {
+				item.setText(column++, formatLatency(histogram.getLatencyAtPercentile(percentile)));
+			}
+			item.setText(column++, formatLatency(histogram.getMaxLatency()));
+		}
+		for (TableColumn column : table.getColumns()) {
+			column.pack();
+		}
+	}
+
+	private static String getEventTypeName(int eventType) {
+		return eventType >= 0 && eventType < EVENT_TYPE_NAMES.length ? EVENT_TYPE_NAMES[eventType]
+				: Integer.toString(eventType);
+	}
+
+	private static String formatPercentile(double percentile) {
+		return percentile == Math.rint(percentile) ? Long.toString((long) percentile)
+				: Double.toString(percentile);
+	}
+
+	/**
+	 * Formats a latency in microseconds as milliseconds.
+	 */
+	private static String formatLatency(double latency) {
+		return String.format("%.2f", latency / 1000); //$NON-NLS-1$
+	}
+
+	@Override
+	protected boolean isResizable() {
+		return true;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 Google, Inc and others.
+ * Copyright (c) 2014, 2020 Google, Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,15 @@ package org.eclipse.ui.internal.monitoring.preferences;
 import org.eclipse.osgi.util.NLS;
 
 public final class Messages extends NLS {
+	public static String EventLatencyDialog_count_column;
+	public static String EventLatencyDialog_event_type_column;
+	public static String EventLatencyDialog_max_column;
+	public static String EventLatencyDialog_mean_column;
+	public static String EventLatencyDialog_nesting_level_column;
+	public static String EventLatencyDialog_percentile_column_1;
+	public static String EventLatencyDialog_refresh_button_label;
+	public static String EventLatencyDialog_reset_button_label;
+	public static String EventLatencyDialog_title;
 	public static String FilterInputDialog_filter_input_label;
 	public static String FilterInputDialog_header;
 	public static String FilterInputDialog_invalid_method_name;
@@ -33,9 +42,13 @@ public final class Messages extends NLS {
 	public static String MonitoringPreferencePage_enable_monitoring_label;
 	public static String MonitoringPreferencePage_error_threshold_label;
 	public static String MonitoringPreferencePage_error_threshold_too_low_error;
+	public static String MonitoringPreferencePage_event_latencies_button_label;
 	public static String MonitoringPreferencePage_log_freeze_events_label;
+	public static String MonitoringPreferencePage_log_freeze_events_to_file_label;
 	public static String MonitoringPreferencePage_max_stack_samples_label;
 	public static String MonitoringPreferencePage_noninteresting_thread_filter_label;
+	public static String MonitoringPreferencePage_profile_button_label;
+	public static String MonitoringPreferencePage_profile_duration_label;
 	public static String MonitoringPreferencePage_remove_ui_thread_filter_button_label;
 	public static String MonitoringPreferencePage_remove_noninteresting_thread_filter_button_label;
 	public static String MonitoringPreferencePage_ui_thread_filter_label;
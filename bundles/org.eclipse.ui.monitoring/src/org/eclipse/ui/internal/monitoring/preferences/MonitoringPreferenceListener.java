@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2019 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -53,6 +53,7 @@ public class MonitoringPreferenceListener implements IPropertyChangeListener {
 				&& !property.equals(PreferenceConstants.LONG_EVENT_ERROR_THRESHOLD_MILLIS)
 				&& !property.equals(PreferenceConstants.LONG_EVENT_WARNING_THRESHOLD_MILLIS)
 				&& !property.equals(PreferenceConstants.LOG_TO_ERROR_LOG)
+				&& !property.equals(PreferenceConstants.LOG_TO_FILE)
 				&& !property.equals(PreferenceConstants.MAX_STACK_SAMPLES)
 				&& !property.equals(PreferenceConstants.UI_THREAD_FILTER)
 				&& !property.equals(PreferenceConstants.NONINTERESTING_THREAD_FILTER)) {
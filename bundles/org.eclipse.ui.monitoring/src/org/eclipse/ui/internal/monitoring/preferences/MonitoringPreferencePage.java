@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2019 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.monitoring.preferences;
 
+import static org.eclipse.swt.events.SelectionListener.widgetSelectedAdapter;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,12 +30,16 @@ import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 import org.eclipse.ui.internal.monitoring.MonitoringPlugin;
+import org.eclipse.ui.internal.monitoring.UiThreadProfiler;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 
 /**
@@ -42,11 +48,14 @@ import org.eclipse.ui.monitoring.PreferenceConstants;
 public class MonitoringPreferencePage extends FieldEditorPreferencePage
 		implements IWorkbenchPreferencePage {
 	private static final int HOUR_IN_MS = 3600000;
+	private static final int DEFAULT_PROFILE_SECONDS = 10;
 	private BooleanFieldEditor monitoringEnabled;
 	private IntegerEditor longEventWarningThreshold;
 	private IntegerEditor longEventErrorThreshold;
 	private IntegerEditor deadlockThreshold;
 	private Map<FieldEditor, Composite> editors;
+	private Spinner profileDuration;
+	private Button profileButton;
 
 	private class IntegerEditor extends IntegerFieldEditor {
 		public IntegerEditor(String name, String labelText, Composite parent, int min, int max) {
@@ -130,6 +139,8 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 				Messages.MonitoringPreferencePage_enable_monitoring_label, block);
 		createBooleanEditor(PreferenceConstants.LOG_TO_ERROR_LOG,
 				Messages.MonitoringPreferencePage_log_freeze_events_label, block);
+		createBooleanEditor(PreferenceConstants.LOG_TO_FILE,
+				Messages.MonitoringPreferencePage_log_freeze_events_to_file_label, block);
 
 		longEventWarningThreshold = createIntegerEditor(
 				PreferenceConstants.LONG_EVENT_WARNING_THRESHOLD_MILLIS,
@@ -146,6 +157,26 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 		createIntegerEditor(
 				PreferenceConstants.MAX_STACK_SAMPLES,
 				Messages.MonitoringPreferencePage_max_stack_samples_label, block, 0, 100);
+
+		Button latencyButton = new Button(block, SWT.PUSH);
+		latencyButton.setText(Messages.MonitoringPreferencePage_event_latencies_button_label);
+		latencyButton.addSelectionListener(widgetSelectedAdapter(
+				e -> new EventLatencyDialog(getShell()).open()));
+		GridDataFactory.swtDefaults().span(2, 1).applyTo(latencyButton);
+
+		Composite profileBlock = new Composite(block, SWT.NONE);
+		Label profileLabel = new Label(profileBlock, SWT.NONE);
+		profileLabel.setText(Messages.MonitoringPreferencePage_profile_duration_label);
+		profileDuration = new Spinner(profileBlock, SWT.BORDER);
+		profileDuration.setValues(DEFAULT_PROFILE_SECONDS, 1, 3600, 0, 1, 10);
+		profileButton = new Button(profileBlock, SWT.PUSH);
+		profileButton.setText(Messages.MonitoringPreferencePage_profile_button_label);
+		profileButton.addSelectionListener(widgetSelectedAdapter(e -> startProfiling()));
+		GridLayoutFactory.fillDefaults()
+				.numColumns(3)
+				.spacing(LayoutConstants.getSpacing())
+				.applyTo(profileBlock);
+		GridDataFactory.swtDefaults().span(2, 1).applyTo(profileBlock);
 		GridLayoutFactory.fillDefaults()
 				.numColumns(2)
 				.spacing(LayoutConstants.getSpacing())
@@ -181,6 +212,25 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 		return block;
 	}
 
+	/**
+	 * Profiles the UI thread in the background for the selected time. The button is disabled
+	 * until the profile is done.
+	 */
+	private void startProfiling() {
+		int seconds = profileDuration.getSelection();
+		Display display = profileButton.getDisplay();
+		new UiThreadProfiler(display.getThread().getId(), seconds * 1000L,
+				UiThreadProfiler.DEFAULT_SAMPLE_INTERVAL,
+				getPreferenceStore().getString(PreferenceConstants.UI_THREAD_FILTER),
+				UiThreadProfiler.getDefaultOutputFile()).start();
+		profileButton.setEnabled(false);
+		display.timerExec(seconds * 1000, () -> {
+			if (!profileButton.isDisposed()) {
+				profileButton.setEnabled(true);
+			}
+		});
+	}
+
 	private static Control createEmptySpace(Composite parent, int height, int span) {
 		Label label= new Label(parent, SWT.LEFT);
 		GridDataFactory.fillDefaults().span(span, 1).hint(0, height).applyTo(label);
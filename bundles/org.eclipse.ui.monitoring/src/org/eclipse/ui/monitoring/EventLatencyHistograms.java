@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import java.util.List;
+
+import org.eclipse.ui.internal.monitoring.EventLatencyRecorder;
+
+/**
+ * Gives access to the latencies of the SWT events dispatched by the UI thread. The latencies are
+ * recorded while the UI responsiveness monitoring is enabled, whatever their duration, in one
+ * histogram per event type and nesting level.
+ *
+ * @since 1.2
+ */
+public final class EventLatencyHistograms {
+	/**
+	 * The deepest nesting level having its own histograms. The events nested deeper are counted
+	 * at this level.
+	 */
+	public static final int MAX_NESTING_LEVEL = EventLatencyRecorder.MAX_NESTING_LEVEL;
+
+	private EventLatencyHistograms() {}
+
+	/**
+	 * Returns snapshots of the histograms having recorded at least one event, ordered by event
+	 * type and nesting level.
+	 */
+	public static List<IEventLatencyHistogram> getHistograms() {
+		return EventLatencyRecorder.getDefault().getHistograms();
+	}
+
+	/**
+	 * Discards the latencies recorded so far.
+	 */
+	public static void reset() {
+		EventLatencyRecorder.getDefault().reset();
+	}
+}
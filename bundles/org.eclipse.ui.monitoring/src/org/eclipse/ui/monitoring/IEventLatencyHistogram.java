@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+/**
+ * The distribution of the time taken by the UI thread to dispatch the SWT events of one type at
+ * one nesting level. The latencies are in microseconds and are recorded with a relative precision
+ * of about 6%.
+ * <p>
+ * Instances are immutable snapshots obtained from {@link EventLatencyHistograms}.
+ *
+ * @since 1.2
+ */
+public interface IEventLatencyHistogram {
+	/**
+	 * Returns the type of the SWT events, for example {@link org.eclipse.swt.SWT#Paint}.
+	 * The events of types outside of the range of the types defined by SWT are counted under
+	 * {@link org.eclipse.swt.SWT#None}.
+	 */
+	int getEventType();
+
+	/**
+	 * Returns the number of events that were being dispatched when the events of this histogram
+	 * were dispatched, plus one. The top level events have the nesting level 1. The events nested
+	 * deeper than {@link EventLatencyHistograms#MAX_NESTING_LEVEL} are counted at that level.
+	 */
+	int getNestingLevel();
+
+	/**
+	 * Returns the number of recorded events.
+	 */
+	long getCount();
+
+	/**
+	 * Returns the mean latency of the recorded events in microseconds, or 0 if no events were
+	 * recorded.
+	 */
+	double getMeanLatency();
+
+	/**
+	 * Returns the largest latency recorded, in microseconds.
+	 */
+	long getMaxLatency();
+
+	/**
+	 * Returns the latency under which the given percentage of the recorded events were
+	 * dispatched, in microseconds.
+	 *
+	 * @param percentile the percentage of events, between 0 and 100, for example 99 for the 99th
+	 *     percentile
+	 * @return the latency at the given percentile, or 0 if no events were recorded
+	 */
+	long getLatencyAtPercentile(double percentile);
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -46,6 +46,13 @@ public class PreferenceConstants {
 	 * If true, log freeze events to the Eclipse error log.
 	 */
 	public static final String LOG_TO_ERROR_LOG = "log_to_error_log"; //$NON-NLS-1$
+	/**
+	 * If true, log freeze events to a rolling set of JSON lines files in the state location of
+	 * the plug-in.
+	 *
+	 * @since 1.2
+	 */
+	public static final String LOG_TO_FILE = "log_to_file"; //$NON-NLS-1$
 	/**
 	 * Comma separated fully qualified method names of stack frames. The names may contain
 	 * '*' and '?' wildcard characters. A UI freeze is not logged if any of the stack traces
@@ -153,6 +153,9 @@ public class CommonNavigatorMessages extends NLS {
 	/** */
 	public static String LoggingJob;
 
+	/** */
+	public static String EvaluationCacheSweepJob;
+
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, CommonNavigatorMessages.class);
@@ -41,6 +41,7 @@ import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.IMemento;
 import org.eclipse.ui.internal.navigator.dnd.NavigatorDnDService;
+import org.eclipse.ui.internal.navigator.extensions.EvaluationCache;
 import org.eclipse.ui.internal.navigator.extensions.ExtensionSequenceNumberComparator;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptor;
 import org.eclipse.ui.internal.navigator.extensions.NavigatorContentDescriptorManager;
@@ -812,6 +813,17 @@ public class NavigatorContentService implements IExtensionActivationListener,
 		return result;
 	}
 
+	/**
+	 * Returns the hit, miss and eviction counts of the caches of the
+	 * <b>triggerPoints</b> and <b>possibleChildren</b> evaluations done for
+	 * this content service.
+	 *
+	 * @return the statistics of the evaluation caches of this content service
+	 */
+	public EvaluationCache.Statistics getEvaluationCacheStatistics() {
+		return CONTENT_DESCRIPTOR_REGISTRY.getEvaluationCacheStatistics(assistant);
+	}
+
 	@Override
 	public void onExtensionActivation(String aViewerId,
 			String[] aNavigatorExtensionId, boolean toEnable) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,94 +17,229 @@ package org.eclipse.ui.internal.navigator.extensions;
 
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.ui.internal.navigator.CommonNavigatorMessages;
 import org.eclipse.ui.internal.navigator.VisibilityAssistant;
 import org.eclipse.ui.internal.navigator.VisibilityAssistant.VisibilityListener;
 
 /**
  * A cache for evaluated {@link NavigatorContentDescriptor}.
+ * <p>
+ * The cache is a segmented LRU of bounded size: new entries go to a
+ * probationary segment, and entries found again are promoted to a protected
+ * segment. Entries only evaluated once are thus evicted first, while elements
+ * shown repeatedly (e.g. the expanded part of a tree that is refreshed) stay in
+ * the cache.
+ * </p>
+ * <p>
+ * Each element has a single entry holding the descriptors computed with and
+ * without overrides. The descriptors are held strongly, since they are shared
+ * by many elements, and only the element is softly referenced so that the
+ * cache never keeps it from being collected. This keeps the number of soft
+ * references at most one per entry. Entries whose element has been collected
+ * are removed on access, a few at a time, and by a background sweep.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
  */
 public class EvaluationCache implements VisibilityListener {
-	// TODO Have an LRU cache with max size as well as SoftReferences, to help
-	// prevent pathological GC performance that can happen where there are a
-	// large number of softly reachable objects, as well as helping to reduce
-	// dependence on the GC from keeping this cache's size in line in the first
-	// place.
 
-	// TODO Counters for cache hits, misses, replacements, etc.
-
-	// TODO Either the overrides and not overrides case should "share" parts of
-	// their data structures (for example, this can be a map of key -> pair
-	// instead of two maps) OR not bother tracking "overrides or not" state here
-	// and instead let users of this class handle it with two instances of this
-	// class.
-	private final Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> evaluations = new HashMap<>();
-	private final Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> evaluationsWithOverrides = new HashMap<>();
+	/**
+	 * Default maximum number of entries of a cache.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 10000;
 
-	private final ReferenceQueue<Object> evaluationsQueue = new ReferenceQueue<>();
-	private final ReferenceQueue<Object> evaluationsWithOverridesQueue = new ReferenceQueue<>();
+	/**
+	 * Maximum number of stale entries removed when accessing the cache, the
+	 * remaining ones are left to the background sweep.
+	 */
+	private static final int MAX_STALE_ENTRIES_PER_ACCESS = 32;
 
 	/**
-	 * @param anAssistant the VisisbilityAssistant to register with, must be non-null
+	 * Delay between two sweeps of the stale entries, in milliseconds.
 	 */
-	public EvaluationCache(VisibilityAssistant anAssistant) {
-		anAssistant.addListener(this);
+	private static final long SWEEP_DELAY = 30000;
+
+	private static final class Entry {
+		final EvaluationReference<Object> key;
+
+		NavigatorContentDescriptor[] descriptors;
+
+		NavigatorContentDescriptor[] descriptorsWithOverrides;
+
+		boolean isProtected;
+
+		Entry(EvaluationReference<Object> key) {
+			this.key = key;
+		}
 	}
 
-	private void cleanUpStaleEntries() {
-		// TODO Only clean up to a certain number of entries per call when merely accessing or setting?
-		// TODO Periodic task to run this every now and then, ala org.eclipse.core.runtime.jobs.Job?
-		// If this is done, will need to make this class thread safe.
+	/**
+	 * Removes the stale entries of a cache in the background, as long as the
+	 * cache has entries. Only weakly references the cache, so that it does not
+	 * keep an unused cache alive.
+	 */
+	private static final class SweepJob extends Job {
+		private final WeakReference<EvaluationCache> cacheReference;
 
-		// Not thread safe, but this whole class isn't, so that is fine.
-		Reference<?> r;
-		// Reference#poll thankfully does not block if there is nothing available.
-		while ((r = evaluationsQueue.poll()) != null) {
-			processStaleEntry(r, evaluations);
+		SweepJob(EvaluationCache cache) {
+			super(CommonNavigatorMessages.EvaluationCacheSweepJob);
+			cacheReference = new WeakReference<>(cache);
+			setSystem(true);
 		}
-		while ((r = evaluationsWithOverridesQueue.poll()) != null) {
-			processStaleEntry(r, evaluationsWithOverrides);
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			EvaluationCache cache = cacheReference.get();
+			if (cache != null && !monitor.isCanceled() && cache.sweep()) {
+				schedule(SWEEP_DELAY);
+			}
+			return Status.OK_STATUS;
 		}
 	}
 
-	private static void processStaleEntry(Reference<?> r,
-			Map<? extends Reference<?>, ? extends Reference<?>> fromMap) {
-		if (r instanceof EvaluationReference) {
-			// Key has been collected; clear its entry.
-			EvaluationValueReference<?> oldVal = (EvaluationValueReference<?>) fromMap.remove(r);
-			if (oldVal != null) {
-				// Clear the key from the value so we don't try to prematurely
-				// remove any potential new mapping upon cleanUpStaleEntries()
-				oldVal.clear();
-			}
+	/**
+	 * Snapshot of the counters of one or several caches.
+	 */
+	public static final class Statistics {
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+		private final long collected;
+		private final int size;
+
+		Statistics(long hits, long misses, long evictions, long collected, int size) {
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+			this.collected = collected;
+			this.size = size;
 		}
-		if (r instanceof EvaluationValueReference) {
-			// If the value has been collected, get its key, and then remove that entry.
-			EvaluationReference<?> key = ((EvaluationValueReference<?>) r).getKey();
-			if (key != null) {
-				fromMap.remove(key);
-			}
+
+		/**
+		 * @return the number of lookups that found cached descriptors
+		 */
+		public long getHits() {
+			return hits;
+		}
+
+		/**
+		 * @return the number of lookups that found no cached descriptors
+		 */
+		public long getMisses() {
+			return misses;
+		}
+
+		/**
+		 * @return the number of entries removed to keep the cache within its
+		 *         maximum size
+		 */
+		public long getEvictions() {
+			return evictions;
+		}
+
+		/**
+		 * @return the number of entries removed because their element has been
+		 *         collected
+		 */
+		public long getCollected() {
+			return collected;
+		}
+
+		/**
+		 * @return the number of entries in the cache
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * @param other
+		 *            statistics of another cache
+		 * @return the sum of these statistics and the given ones
+		 */
+		public Statistics add(Statistics other) {
+			return new Statistics(hits + other.hits, misses + other.misses, evictions + other.evictions,
+					collected + other.collected, size + other.size);
+		}
+
+		@Override
+		public String toString() {
+			return "EvaluationCache.Statistics[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ ", collected=" + collected + ", size=" + size + ']'; //$NON-NLS-1$ //$NON-NLS-2$
 		}
-		// All other Reference types we just leave alone.
 	}
 
-	private static NavigatorContentDescriptor[] getDescriptorsFromMap(Object anElement,
-			Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> map) {
-		// Need to wrap in the reference type before querying, else it won't be found by HashMap.
-		EvaluationReference<Object> key = new EvaluationReference<>(anElement);
-		NavigatorContentDescriptor[] cachedDescriptors = null;
-		Reference<NavigatorContentDescriptor[]> cache = map.get(key);
-		if (cache != null && (cachedDescriptors = cache.get()) == null) {
-			// There was an entry, but it has been collected; remove stale mapping.
-			EvaluationValueReference<NavigatorContentDescriptor[]> value = map.remove(key);
-			if (value != null) {
-				// Clear the key from the value so we don't try to prematurely remove any potential new mapping upon cleanUpStaleEntries()
-				value.clear();
+	private final int maxSize;
+	private final int maxProtectedSize;
+
+	// Both in LRU order, the least recently used entry first
+	private final Map<EvaluationReference<Object>, Entry> probationEntries = new LinkedHashMap<>();
+	private final Map<EvaluationReference<Object>, Entry> protectedEntries = new LinkedHashMap<>();
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+	private final SweepJob sweepJob = new SweepJob(this);
+
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long collected;
+
+	/**
+	 * @param anAssistant the VisisbilityAssistant to register with, must be non-null
+	 */
+	public EvaluationCache(VisibilityAssistant anAssistant) {
+		this(anAssistant, DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param anAssistant
+	 *            the VisisbilityAssistant to register with, must be non-null
+	 * @param maxSize
+	 *            the maximum number of elements to cache the descriptors of
+	 */
+	public EvaluationCache(VisibilityAssistant anAssistant, int maxSize) {
+		this.maxSize = Math.max(1, maxSize);
+		// Like common segmented LRU configurations, protect 80% of the cache
+		this.maxProtectedSize = this.maxSize * 4 / 5;
+		anAssistant.addListener(this);
+	}
+
+	private void cleanUpStaleEntries(int max) {
+		Reference<?> r;
+		// Reference#poll thankfully does not block if there is nothing available.
+		for (int i = 0; i < max && (r = queue.poll()) != null; i++) {
+			// The key has been collected; clear its entry. Keys that are not
+			// in the maps any more only equal themselves so won't match a new
+			// entry for an equal element.
+			if (probationEntries.remove(r) != null || protectedEntries.remove(r) != null) {
+				collected++;
 			}
 		}
-		return cachedDescriptors;
+	}
+
+	/**
+	 * Removes all stale entries.
+	 *
+	 * @return whether the cache has entries left to sweep later
+	 */
+	synchronized boolean sweep() {
+		cleanUpStaleEntries(Integer.MAX_VALUE);
+		return size() > 0;
+	}
+
+	private int size() {
+		return probationEntries.size() + protectedEntries.size();
 	}
 
 	/**
@@ -118,36 +253,29 @@ public class EvaluationCache implements VisibilityListener {
 	 * @return the cached descriptors for the given key, or {@code null} if not
 	 *         currently in the cache
 	 */
-	public final NavigatorContentDescriptor[] getDescriptors(Object anElement, boolean toComputeOverrides) {
-		cleanUpStaleEntries();
+	public final synchronized NavigatorContentDescriptor[] getDescriptors(Object anElement,
+			boolean toComputeOverrides) {
+		cleanUpStaleEntries(MAX_STALE_ENTRIES_PER_ACCESS);
 		if (anElement == null)
 			return null;
 
-		if (toComputeOverrides) {
-			return getDescriptorsFromMap(anElement, evaluations);
+		// Need to wrap in the reference type before querying, else it won't be found by HashMap.
+		EvaluationReference<Object> key = new EvaluationReference<>(anElement);
+		Entry entry = protectedEntries.get(key);
+		if (entry == null) {
+			entry = probationEntries.get(key);
 		}
-		return getDescriptorsFromMap(anElement, evaluationsWithOverrides);
-	}
-
-	private static void setDescriptorsInMap(Object anElement, NavigatorContentDescriptor[] theDescriptors,
-			Map<EvaluationReference<Object>, EvaluationValueReference<NavigatorContentDescriptor[]>> map,
-			ReferenceQueue<Object> queue) {
-		// Ideally, we would use a WeakReference wrapper if the object given uses identity equality
-		// (we can test if the class uses Object's equals or has its own override), and only use a SoftReference
-		// if the object overrides equals, but that is a bit too unwieldy to check (it would require
-		// checking reflective data) to be worth it.
-		EvaluationReference<Object> key = new EvaluationReference<>(anElement, queue);
-		EvaluationValueReference<NavigatorContentDescriptor[]> newValue =
-				new EvaluationValueReference<>(theDescriptors, key, queue);
-		EvaluationValueReference<NavigatorContentDescriptor[]> oldValue = map.put(key, newValue);
-		if (oldValue != null) {
-			// "Swap" the correct key instance when swapping the value, or else the above, temporary
-			// lookup key will be collected too early (not the actual anElement, but the Reference object).
-			// Not truly needed, but it will help the point of this field not go to waste.
-			newValue.swapKey(oldValue);
-			// Clear the key so we don't try to prematurely remove the new mapping upon cleanUpStaleEntries()
-			oldValue.clear();
+		NavigatorContentDescriptor[] cachedDescriptors = null;
+		if (entry != null) {
+			cachedDescriptors = toComputeOverrides ? entry.descriptorsWithOverrides : entry.descriptors;
+		}
+		if (cachedDescriptors == null) {
+			misses++;
+			return null;
 		}
+		hits++;
+		promote(entry);
+		return cachedDescriptors;
 	}
 
 	/**
@@ -161,18 +289,86 @@ public class EvaluationCache implements VisibilityListener {
 	 *            whether overrides were considered in the computation of the
 	 *            given descriptors
 	 */
-	public final void setDescriptors(Object anElement, NavigatorContentDescriptor[] theDescriptors,
+	public final synchronized void setDescriptors(Object anElement, NavigatorContentDescriptor[] theDescriptors,
 			boolean toComputeOverrides) {
-		cleanUpStaleEntries();
-		if (anElement != null) {
-			if (toComputeOverrides) {
-				setDescriptorsInMap(anElement, theDescriptors, evaluations, evaluationsQueue);
-			} else {
-				setDescriptorsInMap(anElement, theDescriptors, evaluationsWithOverrides, evaluationsWithOverridesQueue);
+		cleanUpStaleEntries(MAX_STALE_ENTRIES_PER_ACCESS);
+		if (anElement == null)
+			return;
+
+		EvaluationReference<Object> lookupKey = new EvaluationReference<>(anElement);
+		Entry entry = protectedEntries.get(lookupKey);
+		if (entry == null) {
+			entry = probationEntries.get(lookupKey);
+		}
+		if (entry == null) {
+			// Ideally, we would use a WeakReference wrapper if the object given uses identity equality
+			// (we can test if the class uses Object's equals or has its own override), and only use a SoftReference
+			// if the object overrides equals, but that is a bit too unwieldy to check (it would require
+			// checking reflective data) to be worth it.
+			entry = new Entry(new EvaluationReference<>(anElement, queue));
+			probationEntries.put(entry.key, entry);
+			if (size() > maxSize) {
+				evictOne();
 			}
+			if (sweepJob.getState() == Job.NONE) {
+				sweepJob.schedule(SWEEP_DELAY);
+			}
+		} else {
+			promote(entry);
+		}
+		if (toComputeOverrides) {
+			entry.descriptorsWithOverrides = theDescriptors;
+		} else {
+			entry.descriptors = theDescriptors;
+		}
+	}
+
+	/**
+	 * Moves the given entry to the most recently used end of the protected
+	 * segment, demoting the least recently used protected entry if needed.
+	 */
+	private void promote(Entry entry) {
+		if (entry.isProtected) {
+			protectedEntries.remove(entry.key);
+			protectedEntries.put(entry.key, entry);
+			return;
+		}
+		probationEntries.remove(entry.key);
+		entry.isProtected = true;
+		protectedEntries.put(entry.key, entry);
+		if (protectedEntries.size() > maxProtectedSize) {
+			Iterator<Entry> iterator = protectedEntries.values().iterator();
+			Entry demoted = iterator.next();
+			iterator.remove();
+			demoted.isProtected = false;
+			probationEntries.put(demoted.key, demoted);
 		}
 	}
 
+	/**
+	 * Evicts the least recently used probationary entry, or protected entry if
+	 * there are no probationary entries.
+	 */
+	private void evictOne() {
+		Map<EvaluationReference<Object>, Entry> segment = probationEntries.isEmpty() ? protectedEntries
+				: probationEntries;
+		Iterator<Entry> iterator = segment.values().iterator();
+		Entry evicted = iterator.next();
+		iterator.remove();
+		// Don't let the key be enqueued, it is not in the maps any more
+		evicted.key.clear();
+		evictions++;
+	}
+
+	/**
+	 * Returns a snapshot of the counters of this cache.
+	 *
+	 * @return the statistics of this cache
+	 */
+	public synchronized Statistics getStatistics() {
+		return new Statistics(hits, misses, evictions, collected, size());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -186,22 +382,14 @@ public class EvaluationCache implements VisibilityListener {
 	/**
 	 * Clears the cache.
 	 */
-	public void clear() {
-		// Dump everything in the reference queues.
-		// Don't bother removing from the map based on references, we are about to clear everything anyways.
-		// This might lead to some premature removals because yet to be collected values are not clearing
-		// their key reference, but that is worth having a fast clearing of the maps.
-		// Thankfully, this should be rare, as when reference objects themselves are GCed before being added
-		// to a reference queue, they don't get added at all.
-		while (evaluationsQueue.poll() != null) {
-			// No need to do anything with the reference, we just need to drain
-			// the queue.
-		}
-		while (evaluationsWithOverridesQueue.poll() != null) {
+	public synchronized void clear() {
+		// Dump everything in the reference queue.
+		// Don't bother removing from the maps based on references, we are about to clear everything anyways.
+		while (queue.poll() != null) {
 			// No need to do anything with the reference, we just need to drain
 			// the queue.
 		}
-		evaluations.clear();
-		evaluationsWithOverrides.clear();
+		probationEntries.clear();
+		protectedEntries.clear();
 	}
-}
\ No newline at end of file
+}
@@ -298,6 +298,27 @@ public class NavigatorContentDescriptorManager {
 		return image;
 	}
 
+	/**
+	 * Returns the combined statistics of the trigger point and possible
+	 * children evaluation caches used with the given assistant.
+	 *
+	 * @param aVisibilityAssistant
+	 *            the assistant of a content service
+	 * @return the statistics of the evaluation caches
+	 */
+	public EvaluationCache.Statistics getEvaluationCacheStatistics(VisibilityAssistant aVisibilityAssistant) {
+		EvaluationCache.Statistics statistics = new EvaluationCache.Statistics(0, 0, 0, 0, 0);
+		EvaluationCache cache = cachedTriggerPointEvaluations.get(aVisibilityAssistant);
+		if (cache != null) {
+			statistics = statistics.add(cache.getStatistics());
+		}
+		cache = cachedPossibleChildrenEvaluations.get(aVisibilityAssistant);
+		if (cache != null) {
+			statistics = statistics.add(cache.getStatistics());
+		}
+		return statistics;
+	}
+
 	/**
 	 * Clears all cached information.
 	 */
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Index of the <code>!SESSION</code> and <code>!ENTRY</code> lines of a log
+ * file, by byte offset. It lets the log reader start parsing at the first
+ * record it actually needs instead of streaming the whole file.
+ * <p>
+ * The index is updated incrementally: {@link #update()} only scans the bytes
+ * appended since the previous update. If the file has been truncated or
+ * replaced (e.g. by log rotation) the index is rebuilt.
+ * </p>
+ */
+class LogFileIndex {
+
+	/** Kind of a <code>!SESSION</code> record */
+	static final byte SESSION = 1;
+
+	/** Kind of an <code>!ENTRY</code> record */
+	static final byte ENTRY = 2;
+
+	private static final byte[] SESSION_TAG = LogSession.SESSION.getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] ENTRY_TAG = "!ENTRY".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int FINGERPRINT_LENGTH = 64;
+
+	private final File file;
+
+	private long[] offsets = new long[64];
+	private byte[] kinds = new byte[64];
+	private int size;
+
+	/** Number of bytes scanned so far, always at the start of a line */
+	private long indexedLength;
+
+	/** First bytes of the indexed file, to detect that it has been replaced */
+	private byte[] fingerprint = new byte[0];
+
+	LogFileIndex(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Indexes the lines appended to the file since the last update.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	synchronized void update() throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length < indexedLength
+					|| !Arrays.equals(fingerprint, readFingerprint(channel, Math.min(length, fingerprint.length)))) {
+				size = 0;
+				indexedLength = 0;
+				fingerprint = new byte[0];
+			}
+			if (fingerprint.length < FINGERPRINT_LENGTH) {
+				fingerprint = readFingerprint(channel, Math.min(length, FINGERPRINT_LENGTH));
+			}
+			scan(channel, length);
+		}
+	}
+
+	private static byte[] readFingerprint(FileChannel channel, long length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) length);
+		while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+			// keep reading
+		}
+		return buffer.array();
+	}
+
+	private void scan(FileChannel channel, long length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		// beginning of the line being read, and its first bytes after the
+		// leading whitespace
+		long lineStart = indexedLength;
+		byte[] head = new byte[SESSION_TAG.length];
+		int headLength = 0;
+		boolean leadingWhitespace = true;
+		long position = indexedLength;
+		while (position < length) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0)
+				break;
+			for (int i = 0; i < read; i++) {
+				byte b = buffer.get(i);
+				if (b == '\n' || b == '\r') {
+					addRecord(lineStart, head, headLength);
+					lineStart = position + i + 1;
+					indexedLength = lineStart;
+					headLength = 0;
+					leadingWhitespace = true;
+				} else if (leadingWhitespace && (b & 0xff) <= ' ') {
+					// String.trim() is applied to the lines when parsing
+				} else {
+					leadingWhitespace = false;
+					if (headLength < head.length)
+						head[headLength++] = b;
+				}
+			}
+			position += read;
+		}
+	}
+
+	private void addRecord(long offset, byte[] head, int headLength) {
+		byte kind;
+		if (startsWith(head, headLength, SESSION_TAG))
+			kind = SESSION;
+		else if (startsWith(head, headLength, ENTRY_TAG))
+			kind = ENTRY;
+		else
+			return;
+		if (size == offsets.length) {
+			offsets = Arrays.copyOf(offsets, size * 2);
+			kinds = Arrays.copyOf(kinds, size * 2);
+		}
+		offsets[size] = offset;
+		kinds[size] = kind;
+		size++;
+	}
+
+	private static boolean startsWith(byte[] head, int headLength, byte[] tag) {
+		if (headLength < tag.length)
+			return false;
+		for (int i = 0; i < tag.length; i++) {
+			if (head[i] != tag[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of indexed records
+	 */
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of bytes indexed so far, up to the start of the last
+	 *         line which is not terminated yet
+	 */
+	synchronized long getIndexedLength() {
+		return indexedLength;
+	}
+
+	/**
+	 * @return the byte offset of the line starting the given record
+	 */
+	synchronized long getOffset(int record) {
+		return offsets[record];
+	}
+
+	/**
+	 * @return {@link #SESSION} or {@link #ENTRY}
+	 */
+	synchronized byte getKind(int record) {
+		return kinds[record];
+	}
+
+	/**
+	 * @return the index of the first record starting at or after the given
+	 *         offset, or {@link #size()} if there is none
+	 */
+	synchronized int findRecord(long offset) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (offsets[middle] < offset)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Reads the trimmed line starting the given record, e.g. the
+	 * <code>!ENTRY</code> header of an entry.
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	String readRecordLine(FileChannel channel, int record) throws IOException {
+		long position = getOffset(record);
+		ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		for (;;) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0)
+				break;
+			int end = 0;
+			while (end < read && buffer.get(end) != '\n' && buffer.get(end) != '\r')
+				end++;
+			line.write(buffer.array(), 0, end);
+			if (end < read)
+				break;
+			position += read;
+		}
+		return new String(line.toByteArray(), StandardCharsets.UTF_8).trim();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,7 +17,11 @@
 package org.eclipse.ui.internal.views.log;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.*;
 import org.eclipse.core.runtime.IStatus;
@@ -36,8 +40,25 @@ class LogReader {
 	private static final int TEXT_STATE = 60;
 	private static final int UNKNOWN_STATE = 70;
 
+	/**
+	 * Indexes of the log files read so far, kept as long as the view holds on to
+	 * the file
+	 */
+	private static final Map<File, LogFileIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
 	public static LogSession parseLogFile(File file, long maxLogTailSizeInMegaByte, List<LogEntry> entries,
 			IMemento memento) {
+		return parseLogFile(file, maxLogTailSizeInMegaByte, entries, memento, true);
+	}
+
+	/**
+	 * Parses the log file from the first record which can end up in the view,
+	 * located with the {@link LogFileIndex} of the file, if <code>indexed</code>
+	 * is <code>true</code>. Otherwise the whole tail of the file is parsed, which
+	 * gives the same result.
+	 */
+	static LogSession parseLogFile(File file, long maxLogTailSizeInMegaByte, List<LogEntry> entries,
+			IMemento memento, boolean indexed) {
 		if (!file.exists())
 			return null;
 
@@ -55,8 +76,13 @@ class LogReader {
 		LogSession currentSession = null;
 		long maxTailSizeInBytes = maxLogTailSizeInMegaByte > 0 ? maxLogTailSizeInMegaByte * ONE_MEGA_BYTE_IN_BYTES
 				: ONE_MEGA_BYTE_IN_BYTES;
-		try (BufferedReader reader = new BufferedReader(
-				new InputStreamReader(new TailInputStream(file, maxTailSizeInBytes), StandardCharsets.UTF_8))) {
+		try (LogTail tail = indexed ? openIndexedLogTail(file, maxTailSizeInBytes, memento)
+				: new LogTail(new TailInputStream(file, maxTailSizeInBytes), false);
+				BufferedReader reader = new BufferedReader(new InputStreamReader(tail.stream, StandardCharsets.UTF_8))) {
+			if (tail.sessionless) {
+				// the fake session the skipped entries would have created
+				currentSession = new LogSession();
+			}
 			for (;;) {
 				String line0 = reader.readLine();
 				if (line0 == null)
@@ -176,6 +202,139 @@ class LogReader {
 		return currentSession;
 	}
 
+	/**
+	 * The part of a log file which has to be parsed.
+	 */
+	private static class LogTail implements Closeable {
+
+		final InputStream stream;
+
+		/**
+		 * Whether entries which precede the first session header of the tail have
+		 * been skipped
+		 */
+		final boolean sessionless;
+
+		LogTail(InputStream stream, boolean sessionless) {
+			this.stream = stream;
+			this.sessionless = sessionless;
+		}
+
+		@Override
+		public void close() throws IOException {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Opens the log file at the first record which can end up in the view: the
+	 * oldest of the last {@link LogView#P_LOG_LIMIT} logged entries, within the
+	 * last <code>maxTailSizeInBytes</code> bytes and after the last session
+	 * which clears the entries read before it. It is preceded by the headers of
+	 * the sessions skipped within the tail, so that the parser ends up with the
+	 * same current session as when parsing the whole tail. The records are
+	 * located with the {@link LogFileIndex} of the file, falling back to a
+	 * {@link TailInputStream} if the file cannot be indexed.
+	 */
+	private static LogTail openIndexedLogTail(File file, long maxTailSizeInBytes, IMemento memento)
+			throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			LogFileIndex index = INDEXES.computeIfAbsent(file, LogFileIndex::new);
+			index.update();
+			// like the TailInputStream, skip the line the tail starts in
+			long length = channel.size();
+			long tailOffset = length > maxTailSizeInBytes ? length - maxTailSizeInBytes + 1 : 0;
+			int first = index.findRecord(tailOffset);
+			int start = findStartRecord(channel, index, first, memento);
+			if (start == index.size()) {
+				// nothing but a last line which is not terminated yet, if any
+				long indexedLength = index.getIndexedLength();
+				channel.position(indexedLength >= tailOffset ? indexedLength : length);
+				return new LogTail(Channels.newInputStream(channel), false);
+			}
+			ByteArrayOutputStream headers = new ByteArrayOutputStream();
+			for (int i = first; i < start; i++) {
+				if (index.getKind(i) == LogFileIndex.SESSION) {
+					long offset = index.getOffset(i);
+					ByteBuffer header = ByteBuffer.allocate((int) (index.getOffset(i + 1) - offset));
+					while (header.hasRemaining() && channel.read(header, offset + header.position()) >= 0) {
+						// keep reading
+					}
+					headers.write(header.array(), 0, header.position());
+				}
+			}
+			channel.position(index.getOffset(start));
+			InputStream records = Channels.newInputStream(channel);
+			if (headers.size() > 0) {
+				records = new SequenceInputStream(new ByteArrayInputStream(headers.toByteArray()), records);
+			}
+			return new LogTail(records, start > first && index.getKind(first) == LogFileIndex.ENTRY);
+		} catch (IOException e) {
+			channel.close();
+			return new LogTail(new TailInputStream(file, maxTailSizeInBytes), false);
+		}
+	}
+
+	/**
+	 * Returns the index of the oldest record which has to be parsed, or the
+	 * number of records if there is none.
+	 */
+	private static int findStartRecord(FileChannel channel, LogFileIndex index, int first, IMemento memento)
+			throws IOException {
+		int size = index.size();
+		if (first == size || !memento.getString(LogView.P_USE_LIMIT).equals("true")) //$NON-NLS-1$
+			return first;
+
+		// Only the last entries which are not filtered out are kept, look for
+		// them from the end of the file down to the last session clearing the
+		// entries read before it
+		int limit = memento.getInteger(LogView.P_LOG_LIMIT).intValue();
+		int floor = memento.getString(LogView.P_SHOW_ALL_SESSIONS).equals("true") ? first //$NON-NLS-1$
+				: findLastClearingSession(channel, index, first, size);
+		int count = 0;
+		int start = size;
+		while (start > floor && count < limit) {
+			start--;
+			if (index.getKind(start) == LogFileIndex.SESSION)
+				continue;
+			try {
+				LogEntry entry = new LogEntry();
+				entry.processEntry(index.readRecordLine(channel, start));
+				if (isLogged(entry, memento))
+					count++;
+			} catch (ParseException e) {
+				// tossed by the parser as well
+			}
+		}
+		return start;
+	}
+
+	/**
+	 * Returns the index of the last session header which becomes the current
+	 * session when parsing the records from <code>first</code>, so that the
+	 * entries read before it are cleared, or <code>first</code> if there is
+	 * none. A session header is not the current session if it is older than a
+	 * previous one, so all the session headers have to be compared.
+	 */
+	private static int findLastClearingSession(FileChannel channel, LogFileIndex index, int first, int size)
+			throws IOException {
+		int last = first;
+		// the parser creates a fake session for the entries preceding the first
+		// session header
+		LogSession currentSession = index.getKind(first) == LogFileIndex.ENTRY ? new LogSession() : null;
+		for (int i = first; i < size; i++) {
+			if (index.getKind(i) == LogFileIndex.SESSION) {
+				LogSession session = new LogSession();
+				session.processLogLine(index.readRecordLine(channel, i));
+				currentSession = updateCurrentSession(currentSession, session);
+				if (currentSession == session)
+					last = i;
+			}
+		}
+		return last;
+	}
+
 	public static LogSession parseLogFile(File file, List<LogEntry> entries, IMemento memento) {
 		return parseLogFile(file, ONE_MEGA_BYTE_IN_BYTES, entries, memento);
 	}
@@ -37,7 +37,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.IHandler;
@@ -892,6 +895,21 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		scheduleProgressMessageRefresh();
 	}
 
+	/**
+	 * Refreshes the dialog with the first page of results, computed while the
+	 * filtering is still running. The top item is selected, but unlike in
+	 * {@link #refresh()} the selection is not kept by the refresh with the final
+	 * results, whose top item may be a better match.
+	 */
+	private void refreshFirstPage() {
+		boolean keepSelection = refreshWithLastSelection
+				|| (isShownForTheFirstTime && !getInitialElementSelections().isEmpty());
+		refresh();
+		if (!keepSelection) {
+			refreshWithLastSelection = false;
+		}
+	}
+
 	/**
 	 * Gets the elements that should be selected when the dialog opens.
 	 * <p>
@@ -1289,12 +1307,25 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 	 */
 	private class RefreshJob extends UIJob {
 
+		private boolean firstPage;
+
 		/**
 		 * Creates a new instance of the class.
 		 */
 		public RefreshJob() {
+			this(false);
+		}
+
+		/**
+		 * Creates a new instance of the class.
+		 *
+		 * @param firstPage <code>true</code> if the job shows the first page of
+		 *                  results while filtering is still running
+		 */
+		public RefreshJob(boolean firstPage) {
 			super(FilteredItemsSelectionDialog.this.getParentShell().getDisplay(),
 					WorkbenchMessages.FilteredItemsSelectionDialog_refreshJob);
+			this.firstPage = firstPage;
 			setSystem(true);
 		}
 
@@ -1304,7 +1335,11 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 				return new Status(IStatus.OK, WorkbenchPlugin.PI_WORKBENCH, IStatus.OK, EMPTY_STRING, null);
 
 			if (FilteredItemsSelectionDialog.this != null) {
-				FilteredItemsSelectionDialog.this.refresh();
+				if (firstPage) {
+					FilteredItemsSelectionDialog.this.refreshFirstPage();
+				} else {
+					FilteredItemsSelectionDialog.this.refresh();
+				}
 			}
 
 			return new Status(IStatus.OK, PlatformUI.PLUGIN_ID, IStatus.OK, EMPTY_STRING, null);
@@ -1372,6 +1407,8 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 		private RefreshJob refreshJob = new RefreshJob();
 
+		private RefreshJob firstPageRefreshJob = new RefreshJob(true);
+
 		/**
 		 * Creates a new instance of the class.
 		 */
@@ -1386,6 +1423,14 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		public void cancelAll() {
 			cancel();
 			refreshJob.cancel();
+			firstPageRefreshJob.cancel();
+		}
+
+		/**
+		 * Shows the first page of results, while the filtering is still running.
+		 */
+		public void scheduleFirstPageRefresh() {
+			firstPageRefreshJob.schedule();
 		}
 
 		@Override
@@ -1860,6 +1905,17 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 	 */
 	private class FilterJob extends Job {
 
+		/**
+		 * Minimum number of cached items for them to be matched in parallel, if the
+		 * filter supports it.
+		 */
+		private static final int PARALLEL_FILTERING_THRESHOLD = 4096;
+
+		/**
+		 * Number of cached items matched by each parallel task.
+		 */
+		private static final int PARALLEL_FILTERING_CHUNK_SIZE = 1024;
+
 		/**
 		 * Filter used during the filtering process.
 		 */
@@ -1911,7 +1967,12 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 				this.itemsFilter = filter;
 
 				if (filter.getPattern().length() != 0) {
-					filterContent(monitor);
+					contentProvider.startFirstPage(itemsFilter);
+					try {
+						filterContent(monitor);
+					} finally {
+						contentProvider.stopFirstPage();
+					}
 				}
 
 				if (monitor.isCanceled())
@@ -1933,6 +1994,12 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 			if (lastCompletedFilter != null && lastCompletedFilter.isSubFilter(this.itemsFilter)) {
 
+				if (lastCompletedResult.size() >= PARALLEL_FILTERING_THRESHOLD
+						&& itemsFilter.supportsConcurrentMatching() && ForkJoinPool.getCommonPoolParallelism() > 1) {
+					filterContentInParallel(lastCompletedResult.toArray(), monitor);
+					return;
+				}
+
 				int length = lastCompletedResult.size() / 500;
 				monitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_cacheSearchJob_taskName, length);
 
@@ -1967,6 +2034,45 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 
 		}
 
+		/**
+		 * Filters the cached items in chunks matched by the common fork-join pool.
+		 * The matches are added in the order of the cached items, chunk by chunk as
+		 * they complete, so that the first page of results can be shown before all
+		 * items are matched.
+		 *
+		 * @param cachedItems the items to filter
+		 * @param monitor     for monitoring progress
+		 */
+		private void filterContentInParallel(Object[] cachedItems, GranualProgressMonitor monitor) {
+			ItemsFilter matchingFilter = itemsFilter;
+			int chunks = (cachedItems.length + PARALLEL_FILTERING_CHUNK_SIZE - 1) / PARALLEL_FILTERING_CHUNK_SIZE;
+			monitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_cacheSearchJob_taskName, chunks);
+
+			List<ForkJoinTask<List<Object>>> tasks = new ArrayList<>(chunks);
+			for (int start = 0; start < cachedItems.length; start += PARALLEL_FILTERING_CHUNK_SIZE) {
+				int from = start;
+				int to = Math.min(start + PARALLEL_FILTERING_CHUNK_SIZE, cachedItems.length);
+				tasks.add(ForkJoinPool.commonPool().submit(() -> {
+					List<Object> matches = new ArrayList<>();
+					for (int pos = from; pos < to && !monitor.isCanceled(); pos++) {
+						if (matchingFilter.matchItem(cachedItems[pos])) {
+							matches.add(cachedItems[pos]);
+						}
+					}
+					return matches;
+				}));
+			}
+
+			for (ForkJoinTask<List<Object>> task : tasks) {
+				if (monitor.isCanceled()) {
+					task.cancel(false);
+					continue;
+				}
+				contentProvider.addMatched(task.join(), matchingFilter);
+				monitor.worked(1);
+			}
+		}
+
 	}
 
 	/**
@@ -2284,6 +2390,24 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		public abstract boolean matchItem(Object item);
 
+		/**
+		 * Returns whether {@link #matchItem(Object)} can be called concurrently from
+		 * several threads. When it can, large sets of cached items are matched in
+		 * parallel when the filter is narrowed.
+		 * <p>
+		 * The default implementation returns <code>false</code>. Subclasses whose
+		 * matching only reads state that does not change once the filter is created
+		 * may override it to return <code>true</code>.
+		 * </p>
+		 *
+		 * @return <code>true</code> if items can be matched concurrently,
+		 *         <code>false</code> otherwise
+		 * @since 3.119
+		 */
+		public boolean supportsConcurrentMatching() {
+			return false;
+		}
+
 		/**
 		 * Checks consistency of an item. Item is inconsistent if was changed or
 		 * removed.
@@ -2331,6 +2455,17 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 	private class ContentProvider extends AbstractContentProvider
 			implements IStructuredContentProvider, ILazyContentProvider {
 
+		/**
+		 * Number of items of the first page of results.
+		 */
+		private static final int FIRST_PAGE_SIZE = 100;
+
+		/**
+		 * Time after which the first page of results is shown if the filtering is
+		 * still running, in nanoseconds: about one frame.
+		 */
+		private static final long FIRST_PAGE_DELAY = 16_000_000L;
+
 		private SelectionHistory selectionHistory;
 
 		/**
@@ -2377,6 +2512,19 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 */
 		private boolean reset;
 
+		/**
+		 * Best items added since the filtering started, the worst first, or
+		 * <code>null</code> if no first page of results is pending. Guarded by
+		 * <code>firstPageLock</code>.
+		 */
+		private volatile PriorityQueue<Object> firstPage;
+
+		private final Object firstPageLock = new Object();
+
+		private ItemsFilter firstPageFilter;
+
+		private long firstPageDeadline;
+
 		/**
 		 * Creates new instance of <code>ContentProvider</code>.
 		 */
@@ -2430,12 +2578,103 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		public void add(Object item, ItemsFilter itemsFilter) {
 			if (itemsFilter == filter) {
 				if (itemsFilter != null) {
-					if (itemsFilter.matchItem(item)) {
-						this.items.add(item);
+					if (itemsFilter.matchItem(item) && this.items.add(item)) {
+						addToFirstPage(item);
 					}
-				} else {
-					this.items.add(item);
+				} else if (this.items.add(item)) {
+					addToFirstPage(item);
+				}
+			}
+		}
+
+		/**
+		 * Adds items already matched by the filter.
+		 *
+		 * @param matchedItems the items to add
+		 * @param itemsFilter  the filter that matched the items
+		 */
+		public void addMatched(List<Object> matchedItems, ItemsFilter itemsFilter) {
+			if (itemsFilter == filter) {
+				for (Object item : matchedItems) {
+					if (this.items.add(item)) {
+						addToFirstPage(item);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Starts collecting the best items added by the given filter, to show them
+		 * as a first page of results if the filtering takes longer than a frame.
+		 *
+		 * @param itemsFilter the filter about to be run
+		 */
+		public void startFirstPage(ItemsFilter itemsFilter) {
+			synchronized (firstPageLock) {
+				firstPageFilter = itemsFilter;
+				firstPageDeadline = System.nanoTime() + FIRST_PAGE_DELAY;
+				firstPage = new PriorityQueue<>(FIRST_PAGE_SIZE + 1,
+						Collections.reverseOrder(getHistoryComparator()));
+				// the history items are added before the filtering starts
+				synchronized (items) {
+					for (Object item : items) {
+						offerToFirstPage(item);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Stops collecting the first page of results, once the filtering is done.
+		 */
+		public void stopFirstPage() {
+			synchronized (firstPageLock) {
+				firstPage = null;
+				firstPageFilter = null;
+			}
+		}
+
+		private void offerToFirstPage(Object item) {
+			firstPage.offer(item);
+			if (firstPage.size() > FIRST_PAGE_SIZE) {
+				firstPage.poll();
+			}
+		}
+
+		private void addToFirstPage(Object item) {
+			if (firstPage == null) {
+				return;
+			}
+			Object[] page;
+			ItemsFilter itemsFilter;
+			synchronized (firstPageLock) {
+				if (firstPage == null) {
+					return;
+				}
+				offerToFirstPage(item);
+				if (System.nanoTime() - firstPageDeadline < 0) {
+					return;
 				}
+				page = firstPage.toArray();
+				itemsFilter = firstPageFilter;
+				firstPage = null;
+			}
+			Arrays.sort(page, getHistoryComparator());
+			showFirstPage(page, itemsFilter);
+		}
+
+		/**
+		 * Shows the first page of results while the filtering is still running. The
+		 * full sorted results replace it once the filtering is done.
+		 */
+		private void showFirstPage(Object[] page, ItemsFilter itemsFilter) {
+			if (itemsFilter != filter || tableViewer == null || tableViewer.getTable().isDisposed()) {
+				return;
+			}
+			Object[] preparedItems = prepareItems(tableViewer.getInput(), page, null);
+			if (itemsFilter == filter) {
+				lastFilteredItems = Arrays.asList(preparedItems);
+				refreshCacheJob.scheduleFirstPageRefresh();
 			}
 		}
 
@@ -2695,6 +2934,20 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 		 * @return an array of filtered items
 		 */
 		protected Object[] getFilteredItems(Object parent, IProgressMonitor monitor) {
+			// get already sorted array
+			return prepareItems(parent, getSortedItems(), monitor);
+		}
+
+		/**
+		 * Returns an array of the given sorted items filtered using the provided
+		 * <code>ViewerFilter</code>s with a separator added.
+		 *
+		 * @param parent      the parent
+		 * @param sortedItems the items to filter, sorted
+		 * @param monitor     progress monitor, can be <code>null</code>
+		 * @return an array of filtered items
+		 */
+		private Object[] prepareItems(Object parent, Object[] sortedItems, IProgressMonitor monitor) {
 			int ticks = 100;
 			if (monitor == null) {
 				monitor = new NullProgressMonitor();
@@ -2708,8 +2961,7 @@ public abstract class FilteredItemsSelectionDialog extends SelectionStatusDialog
 				ticks /= 2;
 			}
 
-			// get already sorted array
-			Object[] filteredElements = getSortedItems();
+			Object[] filteredElements = sortedItems;
 
 			monitor.worked(ticks);
 
@@ -312,4 +312,16 @@ public interface IPreferenceConstants {
 	 */
 	String SHOW_KEYS_TIME_TO_CLOSE = "showCommandKeys_timeToClose"; //$NON-NLS-1$
 
+	/**
+	 * Preference for whether the decoded image data of the URL image descriptors
+	 * is persisted across sessions, in the state location of the workbench.
+	 * Read once on startup.
+	 * <p>
+	 * The boolean default value for this preference is: <code>false</code>.
+	 * </p>
+	 *
+	 * @since 3.119
+	 */
+	String PERSIST_IMAGE_DATA_CACHE = "persistImageDataCache"; //$NON-NLS-1$
+
 }
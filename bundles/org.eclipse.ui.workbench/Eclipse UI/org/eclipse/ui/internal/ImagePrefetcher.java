@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.ui.MUILabel;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.jface.internal.ImageDataCache;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.ui.internal.misc.Policy;
+
+/**
+ * Decodes the image data of the icons the workbench is about to show, in
+ * {@link #WORKER_COUNT} background jobs, before the windows are rendered. The
+ * decoded image data is kept by the {@link ImageDataCache} of the URL image
+ * descriptors, so that the renderers of the menus, tool bars and parts only
+ * create the SWT images from it on the UI thread.
+ * <p>
+ * The icons are collected on the UI thread from the application model, the
+ * command images and the workbench images, all of which are described by URL
+ * image descriptors. They are decoded for each zoom the device requests image
+ * data at, until the cache is three quarters full, so that the prefetched
+ * image data does not evict itself.
+ * </p>
+ */
+public class ImagePrefetcher {
+
+	/**
+	 * The number of jobs decoding images in parallel, set with the
+	 * <code>org.eclipse.ui.images.prefetchWorkers</code> system property. 0
+	 * disables the prefetch.
+	 */
+	static final int WORKER_COUNT = Math.max(0, Integer.getInteger("org.eclipse.ui.images.prefetchWorkers", //$NON-NLS-1$
+			Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors() / 2))).intValue());
+
+	private final Queue<ImageDescriptor> queue;
+
+	private final int[] zooms;
+
+	private final ImageDataCache cache;
+
+	private final AtomicInteger decodedCount = new AtomicInteger();
+
+	private final AtomicInteger workerCount = new AtomicInteger();
+
+	private long start;
+
+	/**
+	 * @param descriptors the image descriptors to decode
+	 * @param zooms       the zooms to decode them for
+	 * @param cache       the cache the image descriptors keep their image data
+	 *                    in
+	 */
+	public ImagePrefetcher(Collection<ImageDescriptor> descriptors, int[] zooms, ImageDataCache cache) {
+		this.queue = new ConcurrentLinkedQueue<>(descriptors);
+		this.zooms = zooms;
+		this.cache = cache;
+	}
+
+	/**
+	 * Collects the icons of the application model, the command images and the
+	 * workbench images, and schedules their prefetch. Must be called on the UI
+	 * thread.
+	 *
+	 * @param device           the device the images are created on
+	 * @param application      the application model
+	 * @param commandImages    the images bound to commands
+	 * @param workbenchImages  the images declared by the workbench
+	 * @return the scheduled prefetcher, or <code>null</code> if prefetching is
+	 *         disabled
+	 */
+	public static ImagePrefetcher schedule(Device device, MApplication application,
+			Collection<ImageDescriptor> commandImages, Collection<ImageDescriptor> workbenchImages) {
+		if (WORKER_COUNT == 0) {
+			return null;
+		}
+		Set<ImageDescriptor> descriptors = new LinkedHashSet<>();
+		collectModelIcons(application, descriptors);
+		descriptors.addAll(commandImages);
+		descriptors.addAll(workbenchImages);
+		ImagePrefetcher prefetcher = new ImagePrefetcher(descriptors, getZooms(device),
+				ImageDataCache.getDefault());
+		prefetcher.schedule();
+		return prefetcher;
+	}
+
+	/**
+	 * Adds the icons of all the labeled elements of the given application model
+	 * to the given set, in the order of the model.
+	 */
+	static void collectModelIcons(MApplication application, Set<ImageDescriptor> descriptors) {
+		Iterator<EObject> iterator = ((EObject) application).eAllContents();
+		while (iterator.hasNext()) {
+			EObject element = iterator.next();
+			if (element instanceof MUILabel) {
+				String iconURI = ((MUILabel) element).getIconURI();
+				if (iconURI != null && !iconURI.isEmpty()) {
+					try {
+						descriptors.add(ImageDescriptor.createFromURL(new URL(iconURI)));
+					} catch (MalformedURLException e) {
+						// The renderers report it
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the zooms the given device requests image data at when creating
+	 * images from an image data provider.
+	 * <p>
+	 * The zooms are probed with a 1x1 image rather than computed, because they
+	 * depend on the platform and the SWT auto scale mode (the device zoom alone,
+	 * or 100 as well on GTK), which SWT only exposes through its internal
+	 * <code>DPIUtil</code>. The probe runs once per workbench start.
+	 * </p>
+	 */
+	static int[] getZooms(Device device) {
+		Set<Integer> zooms = new TreeSet<>();
+		ImageData data = new ImageData(1, 1, 1, new PaletteData(new RGB(0, 0, 0), new RGB(255, 255, 255)));
+		Image image = new Image(device, (ImageDataProvider) zoom -> {
+			zooms.add(Integer.valueOf(zoom));
+			return data;
+		});
+		image.dispose();
+		return zooms.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Schedules the jobs decoding the image data.
+	 */
+	public void schedule() {
+		start = System.currentTimeMillis();
+		workerCount.set(WORKER_COUNT);
+		for (int i = 0; i < WORKER_COUNT; i++) {
+			Job job = new Job(WorkbenchMessages.ImagePrefetcher_JobName) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					prefetch(monitor);
+					if (workerCount.decrementAndGet() == 0 && Policy.DEBUG_PREFETCH_IMAGES) {
+						System.out.println("Prefetched " + decodedCount.get() + " image data in " //$NON-NLS-1$ //$NON-NLS-2$
+								+ (System.currentTimeMillis() - start) + " ms, image data cache size: " //$NON-NLS-1$
+								+ cache.getSize());
+					}
+					return Status.OK_STATUS;
+				}
+
+				@Override
+				public boolean belongsTo(Object family) {
+					return family == ImagePrefetcher.this;
+				}
+			};
+			job.setSystem(true);
+			job.setPriority(Job.SHORT);
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Decodes the image data of the queued image descriptors, until the queue is
+	 * empty, the cache is three quarters full or the monitor is canceled.
+	 *
+	 * @param monitor the progress monitor, only checked for cancellation
+	 */
+	public void prefetch(IProgressMonitor monitor) {
+		ImageDescriptor descriptor;
+		while (!monitor.isCanceled() && !isCacheFull() && (descriptor = queue.poll()) != null) {
+			for (int zoom : zooms) {
+				try {
+					if (descriptor.getImageData(zoom) != null) {
+						decodedCount.incrementAndGet();
+					}
+				} catch (SWTException | IllegalArgumentException e) {
+					// The renderers report broken images
+				}
+			}
+		}
+	}
+
+	private boolean isCacheFull() {
+		return cache.getSize() > cache.getMaxSize() / 4 * 3;
+	}
+
+	/**
+	 * Returns the number of image data decoded so far.
+	 *
+	 * @return the number of image data
+	 */
+	public int getDecodedCount() {
+		return decodedCount.get();
+	}
+}
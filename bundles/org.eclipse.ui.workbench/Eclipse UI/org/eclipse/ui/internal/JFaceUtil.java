@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,12 +14,15 @@
 
 package org.eclipse.ui.internal;
 
+import java.io.File;
+
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences.NodeChangeEvent;
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.internal.InternalPolicy;
 import org.eclipse.jface.preference.JFacePreferences;
 import org.eclipse.jface.util.Policy;
@@ -35,6 +38,8 @@ import org.eclipse.ui.statushandlers.StatusManager;
  */
 final class JFaceUtil {
 
+	private static final String IMAGE_DATA_DIRECTORY = "imageData"; //$NON-NLS-1$
+
 	private JFaceUtil() {
 		// prevents instantiation
 	}
@@ -91,6 +96,24 @@ final class JFaceUtil {
 			InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_2x_PNG_FOR_GIF = "true".equalsIgnoreCase( //$NON-NLS-1$
 					Platform.getDebugOption(Policy.JFACE + "/debug/loadURLImageDescriptor2xPngForGif")); //$NON-NLS-1$
 		}
+
+		initializeImageDataCache();
+	}
+
+	/**
+	 * Enables the persistence of the decoded image data in the state location
+	 * of the workbench, if requested by the preferences.
+	 */
+	private static void initializeImageDataCache() {
+		if (!Platform.getPreferencesService().getBoolean(WorkbenchPlugin.PI_WORKBENCH,
+				IPreferenceConstants.PERSIST_IMAGE_DATA_CACHE, false, null)) {
+			return;
+		}
+		if (Platform.getInstanceLocation() == null || !Platform.getInstanceLocation().isSet()) {
+			return;
+		}
+		File directory = WorkbenchPlugin.getDefault().getStateLocation().append(IMAGE_DATA_DIRECTORY).toFile();
+		ImageDataCache.getDefault().setPersistenceDirectory(directory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
 	}
 
 	/**
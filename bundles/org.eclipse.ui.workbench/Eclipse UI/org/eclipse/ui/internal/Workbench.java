@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1662,6 +1662,7 @@ public final class Workbench extends EventManager implements IWorkbench, org.ecl
 		initializeNLExtensions();
 
 		initializeWorkbenchImages();
+		prefetchImages();
 
 		// hook shortcut visualizer
 		StartupThreading.runWithoutExceptions(new StartupRunnable() {
@@ -1715,6 +1716,25 @@ public final class Workbench extends EventManager implements IWorkbench, org.ecl
 		});
 	}
 
+	/**
+	 * Decodes the icons of the model, the commands and the workbench images in
+	 * the background while the workbench restores its state, so that rendering
+	 * the windows does not decode them on the UI thread.
+	 */
+	private void prefetchImages() {
+		StartupThreading.runWithoutExceptions(new StartupRunnable() {
+			@Override
+			public void runWithException() {
+				Object commandImageService = serviceLocator.getService(ICommandImageService.class);
+				Collection<ImageDescriptor> commandImages = commandImageService instanceof CommandImageService
+						? ((CommandImageService) commandImageService).getImageDescriptors()
+						: Collections.emptySet();
+				ImagePrefetcher.schedule(display, application, commandImages,
+						WorkbenchImages.getDescriptors().values());
+			}
+		});
+	}
+
 	/**
 	 * Establishes the relationship between JFace actions and the command manager.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2018 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -815,6 +815,8 @@ public class WorkbenchMessages extends NLS {
 	public static String DecorationScheduler_ClearResultsJob;
 	public static String DecorationScheduler_DecoratingSubtask;
 
+	public static String ImagePrefetcher_JobName;
+
 	public static String PerspectiveBar_showText;
 	public static String PerspectiveBar_customize;
 	public static String PerspectiveBar_saveAs;
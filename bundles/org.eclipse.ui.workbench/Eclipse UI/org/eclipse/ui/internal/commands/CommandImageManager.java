@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -285,6 +285,29 @@ public final class CommandImageManager extends EventManager {
 		return null;
 	}
 
+	/**
+	 * Returns all the images bound to commands, whatever their type and style.
+	 *
+	 * @return The image descriptors; never <code>null</code>.
+	 */
+	public Set<ImageDescriptor> getImageDescriptors() {
+		final Set<ImageDescriptor> descriptors = new HashSet<>();
+		for (Object images : imagesById.values()) {
+			for (Object typedImage : (Object[]) images) {
+				if (typedImage instanceof ImageDescriptor) {
+					descriptors.add((ImageDescriptor) typedImage);
+				} else if (typedImage instanceof Map) {
+					for (Object styledImage : ((Map) typedImage).values()) {
+						if (styledImage instanceof ImageDescriptor) {
+							descriptors.add((ImageDescriptor) styledImage);
+						}
+					}
+				}
+			}
+		}
+		return descriptors;
+	}
+
 	/**
 	 * Retrieves the default image associated with the given command in the given
 	 * style.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.ui.internal.commands;
 
 import java.net.URL;
+import java.util.Set;
 
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.ui.commands.ICommandImageService;
@@ -128,6 +129,15 @@ public final class CommandImageService implements ICommandImageService {
 		return commandImageManager.getImageDescriptor(commandId, style);
 	}
 
+	/**
+	 * Returns all the images bound to commands, whatever their type and style.
+	 *
+	 * @return The image descriptors; never <code>null</code>.
+	 */
+	public Set<ImageDescriptor> getImageDescriptors() {
+		return commandImageManager.getImageDescriptors();
+	}
+
 	public void readRegistry() {
 		commandImagePersistence.read();
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,12 +16,11 @@
  *******************************************************************************/
 package org.eclipse.ui.internal.decorators;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -57,22 +56,24 @@ import org.eclipse.ui.progress.WorkbenchJob;
  * needs an element decorated, it calls <code>queueForDecoration</code>.</li>
  *
  * <li><code>queueForDecoration</code> inserts (or, if already present, updates)
- * the <code>element</code> into <code>awaitingDecoration</code> and an
- * associated <code>DecorationReference</code> into
- * <code>awaitingDecorationValues</code> and schedules the
- * <code>decorationJob</code> to be executed asynchonously.</li>
+ * the <code>element</code> and an associated <code>DecorationReference</code>
+ * into <code>awaitingDecoration</code> and schedules one of the
+ * <code>decorationJobs</code> to be executed asynchonously.</li>
  *
- * <li>The <code>decorationJob</code> processes the list of elements in
- * <code>awaitingDecoration</code> one by one. For each element, it calls
+ * <li>The <code>decorationJobs</code> process the elements in
+ * <code>awaitingDecoration</code> in the order they were queued. Up to
+ * {@link #WORKER_COUNT} jobs run in parallel, each taking one element at a
+ * time. For each element, it calls
  * <code>ensureResultCached</code>, which in turn calls the actual lightweight
  * decorator(s) for the element and stores the decoration result in the
  * <code>resultCache</code> and adds the element to the
  * <code>pendingUpdate</code> collection to remember that it needs to be updated
  * in the UI.</li>
  *
- * <li>When the <code>decorationJob</code> has finished processing all elements
- * in <code>awaitingDecoration</code>, it finally schedules the
- * <code>updateJob</code>.</li>
+ * <li>When the <code>decorationJobs</code> have finished processing all
+ * elements in <code>awaitingDecoration</code>, or when
+ * {@link #PUBLISH_BATCH_SIZE} elements are awaiting a label update, they
+ * schedule the <code>updateJob</code>.</li>
  *
  * <li>
  * <p>
@@ -102,7 +103,7 @@ import org.eclipse.ui.progress.WorkbenchJob;
  * </ol>
  *
  * So, in summary, a decoration is first enqueued, then calculated
- * asynchronously by the <code>decorationJob</code> and enqueued for UI-update,
+ * asynchronously by the <code>decorationJobs</code> and enqueued for UI-update,
  * and finally, the <code>updateJob</code> fires events which cause the viewers
  * to update the UI using the now available decoration results.
  */
@@ -114,8 +115,9 @@ public class DecorationScheduler {
 	// decorated() method
 	private Map<IDecorationContext, Map<Object, DecorationResult>> resultCache = new ConcurrentHashMap<>();
 
-	// Objects that need an icon and text computed for display to the user
-	private List<Object> awaitingDecoration = new ArrayList<>();
+	// Objects that need an icon and text computed for display to the user, in
+	// the order they were queued
+	private Map<Object, DecorationReference> awaitingDecoration = new LinkedHashMap<>();
 
 	// Objects that are awaiting a label update.
 	private Set<Object> pendingUpdate = new HashSet<>();
@@ -123,13 +125,11 @@ public class DecorationScheduler {
 	// Key to lock write access to the pending update set
 	private Object pendingKey = new Object();
 
-	private Map<Object, DecorationReference> awaitingDecorationValues = new HashMap<>();
-
 	private DecoratorManager decoratorManager;
 
 	private boolean shutdown = false;
 
-	private Job decorationJob;
+	private Job[] decorationJobs;
 
 	private UIJob updateJob;
 
@@ -143,6 +143,22 @@ public class DecorationScheduler {
 	/** Amount of time to delay the update notification when max reached. */
 	private static final int UPDATE_DELAY = 100;
 
+	/**
+	 * Number of jobs computing decorations in parallel. Can be set with the
+	 * <code>org.eclipse.ui.decorators.workers</code> system property, the default
+	 * of 1 decorates one element at a time. Lightweight decorators are only
+	 * called by several jobs at once if they declare they are
+	 * <code>concurrent</code>.
+	 */
+	static final int WORKER_COUNT = Math.max(1,
+			Integer.getInteger("org.eclipse.ui.decorators.workers", 1).intValue()); //$NON-NLS-1$
+
+	/**
+	 * Number of elements awaiting a label update after which the update job is
+	 * scheduled even though elements are still awaiting decoration.
+	 */
+	public static final int PUBLISH_BATCH_SIZE = 200;
+
 	/**
 	 * Flag which is used to indicate that the update job is running in the UI
 	 * thread
@@ -156,8 +172,21 @@ public class DecorationScheduler {
 	 * @param manager
 	 */
 	DecorationScheduler(DecoratorManager manager) {
+		this(manager, WORKER_COUNT);
+	}
+
+	/**
+	 * Return a new instance of the receiver configured for the supplied
+	 * DecoratorManager, running the given number of decoration jobs. Also used by
+	 * test cases.
+	 *
+	 * @param manager
+	 * @param workerCount the number of decoration jobs, at least 1
+	 */
+	public DecorationScheduler(DecoratorManager manager, int workerCount) {
+		Assert.isLegal(workerCount > 0);
 		decoratorManager = manager;
-		createDecorationJob();
+		createDecorationJobs(workerCount);
 	}
 
 	/**
@@ -198,7 +227,7 @@ public class DecorationScheduler {
 			String undecoratedText, IDecorationContext context) {
 
 		Assert.isNotNull(context);
-		DecorationReference reference = awaitingDecorationValues.get(element);
+		DecorationReference reference = awaitingDecoration.get(element);
 		if (reference != null) {
 			if (forceUpdate) {// Make sure we don't loose a force
 				reference.setForceUpdate(forceUpdate);
@@ -208,12 +237,13 @@ public class DecorationScheduler {
 			reference = new DecorationReference(element, adaptedElement, context);
 			reference.setForceUpdate(forceUpdate);
 			reference.setUndecoratedText(undecoratedText);
-			awaitingDecorationValues.put(element, reference);
-			awaitingDecoration.add(element);
+			awaitingDecoration.put(element, reference);
 			if (shutdown) {
 				return;
 			}
-			decorationJob.schedule();
+			// Wake up one more worker for each queued element until all of them
+			// are running
+			decorationJobs[(awaitingDecoration.size() - 1) % decorationJobs.length].schedule();
 		}
 
 	}
@@ -302,7 +332,7 @@ public class DecorationScheduler {
 	/**
 	 * Shutdown the decoration.
 	 */
-	synchronized void shutdown() {
+	public synchronized void shutdown() {
 		shutdown = true;
 	}
 
@@ -316,16 +346,29 @@ public class DecorationScheduler {
 		if (shutdown || awaitingDecoration.isEmpty()) {
 			return null;
 		}
-		Object element = awaitingDecoration.remove(0);
+		Iterator<DecorationReference> iterator = awaitingDecoration.values().iterator();
+		DecorationReference reference = iterator.next();
+		iterator.remove();
+		return reference;
+	}
 
-		return awaitingDecorationValues.remove(element);
+	/**
+	 * Create the jobs used for running decoration.
+	 */
+	private void createDecorationJobs(int workerCount) {
+		decorationJobs = new Job[workerCount];
+		for (int i = 0; i < decorationJobs.length; i++) {
+			decorationJobs[i] = createDecorationJob();
+		}
+		decorationJobs[0].schedule();
 	}
 
 	/**
-	 * Create the Thread used for running decoration.
+	 * Create a job taking elements from <code>awaitingDecoration</code> until it
+	 * is empty.
 	 */
-	private void createDecorationJob() {
-		decorationJob = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
+	private Job createDecorationJob() {
+		Job decorationJob = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 
@@ -363,9 +406,10 @@ public class DecorationScheduler {
 						loopMonitor.split(1);
 					}
 					// Only notify listeners when we have exhausted the
-					// queue of decoration requests.
+					// queue of decoration requests or enough labels are
+					// waiting for their update.
 					synchronized (DecorationScheduler.this) {
-						if (awaitingDecoration.isEmpty()) {
+						if (awaitingDecoration.isEmpty() || pendingUpdateCount() >= PUBLISH_BATCH_SIZE) {
 							decorated();
 						}
 					}
@@ -423,7 +467,7 @@ public class DecorationScheduler {
 
 		decorationJob.setSystem(true);
 		decorationJob.setPriority(Job.DECORATE);
-		decorationJob.schedule();
+		return decorationJob;
 	}
 
 	/**
@@ -705,4 +749,15 @@ public class DecorationScheduler {
 		}
 
 	}
+
+	/**
+	 * Return the number of elements awaiting a label update.
+	 *
+	 * @return int
+	 */
+	private int pendingUpdateCount() {
+		synchronized (pendingKey) {
+			return pendingUpdate.size();
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,6 +36,8 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	static final String ATT_ICON = "icon"; //$NON-NLS-1$
 
+	private static final String ATT_CONCURRENT = "concurrent"; //$NON-NLS-1$
+
 	// Constants for quadrants
 	/**
 	 * Position <code>TOP_LEFT</code>. Value <code>0</code>
@@ -84,7 +86,7 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 	 * The DeclarativeDecorator is the internal decorator supplied by the decorator
 	 * definition.
 	 */
-	private ILightweightLabelDecorator decorator;
+	private volatile ILightweightLabelDecorator decorator;
 
 	private int quadrant;
 
@@ -92,8 +94,17 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	private String[] objectClasses;
 
+	/**
+	 * Whether the decorator may be called by several decoration jobs at once.
+	 * Decorators which did not declare it are called by one job at a time.
+	 */
+	private final boolean concurrent;
+
+	private final Object decorateLock = new Object();
+
 	LightweightDecoratorDefinition(String identifier, IConfigurationElement element) {
 		super(identifier, element);
+		concurrent = isDeclarative() || Boolean.parseBoolean(element.getAttribute(ATT_CONCURRENT));
 	}
 
 	/**
@@ -107,7 +118,17 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 		if (labelProviderCreationFailed) {
 			return null;
 		}
+		ILightweightLabelDecorator current = decorator;
+		if (current != null) {
+			return current;
+		}
+		// Several decoration workers may ask for the decorator at once
+		synchronized (this) {
+			return createDecorator();
+		}
+	}
 
+	private ILightweightLabelDecorator createDecorator() throws CoreException {
 		final CoreException[] exceptions = new CoreException[1];
 
 		if (decorator == null) {
@@ -120,9 +141,10 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 					@Override
 					public void run() {
 						try {
-							decorator = (ILightweightLabelDecorator) WorkbenchPlugin.createExtension(definingElement,
-									DecoratorDefinition.ATT_CLASS);
-							decorator.addListener(WorkbenchPlugin.getDefault().getDecoratorManager());
+							ILightweightLabelDecorator created = (ILightweightLabelDecorator) WorkbenchPlugin
+									.createExtension(definingElement, DecoratorDefinition.ATT_CLASS);
+							created.addListener(WorkbenchPlugin.getDefault().getDecoratorManager());
+							decorator = created;
 						} catch (CoreException exception) {
 							exceptions[0] = exception;
 						}
@@ -244,11 +266,11 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 				for (String className : classes) {
 					Object adapted = LegacyResourceSupport.getAdapter(element, className);
 					if (adapted != null) {
-						currentDecorator.decorate(adapted, decoration);
+						decorate(currentDecorator, adapted, decoration);
 					}
 				}
 			} else if (element != null) {
-				currentDecorator.decorate(element, decoration);
+				decorate(currentDecorator, element, decoration);
 			}
 		} catch (CoreException exception) {
 			handleCoreException(exception);
@@ -256,6 +278,16 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	}
 
+	private void decorate(ILightweightLabelDecorator currentDecorator, Object element, IDecoration decoration) {
+		if (concurrent) {
+			currentDecorator.decorate(element, decoration);
+		} else {
+			synchronized (decorateLock) {
+				currentDecorator.decorate(element, decoration);
+			}
+		}
+	}
+
 	/**
 	 * Returns the lightweight decorator, or <code>null</code> if not enabled.
 	 *
@@ -16,6 +16,7 @@ package org.eclipse.ui.internal.decorators;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
@@ -26,6 +27,7 @@ import org.eclipse.ui.internal.ObjectContributorManager;
 import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.misc.StatusUtil;
+import org.eclipse.ui.internal.misc.UIStats;
 import org.eclipse.ui.internal.util.Util;
 
 /**
@@ -117,8 +119,6 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 		}
 	}
 
-	private LightweightRunnable runnable = new LightweightRunnable();
-
 	// The lightweight definitions read from the registry
 	private LightweightDecoratorDefinition[] lightweightDefinitions;
 
@@ -275,7 +275,8 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	 * Reset any cached values.
 	 */
 	void reset() {
-		runnable.clearReferences();
+		// Nothing is cached, the runnables are created for each decoration as
+		// several decoration jobs may run at the same time
 	}
 
 	/**
@@ -356,8 +357,16 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	 */
 	private void decorate(Object element, DecorationBuilder decoration, LightweightDecoratorDefinition decorator) {
 
+		LightweightRunnable runnable = new LightweightRunnable();
 		runnable.setValues(element, decoration, decorator);
+		if (!UIStats.isDebugging(UIStats.LIGHTWEIGHT_DECORATION)) {
+			SafeRunner.run(runnable);
+			return;
+		}
+		long start = System.nanoTime();
 		SafeRunner.run(runnable);
+		UIStats.addRun(UIStats.LIGHTWEIGHT_DECORATION, decorator.getId(), String.valueOf(element),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -130,6 +130,13 @@ public class Policy {
 	 */
 	public static boolean DEBUG_DECLARED_IMAGES = DEFAULT;
 
+	/**
+	 * Whether or not to report the images prefetched on startup.
+	 *
+	 * @since 3.119
+	 */
+	public static boolean DEBUG_PREFETCH_IMAGES = DEFAULT;
+
 	/**
 	 * Whether or not to print contribution-related issues.
 	 *
@@ -187,6 +194,7 @@ public class Policy {
 				DEBUG_HANDLERS_VERBOSE_COMMAND_ID = null;
 			}
 			DEBUG_DECLARED_IMAGES = getDebugOption("/debug/declaredImages"); //$NON-NLS-1$
+			DEBUG_PREFETCH_IMAGES = getDebugOption("/debug/prefetchImages"); //$NON-NLS-1$
 			DEBUG_CONTRIBUTIONS = getDebugOption("/debug/contributions"); //$NON-NLS-1$
 			EXPERIMENTAL_MENU = getDebugOption("/experimental/menus"); //$NON-NLS-1$
 			DEBUG_MPE = getDebugOption("/trace/multipageeditor"); //$NON-NLS-1$
@@ -61,10 +61,12 @@ public class UIStats {
 
 	public static final int EARLY_STARTUP = 15;
 
+	public static final int LIGHTWEIGHT_DECORATION = 16;
+
 	/**
 	 * Change this value when you add a new event constant.
 	 */
-	public static final int LAST_VALUE = EARLY_STARTUP;
+	public static final int LAST_VALUE = LIGHTWEIGHT_DECORATION;
 
 	private static boolean debug[] = new boolean[LAST_VALUE + 1];
 
@@ -87,6 +89,7 @@ public class UIStats {
 		events[UI_JOB] = PlatformUI.PLUGIN_ID + "/perf/uijob"; //$NON-NLS-1$
 		events[CONTENT_TYPE_LOOKUP] = PlatformUI.PLUGIN_ID + "/perf/contentTypes"; //$NON-NLS-1$
 		events[EARLY_STARTUP] = PlatformUI.PLUGIN_ID + "/perf/earlyStartup"; //$NON-NLS-1$
+		events[LIGHTWEIGHT_DECORATION] = PlatformUI.PLUGIN_ID + "/perf/decorator"; //$NON-NLS-1$
 
 		for (int i = 0; i <= LAST_VALUE; i++) {
 			// don't log any performance events if the general performance stats is disabled
@@ -140,6 +143,23 @@ public class UIStats {
 		}
 	}
 
+	/**
+	 * Records a performance operation whose duration has been measured by the
+	 * caller. Unlike {@link #start(int, String)} and
+	 * {@link #end(int, Object, String)} this may be called from any thread.
+	 *
+	 * @param event   The event id
+	 * @param blame   An object that is responsible for the event that occurred,
+	 *                or that uniquely describes the event that occurred
+	 * @param label   The event label
+	 * @param elapsed The duration of the operation in milliseconds
+	 */
+	public static void addRun(int event, Object blame, String label, long elapsed) {
+		if (debug[event]) {
+			PerformanceStats.getStats(events[event], blame).addRun(elapsed, label);
+		}
+	}
+
 	/**
 	 * Special hook to signal that application startup is complete and the event
 	 * loop has started running.
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.progress;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free queue of pending updates, filled by any number of threads and
+ * drained by a single consumer, usually in the UI thread. The updates are
+ * coalesced per element: an element is queued once, with the union of the
+ * update flags posted for it, until it is drained.
+ * <p>
+ * Posting an update which is already pending for an element, as the repeated
+ * progress reports of a running job do, costs a hash lookup and a volatile
+ * read.
+ * </p>
+ *
+ * @param <E> the type of the updated elements
+ */
+final class PendingUpdates<E> {
+
+	/**
+	 * The flags of an element which has been drained. Posting to them retries
+	 * with a new entry.
+	 */
+	private static final int DRAINED = -1;
+
+	private final Queue<E> queue = new ConcurrentLinkedQueue<>();
+
+	private final ConcurrentMap<E, AtomicInteger> pendingFlags = new ConcurrentHashMap<>();
+
+	/**
+	 * Posts an update for the given element.
+	 *
+	 * @param element the updated element
+	 * @param flags   the non-negative flags describing the update
+	 * @return <code>true</code> if the element has been queued,
+	 *         <code>false</code> if it was already pending
+	 */
+	boolean post(E element, int flags) {
+		while (true) {
+			AtomicInteger pending = pendingFlags.get(element);
+			if (pending == null) {
+				AtomicInteger created = new AtomicInteger(flags);
+				pending = pendingFlags.putIfAbsent(element, created);
+				if (pending == null) {
+					queue.add(element);
+					return true;
+				}
+			}
+			int current;
+			while ((current = pending.get()) != DRAINED) {
+				if ((current & flags) == flags || pending.compareAndSet(current, current | flags)) {
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the pending elements, at most as many as were pending when this
+	 * method was called, so that a consumer can not be kept busy by the
+	 * producers. Must only be called by one thread at a time.
+	 *
+	 * @return the drained elements, in the order they were queued in, mapped to
+	 *         their update flags
+	 */
+	Map<E, Integer> drain() {
+		int remaining = pendingFlags.size();
+		if (remaining == 0) {
+			return Collections.emptyMap();
+		}
+		Map<E, Integer> drained = new LinkedHashMap<>();
+		E element;
+		while (remaining-- > 0 && (element = queue.poll()) != null) {
+			int flags = pendingFlags.remove(element).getAndSet(DRAINED);
+			drained.put(element, Integer.valueOf(flags));
+		}
+		return drained;
+	}
+}
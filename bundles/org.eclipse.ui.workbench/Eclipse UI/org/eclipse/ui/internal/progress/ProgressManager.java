@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2016 IBM Corporation and others.
+ * Copyright (c) 2003, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,11 +33,10 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
+import java.util.function.BiConsumer;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IProgressMonitorWithBlocking;
@@ -139,37 +138,43 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	// A table that maps families to keys in the Jface image table
 	private Hashtable<Object, String> imageKeyTable = new Hashtable<>();
 
-	/**
-	 * Lock object for synchronizing updates of {@code pendingJobUpdates},
-	 * {@code pendingGroupUpdates}, {@code pendingJobRemoval},
-	 * {@code pendingGroupRemoval} and {@code pendingJobAddition}.
+	/*
+	 * The flags of the pending job updates. Whether the job is shown is decided
+	 * when the update is posted, separately for the listeners showing system
+	 * jobs.
 	 */
-	private final Object pendingUpdatesMutex = new Object();
+	private static final int JOB_ADDED = 1;
 
-	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
-	 */
-	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobUpdates = new LinkedHashMap<>();
+	private static final int JOB_ADDED_DEBUG = 1 << 1;
 
-	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
-	 */
-	private Set<GroupInfo> pendingGroupUpdates = new LinkedHashSet<>();
+	private static final int JOB_CHANGED = 1 << 2;
 
-	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
+	private static final int JOB_REFRESHED = 1 << 3;
+
+	private static final int JOB_REFRESHED_DEBUG = 1 << 4;
+
+	private static final int JOB_REMOVED = 1 << 5;
+
+	private static final int JOB_REMOVED_DEBUG = 1 << 6;
+
+	/*
+	 * The flags of the pending group updates.
 	 */
-	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobRemoval = new LinkedHashMap<>();
+	private static final int GROUP_REFRESHED = 1;
+
+	private static final int GROUP_REMOVED = 1 << 1;
 
 	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
+	 * The job updates posted by the jobs and the job manager, coalesced per job
+	 * until {@link #notifyListeners()} drains them.
 	 */
-	private Set<GroupInfo> pendingGroupRemoval = new LinkedHashSet<>();
+	private final PendingUpdates<JobInfo> pendingJobUpdates = new PendingUpdates<>();
 
 	/**
-	 * Modification guarded by {@link #pendingUpdatesMutex}.
+	 * The group updates, coalesced per group until {@link #notifyListeners()}
+	 * drains them.
 	 */
-	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobAddition = new LinkedHashMap<>();
+	private final PendingUpdates<GroupInfo> pendingGroupUpdates = new PendingUpdates<>();
 
 	private static final String IMAGE_KEY = "org.eclipse.ui.progress.images"; //$NON-NLS-1$
 
@@ -359,40 +364,60 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * Send pending notifications to listeners.
 	 */
 	/* Visible for testing */ public void notifyListeners() {
-		Set<GroupInfo> localPendingGroupUpdates, localPendingGroupRemoval;
-		Map<JobInfo, Set<IJobProgressManagerListener>> localPendingJobUpdates, localPendingJobAddition,
-				localPendingJobRemoval;
-		synchronized (pendingUpdatesMutex) {
-			localPendingJobUpdates = pendingJobUpdates;
-			pendingJobUpdates = new LinkedHashMap<>();
-			localPendingGroupUpdates = pendingGroupUpdates;
-			pendingGroupUpdates = new LinkedHashSet<>();
-			localPendingJobRemoval = pendingJobRemoval;
-			pendingJobRemoval = new LinkedHashMap<>();
-			localPendingGroupRemoval = pendingGroupRemoval;
-			pendingGroupRemoval = new LinkedHashSet<>();
-			localPendingJobAddition = pendingJobAddition;
-			pendingJobAddition = new LinkedHashMap<>();
-		}
+		Map<JobInfo, Integer> localPendingJobUpdates = pendingJobUpdates.drain();
+		Map<GroupInfo, Integer> localPendingGroupUpdates = pendingGroupUpdates.drain();
 
-		localPendingJobAddition.entrySet().forEach(e -> e.getValue().forEach(listener -> listener.addJob(e.getKey())));
+		notifyJobListeners(localPendingJobUpdates, JOB_ADDED, JOB_ADDED_DEBUG, IJobProgressManagerListener::addJob);
 
-		// Adds all non null JobInfo#getGroupInfo to the list of groups to
-		// be refreshed
-		localPendingJobUpdates.entrySet().stream().map(e -> e.getKey().getGroupInfo()).filter(Objects::nonNull)
-				.forEach(localPendingGroupUpdates::add);
+		Set<GroupInfo> refreshedGroups = new LinkedHashSet<>();
+		localPendingGroupUpdates.forEach((group, flags) -> {
+			if ((flags.intValue() & GROUP_REFRESHED) != 0) {
+				refreshedGroups.add(group);
+			}
+		});
+		// Adds all non null JobInfo#getGroupInfo of the changed jobs to the
+		// list of groups to be refreshed
+		localPendingJobUpdates.forEach((info, flags) -> {
+			if ((flags.intValue() & JOB_CHANGED) != 0 && info.getGroupInfo() != null) {
+				refreshedGroups.add(info.getGroupInfo());
+			}
+		});
 
-		localPendingJobUpdates.entrySet()
-				.forEach(e -> e.getValue().forEach(listener -> listener.refreshJobInfo(e.getKey())));
+		notifyJobListeners(localPendingJobUpdates, JOB_REFRESHED, JOB_REFRESHED_DEBUG,
+				IJobProgressManagerListener::refreshJobInfo);
 
 		// refresh groups
-		localPendingGroupUpdates.forEach(groupInfo -> listeners.forEach(listener -> listener.refreshGroup(groupInfo)));
+		refreshedGroups.forEach(groupInfo -> listeners.forEach(listener -> listener.refreshGroup(groupInfo)));
 
-		localPendingJobRemoval.entrySet()
-				.forEach(e -> e.getValue().forEach(listener -> listener.removeJob(e.getKey())));
+		notifyJobListeners(localPendingJobUpdates, JOB_REMOVED, JOB_REMOVED_DEBUG,
+				IJobProgressManagerListener::removeJob);
 
-		localPendingGroupRemoval.forEach(group -> {
-			listeners.forEach(listener -> listener.removeGroup(group));
+		localPendingGroupUpdates.forEach((group, flags) -> {
+			if ((flags.intValue() & GROUP_REMOVED) != 0) {
+				listeners.forEach(listener -> listener.removeGroup(group));
+			}
+		});
+	}
+
+	/**
+	 * Notifies the listeners of the jobs whose pending updates include the flag
+	 * of the listeners.
+	 *
+	 * @param updates      the drained job updates
+	 * @param flag         the flag of the listeners not showing system jobs
+	 * @param debugFlag    the flag of the listeners showing system jobs
+	 * @param notification the notification to send
+	 */
+	private void notifyJobListeners(Map<JobInfo, Integer> updates, int flag, int debugFlag,
+			BiConsumer<IJobProgressManagerListener, JobInfo> notification) {
+		updates.forEach((info, flags) -> {
+			if ((flags.intValue() & (flag | debugFlag)) != 0) {
+				for (IJobProgressManagerListener listener : listeners) {
+					if ((flags.intValue() & (listener.showsDebug() ? debugFlag : flag)) != 0) {
+						notification.accept(listener, info);
+					}
+				}
+			}
 		});
 	}
 
@@ -625,11 +650,9 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param info the updated job info
 	 */
 	public void refreshJobInfo(JobInfo info) {
-		synchronized (pendingUpdatesMutex) {
-			Predicate<IJobProgressManagerListener> predicate = listener -> !isNeverDisplaying(info.getJob(), listener.showsDebug());
-			rememberListenersForJob(info, pendingJobUpdates, predicate);
-		}
-		uiRefreshThrottler.throttledExec();
+		Job job = info.getJob();
+		postJobUpdate(info, JOB_CHANGED | (isNeverDisplaying(job, false) ? 0 : JOB_REFRESHED)
+				| (isNeverDisplaying(job, true) ? 0 : JOB_REFRESHED_DEBUG));
 	}
 
 	/**
@@ -638,9 +661,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param info the updated job group
 	 */
 	public void refreshGroup(GroupInfo info) {
-		synchronized (pendingUpdatesMutex) {
-			pendingGroupUpdates.add(info);
-		}
+		pendingGroupUpdates.post(info, GROUP_REFRESHED);
 		uiRefreshThrottler.throttledExec();
 	}
 
@@ -655,10 +676,8 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		synchronized (runnableMonitors) {
 			info = progressFor(job).getJobInfo();
 			managedJobs.remove(job);
-			synchronized (pendingUpdatesMutex) {
-				Predicate<IJobProgressManagerListener> predicate = listener -> !isNeverDisplaying(info.getJob(), listener.showsDebug());
-				rememberListenersForJob(info, pendingJobRemoval, predicate);
-			}
+			pendingJobUpdates.post(info, (isNeverDisplaying(job, false) ? 0 : JOB_REMOVED)
+					| (isNeverDisplaying(job, true) ? 0 : JOB_REMOVED_DEBUG));
 			runnableMonitors.remove(job);
 		}
 		uiRefreshThrottler.throttledExec();
@@ -683,9 +702,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 * @param group GroupInfo
 	 */
 	public void removeGroup(GroupInfo group) {
-		synchronized (pendingUpdatesMutex) {
-			pendingGroupRemoval.add(group);
-		}
+		pendingGroupUpdates.post(group, GROUP_REMOVED);
 		uiRefreshThrottler.throttledExec();
 	}
 
@@ -700,18 +717,23 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 			refreshGroup(group);
 		}
 
-		managedJobs.add(info.getJob());
-		synchronized (pendingUpdatesMutex) {
-			Predicate<IJobProgressManagerListener> predicate = listener -> !isCurrentDisplaying(info.getJob(), listener.showsDebug());
-			rememberListenersForJob(info, pendingJobAddition, predicate);
-		}
-		uiRefreshThrottler.throttledExec();
+		Job job = info.getJob();
+		managedJobs.add(job);
+		postJobUpdate(info, (isCurrentDisplaying(job, false) ? 0 : JOB_ADDED)
+				| (isCurrentDisplaying(job, true) ? 0 : JOB_ADDED_DEBUG));
 	}
 
-	private void rememberListenersForJob(JobInfo info, Map<JobInfo, Set<IJobProgressManagerListener>> listenersMap, Predicate<IJobProgressManagerListener> predicate) {
-		Set<IJobProgressManagerListener> localListeners = listenersMap.computeIfAbsent(info,
-				k -> new LinkedHashSet<>());
-		listeners.stream().filter(predicate).forEach(localListeners::add);
+	/**
+	 * Posts an update of the given job for the next notification of the
+	 * listeners. Called by the jobs on every progress report, so this must not
+	 * lock.
+	 *
+	 * @param info  the updated job info
+	 * @param flags the flags describing the update
+	 */
+	private void postJobUpdate(JobInfo info, int flags) {
+		pendingJobUpdates.post(info, flags);
+		uiRefreshThrottler.throttledExec();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.ui.internal.progress;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -51,18 +52,22 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
 	/**
 	 * The UpdatesInfo is a private class for keeping track of the updates required.
+	 * The updates are posted without locking and coalesced per element until the
+	 * UI thread processes them.
 	 */
 	static class UpdatesInfo {
 
-		Collection<JobTreeElement> additions = new LinkedHashSet<>();
+		private static final int ADDITION = 1;
 
-		Collection<JobTreeElement> deletions = new LinkedHashSet<>();
+		private static final int DELETION = 1 << 1;
 
-		Collection<JobTreeElement> refreshes = new LinkedHashSet<>();
+		private static final int REFRESH = 1 << 2;
 
-		Collection<JobTreeElement> keptFinished = new LinkedHashSet<>();
+		private static final int KEPT_FINISHED = 1 << 3;
 
-		Collection<JobTreeElement> keptRemoved = new LinkedHashSet<>();
+		private static final int KEPT_REMOVED = 1 << 4;
+
+		private final PendingUpdates<JobTreeElement> pendingUpdates = new PendingUpdates<>();
 
 		volatile boolean updateAll;
 
@@ -75,8 +80,8 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		 *
 		 * @param addition
 		 */
-		synchronized void add(JobTreeElement addition) {
-			additions.add(addition);
+		void add(JobTreeElement addition) {
+			pendingUpdates.post(addition, ADDITION);
 		}
 
 		/**
@@ -84,8 +89,8 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		 *
 		 * @param removal
 		 */
-		synchronized void remove(JobTreeElement removal) {
-			deletions.add(removal);
+		void remove(JobTreeElement removal) {
+			pendingUpdates.post(removal, DELETION);
 		}
 
 		/**
@@ -93,8 +98,8 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		 *
 		 * @param refresh
 		 */
-		synchronized void refresh(JobTreeElement refresh) {
-			refreshes.add(refresh);
+		void refresh(JobTreeElement refresh) {
+			pendingUpdates.post(refresh, REFRESH);
 		}
 
 		/**
@@ -102,8 +107,8 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		 *
 		 * @param finished
 		 */
-		synchronized void keptFinished(JobTreeElement finished) {
-			keptFinished.add(finished);
+		void keptFinished(JobTreeElement finished) {
+			pendingUpdates.post(finished, KEPT_FINISHED);
 		}
 
 		/**
@@ -111,26 +116,48 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 		 *
 		 * @param removed
 		 */
-		synchronized void keptRemoved(JobTreeElement removed) {
-			keptRemoved.add(removed);
+		void keptRemoved(JobTreeElement removed) {
+			pendingUpdates.post(removed, KEPT_REMOVED);
 		}
 
 		/**
-		 * Reset the caches after completion of an update.
+		 * Discard the pending updates, when all the elements are refreshed.
 		 */
-		synchronized void reset() {
-			additions.clear();
-			deletions.clear();
-			refreshes.clear();
-			keptFinished.clear();
-			keptRemoved.clear();
+		void reset() {
 			updateAll = false;
+			pendingUpdates.drain();
 		}
 
 		/**
+		 * Drains the pending updates. Must only be called in the UI thread.
+		 *
 		 * @return array containing updated, added and deleted items
 		 */
-		synchronized JobTreeElement[][] processForUpdate() {
+		JobTreeElement[][] processForUpdate() {
+			Collection<JobTreeElement> additions = new LinkedHashSet<>();
+			Collection<JobTreeElement> deletions = new LinkedHashSet<>();
+			Collection<JobTreeElement> refreshes = new LinkedHashSet<>();
+			Collection<JobTreeElement> keptFinished = new ArrayList<>();
+			Collection<JobTreeElement> keptRemoved = new ArrayList<>();
+			pendingUpdates.drain().forEach((element, flags) -> {
+				int updates = flags.intValue();
+				if ((updates & ADDITION) != 0) {
+					additions.add(element);
+				}
+				if ((updates & DELETION) != 0) {
+					deletions.add(element);
+				}
+				if ((updates & REFRESH) != 0) {
+					refreshes.add(element);
+				}
+				if ((updates & KEPT_FINISHED) != 0) {
+					keptFinished.add(element);
+				}
+				if ((updates & KEPT_REMOVED) != 0) {
+					keptRemoved.add(element);
+				}
+			});
+
 			HashSet<JobTreeElement> staleAdditions = new HashSet<>();
 
 			Iterator<JobTreeElement> additionsIterator = additions.iterator();
@@ -288,11 +315,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 			}
 
 		} else {
-			JobTreeElement[][] elements;
-			synchronized (currentInfo) {
-				elements = currentInfo.processForUpdate();
-				currentInfo.reset();
-			}
+			JobTreeElement[][] elements = currentInfo.processForUpdate();
 
 			JobTreeElement[] updateItems = elements[0];
 			JobTreeElement[] additionItems = elements[1];
@@ -18,6 +18,7 @@ package org.eclipse.e4.ui.bindings.tests;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -189,6 +190,23 @@ public class BindingTableTests {
 		assertFalse(table.isPartialMatch(ctrl8));
 	}
 
+	@Test
+	public void testPartialMatchAfterRemoval() throws Exception {
+		BindingTable table = loadTable(ID_DIALOG_AND_WINDOW);
+		Binding about = getTestBinding(ABOUT_ID);
+		KeySequence ctrl5 = KeySequence.getInstance("CTRL+5");
+
+		table.removeBinding(about);
+		assertFalse(table.isPartialMatch(ctrl5));
+		assertNull(table.getPartialMatches(ctrl5));
+		assertNull(table.getPerfectMatch(about.getTriggerSequence()));
+
+		table.addBinding(about);
+		assertTrue(table.isPartialMatch(ctrl5));
+		assertEquals(1, table.getPartialMatches(ctrl5).size());
+		assertFalse(table.isPartialMatch(about.getTriggerSequence()));
+	}
+
 	@Test
 	public void testContextSet() {
 		BindingTableManager manager = ContextInjectionFactory.make(BindingTableManager.class, workbenchContext);
@@ -365,6 +383,45 @@ public class BindingTableTests {
 		assertEquals(about, it.next());
 	}
 
+	@Test
+	public void testManagerLookupsFollowTableChanges() throws Exception {
+		// a context without the tables shared by the other tests
+		IEclipseContext context = TestUtil.getGlobalContext().createChild("testManagerLookupsFollowTableChanges");
+		BindingTableManager manager = ContextInjectionFactory.make(BindingTableManager.class, context);
+		BindingTable dawTable = loadTable(ID_DIALOG_AND_WINDOW);
+		manager.addTable(dawTable);
+		ArrayList<Context> window = new ArrayList<>();
+		window.add(contextManager.getContext(ID_WINDOW));
+		window.add(contextManager.getContext(ID_DIALOG_AND_WINDOW));
+		ContextSet windowSet = manager.createContextSet(window);
+
+		Binding about = getTestBinding(ABOUT_ID);
+		Binding rename = getTestBinding(RENAME_ID);
+		KeySequence ctrl5 = KeySequence.getInstance("CTRL+5");
+		assertEquals(about, manager.getPerfectMatch(windowSet, about.getTriggerSequence()));
+		assertNull(manager.getPerfectMatch(windowSet, rename.getTriggerSequence()));
+		assertTrue(manager.isPartialMatch(windowSet, ctrl5));
+
+		// a table added for a context of the set
+		manager.addTable(loadTable(ID_WINDOW));
+		assertEquals(rename, manager.getPerfectMatch(windowSet, rename.getTriggerSequence()));
+
+		// bindings removed from a table of the set
+		dawTable.removeBinding(about);
+		assertNull(manager.getPerfectMatch(windowSet, about.getTriggerSequence()));
+		assertFalse(manager.isPartialMatch(windowSet, ctrl5));
+		assertTrue(manager.getPartialMatches(windowSet, ctrl5).isEmpty());
+
+		dawTable.addBinding(about);
+		assertEquals(about, manager.getPerfectMatch(windowSet, about.getTriggerSequence()));
+		assertEquals(1, manager.getPartialMatches(windowSet, ctrl5).size());
+
+		// a table removed
+		manager.removeTable(dawTable);
+		assertNull(manager.getPerfectMatch(windowSet, about.getTriggerSequence()));
+		assertFalse(manager.isPartialMatch(windowSet, ctrl5));
+	}
+
 	private BindingTable loadTable(String contextId) {
 		Context context = contextManager.getContext(contextId);
 		BindingTable table = new BindingTable(context);
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Eclipse Foundation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
+import org.eclipse.e4.ui.css.core.impl.dom.ViewCSSImpl;
+import org.eclipse.e4.ui.tests.css.core.util.ParserTestUtil;
+import org.eclipse.e4.ui.tests.css.core.util.TestElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.css.CSSStyleDeclaration;
+
+public class CSSComputedStyleCacheTest {
+
+	private CSSEngine engine;
+	private DocumentCSSImpl docCss;
+	private CSSComputedStyleCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		engine = ParserTestUtil.createEngine();
+		docCss = new DocumentCSSImpl();
+		cache = new CSSComputedStyleCache(docCss, new ViewCSSImpl(docCss));
+	}
+
+	@Test
+	public void testSameSignatureIsCached() throws Exception {
+		addStyleSheet(".special { color: red; }\n" + "Shell Button { color: blue; font-weight: bold; }\n");
+
+		TestElement shell = new TestElement("Shell", engine);
+		TestElement button1 = new TestElement("Button", shell, engine);
+		button1.setClass("special");
+		TestElement button2 = new TestElement("Button", shell, engine);
+		button2.setClass("special");
+
+		CSSStyleDeclaration style1 = cache.getComputedStyle(button1, null);
+		CSSStyleDeclaration style2 = cache.getComputedStyle(button2, null);
+		assertNotNull(style1);
+		assertSame(style1, style2);
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+
+		// no style is cached too
+		assertNull(cache.getComputedStyle(shell, null));
+		assertNull(cache.getComputedStyle(shell, null));
+		assertEquals(2, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+	}
+
+	@Test
+	public void testClassAndIdArePartOfTheSignature() throws Exception {
+		addStyleSheet("Button { color: blue; }\n" + ".special { color: red; }\n" + "#main { color: green; }\n");
+
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("blue", cache.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+
+		button.setClass("special");
+		assertEquals("red", cache.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+
+		button.setId("main");
+		assertEquals("green", cache.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	public void testAttributesAndPseudoClassesArePartOfTheSignature() throws Exception {
+		addStyleSheet("Button[flat='true'] { color: blue; }\n" + "Button:selected { color: red; }\n");
+
+		TestElement button1 = new TestElement("Button", engine);
+		TestElement button2 = new TestElement("Button", engine);
+		button2.setAttribute("flat", "true");
+		TestElement button3 = new TestElement("Button", engine);
+		button3.addStaticPseudoInstance("selected");
+
+		assertNull(cache.getComputedStyle(button1, null));
+		assertEquals("blue", cache.getComputedStyle(button2, null).getPropertyCSSValue("color").getCssText());
+		assertEquals("red", cache.getComputedStyle(button3, "selected").getPropertyCSSValue("color").getCssText());
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test
+	public void testStyleSheetChangeClearsCache() throws Exception {
+		addStyleSheet("Button { color: blue; }\n");
+
+		TestElement button = new TestElement("Button", engine);
+		assertEquals("blue", cache.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+		assertEquals(1, cache.size());
+
+		addStyleSheet("Button { color: red; }\n");
+		assertEquals(0, cache.size());
+		assertEquals("red", cache.getComputedStyle(button, null).getPropertyCSSValue("color").getCssText());
+
+		docCss.removeAllStyleSheets();
+		assertEquals(0, cache.size());
+		assertNull(cache.getComputedStyle(button, null));
+	}
+
+	@Test
+	public void testSiblingSelectorsDisableCache() throws Exception {
+		addStyleSheet("Label + Button { color: blue; }\n");
+
+		TestElement button = new TestElement("Button", engine);
+		cache.getComputedStyle(button, null);
+		cache.getComputedStyle(button, null);
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	public void testCacheIsBounded() throws Exception {
+		addStyleSheet("Button { color: blue; }\n");
+		cache = new CSSComputedStyleCache(docCss, new ViewCSSImpl(docCss), 2);
+
+		for (int i = 0; i < 5; i++) {
+			TestElement button = new TestElement("Button", engine);
+			button.setId("button" + i);
+			cache.getComputedStyle(button, null);
+		}
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testPassReusesAncestorSignatures() throws Exception {
+		addStyleSheet("Shell Button { color: blue; }\n" + ".special Button { color: red; }\n");
+
+		TestElement shell = new TestElement("Shell", engine);
+		TestElement composite = new TestElement("Composite", shell, engine);
+		TestElement button1 = new TestElement("Button", composite, engine);
+		TestElement button2 = new TestElement("Button", composite, engine);
+
+		cache.beginPass();
+		try {
+			assertEquals("blue", cache.getComputedStyle(button1, null).getPropertyCSSValue("color").getCssText());
+			assertEquals("blue", cache.getComputedStyle(button2, null).getPropertyCSSValue("color").getCssText());
+		} finally {
+			cache.endPass();
+		}
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+
+		// the signatures remembered during a pass are forgotten afterwards
+		composite.setClass("special");
+		cache.beginPass();
+		try {
+			assertEquals("red", cache.getComputedStyle(button1, null).getPropertyCSSValue("color").getCssText());
+		} finally {
+			cache.endPass();
+		}
+		assertEquals(2, cache.getMissCount());
+	}
+
+	private void addStyleSheet(String css) throws IOException {
+		docCss.addStyleSheet(ParserTestUtil.parseCss(css));
+	}
+}
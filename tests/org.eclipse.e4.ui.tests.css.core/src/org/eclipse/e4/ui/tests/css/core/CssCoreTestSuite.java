@@ -16,6 +16,7 @@
 package org.eclipse.e4.ui.tests.css.core;
 
 import org.eclipse.e4.ui.css.core.impl.engine.AbstractCSSEngineTest;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSComputedStyleCacheTest;
 import org.eclipse.e4.ui.tests.css.core.dom.CSSPropertyHandlerProviderTest;
 import org.eclipse.e4.ui.tests.css.core.parser.CascadeTest;
 import org.eclipse.e4.ui.tests.css.core.parser.FontFaceRulesTest;
@@ -45,6 +46,7 @@ import org.junit.runner.RunWith;
 	ImportTest.class,
 	InheritTest.class,
 	AbstractCSSEngineTest.class,
+	CSSComputedStyleCacheTest.class,
 	CSSPropertyHandlerProviderTest.class
 })
 public class CssCoreTestSuite {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 EclipseSource and others.
+ * Copyright (c) 2009, 2020 EclipseSource and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -120,6 +120,81 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	public void testIndexedRulesKeepStylesheetOrder() throws Exception {
+		// The rules end up in different index buckets, for the same specificity
+		// the last one in the stylesheet must still take precedence
+		String css = ".special { color: red; font-weight: bold; }\n" + "Button { color: blue; }\n"
+				+ "* > .special { color: green; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement button = new TestElement("Button", shell, engine);
+		button.setClass("other special");
+
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals(2, buttonStyle.getLength());
+		assertEquals("green", buttonStyle.getPropertyCSSValue("color").getCssText());
+		assertEquals("bold", buttonStyle.getPropertyCSSValue("font-weight").getCssText());
+
+		final TestElement label = new TestElement("Label", engine);
+		label.setClass("special");
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertNotNull(labelStyle);
+		assertEquals("red", labelStyle.getPropertyCSSValue("color").getCssText());
+	}
+
+	@Test
+	public void testIndexedRulesById() throws Exception {
+		String css = "#main { color: red; }\n" + "Button { color: blue; }\n" + "Shell #main { color: green; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement button = new TestElement("Button", shell, engine);
+
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("color: blue;", buttonStyle.getCssText());
+
+		button.setId("main");
+		buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("green", buttonStyle.getPropertyCSSValue("color").getCssText());
+
+		final TestElement label = new TestElement("Label", engine);
+		label.setId("main");
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertNotNull(labelStyle);
+		assertEquals("color: red;", labelStyle.getCssText());
+	}
+
+	@Test
+	public void testIndexedPseudoElementRules() throws Exception {
+		// The rightmost selector of these rules is the pseudo-element, whose
+		// name must not be taken for an element name
+		String css = "Shell:before { font-weight: bold; }\n" + ":after { font-style: italic; }\n"
+				+ "Button { color: blue; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement button = new TestElement("Button", shell, engine);
+
+		CSSStyleDeclaration beforeStyle = viewCSS.getComputedStyle(button, "before");
+		assertNotNull(beforeStyle);
+		assertEquals(2, beforeStyle.getLength());
+		assertEquals("bold", beforeStyle.getPropertyCSSValue("font-weight").getCssText());
+
+		CSSStyleDeclaration afterStyle = viewCSS.getComputedStyle(button, "after");
+		assertNotNull(afterStyle);
+		assertEquals(2, afterStyle.getLength());
+		assertEquals("italic", afterStyle.getPropertyCSSValue("font-style").getCssText());
+
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("color: blue;", buttonStyle.getCssText());
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testRuleCaching() throws Exception {
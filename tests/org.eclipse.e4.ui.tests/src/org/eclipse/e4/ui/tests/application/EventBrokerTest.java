@@ -17,6 +17,7 @@ package org.eclipse.e4.ui.tests.application;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.Collections;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
@@ -31,6 +32,10 @@ import org.osgi.service.event.EventHandler;
 public class EventBrokerTest extends UITest {
 	private static final String TEST_TOPIC = "test/EventBrokerTest";
 
+	private static final String MODEL_TOPIC_BASE = "org/eclipse/e4/ui/model/test/EventBrokerTest";
+
+	private static final String MODEL_TOPIC = MODEL_TOPIC_BASE + "/Element/attribute/SET";
+
 	private AtomicInteger seen;
 	private IEclipseContext context;
 
@@ -111,4 +116,67 @@ public class EventBrokerTest extends UITest {
 		assertEquals("subscription was not removed", 2, seen.get());
 	}
 
+	@Test
+	public void testModelTopics() {
+		IEventBroker eb = context.get(IEventBroker.class);
+		AtomicInteger seenByWildcard = new AtomicInteger(0);
+		EventHandler handler = event -> seen.incrementAndGet();
+		EventHandler wildcardHandler = event -> seenByWildcard.incrementAndGet();
+		eb.subscribe(MODEL_TOPIC, handler);
+		eb.subscribe(MODEL_TOPIC_BASE + "/*", wildcardHandler);
+
+		eb.send(MODEL_TOPIC, new Object());
+		assertEquals(1, seen.get());
+		assertEquals(1, seenByWildcard.get());
+
+		eb.send(MODEL_TOPIC_BASE + "/Element/other/SET", new Object());
+		assertEquals(1, seen.get());
+		assertEquals(2, seenByWildcard.get());
+
+		eb.send(MODEL_TOPIC_BASE, new Object());
+		assertEquals(1, seen.get());
+		assertEquals(2, seenByWildcard.get());
+
+		eb.unsubscribe(handler);
+		eb.send(MODEL_TOPIC, new Object());
+		assertEquals("subscription was not removed", 1, seen.get());
+		assertEquals(3, seenByWildcard.get());
+		eb.unsubscribe(wildcardHandler);
+	}
+
+	@Test
+	public void testModelTopicsWithFilter() {
+		IEventBroker eb = context.get(IEventBroker.class);
+		AtomicInteger seenByFiltered = new AtomicInteger(0);
+		EventHandler handler = event -> seen.incrementAndGet();
+		EventHandler filteredHandler = event -> seenByFiltered.incrementAndGet();
+		eb.subscribe(MODEL_TOPIC, handler);
+		eb.subscribe(MODEL_TOPIC, "(test=EventBrokerTest)", filteredHandler, true);
+
+		eb.send(MODEL_TOPIC, Collections.singletonMap("test", "EventBrokerTest"));
+		assertEquals("event delivered more than once", 1, seen.get());
+		assertEquals(1, seenByFiltered.get());
+
+		eb.send(MODEL_TOPIC, Collections.singletonMap("test", "other"));
+		assertEquals(2, seen.get());
+		assertEquals(1, seenByFiltered.get());
+
+		eb.unsubscribe(handler);
+		eb.unsubscribe(filteredHandler);
+	}
+
+	@Test
+	public void testPostModelTopic() throws InterruptedException {
+		IEventBroker eb = context.get(IEventBroker.class);
+		EventHandler handler = event -> seen.incrementAndGet();
+		eb.subscribe(MODEL_TOPIC, null, handler, true);
+
+		eb.post(MODEL_TOPIC, new Object());
+		for (int i = 0; i < 100 && seen.get() == 0; i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(1, seen.get());
+		eb.unsubscribe(handler);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2019 IBM Corporation and others.
+ * Copyright (c) 2009, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import javax.inject.Inject;
 import org.eclipse.e4.core.contexts.IEclipseContext;
@@ -30,8 +31,12 @@ import org.eclipse.e4.ui.model.application.ui.basic.MWindow;
 import org.eclipse.e4.ui.tests.rules.WorkbenchContextRule;
 import org.eclipse.e4.ui.workbench.IPresentationEngine;
 import org.eclipse.e4.ui.workbench.modeling.EModelService;
+import org.eclipse.e4.ui.workbench.renderers.swt.ContributedPartRenderer;
 import org.eclipse.swt.custom.CTabFolder;
 import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -221,6 +226,30 @@ public class MPartTest {
 		assertEquals("*", item.getText());
 	}
 
+	@Test
+	public void testCreateContentsAsync() throws InterruptedException {
+		final MWindow window = createWindowWithOneView("Part Name");
+		MPart part = ems.findElements(window, null, MPart.class).get(0);
+		part.getTags().add(ContributedPartRenderer.CREATE_CONTENTS_ASYNC);
+
+		application.getChildren().add(window);
+		contextRule.createAndRunWorkbench(window);
+
+		Composite partComposite = (Composite) part.getWidget();
+		assertNotNull(partComposite);
+		long end = System.currentTimeMillis() + 5000;
+		while (part.getObject() == null && System.currentTimeMillis() < end) {
+			contextRule.spinEventLoop();
+			Thread.sleep(10);
+		}
+
+		assertTrue(part.getObject() instanceof SampleView);
+		assertFalse(partComposite.isDisposed());
+		for (Control child : partComposite.getChildren()) {
+			assertFalse("the placeholder was not removed", child instanceof Label);
+		}
+	}
+
 	private MWindow createWindowWithOneView(String partName) {
 		return createWindowWithOneView(partName, null);
 	}
@@ -35,6 +35,7 @@ import org.eclipse.core.runtime.RegistryFactory;
 import org.eclipse.e4.core.contexts.ContextInjectionFactory;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.log.Logger;
+import org.eclipse.e4.ui.internal.workbench.E4Workbench;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
 import org.eclipse.e4.ui.internal.workbench.ExtensionsSort;
@@ -501,6 +502,65 @@ public class ModelAssemblerTests {
 		assertEquals("simpleprocessor.post", application.getDescriptors().get(0).getElementId());
 	}
 
+	/**
+	 * Tests that the fragments already merged into a restored model are not
+	 * processed again while they are unchanged.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testFragments_cachedAssembledModel() throws Exception {
+		appContext.set(E4Workbench.CACHE_ASSEMBLED_MODEL, Boolean.TRUE);
+		addContribution("org.eclipse.e4.ui.tests/data/ModelAssembler/fragment_cached.xml");
+
+		assembler.processModel(false);
+		assertEquals(1, application.getDescriptors().size());
+		assertEquals("testFragments_cached-descriptor", application.getDescriptors().get(0).getElementId());
+
+		// the fragment is not merged again
+		application.getDescriptors().clear();
+		assembler.processModel(false);
+		assertEquals(0, application.getDescriptors().size());
+
+		// an initial model is always assembled
+		assembler.processModel(true);
+		assertEquals(1, application.getDescriptors().size());
+
+		// without the cache, the fragment is merged on each start
+		appContext.set(E4Workbench.CACHE_ASSEMBLED_MODEL, Boolean.FALSE);
+		application.getDescriptors().clear();
+		assembler.processModel(false);
+		assertEquals(1, application.getDescriptors().size());
+		verifyZeroInteractions(logger);
+	}
+
+	/**
+	 * Tests that fragments contributing elements which are not persisted are
+	 * processed on each start.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testFragments_cachedAssembledModelWithTransientElements() throws Exception {
+		appContext.set(E4Workbench.CACHE_ASSEMBLED_MODEL, Boolean.TRUE);
+		addContribution("org.eclipse.e4.ui.tests/data/ModelAssembler/fragment_transient.xml");
+
+		assembler.processModel(false);
+		assertEquals(1, application.getDescriptors().size());
+
+		application.getDescriptors().clear();
+		assembler.processModel(false);
+		assertEquals(1, application.getDescriptors().size());
+		assertEquals("testFragments_transient-descriptor", application.getDescriptors().get(0).getElementId());
+		verifyZeroInteractions(logger);
+	}
+
+	private void addContribution(String filePath) throws Exception {
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		registry.addContribution(getContentsAsInputStream(filePath), contributor, false, null, null, null);
+	}
+
 	private void testProcessor(String filePath, boolean initial, boolean afterFragments) throws Exception {
 		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
 		IExtensionRegistry registry = createTestExtensionRegistry();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2008 IBM Corporation and others.
+ * Copyright (c) 2007, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,17 +16,21 @@
 package org.eclipse.core.tests.databinding.observable;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.list.ListDiff;
 import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.list.ListDiffVisitor;
+import org.eclipse.core.internal.databinding.observable.ListDiffComputer;
 import org.junit.Test;
 
 /**
@@ -286,6 +290,167 @@ public class Diffs_ListDiffTests {
 				Arrays.asList(new Object[] { "c", "a", "b" }));
 	}
 
+	@Test
+	public void testComputeListDiff_LargeShuffled() {
+		List<Object> oldList = createList(1000);
+		List<Object> newList = new ArrayList<>(oldList);
+		Collections.shuffle(newList, new Random(42));
+		checkComputedListDiff(oldList, newList);
+	}
+
+	@Test
+	public void testComputeListDiff_LargeReversed() {
+		List<Object> oldList = createList(1000);
+		List<Object> newList = new ArrayList<>(oldList);
+		Collections.reverse(newList);
+		checkComputedListDiff(oldList, newList);
+	}
+
+	@Test
+	public void testComputeListDiff_LargeAppendedAndRemoved() {
+		List<Object> oldList = createList(1000);
+		List<Object> newList = new ArrayList<>(oldList);
+		newList.addAll(createList(500));
+		checkComputedListDiff(oldList, newList);
+		assertEquals(500, Diffs.computeListDiff(oldList, newList).getDifferences().length);
+
+		newList = new ArrayList<>(oldList.subList(100, 900));
+		checkComputedListDiff(oldList, newList);
+		assertEquals(200, Diffs.computeListDiff(oldList, newList).getDifferences().length);
+	}
+
+	@Test
+	public void testComputeListDiff_LargeWithDuplicatesAndNulls() {
+		Random random = new Random(42);
+		List<Object> oldList = new ArrayList<>();
+		List<Object> newList = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			oldList.add(random.nextInt(10) == 0 ? null : "e" + random.nextInt(50));
+			newList.add(random.nextInt(10) == 0 ? null : "e" + random.nextInt(50));
+		}
+		checkComputedListDiff(oldList, newList);
+	}
+
+	@Test
+	public void testComputeListDiff_ShuffledReportsMoves() {
+		List<Object> oldList = createList(300);
+		List<Object> newList = new ArrayList<>(oldList);
+		Collections.shuffle(newList, new Random(42));
+		checkComputedListDiff(oldList, newList);
+
+		int[] changes = countChanges(Diffs.computeListDiff(oldList, newList));
+		assertEquals(0, changes[0]);
+		assertTrue(changes[1] > 0);
+	}
+
+	/**
+	 * Large lists reordered throughout are diffed without looking for moves:
+	 * the reordered elements are removed and added again.
+	 */
+	@Test
+	public void testComputeListDiff_LargeShuffledReportsRemovalsAndAdditions() {
+		List<Object> oldList = createList(5000);
+		List<Object> newList = new ArrayList<>(oldList);
+		Collections.shuffle(newList, new Random(42));
+		checkComputedListDiff(oldList, newList);
+
+		int[] changes = countChanges(Diffs.computeListDiff(oldList, newList));
+		assertTrue(changes[0] > 0);
+		assertEquals(0, changes[1]);
+	}
+
+	/**
+	 * Large lists which differ in a few adjacent elements keep reporting moves.
+	 */
+	@Test
+	public void testComputeListDiff_LargeWithFewChangesReportsMoves() {
+		List<Object> oldList = createList(5000);
+		List<Object> newList = new ArrayList<>(oldList);
+		Collections.swap(newList, 2000, 2100);
+		checkComputedListDiff(oldList, newList);
+
+		int[] changes = countChanges(Diffs.computeListDiff(oldList, newList));
+		assertEquals(0, changes[0]);
+		assertEquals(2, changes[1]);
+	}
+
+	@Test
+	public void testComputeDifferences_Identity() {
+		List<Object> oldList = new ArrayList<>();
+		List<Object> newList = new ArrayList<>();
+		oldList.add(new String("a"));
+		newList.add(new String("a"));
+		oldList.add("b");
+		newList.add("b");
+		checkIdentityDifferences(oldList, newList);
+
+		// large enough for the indexed algorithm
+		oldList = new ArrayList<>();
+		newList = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			String element = "e" + i;
+			oldList.add(element);
+			newList.add(i % 2 == 0 ? element : new String(element));
+		}
+		Collections.shuffle(newList, new Random(42));
+		checkIdentityDifferences(oldList, newList);
+	}
+
+	private static void checkIdentityDifferences(List<Object> oldList, List<Object> newList) {
+		assertEquals(oldList.equals(newList), ListDiffComputer.computeDifferences(oldList, newList, false).isEmpty());
+
+		final List<Object> list = new ArrayList<>(oldList);
+		Diffs.createListDiff(ListDiffComputer.computeDifferences(oldList, newList, true))
+				.accept(new ListDiffVisitor<Object>() {
+					@Override
+					public void handleAdd(int index, Object element) {
+						list.add(index, element);
+					}
+
+					@Override
+					public void handleRemove(int index, Object element) {
+						assertSame(element, list.remove(index));
+					}
+				});
+
+		assertEquals(newList.size(), list.size());
+		for (int i = 0; i < list.size(); i++) {
+			assertSame(newList.get(i), list.get(i));
+		}
+	}
+
+	/**
+	 * @return the number of additions and removals, and the number of moves
+	 */
+	private static int[] countChanges(ListDiff<Object> diff) {
+		final int[] changes = new int[2];
+		diff.accept(new ListDiffVisitor<Object>() {
+			@Override
+			public void handleAdd(int index, Object element) {
+				changes[0]++;
+			}
+
+			@Override
+			public void handleRemove(int index, Object element) {
+				changes[0]++;
+			}
+
+			@Override
+			public void handleMove(int oldIndex, int newIndex, Object element) {
+				changes[1]++;
+			}
+		});
+		return changes;
+	}
+
+	private static List<Object> createList(int size) {
+		List<Object> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(new Object());
+		}
+		return list;
+	}
+
 	private static void checkComputedListDiff(List<Object> oldList, List<Object> newList) {
 		ListDiff diff = Diffs.computeListDiff(oldList, newList);
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2018 Brad Reynolds and others.
+ * Copyright (c) 2007, 2020 Brad Reynolds and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,16 +20,19 @@ package org.eclipse.core.tests.internal.databinding.observable.masterdetail;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.IObservableCollection;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.list.WritableList;
 import org.eclipse.core.databinding.observable.masterdetail.IObservableFactory;
 import org.eclipse.core.databinding.observable.masterdetail.MasterDetailObservables;
@@ -156,6 +159,29 @@ public class DetailObservableListTest extends AbstractDefaultRealmTestCase {
 		master.setValue("New Value");
 	}
 
+	/**
+	 * Elements of the new detail list which are equal to elements of the
+	 * previous one, but are other instances, are reported as replaced.
+	 */
+	@Test
+	public void testMasterChangeReportsOtherInstances() {
+		String a1 = new String("a");
+		String a2 = new String("a");
+		IObservableValue master = new WritableValue(Arrays.asList(a1, "b"), null);
+		IObservableFactory factory = target -> new WritableList(new ArrayList((List) target), Object.class);
+		DetailObservableList detailObservable = new DetailObservableList(factory, master, null);
+
+		List<ListDiffEntry> entries = new ArrayList<>();
+		detailObservable.addListChangeListener(event -> entries.addAll(Arrays.asList(event.diff.getDifferences())));
+		master.setValue(Arrays.asList(a2, "b"));
+
+		assertEquals(2, entries.size());
+		for (ListDiffEntry entry : entries) {
+			assertSame(entry.isAddition() ? a2 : a1, entry.getElement());
+		}
+		assertSame(a2, detailObservable.get(0));
+	}
+
 	private static class WritableListFactory implements IObservableFactory {
 		Object type = Object.class;
 
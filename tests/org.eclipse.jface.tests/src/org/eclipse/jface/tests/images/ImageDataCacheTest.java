@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.tests.images;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.function.Function;
+
+import org.eclipse.jface.internal.ImageDataCache;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the memory cache and the persistence of the {@link ImageDataCache}.
+ */
+public class ImageDataCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File directory;
+
+	private URL directURL;
+
+	private URL indexedURL;
+
+	private int loadCount;
+
+	private final Function<URL, ImageData> loader = url -> {
+		loadCount++;
+		return url.equals(directURL) ? createDirectImageData() : createIndexedImageData();
+	};
+
+	@Before
+	public void setUp() throws IOException {
+		directory = folder.newFolder("cache");
+		directURL = createImageFile("direct.png");
+		indexedURL = createImageFile("indexed.gif");
+	}
+
+	private URL createImageFile(String name) throws IOException {
+		File file = folder.newFile(name);
+		Files.write(file.toPath(), name.getBytes());
+		return file.toURI().toURL();
+	}
+
+	private static ImageData createDirectImageData() {
+		ImageData imageData = new ImageData(4, 3, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		for (int i = 0; i < imageData.data.length; i++) {
+			imageData.data[i] = (byte) i;
+		}
+		imageData.alphaData = new byte[] { 0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 100, (byte) 255 };
+		return imageData;
+	}
+
+	private static ImageData createIndexedImageData() {
+		PaletteData palette = new PaletteData(new RGB(0, 0, 0), new RGB(255, 255, 255), new RGB(1, 2, 3));
+		ImageData imageData = new ImageData(5, 2, 8, palette);
+		imageData.setPixel(1, 1, 2);
+		imageData.transparentPixel = 1;
+		return imageData;
+	}
+
+	@Test
+	public void testMemoryHit() {
+		ImageDataCache cache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		ImageData first = cache.getImageData(directURL, 100, loader);
+		ImageData second = cache.getImageData(directURL, 100, loader);
+
+		assertEquals(1, loadCount);
+		assertNotSame(first, second);
+		assertNotSame(first.data, second.data);
+		assertImageDataEquals(first, second);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate(), 0);
+		assertTrue(cache.canProvide(directURL, 100));
+
+		cache.getImageData(directURL, 200, loader);
+		assertEquals(2, loadCount);
+		assertEquals(2, cache.getEntryCount());
+	}
+
+	@Test
+	public void testMissingImage() {
+		ImageDataCache cache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		Function<URL, ImageData> missingLoader = url -> {
+			loadCount++;
+			return null;
+		};
+
+		assertNull(cache.getImageData(directURL, 200, missingLoader));
+		assertNull(cache.getImageData(directURL, 200, missingLoader));
+		assertEquals(1, loadCount);
+	}
+
+	@Test
+	public void testEviction() {
+		ImageDataCache cache = new ImageDataCache(400);
+		cache.getImageData(directURL, 100, loader);
+		cache.getImageData(indexedURL, 100, loader);
+		cache.getImageData(directURL, 150, loader);
+
+		assertTrue(cache.getSize() <= cache.getMaxSize());
+		assertTrue(cache.getEntryCount() < 3);
+		// The least recently used entry is evicted first
+		assertTrue(cache.canProvide(directURL, 150));
+		assertTrue(!cache.canProvide(directURL, 100));
+
+		cache.clear();
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void testPersistence() {
+		ImageDataCache cache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		cache.setPersistenceDirectory(directory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		ImageData direct = cache.getImageData(directURL, 100, loader);
+		ImageData indexed = cache.getImageData(indexedURL, 100, loader);
+		assertEquals(2, directory.list().length);
+
+		// As in a new session
+		ImageDataCache newCache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		newCache.setPersistenceDirectory(directory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		assertImageDataEquals(direct, newCache.getImageData(directURL, 100, loader));
+		assertImageDataEquals(indexed, newCache.getImageData(indexedURL, 100, loader));
+		assertEquals(2, loadCount);
+		assertEquals(2, newCache.getDiskHitCount());
+		assertEquals(1, newCache.getHitRate(), 0);
+	}
+
+	@Test
+	public void testModifiedImageFile() throws Exception {
+		ImageDataCache cache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		cache.setPersistenceDirectory(directory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		cache.getImageData(directURL, 100, loader);
+
+		File file = new File(directURL.toURI());
+		Files.write(file.toPath(), "modified".getBytes());
+		ImageDataCache newCache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		newCache.setPersistenceDirectory(directory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		newCache.getImageData(directURL, 100, loader);
+
+		assertEquals(2, loadCount);
+		assertEquals(0, newCache.getDiskHitCount());
+	}
+
+	@Test
+	public void testDiskSizeLimit() {
+		ImageDataCache cache = new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE);
+		cache.setPersistenceDirectory(directory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		cache.getImageData(directURL, 100, loader);
+		cache.getImageData(indexedURL, 100, loader);
+		File[] files = directory.listFiles();
+		assertEquals(2, files.length);
+
+		long maxDiskSize = Math.max(files[0].length(), files[1].length());
+		new ImageDataCache(ImageDataCache.DEFAULT_MAX_SIZE).setPersistenceDirectory(directory, maxDiskSize);
+		assertEquals(1, directory.list().length);
+	}
+
+	private static void assertImageDataEquals(ImageData expected, ImageData actual) {
+		assertEquals(expected.width, actual.width);
+		assertEquals(expected.height, actual.height);
+		assertEquals(expected.depth, actual.depth);
+		assertEquals(expected.bytesPerLine, actual.bytesPerLine);
+		assertEquals(expected.transparentPixel, actual.transparentPixel);
+		assertEquals(expected.alpha, actual.alpha);
+		assertEquals(expected.palette.isDirect, actual.palette.isDirect);
+		if (expected.palette.isDirect) {
+			assertEquals(expected.palette.redMask, actual.palette.redMask);
+			assertEquals(expected.palette.greenMask, actual.palette.greenMask);
+			assertEquals(expected.palette.blueMask, actual.palette.blueMask);
+		} else {
+			assertArrayEquals(expected.palette.colors, actual.palette.colors);
+		}
+		assertArrayEquals(expected.data, actual.data);
+		assertArrayEquals(expected.maskData, actual.maskData);
+		assertArrayEquals(expected.alphaData, actual.alphaData);
+	}
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.jface.viewers.deferred.ConcurrentSortedCollection;
+import org.junit.Test;
+
+/**
+ * @since 3.20
+ */
+public class ConcurrentSortedCollectionTest {
+
+	/**
+	 * An element whose sort key can change while it is in the collection
+	 */
+	private static class Item {
+		int key;
+		final int id;
+
+		Item(int key, int id) {
+			this.key = key;
+			this.id = id;
+		}
+
+		@Override
+		public String toString() {
+			return key + "/" + id;
+		}
+	}
+
+	private static final Comparator<Object> BY_KEY = (o1, o2) -> Integer.compare(((Item) o1).key, ((Item) o2).key);
+
+	private static final Comparator<Object> INTEGERS = (o1, o2) -> ((Integer) o1).compareTo((Integer) o2);
+
+	@Test
+	public void testRandomAddsAndRemoves() {
+		Random random = new Random(1);
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(INTEGERS);
+		TreeSet<Object> expected = new TreeSet<>(INTEGERS);
+		for (int i = 0; i < 20000; i++) {
+			Integer value = Integer.valueOf(random.nextInt(5000));
+			if (random.nextInt(3) == 0) {
+				collection.remove(value);
+				expected.remove(value);
+			} else {
+				collection.add(value);
+				expected.add(value);
+			}
+		}
+		assertEquals(expected.size(), collection.size());
+		assertArrayEquals(expected.toArray(), collection.getItems());
+		for (Object value : expected) {
+			assertTrue(collection.contains(value));
+		}
+	}
+
+	@Test
+	public void testEqualKeysKeepInsertionOrder() {
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(BY_KEY);
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			items.add(new Item(i % 3, i));
+		}
+		collection.addAll(items);
+
+		Object[] result = collection.getItems();
+		assertEquals(items.size(), result.length);
+		for (int i = 1; i < result.length; i++) {
+			Item previous = (Item) result[i - 1];
+			Item item = (Item) result[i];
+			assertTrue(previous.key < item.key || previous.key == item.key && previous.id < item.id);
+		}
+	}
+
+	/**
+	 * An element is removed even if its sort key changed after it was added,
+	 * and no other element is removed instead.
+	 */
+	@Test
+	public void testRemoveChangedElements() {
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(BY_KEY);
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			items.add(new Item(i, i));
+		}
+		Collections.shuffle(items, new Random(2));
+		collection.addAll(items);
+
+		List<Item> changed = new ArrayList<>(items.subList(0, 1000));
+		for (Item item : changed) {
+			item.key = -item.key;
+		}
+		for (Item item : changed) {
+			collection.remove(item);
+			assertFalse(collection.contains(item));
+		}
+
+		List<Item> remaining = new ArrayList<>(items.subList(1000, items.size()));
+		remaining.sort(BY_KEY);
+		assertEquals(remaining.size(), collection.size());
+		assertArrayEquals(remaining.toArray(), collection.getItems());
+	}
+
+	@Test
+	public void testGetRange() {
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(INTEGERS);
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			values.add(Integer.valueOf(i));
+		}
+		Collections.shuffle(values, new Random(3));
+		collection.addAll(values);
+
+		for (int start : new int[] { 0, 1, 255, 256, 511, 512, 1000, 1990 }) {
+			Object[] window = new Object[50];
+			int count = collection.getRange(window, start);
+			assertEquals(Math.min(50, 2000 - start), count);
+			for (int i = 0; i < count; i++) {
+				assertEquals(Integer.valueOf(start + i), window[i]);
+				assertEquals(window[i], collection.getItem(start + i));
+			}
+		}
+		assertEquals(0, collection.getRange(new Object[10], 2000));
+		assertEquals(0, collection.getRange(new Object[10], -1));
+	}
+
+	@Test
+	public void testRetainFirst() {
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(INTEGERS);
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			values.add(Integer.valueOf(i));
+		}
+		Collections.shuffle(values, new Random(4));
+		collection.addAll(values);
+
+		collection.retainFirst(700);
+		assertEquals(700, collection.size());
+		assertEquals(Integer.valueOf(699), collection.getItem(699));
+		assertFalse(collection.contains(Integer.valueOf(700)));
+
+		collection.add(Integer.valueOf(1500));
+		assertEquals(Integer.valueOf(1500), collection.getItem(700));
+		collection.retainFirst(0);
+		assertTrue(collection.isEmpty());
+	}
+
+	/**
+	 * A window read while another thread adds elements is always sorted and
+	 * complete.
+	 */
+	@Test
+	public void testReadWhileAdding() throws InterruptedException {
+		ConcurrentSortedCollection collection = new ConcurrentSortedCollection(INTEGERS);
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 50000; i++) {
+			values.add(Integer.valueOf(i));
+		}
+		Collections.shuffle(values, new Random(5));
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < values.size(); i += 100) {
+					collection.addAll(values.subList(i, i + 100));
+				}
+			} catch (Throwable e) {
+				failure.set(e);
+			}
+		});
+		producer.start();
+		Object[] window = new Object[50];
+		while (producer.isAlive()) {
+			int size = collection.size();
+			int count = collection.getRange(window, size / 2);
+			for (int i = 1; i < count; i++) {
+				assertTrue(INTEGERS.compare(window[i - 1], window[i]) < 0);
+			}
+		}
+		producer.join();
+		assertEquals(null, failure.get());
+		assertEquals(values.size(), collection.size());
+	}
+}
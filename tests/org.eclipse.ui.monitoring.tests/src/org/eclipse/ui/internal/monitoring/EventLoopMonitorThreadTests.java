@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2019 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,7 @@ import java.util.List;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.ui.internal.monitoring.EventLoopMonitorThread.Parameters;
+import org.eclipse.ui.monitoring.IEventLatencyHistogram;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 import org.eclipse.ui.monitoring.StackSample;
 import org.eclipse.ui.monitoring.UiFreezeEvent;
@@ -71,6 +72,14 @@ public class EventLoopMonitorThreadTests {
 			return timestamp;
 		}
 
+		/**
+		 * Overridden to measure the event latencies on the artificial time scale.
+		 */
+		@Override
+		protected long getNanoTime() {
+			return timestamp * 1000000;
+		}
+
 		/**
 		 * Replaces the super-class implementation with a no-op. This breaks the implicit contract
 		 * that some amount of time should have passed when sleepForMillis is called with a non-zero
@@ -174,11 +183,29 @@ public class EventLoopMonitorThreadTests {
 	}
 
 	private void sendEvent(int eventType) {
+		sendEvent(eventType, SWT.None);
+	}
+
+	private void sendEvent(int eventType, int detail) {
 		Event event = new Event();
 		event.type = eventType;
+		event.detail = detail;
 		monitoringThread.handleEvent(event);
 	}
 
+	/**
+	 * Returns the mean latency in milliseconds recorded for the given event type and nesting
+	 * level.
+	 */
+	private static double getMeanLatency(int eventType, int nestingLevel) {
+		for (IEventLatencyHistogram histogram : EventLatencyRecorder.getDefault().getHistograms()) {
+			if (histogram.getEventType() == eventType && histogram.getNestingLevel() == nestingLevel) {
+				return histogram.getMeanLatency() / 1000;
+			}
+		}
+		throw new AssertionError("No latency recorded for event " + eventType + " at level " + nestingLevel);
+	}
+
 	/**
 	 * Returns relative times of the stack samples in a text form.
 	 */
@@ -586,4 +613,33 @@ public class EventLoopMonitorThreadTests {
 		assertEquals("A freeze event's duration is incorrect", eventDuration,
 				event.getTotalDuration());
 	}
+
+	@Test
+	public void testExternalEventLoopsNotPartOfLatency() throws Exception {
+		EventLatencyRecorder.getDefault().reset();
+		monitoringThread = createTestThread(FREEZE_THRESHOLD_MS);
+		monitoringThread.start();
+
+		// A selection opening a dialog, whose nested event loop sleeps and dispatches a paint
+		// event, which runs another nested event loop
+		sendEvent(SWT.PreEvent, SWT.Selection);
+		timestamp += 10;
+		sendEvent(SWT.PreExternalEventDispatch);
+		timestamp += 100;
+		sendEvent(SWT.PreEvent, SWT.Paint);
+		timestamp += 20;
+		sendEvent(SWT.PreExternalEventDispatch);
+		timestamp += 300;
+		sendEvent(SWT.PostExternalEventDispatch);
+		timestamp += 5;
+		sendEvent(SWT.PostEvent, SWT.Paint);
+		timestamp += 100;
+		sendEvent(SWT.PostExternalEventDispatch);
+		timestamp += 5;
+		sendEvent(SWT.PostEvent, SWT.Selection);
+
+		assertEquals(25, getMeanLatency(SWT.Paint, 2), 0.001);
+		assertEquals(15, getMeanLatency(SWT.Selection, 1), 0.001);
+		EventLatencyRecorder.getDefault().reset();
+	}
 }
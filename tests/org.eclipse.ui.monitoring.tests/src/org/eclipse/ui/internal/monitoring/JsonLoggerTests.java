@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.ui.monitoring.StackSample;
+import org.eclipse.ui.monitoring.UiFreezeEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test for the {@link JsonUiFreezeEventLogger}.
+ */
+public class JsonLoggerTests {
+	private static final long TIME = 120000000;
+	private static final long DURATION = 500;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private JsonUiFreezeEventLogger logger;
+	private ThreadInfo thread;
+
+	@Before
+	public void setUp() {
+		logger = new JsonUiFreezeEventLogger(folder.getRoot());
+		thread = ManagementFactory.getThreadMXBean().getThreadInfo(Thread.currentThread().getId(),
+				Integer.MAX_VALUE);
+	}
+
+	private UiFreezeEvent createFreezeEvent() {
+		StackSample[] samples = {
+				new StackSample(TIME, new ThreadInfo[] { thread }),
+				new StackSample(TIME + DURATION / 2, new ThreadInfo[] { thread }) };
+		return new UiFreezeEvent(TIME, DURATION, samples, false, false, false);
+	}
+
+	private List<String> readLines(int generation) throws IOException {
+		return Files.readAllLines(logger.getFile(generation).toPath(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testLogEvent() throws IOException {
+		logger.log(createFreezeEvent());
+
+		List<String> lines = readLines(0);
+		assertEquals(1, lines.size());
+		String line = lines.get(0);
+		assertTrue(line, line.startsWith("{\"type\":\"freeze\","));
+		assertTrue(line, line.contains("\"start\":" + TIME + ",\"duration\":" + DURATION + ","));
+		assertTrue(line, line.contains("{\"time\":" + (TIME + DURATION / 2) + ",\"threads\":["));
+
+		// Both samples share the same frames, which are written once.
+		StackTraceElement[] stack = thread.getStackTrace();
+		StringBuilder frame = new StringBuilder();
+		JsonUiFreezeEventLogger.appendString(frame, stack[0].toString());
+		assertEquals(line.indexOf(frame.toString()), line.lastIndexOf(frame.toString()));
+		List<StackTraceElement> frames = new ArrayList<>();
+		StringBuilder indices = new StringBuilder("\"stack\":[");
+		for (int i = 0; i < stack.length; i++) {
+			if (!frames.contains(stack[i])) {
+				frames.add(stack[i]);
+			}
+			indices.append(i > 0 ? "," : "").append(frames.indexOf(stack[i]));
+		}
+		indices.append(']');
+		int first = line.indexOf(indices.toString());
+		assertTrue(line, first >= 0);
+		assertTrue(line, line.indexOf(indices.toString(), first + 1) > first);
+	}
+
+	@Test
+	public void testClose() throws IOException {
+		logger.log(createFreezeEvent());
+		logger.log(createFreezeEvent());
+		logger.close();
+
+		List<String> lines = readLines(0);
+		assertEquals(3, lines.size());
+		String line = lines.get(2);
+		assertTrue(line, line.startsWith("{\"type\":\"session\","));
+		assertTrue(line, line.contains("\"freezes\":2,\"duration\":" + 2 * DURATION + ","));
+		StringBuilder topFrame = new StringBuilder("\"topFrames\":[{\"frame\":");
+		JsonUiFreezeEventLogger.appendString(topFrame, thread.getStackTrace()[0].toString());
+		topFrame.append(",\"samples\":4}]");
+		assertTrue(line, line.contains(topFrame));
+	}
+
+	@Test
+	public void testCloseWithoutFreezes() {
+		logger.close();
+
+		assertFalse(logger.getFile(0).exists());
+	}
+
+	@Test
+	public void testRollFiles() throws IOException {
+		UiFreezeEvent event = createFreezeEvent();
+		logger.log(event);
+		long eventSize = logger.getFile(0).length();
+		long events = JsonUiFreezeEventLogger.MAX_FILE_SIZE * JsonUiFreezeEventLogger.MAX_FILES / eventSize + 1;
+		for (long i = 0; i < events; i++) {
+			logger.log(event);
+		}
+
+		for (int i = 0; i < JsonUiFreezeEventLogger.MAX_FILES; i++) {
+			File file = logger.getFile(i);
+			assertTrue(file.exists());
+			assertTrue(file.length() <= JsonUiFreezeEventLogger.MAX_FILE_SIZE);
+		}
+		assertFalse(logger.getFile(JsonUiFreezeEventLogger.MAX_FILES).exists());
+	}
+
+	@Test
+	public void testAppendString() {
+		StringBuilder buf = new StringBuilder();
+		JsonUiFreezeEventLogger.appendString(buf, "a\"b\\c\nd\u0001");
+		assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", buf.toString());
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.ui.monitoring.IEventLatencyHistogram;
+import org.junit.Test;
+
+/**
+ * JUnit tests for the {@link LatencyHistogram} and {@link EventLatencyRecorder} classes.
+ */
+public class LatencyHistogramTests {
+
+	@Test
+	public void testBucketBoundaries() {
+		long previousMax = -1;
+		for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+			long max = LatencyHistogram.getBucketMaxLatency(i);
+			assertTrue(max > previousMax);
+			assertEquals(i, LatencyHistogram.getBucketIndex(previousMax + 1));
+			assertEquals(i, LatencyHistogram.getBucketIndex(max));
+			previousMax = max;
+		}
+		assertEquals(LatencyHistogram.MAX_LATENCY, previousMax);
+	}
+
+	@Test
+	public void testRelativePrecision() {
+		for (long latency = 1; latency < LatencyHistogram.MAX_LATENCY; latency = latency * 3 + 1) {
+			long max = LatencyHistogram.getBucketMaxLatency(LatencyHistogram.getBucketIndex(latency));
+			assertTrue(max >= latency);
+			assertTrue(max - latency <= latency / LatencyHistogram.SUB_BUCKET_COUNT);
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram(SWT.Paint, 1);
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		IEventLatencyHistogram snapshot = histogram.snapshot();
+
+		assertEquals(SWT.Paint, snapshot.getEventType());
+		assertEquals(1, snapshot.getNestingLevel());
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(500.5, snapshot.getMeanLatency(), 0);
+		assertWithinPrecision(500, snapshot.getLatencyAtPercentile(50));
+		assertWithinPrecision(990, snapshot.getLatencyAtPercentile(99));
+		assertWithinPrecision(1000, snapshot.getLatencyAtPercentile(100));
+		assertWithinPrecision(1000, snapshot.getMaxLatency());
+		assertEquals(1, snapshot.getLatencyAtPercentile(0));
+	}
+
+	@Test
+	public void testOutOfRangeLatencies() {
+		LatencyHistogram histogram = new LatencyHistogram(SWT.Paint, 1);
+		histogram.record(-1);
+		histogram.record(Long.MAX_VALUE);
+		IEventLatencyHistogram snapshot = histogram.snapshot();
+
+		assertEquals(2, snapshot.getCount());
+		assertEquals(0, snapshot.getLatencyAtPercentile(50));
+		assertEquals(LatencyHistogram.MAX_LATENCY, snapshot.getMaxLatency());
+	}
+
+	@Test
+	public void testEmptyHistogram() {
+		IEventLatencyHistogram snapshot = new LatencyHistogram(SWT.Paint, 1).snapshot();
+
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getMeanLatency(), 0);
+		assertEquals(0, snapshot.getMaxLatency());
+		assertEquals(0, snapshot.getLatencyAtPercentile(99));
+	}
+
+	@Test
+	public void testRecorder() {
+		EventLatencyRecorder recorder = new EventLatencyRecorder();
+		recorder.record(SWT.Selection, 2, 10);
+		recorder.record(SWT.Paint, 1, 20);
+		recorder.record(SWT.Paint, 1, 30);
+		recorder.record(SWT.Paint, EventLatencyRecorder.MAX_NESTING_LEVEL + 3, 40);
+		recorder.record(1000, 1, 50);
+
+		List<IEventLatencyHistogram> histograms = recorder.getHistograms();
+		assertEquals(4, histograms.size());
+		assertHistogram(SWT.None, 1, 1, histograms.get(0));
+		assertHistogram(SWT.Paint, 1, 2, histograms.get(1));
+		assertHistogram(SWT.Paint, EventLatencyRecorder.MAX_NESTING_LEVEL, 1, histograms.get(2));
+		assertHistogram(SWT.Selection, 2, 1, histograms.get(3));
+
+		recorder.reset();
+		assertTrue(recorder.getHistograms().isEmpty());
+	}
+
+	private static void assertHistogram(int eventType, int nestingLevel, long count,
+			IEventLatencyHistogram histogram) {
+		assertEquals(eventType, histogram.getEventType());
+		assertEquals(nestingLevel, histogram.getNestingLevel());
+		assertEquals(count, histogram.getCount());
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue(actual >= expected);
+		assertTrue(actual - expected <= expected / LatencyHistogram.SUB_BUCKET_COUNT);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014 Google Inc and others.
+ * Copyright (C) 2014, 2020 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,9 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	EventLoopMonitorThreadTests.class,
 	FilterHandlerTests.class,
-	DefaultLoggerTests.class})
+	DefaultLoggerTests.class,
+	JsonLoggerTests.class,
+	LatencyHistogramTests.class,
+	UiThreadProfilerTests.class})
 public class MonitoringTestSuite {
 }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * JUnit tests for the {@link UiThreadProfiler} and {@link CallTree} classes.
+ */
+public class UiThreadProfilerTests {
+	private static final String CLASS_NAME = UiThreadProfilerTests.class.getName();
+	private static final long PROFILE_DURATION_MS = 500;
+
+	private volatile boolean stopped;
+	private Thread busyThread;
+
+	@After
+	public void tearDown() throws Exception {
+		stopped = true;
+		if (busyThread != null) {
+			busyThread.join();
+		}
+	}
+
+	private static StackTraceElement frame(String method) {
+		return new StackTraceElement(CLASS_NAME, method, null, -1);
+	}
+
+	@Test
+	public void testFoldedStacks() throws IOException {
+		CallTree tree = new CallTree();
+		// Stacks have the innermost frame first.
+		tree.addSample(new StackTraceElement[] { frame("b"), frame("a") });
+		tree.addSample(new StackTraceElement[] { frame("c"), frame("a") });
+		tree.addSample(new StackTraceElement[] { frame("b"), frame("a") });
+		tree.addSample(new StackTraceElement[] { frame("a") });
+
+		assertEquals(4, tree.getSampleCount());
+		CallTree.Node a = tree.getRoot().getChild(CLASS_NAME + ".a");
+		assertEquals(4, a.getSamples());
+		assertEquals(1, a.getSelfSamples());
+		assertEquals(2, a.getChildren().size());
+		assertEquals(2, a.getChild(CLASS_NAME + ".b").getSelfSamples());
+
+		StringBuilder folded = new StringBuilder();
+		tree.writeFoldedStacks(folded);
+		String path = CLASS_NAME + ".a";
+		assertEquals(path + " 1\n" + path + ';' + CLASS_NAME + ".b 2\n" + path + ';' + CLASS_NAME + ".c 1\n",
+				folded.toString());
+	}
+
+	@Test
+	public void testProfileThread() throws Exception {
+		busyThread = new Thread(this::spin, "Busy Thread");
+		busyThread.start();
+		UiThreadProfiler profiler = new UiThreadProfiler(busyThread.getId(), PROFILE_DURATION_MS,
+				UiThreadProfiler.DEFAULT_SAMPLE_INTERVAL, "", null);
+		profiler.start();
+		profiler.join();
+
+		CallTree tree = profiler.getCallTree();
+		long samples = tree.getSampleCount();
+		assertTrue(samples > PROFILE_DURATION_MS / UiThreadProfiler.DEFAULT_SAMPLE_INTERVAL / 2);
+		assertEquals(0, profiler.getIdleSamples());
+		assertEquals(0, profiler.getFilteredSamples());
+		CallTree.Node run = tree.getRoot().getChild(Thread.class.getName() + ".run");
+		assertNotNull(run);
+		assertNotNull(findNode(run, CLASS_NAME + ".spin"));
+	}
+
+	@Test
+	public void testFilteredSamples() throws Exception {
+		busyThread = new Thread(this::spin, "Busy Thread");
+		busyThread.start();
+		UiThreadProfiler profiler = new UiThreadProfiler(busyThread.getId(), PROFILE_DURATION_MS,
+				UiThreadProfiler.DEFAULT_SAMPLE_INTERVAL, CLASS_NAME + ".spin", null);
+		profiler.start();
+		profiler.join();
+
+		assertEquals(0, profiler.getCallTree().getSampleCount());
+		assertTrue(profiler.getFilteredSamples() > 0);
+	}
+
+	private static CallTree.Node findNode(CallTree.Node node, String method) {
+		if (node.getMethod().equals(method)) {
+			return node;
+		}
+		for (CallTree.Node child : node.getChildren()) {
+			CallTree.Node found = findNode(child, method);
+			if (found != null) {
+				return found;
+			}
+		}
+		return null;
+	}
+
+	private void spin() {
+		while (!stopped) {
+			// Keep the thread busy.
+		}
+	}
+}
@@ -30,6 +30,7 @@ import org.junit.Test;
  * well as maintain the cache properly.
  */
 public class EvaluationCacheTest extends NavigatorTestBase {
+	VisibilityAssistant mockAssistant;
 	EvaluationCache cache;
 
 	public EvaluationCacheTest() {
@@ -41,7 +42,7 @@ public class EvaluationCacheTest extends NavigatorTestBase {
 		super.setUp();
 		INavigatorViewerDescriptor mockViewerDescript = new TestNavigatorViewerDescriptor();
 		INavigatorActivationService mockActivationService = new TestNavigatorActivationService();
-		VisibilityAssistant mockAssistant = new VisibilityAssistant(mockViewerDescript, mockActivationService);
+		mockAssistant = new VisibilityAssistant(mockViewerDescript, mockActivationService);
 
 		cache = new EvaluationCache(mockAssistant);
 	}
@@ -127,6 +128,65 @@ public class EvaluationCacheTest extends NavigatorTestBase {
 		Assert.assertNull(cache.getDescriptors(key, true));
 	}
 
+	@Test
+	public void testSharedEntryForOverrides() {
+		Object key = new Object();
+		NavigatorContentDescriptor[] value1 = new NavigatorContentDescriptor[0];
+		NavigatorContentDescriptor[] value2 = new NavigatorContentDescriptor[0];
+		cache.setDescriptors(key, value1, false);
+		cache.setDescriptors(key, value2, true);
+		Assert.assertSame(value1, cache.getDescriptors(key, false));
+		Assert.assertSame(value2, cache.getDescriptors(key, true));
+		Assert.assertEquals(1, cache.getStatistics().getSize());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		cache = new EvaluationCache(mockAssistant, 10);
+		Object[] keys = new Object[11];
+		NavigatorContentDescriptor[] value = new NavigatorContentDescriptor[0];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Object();
+			cache.setDescriptors(keys[i], value, false);
+		}
+		EvaluationCache.Statistics statistics = cache.getStatistics();
+		Assert.assertEquals(10, statistics.getSize());
+		Assert.assertEquals(1, statistics.getEvictions());
+		Assert.assertNull(cache.getDescriptors(keys[0], false));
+		for (int i = 1; i < keys.length; i++) {
+			Assert.assertSame(value, cache.getDescriptors(keys[i], false));
+		}
+	}
+
+	@Test
+	public void testFrequentlyUsedEntriesAreProtected() {
+		cache = new EvaluationCache(mockAssistant, 10);
+		NavigatorContentDescriptor[] value = new NavigatorContentDescriptor[0];
+		Object frequent = new Object();
+		cache.setDescriptors(frequent, value, false);
+		Assert.assertSame(value, cache.getDescriptors(frequent, false));
+		// Scanning many elements once does not evict the element found again
+		for (int i = 0; i < 100; i++) {
+			cache.setDescriptors(new Object(), value, false);
+		}
+		Assert.assertSame(value, cache.getDescriptors(frequent, false));
+	}
+
+	@Test
+	public void testStatistics() {
+		Object key = new Object();
+		NavigatorContentDescriptor[] value = new NavigatorContentDescriptor[0];
+		Assert.assertNull(cache.getDescriptors(key, false));
+		cache.setDescriptors(key, value, false);
+		Assert.assertSame(value, cache.getDescriptors(key, false));
+		Assert.assertSame(value, cache.getDescriptors(key, false));
+		EvaluationCache.Statistics statistics = cache.getStatistics();
+		Assert.assertEquals(2, statistics.getHits());
+		Assert.assertEquals(1, statistics.getMisses());
+		Assert.assertEquals(0, statistics.getEvictions());
+		Assert.assertEquals(1, statistics.getSize());
+	}
+
 	// TODO Some way to reliably test the clearing of entries. Possibly using
 	// java.lang.ref.Reference#enqueue().
 }
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jface.internal.ImageDataCache;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.swt.graphics.Image;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Measures the creation of images from URL image descriptors whose image data
+ * is found in the {@link ImageDataCache}, in memory or on disk, against the
+ * decoding of the image files measured by {@link FileImageDescriptorTest}.
+ */
+public class ImageDataCacheTest extends FileImageDescriptorTest {
+
+	private static final int IMAGES_PER_DESCRIPTOR = 10;
+
+	private File persistenceDirectory;
+
+	private File previousPersistenceDirectory;
+
+	public ImageDataCacheTest(String testName) {
+		super(testName);
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		previousPersistenceDirectory = ImageDataCache.getDefault().getPersistenceDirectory();
+		persistenceDirectory = Files.createTempDirectory("imageDataCache").toFile();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		ImageDataCache.getDefault().setPersistenceDirectory(previousPersistenceDirectory,
+				ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		ImageDataCache.getDefault().clear();
+		File[] files = persistenceDirectory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		persistenceDirectory.delete();
+		super.doTearDown();
+	}
+
+	/**
+	 * Test the time for creating images whose image data is held in memory,
+	 * as when a resource manager is disposed and recreated.
+	 *
+	 * @throws Throwable
+	 */
+	public void testMemoryCache() throws Throwable {
+		List<ImageDescriptor> descriptors = getURLImageDescriptors();
+		ImageDataCache.getDefault().clear();
+		// Fill the cache
+		for (ImageDescriptor descriptor : descriptors) {
+			descriptor.getImageData(100);
+		}
+
+		exercise(() -> {
+			startMeasuring();
+			createImages(descriptors);
+			stopMeasuring();
+		}, 20, 100, JFacePerformanceSuite.MAX_TIME);
+
+		assertTrue(ImageDataCache.getDefault().getHitRate() > 0.9);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test the time for creating images whose image data is persisted, as on
+	 * startup.
+	 *
+	 * @throws Throwable
+	 */
+	public void testPersistentCache() throws Throwable {
+		List<ImageDescriptor> descriptors = getURLImageDescriptors();
+		ImageDataCache cache = ImageDataCache.getDefault();
+		cache.setPersistenceDirectory(persistenceDirectory, ImageDataCache.DEFAULT_MAX_DISK_SIZE);
+		cache.clear();
+		// Persist the image data
+		createImages(descriptors);
+
+		exercise(() -> {
+			cache.clear();
+			startMeasuring();
+			createImages(descriptors);
+			stopMeasuring();
+			assertTrue(cache.getDiskHitCount() > 0);
+		}, 20, 100, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private List<ImageDescriptor> getURLImageDescriptors() throws IOException {
+		List<ImageDescriptor> descriptors = new ArrayList<>();
+		Bundle bundle = FrameworkUtil.getBundle(getClass());
+		Enumeration<String> bundleEntries = bundle.getEntryPaths(IMAGES_DIRECTORY);
+		while (bundleEntries.hasMoreElements()) {
+			String localImagePath = bundleEntries.nextElement();
+			if (localImagePath.indexOf('.') < 0)
+				continue;
+
+			for (URL file : FileLocator.findEntries(bundle, new Path(localImagePath))) {
+				descriptors.add(ImageDescriptor.createFromURL(FileLocator.toFileURL(file)));
+			}
+		}
+		assertFalse(descriptors.isEmpty());
+		return descriptors;
+	}
+
+	private void createImages(List<ImageDescriptor> descriptors) {
+		List<Image> images = new ArrayList<>();
+		for (ImageDescriptor descriptor : descriptors) {
+			for (int j = 0; j < IMAGES_PER_DESCRIPTOR; j++) {
+				images.add(descriptor.createImage());
+			}
+		}
+		processEvents();
+		for (Image image : images) {
+			image.dispose();
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jface.viewers.deferred.ConcurrentSortedCollection;
+import org.eclipse.jface.viewers.deferred.LazySortedCollection;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Compares {@link LazySortedCollection} and
+ * {@link ConcurrentSortedCollection} while a producer thread adds elements in
+ * batches and the visible window of a virtual table is read after each
+ * batch, as done by the deferred content provider.
+ */
+public class SortedCollectionPerformanceTest extends BasicPerformanceTest {
+
+	private static final int ELEMENTS = 100000;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private static final int WINDOW_SIZE = 50;
+
+	private static final Comparator<Object> COMPARATOR = (o1, o2) -> ((Integer) o1).compareTo((Integer) o2);
+
+	private static Integer[][] batches;
+
+	/**
+	 * @param testName
+	 */
+	public SortedCollectionPerformanceTest(String testName) {
+		super(testName);
+		generateBatches();
+	}
+
+	/**
+	 * Test the lazy binary tree, which needs to be locked by its users
+	 */
+	public void testLazySortedCollection() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			LazySortedCollection collection = new LazySortedCollection(COMPARATOR);
+			startMeasuring();
+			runProducer(batch -> {
+				synchronized (collection) {
+					collection.addAll(batch);
+				}
+			}, () -> {
+				synchronized (collection) {
+					Object[] window = new Object[WINDOW_SIZE];
+					collection.getRange(window, collection.size() / 2, true);
+				}
+			});
+			stopMeasuring();
+			assertEquals(ELEMENTS, collection.size());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test the chunked sorted collection, which locks itself
+	 */
+	public void testConcurrentSortedCollection() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			ConcurrentSortedCollection collection = new ConcurrentSortedCollection(COMPARATOR);
+			startMeasuring();
+			runProducer(collection::addAll, () -> {
+				Object[] window = new Object[WINDOW_SIZE];
+				collection.getRange(window, collection.size() / 2);
+			});
+			stopMeasuring();
+			assertEquals(ELEMENTS, collection.size());
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private interface BatchConsumer {
+		void add(Object[] batch);
+	}
+
+	/**
+	 * Adds all batches from a producer thread, reading a window in the calling
+	 * thread after each batch is added.
+	 */
+	private static void runProducer(BatchConsumer consumer, Runnable readWindow) throws InterruptedException {
+		final Object added = new Object();
+		final int[] addedBatches = new int[1];
+		Thread producer = new Thread(() -> {
+			for (Integer[] batch : batches) {
+				consumer.add(batch);
+				synchronized (added) {
+					addedBatches[0]++;
+					added.notifyAll();
+				}
+			}
+		}, "SortedCollectionPerformanceTest producer"); //$NON-NLS-1$
+		producer.start();
+		int readBatches = 0;
+		while (readBatches < batches.length) {
+			synchronized (added) {
+				while (addedBatches[0] == readBatches) {
+					added.wait();
+				}
+				readBatches = addedBatches[0];
+			}
+			readWindow.run();
+		}
+		producer.join();
+	}
+
+	/**
+	 * Generate the shuffled elements, split in batches
+	 */
+	private static void generateBatches() {
+		if (batches == null) {
+			List<Integer> elements = new ArrayList<>(ELEMENTS);
+			for (int i = 0; i < ELEMENTS; i++) {
+				elements.add(Integer.valueOf(i));
+			}
+			Collections.shuffle(elements, new Random(ELEMENTS));
+			batches = new Integer[ELEMENTS / BATCH_SIZE][];
+			for (int i = 0; i < batches.length; i++) {
+				batches[i] = elements.subList(i * BATCH_SIZE, (i + 1) * BATCH_SIZE).toArray(new Integer[BATCH_SIZE]);
+			}
+		}
+	}
+}
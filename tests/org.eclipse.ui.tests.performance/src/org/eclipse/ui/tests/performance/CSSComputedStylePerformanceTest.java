@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.eclipse.e4.ui.css.core.dom.ElementAdapter;
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.impl.dom.DocumentCSSImpl;
+import org.eclipse.e4.ui.css.core.impl.dom.ViewCSSImpl;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSComputedStyleCache;
+import org.eclipse.e4.ui.css.core.impl.engine.CSSEngineImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.css.ViewCSS;
+
+/**
+ * Measures the computation of the styles of a deep tree of elements, as done
+ * when styling a workbench window, with and without the
+ * {@link CSSComputedStyleCache}.
+ *
+ * @since 3.16
+ */
+@RunWith(JUnit4.class)
+public class CSSComputedStylePerformanceTest extends BasicPerformanceTest {
+
+	private static final int DEPTH = 12;
+
+	private DocumentCSSImpl documentCSS;
+
+	private ViewCSS viewCSS;
+
+	private TestElement root;
+
+	public CSSComputedStylePerformanceTest() {
+		super("CSSComputedStylePerformanceTest");
+	}
+
+	@Before
+	public void createTree() throws IOException {
+		CSSEngine engine = new CSSEngineImpl() {
+			@Override
+			public void reapply() {
+				// nothing to reapply
+			}
+		};
+		documentCSS = new DocumentCSSImpl();
+		documentCSS.addStyleSheet((CSSStyleSheet) engine.parseStyleSheet(new StringReader(createStyleSheet())));
+		viewCSS = new ViewCSSImpl(documentCSS);
+		root = new TestElement("Shell", null, engine);
+		addChildren(root, 0, engine);
+	}
+
+	/**
+	 * Returns a style sheet with as many rules as a theme, most of them with
+	 * descendant selectors.
+	 */
+	private static String createStyleSheet() {
+		StringBuilder css = new StringBuilder();
+		css.append("Shell { background-color: white; }\n");
+		css.append("Button[flat='true'] { background-color: gray; }\n");
+		css.append("#leaf { color: blue; }\n");
+		for (int i = 0; i < DEPTH; i++) {
+			for (int j = i + 1; j < DEPTH; j++) {
+				css.append(".level" + i + " Composite.level" + j + " { color: red; }\n");
+				css.append("Shell .level" + i + " > .level" + j + " Button { font-weight: bold; }\n");
+			}
+		}
+		return css.toString();
+	}
+
+	private static void addChildren(TestElement parent, int level, CSSEngine engine) {
+		if (level == DEPTH) {
+			TestElement button = new TestElement("Button", parent, engine);
+			button.setAttribute("flat", "true");
+			button.id = "leaf";
+			return;
+		}
+		for (int i = 0; i < 2; i++) {
+			TestElement composite = new TestElement("Composite", parent, engine);
+			composite.className = "level" + level;
+			addChildren(composite, level + 1, engine);
+		}
+	}
+
+	@Test
+	public void testUncached() throws Throwable {
+		exercise(() -> {
+			startMeasuring();
+			computeStyles(root, viewCSS::getComputedStyle);
+			stopMeasuring();
+		}, 3, 10, 10000);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	@Test
+	public void testCached() throws Throwable {
+		exercise(() -> {
+			startMeasuring();
+			CSSComputedStyleCache cache = new CSSComputedStyleCache(documentCSS, viewCSS);
+			cache.beginPass();
+			try {
+				computeStyles(root, cache::getComputedStyle);
+			} finally {
+				cache.endPass();
+			}
+			cache.dispose();
+			stopMeasuring();
+		}, 3, 10, 10000);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void computeStyles(Element element, BiFunction<Element, String, CSSStyleDeclaration> view) {
+		view.apply(element, null);
+		NodeList children = element.getChildNodes();
+		for (int i = 0; i < children.getLength(); i++) {
+			computeStyles((Element) children.item(i), view);
+		}
+	}
+
+	private static class TestElement extends ElementAdapter {
+
+		private final String localName;
+
+		private final Node parentNode;
+
+		private final List<Node> children = new ArrayList<>();
+
+		private final List<String[]> attributes = new ArrayList<>();
+
+		String className;
+
+		String id;
+
+		TestElement(String localName, TestElement parent, CSSEngine engine) {
+			super(null, engine);
+			this.localName = localName;
+			this.parentNode = parent;
+			if (parent != null) {
+				parent.children.add(this);
+			}
+		}
+
+		@Override
+		public void setAttribute(String name, String value) {
+			attributes.add(new String[] { name, value });
+		}
+
+		@Override
+		public String getAttribute(String name) {
+			for (String[] attribute : attributes) {
+				if (attribute[0].equals(name)) {
+					return attribute[1];
+				}
+			}
+			return "";
+		}
+
+		@Override
+		public boolean hasAttribute(String name) {
+			for (String[] attribute : attributes) {
+				if (attribute[0].equals(name)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public String getLocalName() {
+			return localName;
+		}
+
+		@Override
+		public String getNamespaceURI() {
+			return null;
+		}
+
+		@Override
+		public Node getParentNode() {
+			return parentNode;
+		}
+
+		@Override
+		public NodeList getChildNodes() {
+			return new NodeList() {
+				@Override
+				public Node item(int index) {
+					return children.get(index);
+				}
+
+				@Override
+				public int getLength() {
+					return children.size();
+				}
+			};
+		}
+
+		@Override
+		public String getCSSClass() {
+			return className;
+		}
+
+		@Override
+		public String getCSSId() {
+			return id;
+		}
+
+		@Override
+		public String getCSSStyle() {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.internal.databinding.observable.ListDiffComputer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Compares the move-aware and the indexed list diff algorithms behind
+ * {@link org.eclipse.core.databinding.observable.Diffs#computeListDiff(List, List)}
+ * on shuffled, appended and reversed lists.
+ *
+ * @since 3.16
+ */
+@RunWith(Parameterized.class)
+public class ListDiffPerformanceTest extends BasicPerformanceTest {
+
+	private static final int SIZE = 5000;
+
+	private final String scenario;
+
+	private final boolean indexed;
+
+	@Parameters
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] { { "shuffled", false }, { "shuffled", true }, { "appended", false },
+				{ "appended", true }, { "reversed", false }, { "reversed", true } });
+	}
+
+	/**
+	 * @param scenario how the new list is derived from the old list
+	 * @param indexed  <code>true</code> to measure the indexed algorithm,
+	 *                 <code>false</code> for the move-aware one
+	 */
+	public ListDiffPerformanceTest(String scenario, boolean indexed) {
+		super("ListDiff[" + scenario + "]Indexed[" + indexed + "]");
+		this.scenario = scenario;
+		this.indexed = indexed;
+	}
+
+	@Test
+	public void test() throws Throwable {
+		final List<Object> oldList = new ArrayList<>(SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			oldList.add("element" + i);
+		}
+		final List<Object> newList = new ArrayList<>(oldList);
+		switch (scenario) {
+		case "shuffled":
+			Collections.shuffle(newList, new Random(SIZE));
+			break;
+		case "appended":
+			for (int i = 0; i < SIZE; i++) {
+				newList.add("appended" + i);
+			}
+			break;
+		default:
+			Collections.reverse(newList);
+			break;
+		}
+
+		exercise(() -> {
+			startMeasuring();
+			if (indexed) {
+				ListDiffComputer.computeIndexedDifferences(oldList, newList, false);
+			} else {
+				ListDiffComputer.computeMoveDifferences(oldList, newList, false);
+			}
+			stopMeasuring();
+		}, 3, 20, 10000);
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.eclipse.e4.core.contexts.EclipseContextFactory;
+import org.eclipse.e4.core.contexts.IEclipseContext;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.internal.workbench.UIEventPublisher;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.workbench.UIEvents;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.ui.PlatformUI;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Measures sending the events of model changes through the event broker, as
+ * done for each change of the workbench model. Also prints the events sent per
+ * second and the bytes allocated per event, when the VM can measure them.
+ *
+ * @since 3.16
+ */
+@RunWith(JUnit4.class)
+public class ModelEventPerformanceTest extends BasicPerformanceTest {
+
+	private static final int EVENTS = 20000;
+
+	public ModelEventPerformanceTest() {
+		super("ModelEventPerformanceTest");
+	}
+
+	@Test
+	public void test() throws Throwable {
+		IEventBroker eventBroker = PlatformUI.getWorkbench().getService(IEventBroker.class);
+		IEclipseContext context = EclipseContextFactory.create();
+		context.set(IEventBroker.class, eventBroker);
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		UIEventPublisher publisher = new UIEventPublisher(context);
+		((Notifier) part).eAdapters().add(publisher);
+
+		final int[] received = new int[1];
+		EventHandler handler = event -> {
+			if (event.getProperty(UIEvents.EventTags.ELEMENT) == part) {
+				received[0]++;
+			}
+		};
+		eventBroker.subscribe(UIEvents.UILabel.TOPIC_LABEL, handler);
+		try {
+			ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+			boolean measureAllocation = threadBean instanceof com.sun.management.ThreadMXBean;
+			long[] allocated = new long[1];
+			long[] elapsed = new long[1];
+			int[] runs = new int[1];
+			exercise(() -> {
+				received[0] = 0;
+				long allocatedBefore = getAllocatedBytes(threadBean);
+				long start = System.nanoTime();
+				startMeasuring();
+				for (int i = 0; i < EVENTS; i++) {
+					part.setLabel(i % 2 == 0 ? "even" : "odd");
+				}
+				stopMeasuring();
+				elapsed[0] += System.nanoTime() - start;
+				allocated[0] += getAllocatedBytes(threadBean) - allocatedBefore;
+				runs[0]++;
+				assertEquals(EVENTS, received[0]);
+			}, 3, 20, 10000);
+			commitMeasurements();
+			assertPerformance();
+
+			long events = (long) EVENTS * runs[0];
+			String result = "ModelEventPerformanceTest: " + events * 1000000000L / elapsed[0] + " events/s";
+			if (measureAllocation) {
+				result += ", " + allocated[0] / events + " bytes/event";
+			}
+			System.out.println(result);
+		} finally {
+			eventBroker.unsubscribe(handler);
+			((Notifier) part).eAdapters().remove(publisher);
+			context.dispose();
+		}
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread, or 0 if the VM cannot
+	 *         tell
+	 */
+	private static long getAllocatedBytes(ThreadMXBean threadBean) {
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadBean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2014 IBM Corporation and others.
+ * Copyright (c) 2004, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -57,7 +57,11 @@ public class OpenClosePerspectiveTest extends BasicPerformanceTest {
 	}
 
 	public OpenClosePerspectiveTest(String id, int tagging) {
-		super("testOpenClosePerspectives:" + id, tagging);
+		this("testOpenClosePerspectives:" + id, id, tagging);
+	}
+
+	protected OpenClosePerspectiveTest(String testName, String id, int tagging) {
+		super(testName, tagging);
 		this.id = id;
 	}
 
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import static org.junit.Assert.fail;
+
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.operations.AbstractOperation;
+import org.eclipse.core.commands.operations.DefaultOperationHistory;
+import org.eclipse.core.commands.operations.IOperationHistory;
+import org.eclipse.core.commands.operations.IUndoableOperation;
+import org.eclipse.core.commands.operations.ObjectUndoContext;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Measures an operation history shared by many undo contexts, as with many
+ * open editors: executing operations in each context, undoing them and
+ * disposing the contexts.
+ *
+ * @since 3.16
+ */
+@RunWith(JUnit4.class)
+public class OperationHistoryPerformanceTest extends BasicPerformanceTest {
+
+	private static final int CONTEXTS = 5000;
+
+	private static final int OPERATIONS_PER_CONTEXT = 10;
+
+	public OperationHistoryPerformanceTest() {
+		super("OperationHistoryPerformanceTest");
+	}
+
+	@Test
+	public void test() throws Throwable {
+		ObjectUndoContext[] contexts = new ObjectUndoContext[CONTEXTS];
+		for (int i = 0; i < CONTEXTS; i++) {
+			contexts[i] = new ObjectUndoContext("Editor " + i);
+		}
+		exercise(() -> {
+			IOperationHistory history = new DefaultOperationHistory();
+			startMeasuring();
+			try {
+				for (int j = 0; j < OPERATIONS_PER_CONTEXT; j++) {
+					for (ObjectUndoContext context : contexts) {
+						IUndoableOperation operation = new NullOperation();
+						operation.addContext(context);
+						history.execute(operation, null, null);
+					}
+				}
+				for (ObjectUndoContext context : contexts) {
+					history.undo(context, null, null);
+				}
+			} catch (ExecutionException e) {
+				fail(e.getMessage());
+			}
+			for (ObjectUndoContext context : contexts) {
+				history.dispose(context, true, true, true);
+			}
+			stopMeasuring();
+		}, 3, 10, 10000);
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static class NullOperation extends AbstractOperation {
+
+		NullOperation() {
+			super("Null");
+		}
+
+		@Override
+		public IStatus execute(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus redo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+			return Status.OK_STATUS;
+		}
+
+		@Override
+		public IStatus undo(IProgressMonitor monitor, IAdaptable info) throws ExecutionException {
+			return Status.OK_STATUS;
+		}
+	}
+}
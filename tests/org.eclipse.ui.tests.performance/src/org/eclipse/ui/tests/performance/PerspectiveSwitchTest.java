@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -59,7 +59,11 @@ public class PerspectiveSwitchTest extends BasicPerformanceTest {
 	}
 
 	public PerspectiveSwitchTest(String id1, String id2, String activeEditor) {
-		super("testPerspectiveSwitch:" + id1 + "," + id2 + ",editor " + activeEditor, BasicPerformanceTest.NONE);
+		this("testPerspectiveSwitch:" + id1 + "," + id2 + ",editor " + activeEditor, id1, id2, activeEditor);
+	}
+
+	protected PerspectiveSwitchTest(String testName, String id1, String id2, String activeEditor) {
+		super(testName, BasicPerformanceTest.NONE);
 		this.id1 = id1;
 		this.id2 = id2;
 		this.activeEditor = activeEditor;
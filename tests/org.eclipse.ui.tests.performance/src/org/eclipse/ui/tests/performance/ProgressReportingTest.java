@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2019 Stefan Xenos and others.
+ * Copyright (c) 2016, 2020 Stefan Xenos and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.ui.tests.performance;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
@@ -21,6 +22,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.test.performance.Dimension;
+import org.eclipse.ui.IPageLayout;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.internal.IPreferenceConstants;
@@ -62,6 +64,19 @@ public class ProgressReportingTest extends BasicPerformanceTest {
 	 * results during profiling.
 	 */
 	public static final int MAX_ITERATIONS = 100;
+
+	/**
+	 * Number of jobs scheduled by the job throughput tests, as many as a large
+	 * build or import spawns.
+	 */
+	public static final int SHORT_JOB_COUNT = 2000;
+
+	/**
+	 * Number of progress reports of each job scheduled by the job throughput
+	 * tests.
+	 */
+	public static final int SHORT_JOB_ITERATIONS = 1000;
+
 	private volatile boolean isDone;
 	private Display display;
 
@@ -229,6 +244,37 @@ public class ProgressReportingTest extends BasicPerformanceTest {
 		});
 	}
 
+	/**
+	 * Test the throughput of many short jobs calling monitor.worked and
+	 * monitor.subTask concurrently while the Progress view shows them
+	 */
+	public void testShortJobsWithProgressView() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		window.getActivePage().showView(IPageLayout.ID_PROGRESS_VIEW);
+		setRunInBackground(true);
+		runAsyncTest(() -> {
+			AtomicInteger remainingJobs = new AtomicInteger(SHORT_JOB_COUNT);
+			for (int j = 0; j < SHORT_JOB_COUNT; j++) {
+				Job.create("Test Job " + j, monitor -> {
+					monitor.beginTask("Test Job", SHORT_JOB_ITERATIONS);
+					int i = 0;
+					while (i < SHORT_JOB_ITERATIONS) {
+						if (i % 100 == 0) {
+							monitor.subTask(Integer.toString(i));
+						}
+						monitor.worked(1);
+						i++;
+					}
+					monitor.done();
+
+					if (remainingJobs.decrementAndGet() == 0) {
+						endAsyncTest();
+					}
+				}).schedule();
+			}
+		});
+	}
+
 	/**
 	 * Test the cost of subMonitor.split(). Note that if
 	 * {@link SubMonitor#split} is performing cancellation checks at the correct
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,7 +36,9 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
 		addTestSuite(GenerateIdentifiersTest.class);
 		addTest(new WorkbenchPerformanceSuite());
 		addTest(new JUnit4TestAdapter(OpenClosePerspectiveTest.class));
+		addTest(new JUnit4TestAdapter(UnbatchedOpenClosePerspectiveTest.class));
 		addTest(new JUnit4TestAdapter(PerspectiveSwitchTest.class));
+		addTest(new JUnit4TestAdapter(UnbatchedPerspectiveSwitchTest.class));
 		addTest(new JUnit4TestAdapter(OpenCloseWindowTest.class));
 		addTest(new ViewPerformanceSuite());
 		addTest(new JUnit4TestAdapter(OpenCloseEditorTest.class));
@@ -46,5 +48,10 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
 		addTest(new JUnit4TestAdapter(LabelProviderTest.class));
 		addTestSuite(ProgressReportingTest.class);
 		addTestSuite(OpenProjectExplorerFolderTest.class);
+		addTest(new JUnit4TestAdapter(ListDiffPerformanceTest.class));
+		addTest(new JUnit4TestAdapter(WorkbenchModelLoadTest.class));
+		addTest(new JUnit4TestAdapter(ModelEventPerformanceTest.class));
+		addTest(new JUnit4TestAdapter(OperationHistoryPerformanceTest.class));
+		addTest(new JUnit4TestAdapter(CSSComputedStylePerformanceTest.class));
 	}
 }
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Measures opening and closing the perspectives of
+ * {@link OpenClosePerspectiveTest} with the batch rendering of the part
+ * rendering engine disabled, so that each widget is styled and laid out when
+ * it is created.
+ */
+@RunWith(Parameterized.class)
+public class UnbatchedOpenClosePerspectiveTest extends OpenClosePerspectiveTest {
+
+	/**
+	 * The system property disabling the batch rendering of the
+	 * PartRenderingEngine
+	 */
+	static final String DISABLE_BATCH_RENDERING = "org.eclipse.e4.ui.workbench.swt.disableBatchRendering";
+
+	public UnbatchedOpenClosePerspectiveTest(String id, int tagging) {
+		super("testUnbatchedOpenClosePerspectives:" + id, id, BasicPerformanceTest.NONE);
+	}
+
+	@Override
+	@Test
+	public void test() throws Throwable {
+		System.setProperty(DISABLE_BATCH_RENDERING, Boolean.TRUE.toString());
+		try {
+			super.test();
+		} finally {
+			System.clearProperty(DISABLE_BATCH_RENDERING);
+		}
+	}
+}
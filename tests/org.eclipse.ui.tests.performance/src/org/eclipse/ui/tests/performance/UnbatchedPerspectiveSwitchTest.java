@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.WorkbenchException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Measures the perspective switches of {@link PerspectiveSwitchTest} with the
+ * batch rendering of the part rendering engine disabled.
+ */
+@RunWith(Parameterized.class)
+public class UnbatchedPerspectiveSwitchTest extends PerspectiveSwitchTest {
+
+	public UnbatchedPerspectiveSwitchTest(String id1, String id2, String activeEditor) {
+		super("testUnbatchedPerspectiveSwitch:" + id1 + "," + id2 + ",editor " + activeEditor, id1, id2,
+				activeEditor);
+	}
+
+	@Override
+	@Test
+	public void test() throws CoreException, WorkbenchException {
+		System.setProperty(UnbatchedOpenClosePerspectiveTest.DISABLE_BATCH_RENDERING, Boolean.TRUE.toString());
+		try {
+			super.test();
+		} finally {
+			System.clearProperty(UnbatchedOpenClosePerspectiveTest.DISABLE_BATCH_RENDERING);
+		}
+	}
+}
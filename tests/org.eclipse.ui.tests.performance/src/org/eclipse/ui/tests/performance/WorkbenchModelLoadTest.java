@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.performance;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
+import org.eclipse.e4.ui.internal.workbench.E4XMIResourceFactory;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Measures loading a large workbench model, as done at startup, from XMI and
+ * from the binary snapshot format.
+ *
+ * @since 3.16
+ */
+@RunWith(Parameterized.class)
+public class WorkbenchModelLoadTest extends BasicPerformanceTest {
+
+	private static final int PERSPECTIVES = 20;
+
+	private static final int STACKS = 5;
+
+	private static final int PARTS = 20;
+
+	private final boolean binary;
+
+	@Parameters
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] { { Boolean.FALSE }, { Boolean.TRUE } });
+	}
+
+	/**
+	 * @param binary <code>true</code> to load the binary snapshot,
+	 *               <code>false</code> to load XMI
+	 */
+	public WorkbenchModelLoadTest(Boolean binary) {
+		super("WorkbenchModelLoad[binary=" + binary + "]");
+		this.binary = binary.booleanValue();
+	}
+
+	@Test
+	public void test() throws Throwable {
+		final File file = File.createTempFile("workbench", binary ? ".bin" : ".xmi");
+		try {
+			final URI uri = URI.createFileURI(file.getAbsolutePath());
+			Map<String, Object> options = new HashMap<>();
+			options.put(E4XMIResource.OPTION_FILTER_PERSIST_STATE, Boolean.TRUE);
+			options.put(XMLResource.OPTION_BINARY, Boolean.valueOf(binary));
+			Resource resource = new E4XMIResourceFactory().createResource(uri);
+			resource.getContents().add((EObject) createApplication());
+			try (OutputStream outputStream = new FileOutputStream(file)) {
+				resource.save(outputStream, options);
+			}
+
+			final Map<String, Object> loadOptions = Collections.singletonMap(XMLResource.OPTION_BINARY,
+					Boolean.valueOf(binary));
+			exercise(() -> {
+				Resource loaded = new E4XMIResourceFactory().createResource(uri);
+				startMeasuring();
+				try (InputStream inputStream = new FileInputStream(file)) {
+					loaded.load(inputStream, loadOptions);
+				}
+				stopMeasuring();
+				MApplication application = (MApplication) loaded.getContents().get(0);
+				assertEquals(1, application.getChildren().size());
+			}, 3, 20, 10000);
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			file.delete();
+		}
+	}
+
+	private static MApplication createApplication() {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		application.getChildren().add(window);
+		MPerspectiveStack perspectiveStack = MAdvancedFactory.INSTANCE.createPerspectiveStack();
+		window.getChildren().add(perspectiveStack);
+		for (int i = 0; i < PERSPECTIVES; i++) {
+			MPerspective perspective = MAdvancedFactory.INSTANCE.createPerspective();
+			perspective.setElementId("perspective" + i);
+			perspectiveStack.getChildren().add(perspective);
+			for (int j = 0; j < STACKS; j++) {
+				MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+				stack.setElementId("stack" + i + "." + j);
+				perspective.getChildren().add(stack);
+				for (int k = 0; k < PARTS; k++) {
+					MPart part = MBasicFactory.INSTANCE.createPart();
+					part.setElementId("part" + i + "." + j + "." + k);
+					part.setLabel("Part " + k);
+					part.setContributionURI("bundleclass://org.eclipse.ui.tests.performance/Part" + k);
+					part.getTags().add("View");
+					part.getPersistedState().put("memento", "<memento id=\"" + k + "\"/>");
+					stack.getChildren().add(part);
+				}
+				stack.setSelectedElement(stack.getChildren().get(0));
+			}
+		}
+		return application;
+	}
+}
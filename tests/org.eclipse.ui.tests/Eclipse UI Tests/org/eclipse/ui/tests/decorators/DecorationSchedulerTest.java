@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jface.viewers.DecorationContext;
+import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.decorators.DecorationScheduler;
+import org.eclipse.ui.internal.decorators.DecoratorDefinition;
+import org.eclipse.ui.internal.decorators.DecoratorManager;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests the decoration jobs of the {@link DecorationScheduler}.
+ */
+@RunWith(JUnit4.class)
+public class DecorationSchedulerTest extends UITestCase {
+
+	private static final String CONCURRENT_DECORATOR = "org.eclipse.ui.tests.decorators.concurrentSchedulerDecorator";
+
+	private static final String SERIAL_DECORATOR = "org.eclipse.ui.tests.decorators.serialSchedulerDecorator";
+
+	/**
+	 * The elements decorated by the test decorators.
+	 */
+	public static class ScheduledElement {
+
+		private final int index;
+
+		ScheduledElement(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String toString() {
+			return "ScheduledElement " + index;
+		}
+	}
+
+	private DecorationScheduler scheduler;
+
+	/**
+	 * The test elements of each label update, in the order they were fired
+	 */
+	private final List<List<Object>> updates = new ArrayList<>();
+
+	private final ILabelProviderListener listener = event -> {
+		if (event.getElements() == null) {
+			return;
+		}
+		List<Object> elements = new ArrayList<>();
+		for (Object element : event.getElements()) {
+			if (element instanceof ScheduledElement) {
+				elements.add(element);
+			}
+		}
+		if (!elements.isEmpty()) {
+			updates.add(elements);
+		}
+	};
+
+	public DecorationSchedulerTest() {
+		super(DecorationSchedulerTest.class.getSimpleName());
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		SchedulerTestDecorator.delay = 0;
+		if (SchedulerTestDecorator.Concurrent.instance != null) {
+			SchedulerTestDecorator.Concurrent.instance.reset();
+		}
+		if (SchedulerTestDecorator.Serial.instance != null) {
+			SchedulerTestDecorator.Serial.instance.reset();
+		}
+		setDecoratorsEnabled(true);
+		getDecoratorManager().addListener(listener);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		if (scheduler != null) {
+			scheduler.shutdown();
+		}
+		getDecoratorManager().removeListener(listener);
+		setDecoratorsEnabled(false);
+		super.doTearDown();
+	}
+
+	private DecoratorManager getDecoratorManager() {
+		return WorkbenchPlugin.getDefault().getDecoratorManager();
+	}
+
+	private void setDecoratorsEnabled(boolean enabled) {
+		for (DecoratorDefinition definition : getDecoratorManager().getAllDecoratorDefinitions()) {
+			if (definition.getId().equals(CONCURRENT_DECORATOR) || definition.getId().equals(SERIAL_DECORATOR)) {
+				definition.setEnabled(enabled);
+			}
+		}
+		getDecoratorManager().clearCaches();
+		getDecoratorManager().updateForEnablementChange();
+	}
+
+	/**
+	 * Queues the given number of elements for decoration and waits until all of
+	 * their labels have been updated.
+	 */
+	private void decorate(int count) {
+		Set<Object> elements = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			ScheduledElement element = new ScheduledElement(i);
+			elements.add(element);
+			scheduler.decorateWithText("", element, null, DecorationContext.DEFAULT_CONTEXT);
+		}
+		Set<Object> updated = new HashSet<>();
+		boolean done = processEventsUntil(() -> {
+			for (List<Object> update : updates) {
+				updated.addAll(update);
+			}
+			return updated.containsAll(elements);
+		}, 30000);
+		assertTrue("Not all elements were decorated", done);
+	}
+
+	@Test
+	public void testWorkersDecorateConcurrently() {
+		SchedulerTestDecorator.delay = 10;
+		scheduler = new DecorationScheduler(getDecoratorManager(), 4);
+		decorate(40);
+
+		assertTrue("The decoration jobs did not run in parallel",
+				SchedulerTestDecorator.Concurrent.instance.getMaxRunning() > 1);
+	}
+
+	@Test
+	public void testNonConcurrentDecoratorIsSerialized() {
+		SchedulerTestDecorator.delay = 10;
+		scheduler = new DecorationScheduler(getDecoratorManager(), 4);
+		decorate(40);
+
+		assertTrue(SchedulerTestDecorator.Concurrent.instance.getMaxRunning() > 1);
+		assertEquals("A non concurrent decorator was called by several jobs at once", 1,
+				SchedulerTestDecorator.Serial.instance.getMaxRunning());
+	}
+
+	/**
+	 * The labels are updated as soon as enough elements are decorated, not only
+	 * once the queue is empty.
+	 */
+	@Test
+	public void testUpdatesArePublishedInBatches() {
+		int count = 3 * DecorationScheduler.PUBLISH_BATCH_SIZE;
+		SchedulerTestDecorator.delay = 1;
+		scheduler = new DecorationScheduler(getDecoratorManager(), 1);
+		decorate(count);
+
+		assertTrue("The labels were updated only once", updates.size() > 1);
+		int firstBatch = updates.get(0).size();
+		assertTrue("The first update came before " + DecorationScheduler.PUBLISH_BATCH_SIZE
+				+ " elements were decorated: " + firstBatch, firstBatch >= DecorationScheduler.PUBLISH_BATCH_SIZE);
+		assertTrue("The first update came after all elements were decorated", firstBatch < count);
+	}
+}
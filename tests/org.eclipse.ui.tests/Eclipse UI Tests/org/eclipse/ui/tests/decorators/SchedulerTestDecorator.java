@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.jface.viewers.ILightweightLabelDecorator;
+
+/**
+ * A slow lightweight decorator which records how many decoration jobs call it
+ * at the same time.
+ */
+public abstract class SchedulerTestDecorator implements ILightweightLabelDecorator {
+
+	/**
+	 * The time spent by each call to decorate, in milliseconds
+	 */
+	public static volatile int delay;
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	@Override
+	public void decorate(Object element, IDecoration decoration) {
+		maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			running.decrementAndGet();
+		}
+		decoration.addSuffix(" " + getClass().getSimpleName());
+	}
+
+	/**
+	 * @return the largest number of calls to decorate which ran at the same time
+	 */
+	public int getMaxRunning() {
+		return maxRunning.get();
+	}
+
+	public void reset() {
+		maxRunning.set(0);
+	}
+
+	@Override
+	public void addListener(ILabelProviderListener listener) {
+	}
+
+	@Override
+	public void dispose() {
+	}
+
+	@Override
+	public boolean isLabelProperty(Object element, String property) {
+		return false;
+	}
+
+	@Override
+	public void removeListener(ILabelProviderListener listener) {
+	}
+
+	/**
+	 * Declared as a concurrent decorator.
+	 */
+	public static class Concurrent extends SchedulerTestDecorator {
+
+		public static volatile Concurrent instance;
+
+		public Concurrent() {
+			instance = this;
+		}
+	}
+
+	/**
+	 * Declared without the concurrent flag.
+	 */
+	public static class Serial extends SchedulerTestDecorator {
+
+		public static volatile Serial instance;
+
+		public Serial() {
+			instance = this;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.dialogs;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+import org.eclipse.ui.internal.ide.ResourceNameIndex;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests the index of resource names used by the Open Resource dialog.
+ */
+@RunWith(JUnit4.class)
+public class ResourceNameIndexTest extends UITestCase {
+
+	private IProject project;
+
+	private ResourceNameIndex index;
+
+	public ResourceNameIndexTest() {
+		super(ResourceNameIndexTest.class.getSimpleName());
+	}
+
+	@Override
+	public void doSetUp() throws Exception {
+		super.doSetUp();
+		project = ResourcesPlugin.getWorkspace().getRoot()
+				.getProject(getClass().getSimpleName() + System.currentTimeMillis());
+		project.create(null);
+		project.open(null);
+		index = IDEWorkbenchPlugin.getDefault().getResourceNameIndex();
+		Assert.assertTrue(DisplayHelper.waitForCondition(fWorkbench.getDisplay(), 30000, index::isReady));
+	}
+
+	@Override
+	public void doTearDown() throws Exception {
+		super.doTearDown();
+		project.delete(true, null);
+	}
+
+	private List<IResource> findCandidates(String pattern) {
+		SearchPattern searchPattern = new SearchPattern();
+		searchPattern.setPattern(pattern);
+		return index.findCandidates(ResourcesPlugin.getWorkspace().getRoot(), searchPattern.getPattern(),
+				searchPattern.getMatchRule());
+	}
+
+	private IFile createFile(IFolder folder, String name) throws CoreException {
+		IFile file = folder.getFile(name);
+		file.create(new ByteArrayInputStream(new byte[0]), true, null);
+		return file;
+	}
+
+	@Test
+	public void testFollowsChanges() throws CoreException {
+		IFolder folder = project.getFolder("folder");
+		folder.create(true, true, null);
+		IFile file = createFile(folder, "ResourceNameIndexedFile.txt");
+		IFile other = createFile(folder, "other.txt");
+
+		List<IResource> candidates = findCandidates("ResNIF");
+		Assert.assertTrue(candidates.contains(file));
+		Assert.assertFalse(candidates.contains(other));
+		Assert.assertTrue(findCandidates("resourcenameindexed").contains(file));
+		Assert.assertTrue(findCandidates("*indexedfile*").contains(file));
+		Assert.assertTrue(findCandidates("ResNIF.t").contains(file));
+
+		file.delete(true, null);
+		Assert.assertFalse(findCandidates("ResNIF").contains(file));
+
+		IFile added = createFile(folder, "ResourceNameIndexedFileAdded.txt");
+		Assert.assertTrue(findCandidates("ResNIF").contains(added));
+
+		folder.delete(true, null);
+		Assert.assertFalse(findCandidates("ResNIF").contains(added));
+		Assert.assertFalse(findCandidates("other").contains(other));
+	}
+
+	@Test
+	public void testClosedProject() throws CoreException {
+		IFolder folder = project.getFolder("folder");
+		folder.create(true, true, null);
+		IFile file = createFile(folder, "ResourceNameIndexedFile.txt");
+
+		project.close(null);
+		Assert.assertFalse(findCandidates("ResNIF").contains(file));
+
+		project.open(null);
+		Assert.assertTrue(findCandidates("ResNIF").contains(file));
+	}
+
+	@Test
+	public void testScope() throws CoreException {
+		IFolder folder = project.getFolder("folder");
+		folder.create(true, true, null);
+		IFile file = createFile(folder, "ResourceNameIndexedFile.txt");
+		IFolder otherFolder = project.getFolder("otherFolder");
+		otherFolder.create(true, true, null);
+
+		SearchPattern searchPattern = new SearchPattern();
+		searchPattern.setPattern("ResNIF");
+		Assert.assertTrue(index.findCandidates(folder, searchPattern.getPattern(), searchPattern.getMatchRule())
+				.contains(file));
+		Assert.assertFalse(index
+				.findCandidates(otherFolder, searchPattern.getPattern(), searchPattern.getMatchRule())
+				.contains(file));
+	}
+}
@@ -21,6 +21,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jface.viewers.StructuredSelection;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredResourcesSelectionDialog;
 import org.eclipse.ui.tests.harness.util.DisplayHelper;
@@ -76,6 +77,35 @@ public class ResourceSelectionFilteringDialogTest extends UITestCase {
 		}
 	}
 
+	@Test
+	public void testMatchManyFiles() throws Exception {
+		// enough files for the cached items to be filtered in parallel
+		File folder = new File(project.getLocation().toFile(), "many");
+		folder.mkdirs();
+		for (int i = 0; i < 6000; i++) {
+			new File(folder, "file" + i + ".txt").createNewFile();
+		}
+		project.refreshLocal(IResource.DEPTH_INFINITE, null);
+		IFile firstFile = project.getFile("many/file0.txt");
+		IFile file = project.getFile("many/file1.txt");
+		SeeThroughFilteredResourcesSelectionDialog dialog = createDialog();
+		try {
+			dialog.setInitialPattern("file");
+			dialog.open();
+			dialog.refresh();
+			Assert.assertTrue(DisplayHelper.waitForCondition(dialog.getShell().getDisplay(), 10000,
+					() -> firstFile.equals(dialog.getSelectedItems().getFirstElement())));
+
+			// the narrowed pattern only filters the previous results, and the best
+			// match is selected, even if a first page was shown before
+			((Text) dialog.getPatternControl()).setText("file1");
+			Assert.assertTrue(DisplayHelper.waitForCondition(dialog.getShell().getDisplay(), 10000,
+					() -> file.equals(dialog.getSelectedItems().getFirstElement())));
+		} finally {
+			dialog.close();
+		}
+	}
+
 	@Override
 	public void doTearDown() throws Exception {
 		super.doTearDown();
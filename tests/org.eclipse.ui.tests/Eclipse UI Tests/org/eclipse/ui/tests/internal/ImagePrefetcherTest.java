@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.model.application.ui.menu.MDirectToolItem;
+import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
+import org.eclipse.e4.ui.model.application.ui.menu.MToolBar;
+import org.eclipse.jface.internal.ImageDataCache;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.resource.ResourceLocator;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.internal.ImagePrefetcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ImagePrefetcher}.
+ */
+public class ImagePrefetcherTest {
+
+	private static final String PLUGIN_ID = "org.eclipse.ui.tests";
+
+	private static final String ICON_URI = "platform:/plugin/" + PLUGIN_ID + "/icons/";
+
+	private final ImageDataCache cache = ImageDataCache.getDefault();
+
+	@Before
+	public void setUp() {
+		cache.clear();
+	}
+
+	@After
+	public void tearDown() {
+		cache.clear();
+	}
+
+	@Test
+	public void testPrefetch() {
+		List<ImageDescriptor> descriptors = Arrays.asList(getImage("icons/anything.gif"),
+				getImage("icons/view.gif"), getImage("icons/editor.gif"));
+		ImagePrefetcher prefetcher = new ImagePrefetcher(descriptors, new int[] { 100 }, cache);
+		prefetcher.prefetch(new NullProgressMonitor());
+
+		assertEquals(3, prefetcher.getDecodedCount());
+		assertEquals(3, cache.getEntryCount());
+		long hitCount = cache.getHitCount();
+		for (ImageDescriptor descriptor : descriptors) {
+			descriptor.createImage().dispose();
+		}
+		assertTrue(cache.getHitCount() > hitCount);
+	}
+
+	@Test
+	public void testScheduleModelIcons() throws Exception {
+		MApplication application = MApplicationFactory.INSTANCE.createApplication();
+		MTrimmedWindow window = MBasicFactory.INSTANCE.createTrimmedWindow();
+		application.getChildren().add(window);
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.setIconURI(ICON_URI + "view.gif");
+		MToolBar toolBar = MMenuFactory.INSTANCE.createToolBar();
+		MDirectToolItem toolItem = MMenuFactory.INSTANCE.createDirectToolItem();
+		toolItem.setIconURI(ICON_URI + "dynamic.gif");
+		toolBar.getChildren().add(toolItem);
+		MDirectToolItem sameIconItem = MMenuFactory.INSTANCE.createDirectToolItem();
+		sameIconItem.setIconURI(ICON_URI + "view.gif");
+		toolBar.getChildren().add(sameIconItem);
+		part.setToolbar(toolBar);
+		window.getChildren().add(part);
+
+		ImagePrefetcher prefetcher = ImagePrefetcher.schedule(Display.getDefault(), application,
+				Arrays.asList(getImage("icons/editor.gif")), Arrays.asList(getImage("icons/view.gif")));
+		assumeNotNull(prefetcher);
+		Job.getJobManager().join(prefetcher, null);
+
+		// view.gif, dynamic.gif and editor.gif, at least at 100%
+		assertTrue(prefetcher.getDecodedCount() >= 3);
+		assertTrue(cache.getEntryCount() >= 3);
+		assertTrue(cache.canProvide(new URL(ICON_URI + "dynamic.gif"), 100));
+	}
+
+	private static ImageDescriptor getImage(String path) {
+		return ResourceLocator.imageDescriptorFromBundle(PLUGIN_ID, path).get();
+	}
+}
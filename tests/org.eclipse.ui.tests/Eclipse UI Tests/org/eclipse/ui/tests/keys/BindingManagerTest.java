@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -998,4 +999,60 @@ public final class BindingManagerTest {
 				.getBestActiveBindingFor(console);
 		assertEquals(b3.getTriggerSequence(), bestBinding2);
 	}
+
+	/**
+	 * Tests that switching back and forth between sets of active contexts
+	 * reuses the bindings computed for them, and that the cache only keeps the
+	 * most recently used ones.
+	 *
+	 * @throws NotDefinedException
+	 *             If the scheme we try to activate is not defined.
+	 */
+	@Test
+	public void testBindingCache() throws NotDefinedException {
+		final Scheme scheme = bindingManager.getScheme("na");
+		scheme.define("name", "description", null);
+		bindingManager.setActiveScheme(scheme);
+		final int contextCount = 50;
+		final Binding[] bindings = new Binding[contextCount];
+		for (int i = 0; i < contextCount; i++) {
+			final String contextId = "context" + i;
+			contextManager.getContext(contextId).define(contextId, null, null);
+			bindings[i] = new TestBinding("command" + i, "na", contextId, null, null, Binding.SYSTEM, null);
+		}
+		bindingManager.setBindings(bindings);
+
+		// Switching back and forth between two parts.
+		contextManager.setActiveContextIds(contextIds(0));
+		contextManager.setActiveContextIds(contextIds(1));
+		final int hitCount = bindingManager.getCacheHitCount();
+		final int missCount = bindingManager.getCacheMissCount();
+		for (int i = 0; i < 10; i++) {
+			contextManager.setActiveContextIds(contextIds(i % 2));
+			assertSame("The binding of the active context should match", bindings[i % 2],
+					bindingManager.getPerfectMatch(TestBinding.TRIGGER_SEQUENCE));
+		}
+		assertEquals("The bindings should have been found in the cache", hitCount + 10,
+				bindingManager.getCacheHitCount());
+		assertEquals("The bindings should not have been recomputed", missCount, bindingManager.getCacheMissCount());
+
+		// Activating many other sets of contexts evicts the first ones.
+		for (int i = 2; i < contextCount; i++) {
+			contextManager.setActiveContextIds(contextIds(i));
+		}
+		contextManager.setActiveContextIds(contextIds(0));
+		assertEquals("The evicted bindings should have been recomputed", missCount + contextCount - 1,
+				bindingManager.getCacheMissCount());
+		assertSame("The binding of the active context should match", bindings[0],
+				bindingManager.getPerfectMatch(TestBinding.TRIGGER_SEQUENCE));
+
+		// Changing the bindings clears the cache.
+		bindingManager.setBindings(bindings);
+		contextManager.setActiveContextIds(contextIds(1));
+		assertEquals(missCount + contextCount, bindingManager.getCacheMissCount());
+	}
+
+	private static Set<String> contextIds(int i) {
+		return Collections.singleton("context" + i);
+	}
 }
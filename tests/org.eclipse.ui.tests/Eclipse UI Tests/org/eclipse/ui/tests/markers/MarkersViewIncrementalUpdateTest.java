@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.markers;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that the markers view follows marker additions, changes and removals
+ * applied incrementally.
+ */
+@RunWith(JUnit4.class)
+public class MarkersViewIncrementalUpdateTest extends UITestCase {
+
+	private static final long TIMEOUT = 60000;
+
+	private IProject project;
+
+	public MarkersViewIncrementalUpdateTest() {
+		super(MarkersViewIncrementalUpdateTest.class.getSimpleName());
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		project = FileUtil.createProject("MarkersViewIncrementalUpdateTest");
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		FileUtil.deleteProject(project);
+		super.doTearDown();
+	}
+
+	@Test
+	public void testMarkerChangesAreApplied() throws Exception {
+		IFile file = FileUtil.createFile("test.txt", project);
+		IWorkbenchPage page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		MarkersTestMarkersView view = (MarkersTestMarkersView) page.showView("org.eclipse.ui.tests.markerTests");
+
+		IMarker error = createProblem(file, IMarker.SEVERITY_ERROR, "error");
+		IMarker warning = createProblem(file, IMarker.SEVERITY_WARNING, "warning");
+		IMarker removed = createProblem(file, IMarker.SEVERITY_WARNING, "removed");
+		assertShown(view, error, warning, removed);
+
+		removed.delete();
+		// moves the marker to another category
+		warning.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+		IMarker added = createProblem(file, IMarker.SEVERITY_INFO, "added");
+		assertShown(view, error, warning, added);
+
+		error.delete();
+		warning.delete();
+		added.delete();
+		assertShown(view);
+	}
+
+	private static IMarker createProblem(IFile file, int severity, String message) throws CoreException {
+		IMarker marker = file.createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.SEVERITY, severity);
+		marker.setAttribute(IMarker.MESSAGE, message);
+		return marker;
+	}
+
+	private void assertShown(MarkersTestMarkersView view, IMarker... expected) {
+		Set<IMarker> expectedMarkers = new HashSet<>(Arrays.asList(expected));
+		boolean shown = processEventsUntil(() -> shownMarkers(view).equals(expectedMarkers), TIMEOUT);
+		assertTrue("Expected " + expectedMarkers + " but was " + shownMarkers(view), shown);
+	}
+
+	private Set<IMarker> shownMarkers(MarkersTestMarkersView view) {
+		Set<IMarker> markers = new HashSet<>();
+		for (IMarker marker : view.getCurrentMarkers()) {
+			if (project.equals(marker.getResource().getProject())) {
+				markers.add(marker);
+			}
+		}
+		return markers;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2006 IBM Corporation and others.
+ * Copyright (c) 2005, 2020 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 
 package org.eclipse.ui.tests.operations;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -809,6 +810,106 @@ public class OperationsAPITest {
 		}
 	}
 
+	@Test
+	public void testContextChangesInHistory() throws ExecutionException {
+		ObjectUndoContext contextD = new ObjectUndoContext("D");
+		// contexts added and removed while the operations are in the history
+		op1.addContext(contextD);
+		op5.addContext(contextD);
+		op4.removeContext(contextA);
+		op4.addContext(contextB);
+		assertSame("Operation with added context should be undoable", op5, history.getUndoOperation(contextD));
+		assertArrayEquals(new IUndoableOperation[] { op1, op5 }, history.getUndoHistory(contextD));
+		assertArrayEquals(new IUndoableOperation[] { op1, op6 }, history.getUndoHistory(contextA));
+		assertArrayEquals(new IUndoableOperation[] { op2, op4, op5 }, history.getUndoHistory(contextB));
+
+		// matches added while the operations are in the history
+		contextW = new ObjectUndoContext("W");
+		assertEquals(0, history.getUndoHistory(contextW).length);
+		contextW.addMatch(contextA);
+		contextW.addMatch(contextD);
+		assertArrayEquals(new IUndoableOperation[] { op1, op5, op6 }, history.getUndoHistory(contextW));
+		contextC.addMatch(contextW);
+		assertSame("Operation of matching context should be undoable", op6, history.getUndoOperation(contextW));
+		assertArrayEquals(new IUndoableOperation[] { op1, op2, op3, op5, op6 }, history.getUndoHistory(contextW));
+		contextC.removeMatch(contextW);
+		contextW.removeMatch(contextA);
+		assertArrayEquals(new IUndoableOperation[] { op1, op5 }, history.getUndoHistory(contextW));
+
+		// contexts of equal objects match
+		ObjectUndoContext otherA = new ObjectUndoContext("A");
+		assertArrayEquals(new IUndoableOperation[] { op1, op6 }, history.getUndoHistory(otherA));
+
+		// the order is kept after moving operations to the redo history and back
+		history.undo(contextD, null, null);
+		history.undo(contextD, null, null);
+		assertArrayEquals(new IUndoableOperation[] { op5, op1 }, history.getRedoHistory(contextD));
+		history.redo(contextD, null, null);
+		assertArrayEquals(new IUndoableOperation[] { op1 }, history.getUndoHistory(contextD));
+		assertSame("Most recent operation should be redone", op1, history.getUndoOperation(contextA));
+		assertArrayEquals(new IUndoableOperation[] { op2, op3, op4, op6, op1 },
+				history.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT));
+	}
+
+	@Test
+	public void testReplaceOperationOrder() {
+		IUndoableOperation replacement1 = new TestOperation("replacement1");
+		replacement1.addContext(contextA);
+		IUndoableOperation replacement2 = new TestOperation("replacement2");
+		replacement2.addContext(contextA);
+		replacement2.addContext(contextB);
+		history.replaceOperation(op4, new IUndoableOperation[] { replacement1, replacement2 });
+		assertArrayEquals(new IUndoableOperation[] { op1, replacement2, replacement1, op6 },
+				history.getUndoHistory(contextA));
+		assertArrayEquals(new IUndoableOperation[] { op2, replacement2, op5 }, history.getUndoHistory(contextB));
+		assertSame("Most recent operation should not change", op5, history.getUndoOperation(contextB));
+		assertEquals(7, history.getUndoHistory(IOperationHistory.GLOBAL_UNDO_CONTEXT).length);
+	}
+
+	/*
+	 * Benchmark of the queries of the history with many contexts, like the
+	 * editors opened in a workbench, and workspace wide operations in all.
+	 */
+	@Test
+	public void testStressTestManyContexts() throws ExecutionException {
+		int contextCount = STRESS_NUM;
+		int operationsPerContext = 10;
+		ObjectUndoContext workspaceContext = new ObjectUndoContext("Workspace");
+		ObjectUndoContext[] contexts = new ObjectUndoContext[contextCount];
+		IUndoableOperation[] lastOperations = new IUndoableOperation[contextCount];
+		for (int i = 0; i < contextCount; i++) {
+			contexts[i] = new ObjectUndoContext("Editor " + i);
+		}
+		for (int j = 0; j < operationsPerContext; j++) {
+			for (int i = 0; i < contextCount; i++) {
+				IUndoableOperation op = new TestOperation("test");
+				op.addContext(contexts[i]);
+				if (i % 1000 == 0) {
+					op.addContext(workspaceContext);
+				}
+				history.execute(op, null, null);
+				lastOperations[i] = op;
+			}
+		}
+		for (int i = 0; i < contextCount; i++) {
+			assertSame("Most recent operation of the context should be undoable", lastOperations[i],
+					history.getUndoOperation(contexts[i]));
+			assertTrue("Context should be undoable", history.canUndo(contexts[i]));
+			assertEquals(operationsPerContext, history.getUndoHistory(contexts[i]).length);
+		}
+		// the workspace context is limited like the others
+		assertEquals(history.getLimit(workspaceContext), history.getUndoHistory(workspaceContext).length);
+		for (int i = 0; i < contextCount; i += 2) {
+			history.undo(contexts[i], null, null);
+			assertSame("Undone operation should be redoable", lastOperations[i],
+					history.getRedoOperation(contexts[i]));
+		}
+		for (int i = 0; i < contextCount; i++) {
+			history.dispose(contexts[i], true, true, true);
+			assertFalse("Disposed context should not be undoable", history.canUndo(contexts[i]));
+		}
+	}
+
 	@Test
 	public void test159305() throws ExecutionException {
 		final int [] approvalCount = new int[1];
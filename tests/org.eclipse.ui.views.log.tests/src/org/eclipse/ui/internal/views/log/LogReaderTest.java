@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2020 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.ui.IMemento;
+import org.eclipse.ui.XMLMemento;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that the {@link LogReader} gives the same result when it starts
+ * parsing at the records located with the {@link LogFileIndex} as when it
+ * parses the whole tail of the log file.
+ */
+public class LogReaderTest {
+
+	/** The size of the tail of the log files which is read, in megabytes */
+	private static final int MAX_TAIL_SIZE = 1;
+
+	private static final int[] LIMITS = { 1, 7, 100, 5000 };
+
+	private static final String STACK_LINE = "\tat org.eclipse.ui.internal.Workbench.runUI(Workbench.java:1)";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testShortSessions() throws IOException {
+		for (int seed = 0; seed < 4; seed++) {
+			File file = writeLog(new Random(seed), 40);
+			assertSameEntries(file);
+		}
+	}
+
+	@Test
+	public void testSessionsLongerThanTail() throws IOException {
+		for (int seed = 0; seed < 2; seed++) {
+			File file = writeLog(new Random(seed), 2000);
+			assertSameEntries(file);
+		}
+	}
+
+	@Test
+	public void testAppendedRecords() throws IOException {
+		Random random = new Random(1);
+		File file = writeLog(random, 40);
+		assertSameEntries(file);
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+				StandardOpenOption.APPEND)) {
+			writeSession(writer, random, "2020-02-01 09:00:00.000", 300);
+		}
+		assertSameEntries(file);
+	}
+
+	@Test
+	public void testUnterminatedLastLine() throws IOException {
+		File file = writeLog(new Random(5), 40);
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+				StandardOpenOption.APPEND)) {
+			writer.write("!ENTRY org.eclipse.ui 4 0 2020-01-01 11:00:00.000");
+		}
+		assertSameEntries(file);
+	}
+
+	/**
+	 * The entries preceding the first session header of the tail belong to a
+	 * fake session, even if a session header precedes the tail.
+	 */
+	@Test
+	public void testSessionHeaderBeforeTail() throws IOException {
+		File file = folder.newFile("sessionless.log");
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writeSession(writer, new Random(2), "2020-01-01 10:00:00.000", 4000);
+		}
+		assertTrue(file.length() > 2 * MAX_TAIL_SIZE * 1024 * 1024);
+
+		List<LogEntry> entries = new ArrayList<>();
+		LogSession session = LogReader.parseLogFile(file, MAX_TAIL_SIZE, entries, createMemento(true, 5, false, true),
+				true);
+		assertEquals(null, session.getDate());
+		assertEquals(5, entries.size());
+		assertSameEntries(file);
+	}
+
+	/**
+	 * A session header without date following the entries which precede the
+	 * first session header of the tail does not replace their fake session.
+	 */
+	@Test
+	public void testUndatedSessionHeaderAfterSessionlessEntries() throws IOException {
+		File file = folder.newFile("undated.log");
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writeSession(writer, new Random(6), "2020-01-01 10:00:00.000", 4000);
+			writeSession(writer, new Random(7), "unknown", 20);
+		}
+		assertTrue(file.length() > 2 * MAX_TAIL_SIZE * 1024 * 1024);
+
+		List<LogEntry> entries = new ArrayList<>();
+		LogSession session = LogReader.parseLogFile(file, MAX_TAIL_SIZE, entries, createMemento(true, 5, false, true),
+				true);
+		assertEquals(null, session.getSessionData());
+		assertEquals(5, entries.size());
+		assertSameEntries(file);
+	}
+
+	/**
+	 * A session header which is older than the current session does not clear
+	 * the entries read before it.
+	 */
+	@Test
+	public void testOlderSessionHeader() throws IOException {
+		File file = folder.newFile("older.log");
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writeSession(writer, new Random(3), "2020-01-02 10:00:00.000", 20);
+			writeSession(writer, new Random(4), "2020-01-01 10:00:00.000", 3);
+		}
+
+		List<LogEntry> entries = new ArrayList<>();
+		LogSession session = LogReader.parseLogFile(file, MAX_TAIL_SIZE, entries, createMemento(true, 10, false, true),
+				true);
+		LogSession newest = new LogSession();
+		newest.setDate("2020-01-02 10:00:00.000");
+		assertEquals(newest.getDate(), session.getDate());
+		assertEquals(10, entries.size());
+		assertSameEntries(file);
+	}
+
+	private void assertSameEntries(File file) {
+		for (boolean useLimit : new boolean[] { true, false }) {
+			for (int limit : LIMITS) {
+				for (boolean allSessions : new boolean[] { true, false }) {
+					for (boolean info : new boolean[] { true, false }) {
+						IMemento memento = createMemento(useLimit, limit, allSessions, info);
+						List<LogEntry> expected = new ArrayList<>();
+						LogSession expectedSession = LogReader.parseLogFile(file, MAX_TAIL_SIZE, expected, memento,
+								false);
+						List<LogEntry> actual = new ArrayList<>();
+						LogSession actualSession = LogReader.parseLogFile(file, MAX_TAIL_SIZE, actual, memento, true);
+						String message = file.getName() + " useLimit=" + useLimit + " limit=" + limit
+								+ " allSessions=" + allSessions + " info=" + info;
+						assertEquals(message, describe(expectedSession, expected), describe(actualSession, actual));
+					}
+				}
+				if (!useLimit)
+					break;
+			}
+		}
+	}
+
+	private static IMemento createMemento(boolean useLimit, int limit, boolean allSessions, boolean info) {
+		IMemento memento = XMLMemento.createWriteRoot("logView");
+		memento.putString(LogView.P_USE_LIMIT, Boolean.toString(useLimit));
+		memento.putInteger(LogView.P_LOG_LIMIT, limit);
+		memento.putString(LogView.P_SHOW_ALL_SESSIONS, Boolean.toString(allSessions));
+		memento.putString(LogView.P_LOG_INFO, Boolean.toString(info));
+		memento.putString(LogView.P_LOG_WARNING, "true");
+		memento.putString(LogView.P_LOG_ERROR, "true");
+		memento.putString(LogView.P_LOG_OK, "true");
+		return memento;
+	}
+
+	private static String describe(LogSession session, List<LogEntry> entries) {
+		StringWriter result = new StringWriter();
+		PrintWriter writer = new PrintWriter(result);
+		describe(writer, session);
+		for (LogEntry entry : entries) {
+			describe(writer, entry, 0);
+		}
+		writer.flush();
+		return result.toString();
+	}
+
+	private static void describe(PrintWriter writer, LogSession session) {
+		if (session == null) {
+			writer.println("no session");
+		} else {
+			writer.println("session " + session.getDate());
+			writer.println(session.getSessionData());
+		}
+	}
+
+	private static void describe(PrintWriter writer, LogEntry entry, int depth) {
+		writer.println("entry " + depth);
+		describe(writer, entry.getSession());
+		entry.write(writer);
+		for (Object child : entry.getChildren(null)) {
+			describe(writer, (LogEntry) child, depth + 1);
+		}
+	}
+
+	/**
+	 * Writes a log of a few megabytes, starting with entries which do not belong
+	 * to a session and with sessions which are not always more recent than the
+	 * previous ones or have no date.
+	 */
+	private File writeLog(Random random, int maxSessionEntries) throws IOException {
+		File file = folder.newFile();
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			int day = 10;
+			writeEntries(writer, random, 1 + random.nextInt(20));
+			while (file.length() < 3 * MAX_TAIL_SIZE * 1024 * 1024) {
+				String date;
+				int kind = random.nextInt(10);
+				if (kind == 0) {
+					date = "unknown";
+				} else if (kind < 3) {
+					date = "2020-01-0" + (1 + random.nextInt(9)) + " 10:00:00.000";
+				} else {
+					date = "2020-01-" + day++ + " 10:00:00.000";
+				}
+				writeSession(writer, random, date, random.nextInt(maxSessionEntries));
+				writer.flush();
+			}
+		}
+		return file;
+	}
+
+	private static void writeSession(Writer writer, Random random, String date, int entryCount) throws IOException {
+		writer.write(LogSession.SESSION + " " + date + " ------------------------------------------\n");
+		writer.write("eclipse.buildId=unknown\n");
+		writer.write("java.version=1.8.0_" + random.nextInt(300) + "\n");
+		writer.write("Command-line arguments:  -os linux -ws gtk -arch x86_64\n\n");
+		writeEntries(writer, random, entryCount);
+	}
+
+	private static void writeEntries(Writer writer, Random random, int entryCount) throws IOException {
+		int[] severities = { 0, 1, 2, 4 };
+		for (int i = 0; i < entryCount; i++) {
+			int second = random.nextInt(60);
+			String date = "2020-01-01 11:00:" + (second < 10 ? "0" : "") + second + ".000";
+			writer.write("!ENTRY org.eclipse.ui " + severities[random.nextInt(severities.length)] + " " + i + " "
+					+ date + "\n");
+			writer.write("!MESSAGE Entry " + random.nextInt() + "\n");
+			if (random.nextBoolean()) {
+				writer.write("continued on a second line\n");
+			}
+			writeStack(writer, random);
+			int subEntries = random.nextInt(4) == 0 ? 1 + random.nextInt(3) : 0;
+			for (int j = 0; j < subEntries; j++) {
+				writer.write("!SUBENTRY " + (1 + random.nextInt(j + 1)) + " org.eclipse.ui 4 0 " + date + "\n");
+				writer.write("!MESSAGE Child " + j + "\n");
+				writeStack(writer, random);
+			}
+			writer.write("\n");
+		}
+	}
+
+	private static void writeStack(Writer writer, Random random) throws IOException {
+		if (random.nextBoolean()) {
+			writer.write("!STACK 0\njava.lang.IllegalStateException\n");
+			int lines = random.nextInt(40);
+			for (int i = 0; i < lines; i++) {
+				writer.write(STACK_LINE + "\n");
+			}
+		}
+	}
+}